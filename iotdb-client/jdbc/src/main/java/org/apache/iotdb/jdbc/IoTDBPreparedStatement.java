@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.jdbc;
 
+import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.service.rpc.thrift.IClientRPCService.Iface;
 
 import org.apache.thrift.TException;
@@ -64,6 +65,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class IoTDBPreparedStatement extends IoTDBStatement implements PreparedStatement {
 
@@ -74,6 +77,20 @@ public class IoTDBPreparedStatement extends IoTDBStatement implements PreparedSt
   /** save the SQL parameters as (paramLoc,paramValue) pairs. */
   private final Map<Integer, String> parameters = new HashMap<>();
 
+  private static final AtomicLong PREPARED_STATEMENT_ID = new AtomicLong(0);
+
+  /**
+   * Name of the statement prepared on server for the query of table model, so that the server
+   * parses it once and reuses its analysis. It's null if the statement hasn't been prepared.
+   */
+  private String preparedName;
+
+  // the prepared statement belongs to the server session, it's lost after reconnecting
+  private long preparedSessionId;
+
+  // whether the query can't be prepared or executed on server, e.g. the server is of old version
+  private boolean serverPrepareDisabled = false;
+
   IoTDBPreparedStatement(
       IoTDBConnection connection,
       Iface client,
@@ -106,14 +123,109 @@ public class IoTDBPreparedStatement extends IoTDBStatement implements PreparedSt
 
   @Override
   public boolean execute() throws SQLException {
+    String executeSql = createExecuteSql();
+    if (executeSql != null) {
+      try {
+        return super.execute(executeSql);
+      } catch (IoTDBSQLException e) {
+        onPreparedStatementLost(e);
+      }
+    }
     return super.execute(createCompleteSql(sql, parameters));
   }
 
   @Override
   public ResultSet executeQuery() throws SQLException {
+    String executeSql = createExecuteSql();
+    if (executeSql != null) {
+      try {
+        return super.executeQuery(executeSql);
+      } catch (IoTDBSQLException e) {
+        onPreparedStatementLost(e);
+      }
+    }
     return super.executeQuery(createCompleteSql(sql, parameters));
   }
 
+  @Override
+  public void close() throws SQLException {
+    if (preparedName != null) {
+      try {
+        super.execute("DEALLOCATE PREPARE " + preparedName);
+      } catch (SQLException e) {
+        logger.debug("Failed to deallocate prepared statement {}", preparedName, e);
+      }
+      preparedName = null;
+    }
+    super.close();
+  }
+
+  private boolean canPrepareOnServer() {
+    if (serverPrepareDisabled || !"table".equalsIgnoreCase(getSqlDialect())) {
+      return false;
+    }
+    String upperSql = sql.trim().toUpperCase(Locale.ROOT);
+    return upperSql.startsWith("SELECT") || upperSql.startsWith("WITH");
+  }
+
+  /**
+   * Prepare the query on server if it hasn't been prepared in current session, and create the
+   * EXECUTE statement which binds the parameters to it. Returns null if the query should be
+   * executed with the parameters substituted in client.
+   */
+  private String createExecuteSql() throws SQLException {
+    if (!canPrepareOnServer()) {
+      return null;
+    }
+    int parameterCount = splitSqlStatement(sql).size() - 1;
+    StringJoiner values = new StringJoiner(", ", " USING ", "");
+    for (int i = 1; i <= parameterCount; i++) {
+      if (!parameters.containsKey(i)) {
+        throw new SQLException("Parameter #" + i + " is unset");
+      }
+      values.add(parameters.get(i));
+    }
+
+    long sessionId = ((IoTDBConnection) getConnection()).getSessionId();
+    if (preparedName == null || preparedSessionId != sessionId) {
+      String name = "jdbc_prepared_" + PREPARED_STATEMENT_ID.incrementAndGet();
+      try {
+        super.execute("PREPARE " + name + " FROM " + sql);
+      } catch (IoTDBSQLException e) {
+        disableServerPrepare(e);
+        return null;
+      }
+      preparedName = name;
+      preparedSessionId = sessionId;
+    }
+    return parameterCount == 0 ? "EXECUTE " + preparedName : "EXECUTE " + preparedName + values;
+  }
+
+  /**
+   * The server of old version can't parse PREPARE, so the query is executed with the parameters
+   * substituted in client from now on. A syntax error of the query itself is reported again by the
+   * fallback, and the statement can't be prepared anyway. Other errors are thrown.
+   */
+  private void disableServerPrepare(IoTDBSQLException e) throws IoTDBSQLException {
+    if (e.getErrorCode() != TSStatusCode.SQL_PARSE_ERROR.getStatusCode()) {
+      throw e;
+    }
+    logger.debug("Failed to prepare {} on server", sql, e);
+    serverPrepareDisabled = true;
+  }
+
+  /**
+   * The prepared statement is unknown to the server, e.g. it has been deallocated, so the query is
+   * executed in client this time and prepared again on the next execution. Other errors are thrown.
+   */
+  private void onPreparedStatementLost(IoTDBSQLException e) throws IoTDBSQLException {
+    if (e.getErrorCode() != TSStatusCode.PREPARED_STATEMENT_NOT_EXIST.getStatusCode()) {
+      throw e;
+    }
+    logger.debug("Prepared statement {} doesn't exist on server", preparedName, e);
+    preparedName = null;
+  }
+
   @Override
   public int executeUpdate() throws SQLException {
     return super.executeUpdate(createCompleteSql(sql, parameters));
@@ -22,6 +22,7 @@ package org.apache.iotdb.jdbc;
 import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.service.rpc.thrift.IClientRPCService.Iface;
+import org.apache.iotdb.service.rpc.thrift.TSCloseOperationReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementReq;
 import org.apache.iotdb.service.rpc.thrift.TSExecuteStatementResp;
 
@@ -35,11 +36,13 @@ import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.time.ZoneId;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -400,4 +403,112 @@ public class IoTDBPreparedStatementTest {
         "INSERT INTO root.ln.wf01.wt02(time,a,b,c,d,e,f) VALUES(2020-01-01T10:10:10,false,123,123234345,123.423,-1323.0,'abc')",
         argument.getValue().getStatement());
   }
+
+  @SuppressWarnings("resource")
+  @Test
+  public void testTableModelQueryPreparedOnServer() throws Exception {
+    when(connection.getSqlDialect()).thenReturn("table");
+    when(client.closeOperation(any(TSCloseOperationReq.class))).thenReturn(Status_SUCCESS);
+    String sql = "SELECT s1 FROM table1 WHERE id1 = ? and s2 > ?";
+    IoTDBPreparedStatement ps =
+        new IoTDBPreparedStatement(connection, client, sessionId, sql, zoneId);
+    ps.setString(1, "d1");
+    ps.setInt(2, 10);
+    ps.execute();
+    ps.setString(1, "d2");
+    ps.setInt(2, 20);
+    ps.execute();
+    ps.close();
+
+    ArgumentCaptor<TSExecuteStatementReq> argument =
+        ArgumentCaptor.forClass(TSExecuteStatementReq.class);
+    verify(client, times(4)).executeStatementV2(argument.capture());
+    List<TSExecuteStatementReq> requests = argument.getAllValues();
+    String name = requests.get(0).getStatement().split(" ")[1];
+    assertEquals("PREPARE " + name + " FROM " + sql, requests.get(0).getStatement());
+    assertEquals("EXECUTE " + name + " USING 'd1', 10", requests.get(1).getStatement());
+    assertEquals("EXECUTE " + name + " USING 'd2', 20", requests.get(2).getStatement());
+    assertEquals("DEALLOCATE PREPARE " + name, requests.get(3).getStatement());
+  }
+
+  @SuppressWarnings("resource")
+  @Test
+  public void testTableModelQueryFallbackWhenPrepareFailed() throws Exception {
+    when(connection.getSqlDialect()).thenReturn("table");
+    TSExecuteStatementResp failedResp =
+        new TSExecuteStatementResp(new TSStatus(TSStatusCode.SQL_PARSE_ERROR.getStatusCode()));
+    when(client.executeStatementV2(any(TSExecuteStatementReq.class)))
+        .thenReturn(failedResp)
+        .thenReturn(execStatementResp);
+    String sql = "SELECT s1 FROM table1 WHERE s2 > ?";
+    IoTDBPreparedStatement ps =
+        new IoTDBPreparedStatement(connection, client, sessionId, sql, zoneId);
+    ps.setInt(1, 10);
+    ps.execute();
+    ps.setInt(1, 20);
+    ps.execute();
+
+    ArgumentCaptor<TSExecuteStatementReq> argument =
+        ArgumentCaptor.forClass(TSExecuteStatementReq.class);
+    verify(client, times(3)).executeStatementV2(argument.capture());
+    List<TSExecuteStatementReq> requests = argument.getAllValues();
+    assertEquals("SELECT s1 FROM table1 WHERE s2 > 10", requests.get(1).getStatement());
+    assertEquals("SELECT s1 FROM table1 WHERE s2 > 20", requests.get(2).getStatement());
+  }
+
+  @SuppressWarnings("resource")
+  @Test
+  public void testTableModelQueryErrorNotFallback() throws Exception {
+    when(connection.getSqlDialect()).thenReturn("table");
+    TSExecuteStatementResp failedResp =
+        new TSExecuteStatementResp(new TSStatus(TSStatusCode.SEMANTIC_ERROR.getStatusCode()));
+    when(client.executeStatementV2(any(TSExecuteStatementReq.class)))
+        .thenReturn(execStatementResp)
+        .thenReturn(failedResp)
+        .thenReturn(execStatementResp);
+    String sql = "SELECT s1 FROM table1 WHERE s2 > ?";
+    IoTDBPreparedStatement ps =
+        new IoTDBPreparedStatement(connection, client, sessionId, sql, zoneId);
+    ps.setString(1, "'a'");
+    IoTDBSQLException e = assertThrows(IoTDBSQLException.class, ps::execute);
+    assertEquals(TSStatusCode.SEMANTIC_ERROR.getStatusCode(), e.getErrorCode());
+    ps.setInt(1, 20);
+    ps.execute();
+
+    ArgumentCaptor<TSExecuteStatementReq> argument =
+        ArgumentCaptor.forClass(TSExecuteStatementReq.class);
+    verify(client, times(3)).executeStatementV2(argument.capture());
+    List<TSExecuteStatementReq> requests = argument.getAllValues();
+    String name = requests.get(0).getStatement().split(" ")[1];
+    assertEquals("EXECUTE " + name + " USING 20", requests.get(2).getStatement());
+  }
+
+  @SuppressWarnings("resource")
+  @Test
+  public void testTableModelQueryPreparedAgainWhenLost() throws Exception {
+    when(connection.getSqlDialect()).thenReturn("table");
+    TSExecuteStatementResp failedResp =
+        new TSExecuteStatementResp(
+            new TSStatus(TSStatusCode.PREPARED_STATEMENT_NOT_EXIST.getStatusCode()));
+    when(client.executeStatementV2(any(TSExecuteStatementReq.class)))
+        .thenReturn(execStatementResp)
+        .thenReturn(failedResp)
+        .thenReturn(execStatementResp);
+    String sql = "SELECT s1 FROM table1 WHERE s2 > ?";
+    IoTDBPreparedStatement ps =
+        new IoTDBPreparedStatement(connection, client, sessionId, sql, zoneId);
+    ps.setInt(1, 10);
+    ps.execute();
+    ps.setInt(1, 20);
+    ps.execute();
+
+    ArgumentCaptor<TSExecuteStatementReq> argument =
+        ArgumentCaptor.forClass(TSExecuteStatementReq.class);
+    verify(client, times(5)).executeStatementV2(argument.capture());
+    List<TSExecuteStatementReq> requests = argument.getAllValues();
+    String name = requests.get(3).getStatement().split(" ")[1];
+    assertEquals("SELECT s1 FROM table1 WHERE s2 > 10", requests.get(2).getStatement());
+    assertEquals("PREPARE " + name + " FROM " + sql, requests.get(3).getStatement());
+    assertEquals("EXECUTE " + name + " USING 20", requests.get(4).getStatement());
+  }
 }
@@ -144,6 +144,7 @@ public enum TSStatusCode {
   QUERY_TIMEOUT(720),
   PLAN_FAILED_NETWORK_PARTITION(721),
   CANNOT_FETCH_FI_STATE(722),
+  PREPARED_STATEMENT_NOT_EXIST(723),
 
   // Arithmetic
   NUMERIC_VALUE_OUT_OF_RANGE(750),
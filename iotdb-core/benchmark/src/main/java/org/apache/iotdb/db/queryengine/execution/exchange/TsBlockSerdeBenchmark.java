@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.exchange;
+
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.TsBlockSerde;
+import org.apache.tsfile.utils.Binary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Serialize and deserialize the TsBlocks transferred by the exchange operators. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TsBlockSerdeBenchmark {
+
+  private static final List<TSDataType> DATA_TYPES =
+      Arrays.asList(
+          TSDataType.INT64,
+          TSDataType.DOUBLE,
+          TSDataType.INT32,
+          TSDataType.TEXT,
+          TSDataType.BOOLEAN);
+
+  @Param({"1000", "10000"})
+  private int positionCount;
+
+  @Param({"0", "0.5"})
+  private double nullRatio;
+
+  private final TsBlockSerde serde = new TsBlockSerde();
+
+  private TsBlock tsBlock;
+  private ByteBuffer serialized;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    Random random = new Random(positionCount);
+    TsBlockBuilder builder = new TsBlockBuilder(positionCount, DATA_TYPES);
+    for (int i = 0; i < positionCount; i++) {
+      builder.getTimeColumnBuilder().writeLong(i);
+      for (int j = 0; j < DATA_TYPES.size(); j++) {
+        ColumnBuilder columnBuilder = builder.getColumnBuilder(j);
+        if (random.nextDouble() < nullRatio) {
+          columnBuilder.appendNull();
+          continue;
+        }
+        switch (DATA_TYPES.get(j)) {
+          case INT64:
+            columnBuilder.writeLong(random.nextLong());
+            break;
+          case DOUBLE:
+            columnBuilder.writeDouble(random.nextDouble());
+            break;
+          case INT32:
+            columnBuilder.writeInt(random.nextInt());
+            break;
+          case TEXT:
+            columnBuilder.writeBinary(new Binary("value" + i, TSFileConfig.STRING_CHARSET));
+            break;
+          default:
+            columnBuilder.writeBoolean(random.nextBoolean());
+            break;
+        }
+      }
+      builder.declarePosition();
+    }
+    tsBlock = builder.build();
+    serialized = serde.serialize(tsBlock);
+  }
+
+  @Benchmark
+  public ByteBuffer serialize() throws IOException {
+    return serde.serialize(tsBlock);
+  }
+
+  @Benchmark
+  public TsBlock deserialize() {
+    // deserialize moves the position of buffer
+    return serde.deserialize(serialized.duplicate());
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.read.common.block.column.BinaryColumn;
+import org.apache.tsfile.read.common.block.column.LongColumn;
+import org.apache.tsfile.read.common.type.LongType;
+import org.apache.tsfile.read.common.type.StringType;
+import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.utils.Binary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.UpdateMemory.NOOP;
+
+/**
+ * Insert the group keys of pages into {@link FlatGroupByHash} and look up the group ids of them,
+ * which are the hot paths of hash aggregation and hash join.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FlatGroupByHashBenchmark {
+
+  private static final int PAGE_SIZE = 10000;
+  private static final int PAGE_COUNT = 10;
+
+  @Param({"INT64", "STRING"})
+  private String keyType;
+
+  @Param({"1000", "100000"})
+  private int groupCount;
+
+  private List<Type> types;
+  private Column[][] pages;
+
+  // hash which contains all the groups for looking up
+  private FlatGroupByHash groupByHash;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    boolean isLong = "INT64".equals(keyType);
+    types = Collections.singletonList(isLong ? LongType.INT64 : StringType.STRING);
+    Random random = new Random(groupCount);
+    pages = new Column[PAGE_COUNT][];
+    for (int i = 0; i < PAGE_COUNT; i++) {
+      long[] keys = new long[PAGE_SIZE];
+      Binary[] binaryKeys = new Binary[PAGE_SIZE];
+      for (int j = 0; j < PAGE_SIZE; j++) {
+        keys[j] = random.nextInt(groupCount);
+        binaryKeys[j] = new Binary("device_" + keys[j], TSFileConfig.STRING_CHARSET);
+      }
+      pages[i] =
+          new Column[] {
+            isLong
+                ? new LongColumn(PAGE_SIZE, Optional.empty(), keys)
+                : new BinaryColumn(PAGE_SIZE, Optional.empty(), binaryKeys)
+          };
+    }
+    groupByHash = new FlatGroupByHash(types, false, GroupByHash.DEFAULT_GROUP_NUMBER, NOOP);
+    for (Column[] page : pages) {
+      groupByHash.addPage(page);
+    }
+  }
+
+  @Benchmark
+  public FlatGroupByHash insert(Blackhole blackhole) {
+    FlatGroupByHash hash =
+        new FlatGroupByHash(types, false, GroupByHash.DEFAULT_GROUP_NUMBER, NOOP);
+    for (Column[] page : pages) {
+      blackhole.consume(hash.getGroupIds(page));
+    }
+    return hash;
+  }
+
+  @Benchmark
+  public void lookup(Blackhole blackhole) {
+    for (Column[] page : pages) {
+      blackhole.consume(groupByHash.getExistingGroupIds(page));
+    }
+  }
+}
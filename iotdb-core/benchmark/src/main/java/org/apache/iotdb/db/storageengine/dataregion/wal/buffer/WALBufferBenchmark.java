@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.wal.buffer;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertRowNode;
+import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALMode;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Throughput of writing InsertRowNodes into one {@link WALBuffer} by concurrent writers. The number
+ * of writers can be changed by the -t option of JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WALBufferBenchmark {
+
+  private static final TSDataType[] DATA_TYPES =
+      new TSDataType[] {
+        TSDataType.DOUBLE,
+        TSDataType.FLOAT,
+        TSDataType.INT64,
+        TSDataType.INT32,
+        TSDataType.BOOLEAN,
+        TSDataType.TEXT
+      };
+
+  // writers wait until their entries are fsynced in SYNC mode and don't wait in ASYNC mode
+  @Param({"SYNC", "ASYNC"})
+  private WALMode walMode;
+
+  private File logDirectory;
+  private WALBuffer walBuffer;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    IoTDBDescriptor.getInstance().getConfig().setWalMode(walMode);
+    logDirectory = Files.createTempDirectory("wal-benchmark").toFile();
+    walBuffer = new WALBuffer("0", logDirectory.getPath());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    walBuffer.close();
+    FileUtils.deleteFileOrDirectory(logDirectory);
+  }
+
+  @State(Scope.Thread)
+  public static class Writer {
+
+    private static final AtomicInteger WRITER_ID = new AtomicInteger();
+
+    private final int memTableId = WRITER_ID.getAndIncrement();
+    private PartialPath devicePath;
+    private Object[] values;
+    private MeasurementSchema[] schemas;
+    private long time;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IllegalPathException {
+      devicePath = new PartialPath("root.benchmark.d" + memTableId);
+      values =
+          new Object[] {
+            1.0d, 2f, 10000L, 100, false, new Binary("text", TSFileConfig.STRING_CHARSET)
+          };
+      schemas = new MeasurementSchema[DATA_TYPES.length];
+      for (int i = 0; i < DATA_TYPES.length; i++) {
+        schemas[i] = new MeasurementSchema("s" + (i + 1), DATA_TYPES[i]);
+      }
+    }
+
+    private InsertRowNode nextInsertRowNode() {
+      InsertRowNode insertRowNode =
+          new InsertRowNode(
+              new PlanNodeId(""),
+              devicePath,
+              false,
+              new String[] {"s1", "s2", "s3", "s4", "s5", "s6"},
+              DATA_TYPES,
+              time++,
+              values,
+              false);
+      insertRowNode.setMeasurementSchemas(schemas);
+      return insertRowNode;
+    }
+  }
+
+  @Benchmark
+  public WALEntry write(Writer writer) {
+    boolean sync = walMode == WALMode.SYNC;
+    WALEntry walEntry = new WALInfoEntry(writer.memTableId, writer.nextInsertRowNode(), sync);
+    walBuffer.write(walEntry);
+    if (sync) {
+      walEntry.getWalFlushListener().waitForResult();
+    }
+    return walEntry;
+  }
+}
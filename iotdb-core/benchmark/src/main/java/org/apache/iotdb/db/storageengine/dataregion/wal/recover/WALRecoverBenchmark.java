@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.wal.recover;
+
+import org.apache.iotdb.commons.concurrent.ExceptionalCountDownLatch;
+import org.apache.iotdb.commons.conf.CommonDescriptor;
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.consensus.ConsensusFactory;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNodeId;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.write.InsertTabletNode;
+import org.apache.iotdb.db.storageengine.dataregion.memtable.IMemTable;
+import org.apache.iotdb.db.storageengine.dataregion.memtable.PrimitiveMemTable;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALBuffer;
+import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALInfoEntry;
+import org.apache.iotdb.db.storageengine.dataregion.wal.checkpoint.CheckpointManager;
+import org.apache.iotdb.db.storageengine.dataregion.wal.checkpoint.MemTableInfo;
+import org.apache.iotdb.db.storageengine.dataregion.wal.recover.file.UnsealedTsFileRecoverPerformer;
+import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALMode;
+import org.apache.iotdb.db.storageengine.dataregion.wal.utils.listener.WALRecoverListener;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.TSRecord;
+import org.apache.tsfile.write.record.datapoint.LongDataPoint;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time of recovering the unsealed TsFiles of one wal node from a synthetic wal, which holds the
+ * interleaved logs of several memTables in many wal files. The wal and the checkpoints are written
+ * once, and copied into the wal directory before each iteration because recovery consumes them.
+ * walRecoverThreadNum = 0 recovers sequentially.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class WALRecoverBenchmark {
+
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+  private static final String DATABASE = "root.benchmark";
+  private static final String DATA_REGION_ID = "0";
+  private static final String WAL_NODE_IDENTIFIER = "0";
+  private static final String[] MEASUREMENTS = new String[] {"s1", "s2", "s3", "s4"};
+  private static final int ROWS_PER_TABLET = 100;
+
+  @Param({"0", "2", "4"})
+  private int walRecoverThreadNum;
+
+  @Param({"8"})
+  private int memTableNum;
+
+  @Param({"64"})
+  private int walFileNum;
+
+  private File baseDirectory;
+  private File templateDirectory;
+  private File walDirectory;
+  private File dataDirectory;
+  private final List<TsFileResource> tsFileResources = new ArrayList<>();
+  private final List<WALRecoverListener> recoverListeners = new ArrayList<>();
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    baseDirectory = Files.createTempDirectory("wal-recover-benchmark").toFile();
+    templateDirectory = new File(baseDirectory, "template");
+    walDirectory = new File(baseDirectory, "wal");
+    dataDirectory = new File(baseDirectory, "data");
+    CommonDescriptor.getInstance().getConfig().setWalDirs(new String[] {walDirectory.getPath()});
+    config.setWalRecoverThreadNum(walRecoverThreadNum);
+    // recovered wal nodes are deleted instead of being registered to the WALManager
+    config.setDataRegionConsensusProtocolClass(ConsensusFactory.RATIS_CONSENSUS);
+    config.setWalMode(WALMode.ASYNC);
+    config.setWalFileSizeThresholdInByte(1024 * 1024);
+    writeWAL();
+  }
+
+  /** Write the checkpoints of all memTables, then their logs in turn until enough wal files. */
+  private void writeWAL() throws Exception {
+    WALBuffer walBuffer = new WALBuffer(WAL_NODE_IDENTIFIER, templateDirectory.getPath());
+    CheckpointManager checkpointManager = walBuffer.getCheckpointManager();
+    long firstValidVersionId = walBuffer.getCurrentWALFileVersion();
+    List<Long> memTableIds = new ArrayList<>();
+    for (int i = 0; i < memTableNum; i++) {
+      IMemTable memTable = new PrimitiveMemTable(DATABASE, DATA_REGION_ID);
+      MemTableInfo memTableInfo =
+          new MemTableInfo(memTable, getTsFile(i).getAbsolutePath(), firstValidVersionId);
+      checkpointManager.makeCreateMemTableCPInMemory(memTableInfo);
+      checkpointManager.makeCreateMemTableCPOnDisk(memTableInfo.getMemTableId());
+      memTableIds.add(memTable.getMemTableId());
+    }
+    checkpointManager.fsyncCheckpointFile();
+    long time = 0;
+    while (walBuffer.getCurrentWALFileVersion() - firstValidVersionId < walFileNum) {
+      for (int i = 0; i < memTableNum; i++) {
+        walBuffer.write(
+            new WALInfoEntry(memTableIds.get(i), getInsertTabletNode(getDevice(i), time)));
+      }
+      time += ROWS_PER_TABLET;
+    }
+    while (!walBuffer.isAllWALEntriesConsumed()) {
+      Thread.sleep(10);
+    }
+    checkpointManager.close();
+    walBuffer.close();
+  }
+
+  private InsertTabletNode getInsertTabletNode(String device, long startTime)
+      throws IllegalPathException {
+    TSDataType[] dataTypes = new TSDataType[MEASUREMENTS.length];
+    MeasurementSchema[] schemas = new MeasurementSchema[MEASUREMENTS.length];
+    Object[] columns = new Object[MEASUREMENTS.length];
+    long[] times = new long[ROWS_PER_TABLET];
+    for (int r = 0; r < ROWS_PER_TABLET; r++) {
+      times[r] = startTime + r;
+    }
+    for (int i = 0; i < MEASUREMENTS.length; i++) {
+      dataTypes[i] = TSDataType.INT64;
+      schemas[i] = new MeasurementSchema(MEASUREMENTS[i], TSDataType.INT64);
+      columns[i] = times.clone();
+    }
+    InsertTabletNode insertTabletNode =
+        new InsertTabletNode(
+            new PlanNodeId(""),
+            new PartialPath(device),
+            false,
+            MEASUREMENTS,
+            dataTypes,
+            times,
+            null,
+            columns,
+            ROWS_PER_TABLET);
+    insertTabletNode.setMeasurementSchemas(schemas);
+    return insertTabletNode;
+  }
+
+  @Setup(Level.Iteration)
+  public void prepareRecovery() throws IOException, WriteProcessException {
+    WALRecoverManager.getInstance().clear();
+    copyDirectory(templateDirectory, new File(walDirectory, WAL_NODE_IDENTIFIER));
+    for (int i = 0; i < memTableNum; i++) {
+      File tsFile = getTsFile(i);
+      generateCrashedFile(tsFile, getDevice(i));
+      TsFileResource tsFileResource = new TsFileResource(tsFile);
+      tsFileResources.add(tsFileResource);
+      recoverListeners.add(
+          WALRecoverManager.getInstance()
+              .addRecoverPerformer(
+                  new UnsealedTsFileRecoverPerformer(tsFileResource, true, performer -> {})));
+    }
+    WALRecoverManager.getInstance().setAllDataRegionScannedLatch(new ExceptionalCountDownLatch(0));
+  }
+
+  @TearDown(Level.Iteration)
+  public void cleanRecovery() throws IOException {
+    for (TsFileResource tsFileResource : tsFileResources) {
+      tsFileResource.close();
+    }
+    tsFileResources.clear();
+    recoverListeners.clear();
+    FileUtils.deleteFileOrDirectory(walDirectory);
+    FileUtils.deleteFileOrDirectory(dataDirectory);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    WALRecoverManager.getInstance().clear();
+    FileUtils.deleteFileOrDirectory(baseDirectory);
+  }
+
+  @Benchmark
+  public void recover() throws Exception {
+    WALRecoverManager.getInstance().recover();
+    for (WALRecoverListener recoverListener : recoverListeners) {
+      if (recoverListener.waitForResult() != WALRecoverListener.Status.SUCCESS) {
+        throw new IllegalStateException("Fail to recover " + recoverListener.getFilePath());
+      }
+    }
+  }
+
+  private File getTsFile(int i) {
+    return new File(
+        dataDirectory,
+        String.join(File.separator, "sequence", DATABASE, DATA_REGION_ID, "0", i + "-" + i)
+            + "-0-0.tsfile");
+  }
+
+  private static String getDevice(int i) {
+    return DATABASE + ".d" + i;
+  }
+
+  /** Write one flushed chunk group without the file metadata, like a crash before sealing. */
+  private static void generateCrashedFile(File tsFile, String device)
+      throws IOException, WriteProcessException {
+    Files.createDirectories(tsFile.getParentFile().toPath());
+    IDeviceID deviceId = IDeviceID.Factory.DEFAULT_FACTORY.create(device);
+    long truncateSize;
+    try (TsFileWriter writer = new TsFileWriter(tsFile)) {
+      TSRecord record = new TSRecord(deviceId, -1);
+      for (String measurement : MEASUREMENTS) {
+        writer.registerTimeseries(
+            new Path(deviceId), new MeasurementSchema(measurement, TSDataType.INT64));
+        record.addTuple(new LongDataPoint(measurement, -1));
+      }
+      writer.writeRecord(record);
+      writer.flush();
+      try (FileChannel channel = FileChannel.open(tsFile.toPath())) {
+        truncateSize = channel.size();
+      }
+    }
+    try (FileChannel channel = new FileOutputStream(tsFile, true).getChannel()) {
+      channel.truncate(truncateSize);
+    }
+  }
+
+  private static void copyDirectory(File source, File target) throws IOException {
+    Files.createDirectories(target.getParentFile().toPath());
+    try (Stream<java.nio.file.Path> paths = Files.walk(source.toPath())) {
+      for (java.nio.file.Path path : (Iterable<java.nio.file.Path>) paths::iterator) {
+        Files.copy(path, target.toPath().resolve(source.toPath().relativize(path)));
+      }
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.datastructure;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.TimeValuePair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Put, sort and iterate {@link TVList} of the three sort algorithms with different ratios of
+ * out-of-order points.
+ *
+ * <p>The benchmark is in the package of TVList to create the list of specified sort algorithm
+ * directly, TVList.newList() picks the algorithm by the configuration when the class is loaded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TVListBenchmark {
+
+  private static final List<TSDataType> ALIGNED_TYPES =
+      Arrays.asList(TSDataType.INT64, TSDataType.DOUBLE, TSDataType.INT32);
+
+  @Param({"TIM", "QUICK", "BACKWARD"})
+  private TVListSortAlgorithm sortAlgorithm;
+
+  @Param({"0", "0.01", "0.1", "0.5"})
+  private double outOfOrderRatio;
+
+  @Param({"100000"})
+  private int size;
+
+  private long[] times;
+
+  // sorted list for iterating
+  private TVList sortedList;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    times = generateTimes(size, outOfOrderRatio);
+    sortedList = putLongs();
+    sortedList.sort();
+  }
+
+  /** Timestamps are 0 ~ size - 1, and ratio of them are swapped to random positions. */
+  static long[] generateTimes(int size, double outOfOrderRatio) {
+    long[] result = new long[size];
+    for (int i = 0; i < size; i++) {
+      result[i] = i;
+    }
+    Random random = new Random(size);
+    int swapCount = (int) (size * outOfOrderRatio / 2);
+    for (int i = 0; i < swapCount; i++) {
+      int a = random.nextInt(size);
+      int b = random.nextInt(size);
+      long tmp = result[a];
+      result[a] = result[b];
+      result[b] = tmp;
+    }
+    return result;
+  }
+
+  private LongTVList newLongList() {
+    switch (sortAlgorithm) {
+      case QUICK:
+        return new QuickLongTVList();
+      case BACKWARD:
+        return new BackLongTVList();
+      default:
+        return new TimLongTVList();
+    }
+  }
+
+  private AlignedTVList newAlignedList() {
+    switch (sortAlgorithm) {
+      case QUICK:
+        return new QuickAlignedTVList(ALIGNED_TYPES);
+      case BACKWARD:
+        return new BackAlignedTVList(ALIGNED_TYPES);
+      default:
+        return new TimAlignedTVList(ALIGNED_TYPES);
+    }
+  }
+
+  @Benchmark
+  public TVList putLongs() {
+    LongTVList list = newLongList();
+    for (long time : times) {
+      list.putLong(time, time);
+    }
+    return list;
+  }
+
+  @Benchmark
+  public TVList putAndSortLongs() {
+    TVList list = putLongs();
+    list.sort();
+    return list;
+  }
+
+  @Benchmark
+  public TVList putAndSortAligned() {
+    AlignedTVList list = newAlignedList();
+    for (long time : times) {
+      list.putAlignedValue(time, new Object[] {time, (double) time, (int) time});
+    }
+    list.sort();
+    return list;
+  }
+
+  @Benchmark
+  public void iterate(Blackhole blackhole) throws IOException {
+    MemPointIterator iterator = sortedList.iterator(null, null, null, 1000);
+    while (iterator.hasNextTimeValuePair()) {
+      TimeValuePair timeValuePair = iterator.nextTimeValuePair();
+      blackhole.consume(timeValuePair);
+    }
+  }
+}
@@ -0,0 +1,4 @@
+package org.apache.iotdb.db.queryengine.execution.exchange.jmh_generated;
+public class TsBlockSerdeBenchmark_jmhType extends TsBlockSerdeBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.jmh_generated;
+public class FlatGroupByHashBenchmark_jmhType extends FlatGroupByHashBenchmark_jmhType_B3 {
+}
+
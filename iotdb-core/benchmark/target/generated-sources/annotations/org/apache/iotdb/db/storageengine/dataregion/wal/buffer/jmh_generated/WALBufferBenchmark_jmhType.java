@@ -0,0 +1,4 @@
+package org.apache.iotdb.db.storageengine.dataregion.wal.buffer.jmh_generated;
+public class WALBufferBenchmark_jmhType extends WALBufferBenchmark_jmhType_B3 {
+}
+
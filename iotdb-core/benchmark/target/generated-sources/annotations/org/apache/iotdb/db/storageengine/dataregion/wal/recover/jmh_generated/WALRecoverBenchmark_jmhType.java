@@ -0,0 +1,4 @@
+package org.apache.iotdb.db.storageengine.dataregion.wal.recover.jmh_generated;
+public class WALRecoverBenchmark_jmhType extends WALRecoverBenchmark_jmhType_B3 {
+}
+
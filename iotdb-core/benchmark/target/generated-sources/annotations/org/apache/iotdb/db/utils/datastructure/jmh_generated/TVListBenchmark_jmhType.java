@@ -0,0 +1,4 @@
+package org.apache.iotdb.db.utils.datastructure.jmh_generated;
+public class TVListBenchmark_jmhType extends TVListBenchmark_jmhType_B3 {
+}
+
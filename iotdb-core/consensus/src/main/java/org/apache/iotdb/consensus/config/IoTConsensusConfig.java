@@ -251,6 +251,9 @@ public class IoTConsensusConfig {
     private final IMemoryBlock consensusMemoryBlock;
     private final double maxMemoryRatioForQueue;
     private final long regionMigrationSpeedLimitBytesPerSecond;
+    private final int logDispatcherThreadNum;
+    private final boolean enableMultiplexedSyncLog;
+    private final long maxWaitingTimeForMultiplexingInMs;
 
     private Replication(
         int maxLogEntriesNumPerBatch,
@@ -266,7 +269,10 @@ public class IoTConsensusConfig {
         long checkpointGap,
         IMemoryBlock consensusMemoryBlock,
         double maxMemoryRatioForQueue,
-        long regionMigrationSpeedLimitBytesPerSecond) {
+        long regionMigrationSpeedLimitBytesPerSecond,
+        int logDispatcherThreadNum,
+        boolean enableMultiplexedSyncLog,
+        long maxWaitingTimeForMultiplexingInMs) {
       this.maxLogEntriesNumPerBatch = maxLogEntriesNumPerBatch;
       this.maxSizePerBatch = maxSizePerBatch;
       this.maxPendingBatchesNum = maxPendingBatchesNum;
@@ -281,6 +287,9 @@ public class IoTConsensusConfig {
       this.consensusMemoryBlock = consensusMemoryBlock;
       this.maxMemoryRatioForQueue = maxMemoryRatioForQueue;
       this.regionMigrationSpeedLimitBytesPerSecond = regionMigrationSpeedLimitBytesPerSecond;
+      this.logDispatcherThreadNum = logDispatcherThreadNum;
+      this.enableMultiplexedSyncLog = enableMultiplexedSyncLog;
+      this.maxWaitingTimeForMultiplexingInMs = maxWaitingTimeForMultiplexingInMs;
     }
 
     public int getMaxLogEntriesNumPerBatch() {
@@ -339,6 +348,26 @@ public class IoTConsensusConfig {
       return regionMigrationSpeedLimitBytesPerSecond;
     }
 
+    /**
+     * Number of the threads shared by all the log dispatchers, 0 means each dispatcher occupies its
+     * own thread.
+     */
+    public int getLogDispatcherThreadNum() {
+      return logDispatcherThreadNum;
+    }
+
+    /**
+     * Whether the batches of different consensus groups bound for the same peer are sent in one
+     * RPC.
+     */
+    public boolean isEnableMultiplexedSyncLog() {
+      return enableMultiplexedSyncLog;
+    }
+
+    public long getMaxWaitingTimeForMultiplexingInMs() {
+      return maxWaitingTimeForMultiplexingInMs;
+    }
+
     public static Replication.Builder newBuilder() {
       return new Replication.Builder();
     }
@@ -362,6 +391,9 @@ public class IoTConsensusConfig {
               "Consensus-Default", null, Runtime.getRuntime().maxMemory() / 10);
       private double maxMemoryRatioForQueue = 0.6;
       private long regionMigrationSpeedLimitBytesPerSecond = 32 * 1024 * 1024L;
+      private int logDispatcherThreadNum = 0;
+      private boolean enableMultiplexedSyncLog = false;
+      private long maxWaitingTimeForMultiplexingInMs = 5;
 
       public Replication.Builder setMaxLogEntriesNumPerBatch(int maxLogEntriesNumPerBatch) {
         this.maxLogEntriesNumPerBatch = maxLogEntriesNumPerBatch;
@@ -436,6 +468,21 @@ public class IoTConsensusConfig {
         return this;
       }
 
+      public Builder setLogDispatcherThreadNum(int logDispatcherThreadNum) {
+        this.logDispatcherThreadNum = logDispatcherThreadNum;
+        return this;
+      }
+
+      public Builder setEnableMultiplexedSyncLog(boolean enableMultiplexedSyncLog) {
+        this.enableMultiplexedSyncLog = enableMultiplexedSyncLog;
+        return this;
+      }
+
+      public Builder setMaxWaitingTimeForMultiplexingInMs(long maxWaitingTimeForMultiplexingInMs) {
+        this.maxWaitingTimeForMultiplexingInMs = maxWaitingTimeForMultiplexingInMs;
+        return this;
+      }
+
       public Replication build() {
         return new Replication(
             maxLogEntriesNumPerBatch,
@@ -451,7 +498,10 @@ public class IoTConsensusConfig {
             checkpointGap,
             consensusMemoryBlock,
             maxMemoryRatioForQueue,
-            regionMigrationSpeedLimitBytesPerSecond);
+            regionMigrationSpeedLimitBytesPerSecond,
+            logDispatcherThreadNum,
+            enableMultiplexedSyncLog,
+            maxWaitingTimeForMultiplexingInMs);
       }
     }
   }
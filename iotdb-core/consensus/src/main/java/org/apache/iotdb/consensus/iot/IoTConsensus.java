@@ -34,6 +34,7 @@ import org.apache.iotdb.commons.utils.KillPoint.IoTConsensusDeleteLocalPeerKillP
 import org.apache.iotdb.commons.utils.KillPoint.IoTConsensusRemovePeerCoordinatorKillPoints;
 import org.apache.iotdb.commons.utils.KillPoint.KillPoint;
 import org.apache.iotdb.commons.utils.StatusUtils;
+import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.consensus.IConsensus;
 import org.apache.iotdb.consensus.IStateMachine;
 import org.apache.iotdb.consensus.IStateMachine.Registry;
@@ -55,6 +56,8 @@ import org.apache.iotdb.consensus.iot.client.IoTConsensusClientPool.AsyncIoTCons
 import org.apache.iotdb.consensus.iot.client.IoTConsensusClientPool.SyncIoTConsensusServiceClientPoolFactory;
 import org.apache.iotdb.consensus.iot.client.SyncIoTConsensusServiceClient;
 import org.apache.iotdb.consensus.iot.logdispatcher.IoTConsensusMemoryManager;
+import org.apache.iotdb.consensus.iot.logdispatcher.SharedLogDispatcher;
+import org.apache.iotdb.consensus.iot.logdispatcher.SyncLogEntriesMultiplexer;
 import org.apache.iotdb.consensus.iot.service.IoTConsensusRPCService;
 import org.apache.iotdb.consensus.iot.service.IoTConsensusRPCServiceProcessor;
 import org.apache.iotdb.consensus.iot.snapshot.IoTConsensusRateLimiter;
@@ -77,7 +80,9 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -101,6 +106,12 @@ public class IoTConsensus implements IConsensus {
   private final IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager;
   private final IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager;
   private final ScheduledExecutorService backgroundTaskService;
+  // null if each log dispatcher occupies its own thread
+  private final SharedLogDispatcher sharedLogDispatcher;
+  // null if the batches of different groups are not multiplexed
+  private final SyncLogEntriesMultiplexer syncLogEntriesMultiplexer;
+  // applies the groups of one multiplexed request concurrently, see batchSyncLogEntries
+  private final ExecutorService batchSyncLogReceiver;
   private Future<?> updateReaderFuture;
   private Map<ConsensusGroupId, List<Peer>> correctPeerListBeforeStart = null;
 
@@ -122,6 +133,28 @@ public class IoTConsensus implements IConsensus {
     this.backgroundTaskService =
         IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
             ThreadName.IOT_CONSENSUS_BACKGROUND_TASK_EXECUTOR.getName());
+    int logDispatcherThreadNum =
+        config.getIotConsensusConfig().getReplication().getLogDispatcherThreadNum();
+    this.sharedLogDispatcher =
+        logDispatcherThreadNum > 0 ? new SharedLogDispatcher(logDispatcherThreadNum) : null;
+    this.syncLogEntriesMultiplexer =
+        config.getIotConsensusConfig().getReplication().isEnableMultiplexedSyncLog()
+            ? new SyncLogEntriesMultiplexer(clientManager, config.getIotConsensusConfig())
+            : null;
+    // at most one thread for each thrift worker, beyond that the receiving worker applies the group
+    // itself. Unlike CallerRunsPolicy, a task is rejected after shutdown rather than discarded, so
+    // that nobody waits for its future forever
+    this.batchSyncLogReceiver =
+        IoTDBThreadPoolFactory.newCachedThreadPool(
+            ThreadName.BATCH_SYNC_LOG_RECEIVER.getName(),
+            0,
+            config.getIotConsensusConfig().getRpc().getRpcMaxConcurrentClientNum(),
+            (task, executor) -> {
+              if (executor.isShutdown()) {
+                throw new RejectedExecutionException("BatchSyncLogReceiver is shutdown");
+              }
+              task.run();
+            });
     // init IoTConsensus memory manager
     IoTConsensusMemoryManager.getInstance()
         .init(
@@ -180,6 +213,8 @@ public class IoTConsensus implements IConsensus {
                   backgroundTaskService,
                   clientManager,
                   syncClientManager,
+                  sharedLogDispatcher,
+                  syncLogEntriesMultiplexer,
                   config);
           stateMachineMap.put(consensusGroupId, consensus);
         }
@@ -214,9 +249,12 @@ public class IoTConsensus implements IConsensus {
   public synchronized void stop() {
     Optional.ofNullable(updateReaderFuture).ifPresent(future -> future.cancel(false));
     stateMachineMap.values().parallelStream().forEach(IoTConsensusServerImpl::stop);
+    Optional.ofNullable(sharedLogDispatcher).ifPresent(SharedLogDispatcher::stop);
+    Optional.ofNullable(syncLogEntriesMultiplexer).ifPresent(SyncLogEntriesMultiplexer::stop);
     clientManager.close();
     syncClientManager.close();
     registerManager.deregisterAll();
+    batchSyncLogReceiver.shutdownNow();
     backgroundTaskService.shutdown();
     try {
       backgroundTaskService.awaitTermination(5, TimeUnit.SECONDS);
@@ -287,6 +325,8 @@ public class IoTConsensus implements IConsensus {
                           backgroundTaskService,
                           clientManager,
                           syncClientManager,
+                          sharedLogDispatcher,
+                          syncLogEntriesMultiplexer,
                           config);
                   impl.start();
                   return impl;
@@ -552,6 +592,15 @@ public class IoTConsensus implements IConsensus {
     return stateMachineMap.get(groupId);
   }
 
+  public ExecutorService getBatchSyncLogReceiver() {
+    return batchSyncLogReceiver;
+  }
+
+  @TestOnly
+  public SyncLogEntriesMultiplexer getSyncLogEntriesMultiplexer() {
+    return syncLogEntriesMultiplexer;
+  }
+
   public static String buildPeerDir(File storageDir, ConsensusGroupId groupId) {
     return storageDir + File.separator + groupId.getType().getValue() + "_" + groupId.getId();
   }
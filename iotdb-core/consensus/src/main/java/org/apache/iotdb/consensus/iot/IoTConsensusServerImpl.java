@@ -44,6 +44,8 @@ import org.apache.iotdb.consensus.iot.client.SyncIoTConsensusServiceClient;
 import org.apache.iotdb.consensus.iot.log.ConsensusReqReader;
 import org.apache.iotdb.consensus.iot.log.GetConsensusReqReaderPlan;
 import org.apache.iotdb.consensus.iot.logdispatcher.LogDispatcher;
+import org.apache.iotdb.consensus.iot.logdispatcher.SharedLogDispatcher;
+import org.apache.iotdb.consensus.iot.logdispatcher.SyncLogEntriesMultiplexer;
 import org.apache.iotdb.consensus.iot.snapshot.IoTConsensusRateLimiter;
 import org.apache.iotdb.consensus.iot.snapshot.SnapshotFragmentReader;
 import org.apache.iotdb.consensus.iot.thrift.TActivatePeerReq;
@@ -136,6 +138,8 @@ public class IoTConsensusServerImpl {
       ScheduledExecutorService backgroundTaskService,
       IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager,
       IClientManager<TEndPoint, SyncIoTConsensusServiceClient> syncClientManager,
+      SharedLogDispatcher sharedLogDispatcher,
+      SyncLogEntriesMultiplexer syncLogEntriesMultiplexer,
       IoTConsensusConfig config) {
     this.active = true;
     this.storageDir = storageDir;
@@ -151,7 +155,8 @@ public class IoTConsensusServerImpl {
         (ConsensusReqReader) stateMachine.read(new GetConsensusReqReaderPlan());
     this.searchIndex = new AtomicLong(consensusReqReader.getCurrentSearchIndex());
     this.ioTConsensusServerMetrics = new IoTConsensusServerMetrics(this);
-    this.logDispatcher = new LogDispatcher(this, clientManager);
+    this.logDispatcher =
+        new LogDispatcher(this, clientManager, sharedLogDispatcher, syncLogEntriesMultiplexer);
   }
 
   public IStateMachine getStateMachine() {
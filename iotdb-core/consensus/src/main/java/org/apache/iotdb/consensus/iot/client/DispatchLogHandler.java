@@ -147,5 +147,7 @@ public class DispatchLogHandler implements AsyncMethodCallback<TSyncLogEntriesRe
     // update safely deleted search index after last flushed sync index may be updated by
     // removeBatch
     thread.updateSafelyDeletedSearchIndex();
+    // a slot of the synchronization pipeline is released, the next batch can be sent
+    thread.wakeUp();
   }
 }
@@ -49,6 +49,7 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
@@ -61,6 +62,10 @@ public class LogDispatcher {
   private final List<LogDispatcherThread> threads;
   private final int selfPeerId;
   private final IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager;
+  // null if each LogDispatcherThread occupies a thread of executorService
+  private final SharedLogDispatcher sharedLogDispatcher;
+  // null if each batch is sent by its own syncLogEntries RPC
+  private final SyncLogEntriesMultiplexer syncLogEntriesMultiplexer;
   private ExecutorService executorService;
 
   private final ConsensusReqReader reader;
@@ -71,17 +76,21 @@ public class LogDispatcher {
 
   public LogDispatcher(
       IoTConsensusServerImpl impl,
-      IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager) {
+      IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager,
+      SharedLogDispatcher sharedLogDispatcher,
+      SyncLogEntriesMultiplexer syncLogEntriesMultiplexer) {
     this.impl = impl;
     this.reader = (ConsensusReqReader) impl.getStateMachine().read(new GetConsensusReqReaderPlan());
     this.selfPeerId = impl.getThisNode().getNodeId();
     this.clientManager = clientManager;
+    this.sharedLogDispatcher = sharedLogDispatcher;
+    this.syncLogEntriesMultiplexer = syncLogEntriesMultiplexer;
     this.threads =
         impl.getConfiguration().stream()
             .filter(x -> !Objects.equals(x, impl.getThisNode()))
             .map(x -> new LogDispatcherThread(x, impl.getConfig(), DEFAULT_INITIAL_SYNC_INDEX))
             .collect(Collectors.toList());
-    if (!threads.isEmpty()) {
+    if (!threads.isEmpty() && sharedLogDispatcher == null) {
       initLogSyncThreadPool();
     }
   }
@@ -98,12 +107,25 @@ public class LogDispatcher {
 
   public synchronized void start() {
     if (!threads.isEmpty()) {
-      threads.forEach(logDispatcherThread -> executorService.submit(logDispatcherThread));
+      threads.forEach(this::startThread);
+    }
+  }
+
+  private void startThread(LogDispatcherThread thread) {
+    if (sharedLogDispatcher != null) {
+      thread.startInSharedDispatcher();
+    } else {
+      executorService.submit(thread);
     }
   }
 
   public synchronized void stop() {
-    if (!threads.isEmpty()) {
+    if (!threads.isEmpty() && sharedLogDispatcher != null) {
+      threads.forEach(LogDispatcherThread::setStopped);
+      // let the shared workers observe the stop, then wait for the running dispatches
+      threads.forEach(LogDispatcherThread::wakeUp);
+      threads.forEach(LogDispatcherThread::processStopped);
+    } else if (!threads.isEmpty()) {
       threads.forEach(LogDispatcherThread::setStopped);
       executorService.shutdownNow();
       threads.forEach(LogDispatcherThread::processStopped);
@@ -129,11 +151,11 @@ public class LogDispatcher {
     threads.add(thread);
     // If the initial replica is 1, the executorService won't be initialized. And when adding
     // dispatcher thread, the executorService should be initialized manually
-    if (this.executorService == null) {
+    if (this.executorService == null && sharedLogDispatcher == null) {
       initLogSyncThreadPool();
     }
     if (startNow) {
-      executorService.submit(thread);
+      startThread(thread);
     }
   }
 
@@ -188,7 +210,9 @@ public class LogDispatcher {
                   impl.getThisNode().getGroupId(),
                   thread.getPeer().getEndpoint().getIp(),
                   thread.getPendingEntriesSize());
-              if (!thread.offer(request)) {
+              if (thread.offer(request)) {
+                thread.wakeUp();
+              } else {
                 logger.debug(
                     "{}: Log queue of {} is full, ignore the log to this node, searchIndex: {}",
                     impl.getThisNode().getGroupId(),
@@ -234,6 +258,17 @@ public class LogDispatcher {
 
     private final CountDownLatch runFinished = new CountDownLatch(1);
 
+    // the fields below are only used when the thread is run by the SharedLogDispatcher
+    private volatile boolean startedInSharedDispatcher = false;
+    // whether a dispatch of this thread is queued or running in the SharedLogDispatcher
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    // whether something happened that may make a new batch sendable since the last dispatch began
+    private final AtomicBoolean wakeUpRequested = new AtomicBoolean(false);
+    // a batch taken from the queue or the WAL which can not be added to syncStatus yet
+    private Batch unsentBatch;
+    // when the wait for accumulating a batch from the queue ends, 0 if not waiting
+    private long accumulatingDeadlineInMs = 0;
+
     public LogDispatcherThread(Peer peer, IoTConsensusConfig config, long initialSyncIndex) {
       this.peer = peer;
       this.config = config;
@@ -305,6 +340,7 @@ public class LogDispatcher {
 
     public void stop() {
       setStopped();
+      wakeUp();
       processStopped();
     }
 
@@ -332,6 +368,9 @@ public class LogDispatcher {
       }
       iotConsensusMemoryManager.free(requestSize, true);
       syncStatus.free();
+      if (sharedLogDispatcher != null) {
+        sharedLogDispatcher.unregister(this);
+      }
       MetricService.getInstance().removeMetricSet(logDispatcherThreadMetrics);
     }
 
@@ -378,11 +417,7 @@ public class LogDispatcher {
           logDispatcherThreadMetrics.recordConstructBatchTime(System.nanoTime() - startTime);
           // we may block here if the synchronization pipeline is full
           syncStatus.addNextBatch(batch);
-          logEntriesFromWAL.addAndGet(batch.getLogEntriesNumFromWAL());
-          logEntriesFromQueue.addAndGet(
-              batch.getLogEntries().size() - batch.getLogEntriesNumFromWAL());
-          // sends batch asynchronously and migrates the retry logic into the callback handler
-          sendBatchAsync(batch, new DispatchLogHandler(this, logDispatcherThreadMetrics, batch));
+          dispatch(batch);
         }
       } catch (InterruptedException e) {
         Thread.currentThread().interrupt();
@@ -393,6 +428,116 @@ public class LogDispatcher {
       logger.info("{}: Dispatcher for {} exits", impl.getThisNode(), peer);
     }
 
+    private void dispatch(Batch batch) {
+      logEntriesFromWAL.addAndGet(batch.getLogEntriesNumFromWAL());
+      logEntriesFromQueue.addAndGet(batch.getLogEntries().size() - batch.getLogEntriesNumFromWAL());
+      // sends batch asynchronously and migrates the retry logic into the callback handler
+      sendBatchAsync(batch, new DispatchLogHandler(this, logDispatcherThreadMetrics, batch));
+    }
+
+    private void startInSharedDispatcher() {
+      logger.info("{}: Dispatcher for {} starts in shared mode", impl.getThisNode(), peer);
+      startedInSharedDispatcher = true;
+      sharedLogDispatcher.register(this);
+      wakeUp();
+    }
+
+    /**
+     * Schedule a dispatch of this thread in the SharedLogDispatcher if it is not queued or running
+     * yet. It is called when a request is offered, a batch is acknowledged, periodically, and when
+     * the thread is stopped. Does nothing if the thread occupies its own thread.
+     */
+    public void wakeUp() {
+      if (sharedLogDispatcher == null || (!startedInSharedDispatcher && !stopped)) {
+        return;
+      }
+      wakeUpRequested.set(true);
+      if (scheduled.compareAndSet(false, true)
+          && !sharedLogDispatcher.execute(this::dispatchInSharedDispatcher)) {
+        scheduled.set(false);
+        runFinished.countDown();
+      }
+    }
+
+    private void dispatchInSharedDispatcher() {
+      wakeUpRequested.set(false);
+      try {
+        if (!stopped) {
+          dispatchAvailableBatches();
+        }
+      } catch (Exception e) {
+        logger.error("Unexpected error in logDispatcher for peer {}", peer, e);
+      } finally {
+        if (stopped) {
+          runFinished.countDown();
+          logger.info("{}: Dispatcher for {} exits", impl.getThisNode(), peer);
+        }
+        scheduled.set(false);
+      }
+      // the wake-ups that came during this dispatch may have been ignored by the flag above
+      if (wakeUpRequested.get()) {
+        wakeUp();
+      }
+    }
+
+    /**
+     * Send batches until there is nothing to send or the synchronization pipeline is full, without
+     * blocking the shared thread. The pending wake-ups will continue the dispatch.
+     */
+    private void dispatchAvailableBatches() {
+      while (!stopped) {
+        if (unsentBatch == null) {
+          if (syncStatus.isFull() || isAccumulatingBatch()) {
+            return;
+          }
+          long startTime = System.nanoTime();
+          Batch batch = getBatch();
+          if (batch.isEmpty()) {
+            return;
+          }
+          logDispatcherThreadMetrics.recordConstructBatchTime(System.nanoTime() - startTime);
+          unsentBatch = batch;
+        }
+        if (!syncStatus.tryAddNextBatch(unsentBatch)) {
+          return;
+        }
+        Batch batch = unsentBatch;
+        unsentBatch = null;
+        dispatch(batch);
+      }
+    }
+
+    /**
+     * Like the dedicated thread sleeping when the write pressure is low, wait a little for more
+     * requests before sending a batch which is not full, to reduce the number of RPCs. Instead of
+     * sleeping on the shared thread, a wake-up is scheduled at the end of the wait.
+     *
+     * @return true if the dispatch should stop now and continue after the wait
+     */
+    private boolean isAccumulatingBatch() {
+      long waitingTimeInMs = config.getReplication().getMaxWaitingTimeForAccumulatingBatchInMs();
+      int queuedNum = pendingEntries.size() + bufferedEntries.size();
+      // nothing queued means the requests are read from the WAL, which needs no waiting
+      if (waitingTimeInMs <= 0
+          || queuedNum == 0
+          || queuedNum >= config.getReplication().getMaxLogEntriesNumPerBatch()) {
+        accumulatingDeadlineInMs = 0;
+        return false;
+      }
+      long currentTime = System.currentTimeMillis();
+      if (accumulatingDeadlineInMs == 0) {
+        accumulatingDeadlineInMs = currentTime + waitingTimeInMs;
+        sharedLogDispatcher.schedule(this::wakeUp, waitingTimeInMs);
+        return true;
+      }
+      if (currentTime < accumulatingDeadlineInMs) {
+        // woken up by something else during the wait, the scheduled wake-up is still pending
+        return true;
+      }
+      accumulatingDeadlineInMs = 0;
+      return false;
+    }
+
     public void updateSafelyDeletedSearchIndex() {
       // update safely deleted search index to delete outdated info,
       // indicating that insert nodes whose search index are before this value can be deleted
@@ -507,7 +652,6 @@ public class LogDispatcher {
 
     public void sendBatchAsync(Batch batch, DispatchLogHandler handler) {
       try {
-        AsyncIoTConsensusServiceClient client = clientManager.borrowClient(peer.getEndpoint());
         TSyncLogEntriesReq req =
             new TSyncLogEntriesReq(
                 selfPeerId, peer.getGroupId().convertToTConsensusGroupId(), batch.getLogEntries());
@@ -516,6 +660,11 @@ public class LogDispatcher {
             batch.getStartIndex(),
             batch.getEndIndex(),
             peer.getGroupId().convertToTConsensusGroupId());
+        if (syncLogEntriesMultiplexer != null) {
+          syncLogEntriesMultiplexer.send(peer.getEndpoint(), req, batch.getMemorySize(), handler);
+          return;
+        }
+        AsyncIoTConsensusServiceClient client = clientManager.borrowClient(peer.getEndpoint());
         client.syncLogEntries(req, handler);
       } catch (Exception e) {
         logger.error("Can not sync logs to peer {} because", peer, e);
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.logdispatcher;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.commons.concurrent.threadpool.ScheduledExecutorUtil;
+import org.apache.iotdb.consensus.iot.logdispatcher.LogDispatcher.LogDispatcherThread;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the log dispatchers of all the consensus groups on a fixed number of threads instead of one
+ * thread per (group, peer) pair. A dispatcher is only scheduled when it may have something to send:
+ * a request is offered to it, one of its pending batches is acknowledged, its wait for accumulating
+ * a batch is over, or the periodic check wakes it up to pick up the requests that only exist in the
+ * WAL. A dispatcher never runs on two threads at the same time, so the batches to one peer are
+ * still built and sent in order.
+ */
+public class SharedLogDispatcher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SharedLogDispatcher.class);
+
+  // the same as the time that a dedicated dispatcher thread waits for a request in its queue
+  private static final long CHECK_INTERVAL_IN_SEC = 10;
+
+  private final ExecutorService workers;
+  private final ScheduledExecutorService checker;
+  private final Set<LogDispatcherThread> dispatchers = ConcurrentHashMap.newKeySet();
+
+  public SharedLogDispatcher(int threadNum) {
+    this.workers =
+        IoTDBThreadPoolFactory.newFixedThreadPool(
+            threadNum, ThreadName.SHARED_LOG_DISPATCHER.getName());
+    this.checker =
+        IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+            ThreadName.SHARED_LOG_DISPATCHER.getName() + "-Checker");
+    ScheduledExecutorUtil.safelyScheduleWithFixedDelay(
+        checker,
+        () -> dispatchers.forEach(LogDispatcherThread::wakeUp),
+        CHECK_INTERVAL_IN_SEC,
+        CHECK_INTERVAL_IN_SEC,
+        TimeUnit.SECONDS);
+  }
+
+  void register(LogDispatcherThread dispatcher) {
+    dispatchers.add(dispatcher);
+  }
+
+  void unregister(LogDispatcherThread dispatcher) {
+    dispatchers.remove(dispatcher);
+  }
+
+  /** Returns false if the task is rejected because the dispatcher is stopped. */
+  boolean execute(Runnable task) {
+    try {
+      workers.execute(task);
+      return true;
+    } catch (RejectedExecutionException e) {
+      return false;
+    }
+  }
+
+  /** Run the task after the delay, does nothing if the dispatcher is stopped. */
+  void schedule(Runnable task, long delayInMs) {
+    try {
+      checker.schedule(task, delayInMs, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // stopped, the dispatchers are stopped as well
+    }
+  }
+
+  public int getDispatcherNum() {
+    return dispatchers.size();
+  }
+
+  public void stop() {
+    checker.shutdownNow();
+    workers.shutdown();
+    try {
+      if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+        LOGGER.error("Unable to shutdown SharedLogDispatcher after 10 seconds");
+        workers.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      workers.shutdownNow();
+    }
+  }
+}
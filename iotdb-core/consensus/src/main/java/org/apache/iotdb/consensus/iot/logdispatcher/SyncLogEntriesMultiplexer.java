@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot.logdispatcher;
+
+import org.apache.iotdb.common.rpc.thrift.TConsensusGroupId;
+import org.apache.iotdb.common.rpc.thrift.TEndPoint;
+import org.apache.iotdb.commons.client.IClientManager;
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
+import org.apache.iotdb.consensus.iot.client.AsyncIoTConsensusServiceClient;
+import org.apache.iotdb.consensus.iot.thrift.TBatchSyncLogEntriesReq;
+import org.apache.iotdb.consensus.iot.thrift.TBatchSyncLogEntriesRes;
+import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesReq;
+import org.apache.iotdb.consensus.iot.thrift.TSyncLogEntriesRes;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.thrift.TApplicationException;
+import org.apache.thrift.async.AsyncMethodCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Packs the TSyncLogEntriesReq of different consensus groups bound for the same peer into one
+ * batchSyncLogEntries RPC. A request waits at most maxWaitingTimeForMultiplexingInMs for the
+ * others, and the pending requests of a peer are sent at once when their size reaches
+ * maxSizePerBatch. The result of each request is delivered to its own callback, so the retry of a
+ * batch is still handled by its DispatchLogHandler. The peers which do not know batchSyncLogEntries
+ * receive the requests one by one.
+ *
+ * <p>The receiver applies the groups of one RPC concurrently on its batchSyncLogReceiver pool, but
+ * runs them on the RPC thread one after another when the pool is saturated. One RPC therefore never
+ * carries two batches of the same group: if they ran one after another out of order, the first one
+ * would wait in the SyncLogCacheQueue of the group for the second one behind it.
+ */
+public class SyncLogEntriesMultiplexer {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SyncLogEntriesMultiplexer.class);
+
+  private final IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager;
+  private final long maxWaitingTimeInMs;
+  private final long maxSizePerRequest;
+  private final ScheduledExecutorService flusher;
+
+  private final Map<TEndPoint, PendingRequests> pendingRequestsMap = new ConcurrentHashMap<>();
+  // the peers which do not support batchSyncLogEntries, e.g. which are not upgraded yet
+  private final Set<TEndPoint> unsupportedEndpoints = ConcurrentHashMap.newKeySet();
+  // the number of the batchSyncLogEntries RPCs carrying more than one group
+  private final AtomicLong multiplexedRequestNum = new AtomicLong(0);
+
+  public SyncLogEntriesMultiplexer(
+      IClientManager<TEndPoint, AsyncIoTConsensusServiceClient> clientManager,
+      IoTConsensusConfig config) {
+    this.clientManager = clientManager;
+    this.maxWaitingTimeInMs = config.getReplication().getMaxWaitingTimeForMultiplexingInMs();
+    this.maxSizePerRequest = config.getReplication().getMaxSizePerBatch();
+    this.flusher =
+        IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+            ThreadName.SYNC_LOG_MULTIPLEXER.getName());
+  }
+
+  public void send(
+      TEndPoint endpoint,
+      TSyncLogEntriesReq req,
+      long memorySize,
+      AsyncMethodCallback<TSyncLogEntriesRes> handler) {
+    if (unsupportedEndpoints.contains(endpoint)) {
+      sendSingle(endpoint, req, handler);
+      return;
+    }
+    PendingRequests pendingRequests =
+        pendingRequestsMap.computeIfAbsent(endpoint, k -> new PendingRequests());
+    List<List<PendingRequest>> requestsToSend = new ArrayList<>(2);
+    boolean needScheduleFlush = false;
+    synchronized (pendingRequests) {
+      if (!pendingRequests.groupIds.add(req.getConsensusGroupId())) {
+        requestsToSend.add(pendingRequests.takeAll());
+        pendingRequests.groupIds.add(req.getConsensusGroupId());
+      }
+      pendingRequests.requests.add(new PendingRequest(req, handler));
+      pendingRequests.memorySize += memorySize;
+      if (pendingRequests.memorySize >= maxSizePerRequest) {
+        requestsToSend.add(pendingRequests.takeAll());
+      } else if (!pendingRequests.flushScheduled) {
+        pendingRequests.flushScheduled = true;
+        needScheduleFlush = true;
+      }
+    }
+    requestsToSend.forEach(requests -> sendMultiplexed(endpoint, requests));
+    if (needScheduleFlush) {
+      try {
+        flusher.schedule(() -> flush(endpoint), maxWaitingTimeInMs, TimeUnit.MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+        flush(endpoint);
+      }
+    }
+  }
+
+  private void flush(TEndPoint endpoint) {
+    PendingRequests pendingRequests = pendingRequestsMap.get(endpoint);
+    List<PendingRequest> requestsToSend;
+    synchronized (pendingRequests) {
+      pendingRequests.flushScheduled = false;
+      requestsToSend = pendingRequests.takeAll();
+    }
+    if (!requestsToSend.isEmpty()) {
+      sendMultiplexed(endpoint, requestsToSend);
+    }
+  }
+
+  private void sendMultiplexed(TEndPoint endpoint, List<PendingRequest> requests) {
+    if (requests.size() == 1) {
+      sendSingle(endpoint, requests.get(0).req, requests.get(0).handler);
+      return;
+    }
+    try {
+      AsyncIoTConsensusServiceClient client = clientManager.borrowClient(endpoint);
+      TBatchSyncLogEntriesReq req =
+          new TBatchSyncLogEntriesReq(
+              requests.stream().map(request -> request.req).collect(Collectors.toList()));
+      LOGGER.debug("Send {} TSyncLogEntriesReq to {} in one request", requests.size(), endpoint);
+      client.batchSyncLogEntries(req, new BatchSyncLogEntriesHandler(endpoint, requests));
+      multiplexedRequestNum.incrementAndGet();
+    } catch (Exception e) {
+      LOGGER.error("Can not sync logs to peer {} because", endpoint, e);
+      requests.forEach(request -> request.handler.onError(e));
+    }
+  }
+
+  private void sendSingle(
+      TEndPoint endpoint, TSyncLogEntriesReq req, AsyncMethodCallback<TSyncLogEntriesRes> handler) {
+    try {
+      AsyncIoTConsensusServiceClient client = clientManager.borrowClient(endpoint);
+      client.syncLogEntries(req, handler);
+    } catch (Exception e) {
+      LOGGER.error("Can not sync logs to peer {} because", endpoint, e);
+      handler.onError(e);
+    }
+  }
+
+  public long getMultiplexedRequestNum() {
+    return multiplexedRequestNum.get();
+  }
+
+  /** The requests waiting to be sent are dropped, their batches will not be acknowledged. */
+  public void stop() {
+    flusher.shutdownNow();
+    try {
+      if (!flusher.awaitTermination(5, TimeUnit.SECONDS)) {
+        LOGGER.warn("Unable to shutdown SyncLogEntriesMultiplexer after 5 seconds");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static class PendingRequest {
+
+    private final TSyncLogEntriesReq req;
+    private final AsyncMethodCallback<TSyncLogEntriesRes> handler;
+
+    private PendingRequest(
+        TSyncLogEntriesReq req, AsyncMethodCallback<TSyncLogEntriesRes> handler) {
+      this.req = req;
+      this.handler = handler;
+    }
+  }
+
+  private static class PendingRequests {
+
+    private List<PendingRequest> requests = new ArrayList<>();
+    private final Set<TConsensusGroupId> groupIds = new HashSet<>();
+    private long memorySize = 0;
+    private boolean flushScheduled = false;
+
+    private List<PendingRequest> takeAll() {
+      List<PendingRequest> taken = requests;
+      requests = new ArrayList<>();
+      groupIds.clear();
+      memorySize = 0;
+      return taken;
+    }
+  }
+
+  private class BatchSyncLogEntriesHandler implements AsyncMethodCallback<TBatchSyncLogEntriesRes> {
+
+    private final TEndPoint endpoint;
+    private final List<PendingRequest> requests;
+
+    private BatchSyncLogEntriesHandler(TEndPoint endpoint, List<PendingRequest> requests) {
+      this.endpoint = endpoint;
+      this.requests = requests;
+    }
+
+    @Override
+    public void onComplete(TBatchSyncLogEntriesRes response) {
+      if (response.getResListSize() != requests.size()) {
+        onError(
+            new IOException(
+                String.format(
+                    "Receive %d results from %s for %d requests",
+                    response.getResListSize(), endpoint, requests.size())));
+        return;
+      }
+      for (int i = 0; i < requests.size(); i++) {
+        requests.get(i).handler.onComplete(response.getResList().get(i));
+      }
+    }
+
+    @Override
+    public void onError(Exception exception) {
+      Throwable rootCause = ExceptionUtils.getRootCause(exception);
+      if (rootCause instanceof TApplicationException
+          && ((TApplicationException) rootCause).getType()
+              == TApplicationException.UNKNOWN_METHOD) {
+        LOGGER.info(
+            "Peer {} does not support batchSyncLogEntries, send the requests to it one by one",
+            endpoint);
+        unsupportedEndpoints.add(endpoint);
+        requests.forEach(request -> sendSingle(endpoint, request.req, request.handler));
+        return;
+      }
+      requests.forEach(request -> request.handler.onError(exception));
+    }
+  }
+}
@@ -52,6 +52,23 @@ public class SyncStatus {
     pendingBatches.add(batch);
   }
 
+  /**
+   * Add the batch without blocking, used by the dispatchers running in the SharedLogDispatcher.
+   *
+   * @return false if the synchronization pipeline is full or the memory is not enough
+   */
+  public synchronized boolean tryAddNextBatch(Batch batch) {
+    if (isFull() || !iotConsensusMemoryManager.reserve(batch.getMemorySize(), false)) {
+      return false;
+    }
+    pendingBatches.add(batch);
+    return true;
+  }
+
+  public synchronized boolean isFull() {
+    return pendingBatches.size() >= config.getReplication().getMaxPendingBatchesNum();
+  }
+
   /**
    * We only set a flag if this batch is not the first one. Notice, We need to confirm that the
    * batch in the parameter is actually in pendingBatches, rather than a reference to a different
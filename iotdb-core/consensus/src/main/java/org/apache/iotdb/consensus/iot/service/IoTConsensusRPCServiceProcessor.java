@@ -35,6 +35,8 @@ import org.apache.iotdb.consensus.iot.IoTConsensusServerImpl;
 import org.apache.iotdb.consensus.iot.thrift.IoTConsensusIService;
 import org.apache.iotdb.consensus.iot.thrift.TActivatePeerReq;
 import org.apache.iotdb.consensus.iot.thrift.TActivatePeerRes;
+import org.apache.iotdb.consensus.iot.thrift.TBatchSyncLogEntriesReq;
+import org.apache.iotdb.consensus.iot.thrift.TBatchSyncLogEntriesRes;
 import org.apache.iotdb.consensus.iot.thrift.TBuildSyncLogChannelReq;
 import org.apache.iotdb.consensus.iot.thrift.TBuildSyncLogChannelRes;
 import org.apache.iotdb.consensus.iot.thrift.TCleanupTransferredSnapshotReq;
@@ -60,7 +62,13 @@ import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.Iface {
@@ -132,6 +140,61 @@ public class IoTConsensusRPCServiceProcessor implements IoTConsensusIService.Ifa
     return new TSyncLogEntriesRes(writeStatus.subStatus);
   }
 
+  @Override
+  public TBatchSyncLogEntriesRes batchSyncLogEntries(TBatchSyncLogEntriesReq req) {
+    List<TSyncLogEntriesReq> reqs = req.getReqs();
+    if (reqs.isEmpty()) {
+      return new TBatchSyncLogEntriesRes(Collections.emptyList());
+    }
+    // A batch may wait in the SyncLogCacheQueue of its group for a batch carried by another
+    // request, so the groups are applied concurrently to avoid blocking each other.
+    List<Future<TSyncLogEntriesRes>> futures = new ArrayList<>(reqs.size());
+    for (int i = 1; i < reqs.size(); i++) {
+      TSyncLogEntriesReq syncLogEntriesReq = reqs.get(i);
+      try {
+        futures.add(
+            consensus
+                .getBatchSyncLogReceiver()
+                .submit(() -> syncLogEntriesWithoutThrow(syncLogEntriesReq)));
+      } catch (RejectedExecutionException e) {
+        futures.add(
+            CompletableFuture.completedFuture(buildSyncLogEntriesFailure(syncLogEntriesReq, e)));
+      }
+    }
+    List<TSyncLogEntriesRes> resList = new ArrayList<>(reqs.size());
+    resList.add(syncLogEntriesWithoutThrow(reqs.get(0)));
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        resList.add(futures.get(i).get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        resList.add(buildSyncLogEntriesFailure(reqs.get(i + 1), e));
+      } catch (ExecutionException e) {
+        resList.add(buildSyncLogEntriesFailure(reqs.get(i + 1), e));
+      }
+    }
+    return new TBatchSyncLogEntriesRes(resList);
+  }
+
+  // each group gets its own result, so the failure of one group doesn't affect the others
+  private TSyncLogEntriesRes syncLogEntriesWithoutThrow(TSyncLogEntriesReq req) {
+    try {
+      return syncLogEntries(req);
+    } catch (Exception e) {
+      return buildSyncLogEntriesFailure(req, e);
+    }
+  }
+
+  private TSyncLogEntriesRes buildSyncLogEntriesFailure(TSyncLogEntriesReq req, Exception e) {
+    String message =
+        String.format(
+            "fail to sync logEntries of %s because %s", req.getConsensusGroupId(), e.getMessage());
+    LOGGER.error(message, e);
+    TSStatus status = new TSStatus(TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+    status.setMessage(message);
+    return new TSyncLogEntriesRes(Collections.singletonList(status));
+  }
+
   @Override
   public TInactivatePeerRes inactivatePeer(TInactivatePeerReq req) throws TException {
     if (req.isForDeletionPurpose()) {
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.consensus.iot;
+
+import org.apache.iotdb.commons.consensus.ConsensusGroupId;
+import org.apache.iotdb.commons.consensus.DataRegionId;
+import org.apache.iotdb.consensus.IStateMachine;
+import org.apache.iotdb.consensus.common.Peer;
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
+import org.apache.iotdb.consensus.iot.util.TestEntry;
+import org.apache.iotdb.consensus.iot.util.TestStateMachine;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Run the replication tests with the batches sent through batchSyncLogEntries. The small batches
+ * and the long waiting time make the batches of several groups to the same peer share one RPC.
+ */
+public class MultiplexedSyncLogReplicateTest extends ReplicateTest {
+
+  private static final int ENTRY_NUM_PER_GROUP = 100;
+
+  private final Map<ConsensusGroupId, List<TestStateMachine>> otherStateMachines =
+      new ConcurrentHashMap<>();
+
+  @Override
+  protected IoTConsensusConfig createIoTConsensusConfig() {
+    return IoTConsensusConfig.newBuilder()
+        .setReplication(
+            IoTConsensusConfig.Replication.newBuilder()
+                .setMaxLogEntriesNumPerBatch(10)
+                .setEnableMultiplexedSyncLog(true)
+                .setMaxWaitingTimeForMultiplexingInMs(50)
+                .build())
+        .build();
+  }
+
+  @Override
+  protected IStateMachine getStateMachine(int nodeIndex, ConsensusGroupId groupId) {
+    if (gid.equals(groupId)) {
+      return super.getStateMachine(nodeIndex, groupId);
+    }
+    return otherStateMachines
+        .computeIfAbsent(
+            groupId,
+            k ->
+                IntStream.range(0, peers.size())
+                    .mapToObj(i -> new TestStateMachine())
+                    .collect(Collectors.toList()))
+        .get(nodeIndex);
+  }
+
+  @Test
+  public void replicateMultipleGroupsTest() throws Exception {
+    List<ConsensusGroupId> groupIds =
+        Arrays.asList(new DataRegionId(2), new DataRegionId(3), new DataRegionId(4));
+    for (ConsensusGroupId groupId : groupIds) {
+      List<Peer> groupPeers = getGroupPeers(groupId);
+      for (IoTConsensus server : servers) {
+        server.createLocalPeer(groupId, groupPeers);
+      }
+    }
+
+    for (int i = 0; i < ENTRY_NUM_PER_GROUP; i++) {
+      for (ConsensusGroupId groupId : groupIds) {
+        servers.get(0).write(groupId, new TestEntry(i, getGroupPeers(groupId).get(0)));
+      }
+    }
+
+    long start = System.currentTimeMillis();
+    for (ConsensusGroupId groupId : groupIds) {
+      while (servers.get(0).getImpl(groupId).getMinSyncIndex() < ENTRY_NUM_PER_GROUP) {
+        if (System.currentTimeMillis() - start > 60 * 1000) {
+          Assert.fail("Unable to replicate entries of " + groupId);
+        }
+        Thread.sleep(100);
+      }
+    }
+
+    // the batches of the groups share RPCs rather than being sent one by one
+    Assert.assertTrue(servers.get(0).getSyncLogEntriesMultiplexer().getMultiplexedRequestNum() > 0);
+
+    for (ConsensusGroupId groupId : groupIds) {
+      List<TestStateMachine> groupStateMachines = otherStateMachines.get(groupId);
+      for (TestStateMachine stateMachine : groupStateMachines) {
+        Assert.assertEquals(ENTRY_NUM_PER_GROUP, stateMachine.getRequestSet().size());
+        Assert.assertEquals(groupStateMachines.get(0).getData(), stateMachine.getData());
+      }
+    }
+  }
+
+  private List<Peer> getGroupPeers(ConsensusGroupId groupId) {
+    return peers.stream()
+        .map(peer -> new Peer(groupId, peer.getNodeId(), peer.getEndpoint()))
+        .collect(Collectors.toList());
+  }
+}
@@ -25,9 +25,11 @@ import org.apache.iotdb.commons.consensus.ConsensusGroupId;
 import org.apache.iotdb.commons.consensus.DataRegionId;
 import org.apache.iotdb.commons.exception.StartupException;
 import org.apache.iotdb.consensus.ConsensusFactory;
+import org.apache.iotdb.consensus.IStateMachine;
 import org.apache.iotdb.consensus.common.ConsensusGroup;
 import org.apache.iotdb.consensus.common.Peer;
 import org.apache.iotdb.consensus.config.ConsensusConfig;
+import org.apache.iotdb.consensus.config.IoTConsensusConfig;
 import org.apache.iotdb.consensus.exception.ConsensusException;
 import org.apache.iotdb.consensus.iot.util.TestEntry;
 import org.apache.iotdb.consensus.iot.util.TestStateMachine;
@@ -55,11 +57,11 @@ public class ReplicateTest {
   private static final long CHECK_POINT_GAP = 500;
   private final Logger logger = LoggerFactory.getLogger(ReplicateTest.class);
 
-  private final ConsensusGroupId gid = new DataRegionId(1);
+  protected final ConsensusGroupId gid = new DataRegionId(1);
 
   private int basePort = 9000;
 
-  private final List<Peer> peers =
+  protected final List<Peer> peers =
       Arrays.asList(
           new Peer(gid, 1, new TEndPoint("127.0.0.1", basePort - 2)),
           new Peer(gid, 2, new TEndPoint("127.0.0.1", basePort - 1)),
@@ -72,7 +74,7 @@ public class ReplicateTest {
           new File("target" + File.separator + "3"));
 
   private final ConsensusGroup group = new ConsensusGroup(gid, peers);
-  private final List<IoTConsensus> servers = new ArrayList<>();
+  protected final List<IoTConsensus> servers = new ArrayList<>();
   private final List<TestStateMachine> stateMachines = new ArrayList<>();
 
   @Before
@@ -106,8 +108,9 @@ public class ReplicateTest {
                             .setThisNode(peers.get(i).getEndpoint())
                             .setStorageDir(peersStorage.get(i).getAbsolutePath())
                             .setConsensusGroupType(TConsensusGroupType.DataRegion)
+                            .setIoTConsensusConfig(createIoTConsensusConfig())
                             .build(),
-                        groupId -> stateMachines.get(finalI))
+                        groupId -> getStateMachine(finalI, groupId))
                     .orElseThrow(
                         () ->
                             new IllegalArgumentException(
@@ -131,6 +134,14 @@ public class ReplicateTest {
     }
   }
 
+  protected IStateMachine getStateMachine(int nodeIndex, ConsensusGroupId groupId) {
+    return stateMachines.get(nodeIndex);
+  }
+
+  protected IoTConsensusConfig createIoTConsensusConfig() {
+    return IoTConsensusConfig.newBuilder().build();
+  }
+
   private void stopServer() {
     servers.parallelStream().forEach(IoTConsensus::stop);
     servers.clear();
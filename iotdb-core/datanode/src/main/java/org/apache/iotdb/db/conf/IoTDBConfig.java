@@ -122,6 +122,21 @@ public class IoTDBConfig {
   /** Max mqtt message size. Unit: byte */
   private int mqttMaxMessageSize = 1048576;
 
+  /**
+   * Max number of the mqtt messages of one device or table that are written in one insertion. 1
+   * means each message is written by itself when it arrives.
+   */
+  private int mqttInsertBatchSize = 1;
+
+  /** Max time that a mqtt message waits for its batch to fill up. Unit: ms */
+  private long mqttInsertBatchIntervalInMs = 50;
+
+  /** Number of the queues, each with a worker thread, that the mqtt messages are batched in. */
+  private int mqttInsertBatchShardNum = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+
+  /** Capacity of each mqtt batching queue, the broker waits when the queue is full. */
+  private int mqttInsertBatchQueueCapacity = 10000;
+
   /** Rpc binding address. */
   private String rpcAddress = "0.0.0.0";
 
@@ -189,6 +204,27 @@ public class IoTDBConfig {
   /** Buffer size of each wal node. Unit: byte */
   private int walBufferSize = 32 * 1024 * 1024;
 
+  /**
+   * Whether writer threads serialize their own WALEntries, leaving only the byte copy and fsync to
+   * the wal node's threads
+   */
+  private volatile boolean walParallelSerializeEnabled = false;
+
+  /** Whether wal recovery and IoTConsensus catch-up read closed wal files through mmap */
+  private volatile boolean walMmapReadEnabled = false;
+
+  /**
+   * Number of threads shared by all wal nodes to parse wal files and redo logs in parallel during
+   * recovery. 0 means each wal node reads and redoes its wal files sequentially.
+   */
+  private int walRecoverThreadNum = 0;
+
+  /**
+   * Max total size of the wal files each wal node parses ahead of the file being redone during
+   * parallel recovery. The next file is always parsed, even if it alone exceeds this size.
+   */
+  private long walRecoverParseAheadSizeInByte = 64 * 1024 * 1024L;
+
   /** Blocking queue capacity of each delete ahead log buffer */
   private int deletionAheadLogBufferQueueCapacity = 500;
 
@@ -417,6 +453,21 @@ public class IoTDBConfig {
   /** The buffer for sort operation */
   private long sortBufferSize = 1024 * 1024L;
 
+  /** Whether to use hash join instead of sort-merge join for equi-joins of table model */
+  private boolean enableHashJoin = false;
+
+  /** The memory for build side of hash join, exceeding it will make the hash join spill to disk */
+  private long hashJoinBuildBufferSize = 16 * 1024 * 1024L;
+
+  /** Whether hash aggregation of table model can spill its groups to disk */
+  private boolean enableHashAggregationSpill = false;
+
+  /** The memory for groups of hash aggregation, exceeding it will make the groups spill to disk */
+  private long hashAggregationBufferSize = 32 * 1024 * 1024L;
+
+  /** The max number of analyzed prepared statements cached for reuse by EXECUTE */
+  private int preparedStatementAnalysisCacheSize = 1000;
+
   /**
    * The strategy of inner space compaction task. There are just one inner space compaction strategy
    * SIZE_TIRED_COMPACTION:
@@ -759,6 +810,9 @@ public class IoTDBConfig {
   // Interval num of tag and attribute records when force flushing to disk
   private int tagAttributeFlushInterval = 1000;
 
+  // Whether to read tag and attribute records through memory mapped tag log file
+  private boolean enableTagAttributeMmapRead = true;
+
   // In one insert (one device, one timestamp, multiple measurements),
   // if enable partial insert, one measurement failure will not impact other measurements
   private boolean enablePartialInsert = true;
@@ -806,6 +860,12 @@ public class IoTDBConfig {
   /** the size of ioTaskQueue */
   private int ioTaskQueueSizeForFlushing = 10;
 
+  /**
+   * the max number of devices sorted and encoded concurrently when flushing one memtable, 1 means
+   * all devices are encoded by a single encoding task
+   */
+  private int flushEncodingParallelism = 1;
+
   /** the number of data regions per user-defined database */
   private int dataRegionNum = 1;
 
@@ -899,6 +959,12 @@ public class IoTDBConfig {
   /** Thread keep alive time in ms of mpp data exchange. */
   private int mppDataExchangeKeepAliveTimeInMs = 1000;
 
+  /**
+   * Compression of the TsBlocks sent between fragment instances on different nodes, UNCOMPRESSED
+   * means TsBlocks are shipped as is.
+   */
+  private CompressionType mppDataExchangeCompressionType = CompressionType.UNCOMPRESSED;
+
   /** Thrift socket and connection timeout between data node and config node. */
   private int connectionTimeoutInMS = (int) TimeUnit.SECONDS.toMillis(60);
 
@@ -977,6 +1043,12 @@ public class IoTDBConfig {
   /** Maximum execution time of a DriverTask */
   private int driverTaskExecutionTimeSliceInMs = 200;
 
+  /**
+   * Whether the query worker threads poll from per-worker ready queues and steal from each other
+   * instead of sharing one ready queue.
+   */
+  private boolean enableWorkStealingDriverScheduler = false;
+
   /** Maximum size of wal buffer used in IoTConsensus. Unit: byte */
   private long throttleThreshold = 200 * 1024 * 1024 * 1024L;
 
@@ -1060,6 +1132,21 @@ public class IoTDBConfig {
   private double maxMemoryRatioForQueue = 0.6;
   private long regionMigrationSpeedLimitBytesPerSecond = 48 * 1024 * 1024L;
 
+  /**
+   * Number of the threads shared by the log dispatchers of all the data regions. 0 means each
+   * dispatcher of a peer occupies its own thread.
+   */
+  private int iotConsensusLogDispatcherThreadNum = 0;
+
+  /**
+   * Whether the IoTConsensus batches of different data regions bound for the same DataNode are sent
+   * in one RPC.
+   */
+  private boolean iotConsensusEnableMultiplexedSyncLog = false;
+
+  /** Max time that a batch waits for the batches of other data regions to be multiplexed with. */
+  private long iotConsensusMultiplexedSyncLogWaitingTimeInMs = 5;
+
   // IoTConsensusV2 Config
   private int iotConsensusV2PipelineSize = 5;
   private String iotConsensusV2Mode = ConsensusFactory.IOT_CONSENSUS_V2_BATCH_MODE;
@@ -1155,6 +1242,49 @@ public class IoTDBConfig {
 
   private LastCacheLoadStrategy lastCacheLoadStrategy = LastCacheLoadStrategy.UPDATE;
 
+  /**
+   * Whether the last cache of table model devices keeps the last points in primitive arrays instead
+   * of a map of TimeValuePairs.
+   */
+  private boolean enableColumnarTableLastCache = false;
+
+  /**
+   * Whether to persist the last cache to the system directory on shutdown and periodically, and
+   * reload it after restart to avoid a cold last cache.
+   */
+  private boolean enableLastCacheSnapshot = false;
+
+  /** The interval of the periodical last cache snapshot, non-positive to snapshot on stop only. */
+  private long lastCacheSnapshotIntervalInMs = 600_000L;
+
+  /**
+   * The max proportion of the chunk cache that the missed chunks of one query can be put into, the
+   * following missed chunks of the query are read without caching. 1 means no limit.
+   */
+  private double chunkCacheAdmissionRatioPerQuery = 1.0;
+
+  /**
+   * How many of the following TsFiles a series scan reads ahead on the prefetch pool while it is
+   * consuming the current one. 0 means prefetching is disabled.
+   */
+  private int seriesScanPrefetchFileNum = 0;
+
+  /** How many chunks of each read-ahead TsFile are loaded into the chunk cache. */
+  private int seriesScanPrefetchChunkNumPerFile = 8;
+
+  /** The thread count of the series scan prefetch pool. */
+  private int seriesScanPrefetchThreadCount =
+      Math.max(Runtime.getRuntime().availableProcessors() / 4, 1);
+
+  /**
+   * Whether to split the devices of a table scan in one DataRegion into several device ranges,
+   * which are scanned by parallel fragment instances.
+   */
+  private boolean enableRegionDeviceParallelScan = false;
+
+  /** The min number of devices in each device range of a split table scan. */
+  private int regionScanMinDeviceNumPerSplit = 32;
+
   /**
    * Whether to cache last values when constructing TsFileResource during LOAD. When set to true,
    * blob series will be forcibly ignored even if lastCacheLoadStrategy =
@@ -1195,6 +1325,33 @@ public class IoTDBConfig {
     this.regionMigrationSpeedLimitBytesPerSecond = regionMigrationSpeedLimitBytesPerSecond;
   }
 
+  public int getIotConsensusLogDispatcherThreadNum() {
+    return iotConsensusLogDispatcherThreadNum;
+  }
+
+  public void setIotConsensusLogDispatcherThreadNum(int iotConsensusLogDispatcherThreadNum) {
+    this.iotConsensusLogDispatcherThreadNum = iotConsensusLogDispatcherThreadNum;
+  }
+
+  public boolean isIotConsensusEnableMultiplexedSyncLog() {
+    return iotConsensusEnableMultiplexedSyncLog;
+  }
+
+  public void setIotConsensusEnableMultiplexedSyncLog(
+      boolean iotConsensusEnableMultiplexedSyncLog) {
+    this.iotConsensusEnableMultiplexedSyncLog = iotConsensusEnableMultiplexedSyncLog;
+  }
+
+  public long getIotConsensusMultiplexedSyncLogWaitingTimeInMs() {
+    return iotConsensusMultiplexedSyncLogWaitingTimeInMs;
+  }
+
+  public void setIotConsensusMultiplexedSyncLogWaitingTimeInMs(
+      long iotConsensusMultiplexedSyncLogWaitingTimeInMs) {
+    this.iotConsensusMultiplexedSyncLogWaitingTimeInMs =
+        iotConsensusMultiplexedSyncLogWaitingTimeInMs;
+  }
+
   public int getIotConsensusV2PipelineSize() {
     return iotConsensusV2PipelineSize;
   }
@@ -1908,6 +2065,38 @@ public class IoTDBConfig {
     this.walBufferSize = walBufferSize;
   }
 
+  public boolean isWalParallelSerializeEnabled() {
+    return walParallelSerializeEnabled;
+  }
+
+  public void setWalParallelSerializeEnabled(boolean walParallelSerializeEnabled) {
+    this.walParallelSerializeEnabled = walParallelSerializeEnabled;
+  }
+
+  public boolean isWalMmapReadEnabled() {
+    return walMmapReadEnabled;
+  }
+
+  public void setWalMmapReadEnabled(boolean walMmapReadEnabled) {
+    this.walMmapReadEnabled = walMmapReadEnabled;
+  }
+
+  public int getWalRecoverThreadNum() {
+    return walRecoverThreadNum;
+  }
+
+  public void setWalRecoverThreadNum(int walRecoverThreadNum) {
+    this.walRecoverThreadNum = walRecoverThreadNum;
+  }
+
+  public long getWalRecoverParseAheadSizeInByte() {
+    return walRecoverParseAheadSizeInByte;
+  }
+
+  public void setWalRecoverParseAheadSizeInByte(long walRecoverParseAheadSizeInByte) {
+    this.walRecoverParseAheadSizeInByte = walRecoverParseAheadSizeInByte;
+  }
+
   public int getDeletionAheadLogBufferQueueCapacity() {
     return deletionAheadLogBufferQueueCapacity;
   }
@@ -2507,6 +2696,38 @@ public class IoTDBConfig {
     this.mqttMaxMessageSize = mqttMaxMessageSize;
   }
 
+  public int getMqttInsertBatchSize() {
+    return mqttInsertBatchSize;
+  }
+
+  public void setMqttInsertBatchSize(int mqttInsertBatchSize) {
+    this.mqttInsertBatchSize = mqttInsertBatchSize;
+  }
+
+  public long getMqttInsertBatchIntervalInMs() {
+    return mqttInsertBatchIntervalInMs;
+  }
+
+  public void setMqttInsertBatchIntervalInMs(long mqttInsertBatchIntervalInMs) {
+    this.mqttInsertBatchIntervalInMs = mqttInsertBatchIntervalInMs;
+  }
+
+  public int getMqttInsertBatchShardNum() {
+    return mqttInsertBatchShardNum;
+  }
+
+  public void setMqttInsertBatchShardNum(int mqttInsertBatchShardNum) {
+    this.mqttInsertBatchShardNum = mqttInsertBatchShardNum;
+  }
+
+  public int getMqttInsertBatchQueueCapacity() {
+    return mqttInsertBatchQueueCapacity;
+  }
+
+  public void setMqttInsertBatchQueueCapacity(int mqttInsertBatchQueueCapacity) {
+    this.mqttInsertBatchQueueCapacity = mqttInsertBatchQueueCapacity;
+  }
+
   public int getTagAttributeFlushInterval() {
     return tagAttributeFlushInterval;
   }
@@ -2515,6 +2736,14 @@ public class IoTDBConfig {
     this.tagAttributeFlushInterval = tagAttributeFlushInterval;
   }
 
+  public boolean isEnableTagAttributeMmapRead() {
+    return enableTagAttributeMmapRead;
+  }
+
+  public void setEnableTagAttributeMmapRead(boolean enableTagAttributeMmapRead) {
+    this.enableTagAttributeMmapRead = enableTagAttributeMmapRead;
+  }
+
   public int getPrimitiveArraySize() {
     return primitiveArraySize;
   }
@@ -2654,6 +2883,14 @@ public class IoTDBConfig {
     this.ioTaskQueueSizeForFlushing = ioTaskQueueSizeForFlushing;
   }
 
+  public int getFlushEncodingParallelism() {
+    return flushEncodingParallelism;
+  }
+
+  public void setFlushEncodingParallelism(int flushEncodingParallelism) {
+    this.flushEncodingParallelism = flushEncodingParallelism;
+  }
+
   public boolean isEnableSeqSpaceCompaction() {
     return enableSeqSpaceCompaction;
   }
@@ -3059,6 +3296,14 @@ public class IoTDBConfig {
     this.mppDataExchangeKeepAliveTimeInMs = mppDataExchangeKeepAliveTimeInMs;
   }
 
+  public CompressionType getMppDataExchangeCompressionType() {
+    return mppDataExchangeCompressionType;
+  }
+
+  public void setMppDataExchangeCompressionType(CompressionType mppDataExchangeCompressionType) {
+    this.mppDataExchangeCompressionType = mppDataExchangeCompressionType;
+  }
+
   public int getConnectionTimeoutInMS() {
     return connectionTimeoutInMS;
   }
@@ -3313,6 +3558,14 @@ public class IoTDBConfig {
     this.driverTaskExecutionTimeSliceInMs = driverTaskExecutionTimeSliceInMs;
   }
 
+  public boolean isEnableWorkStealingDriverScheduler() {
+    return enableWorkStealingDriverScheduler;
+  }
+
+  public void setEnableWorkStealingDriverScheduler(boolean enableWorkStealingDriverScheduler) {
+    this.enableWorkStealingDriverScheduler = enableWorkStealingDriverScheduler;
+  }
+
   public static String getEnvironmentVariables() {
     return "\n\t"
         + IoTDBConstant.IOTDB_HOME
@@ -4032,6 +4285,46 @@ public class IoTDBConfig {
     return sortBufferSize;
   }
 
+  public boolean isEnableHashJoin() {
+    return enableHashJoin;
+  }
+
+  public void setEnableHashJoin(boolean enableHashJoin) {
+    this.enableHashJoin = enableHashJoin;
+  }
+
+  public long getHashJoinBuildBufferSize() {
+    return hashJoinBuildBufferSize;
+  }
+
+  public void setHashJoinBuildBufferSize(long hashJoinBuildBufferSize) {
+    this.hashJoinBuildBufferSize = hashJoinBuildBufferSize;
+  }
+
+  public boolean isEnableHashAggregationSpill() {
+    return enableHashAggregationSpill;
+  }
+
+  public void setEnableHashAggregationSpill(boolean enableHashAggregationSpill) {
+    this.enableHashAggregationSpill = enableHashAggregationSpill;
+  }
+
+  public long getHashAggregationBufferSize() {
+    return hashAggregationBufferSize;
+  }
+
+  public void setHashAggregationBufferSize(long hashAggregationBufferSize) {
+    this.hashAggregationBufferSize = hashAggregationBufferSize;
+  }
+
+  public int getPreparedStatementAnalysisCacheSize() {
+    return preparedStatementAnalysisCacheSize;
+  }
+
+  public void setPreparedStatementAnalysisCacheSize(int preparedStatementAnalysisCacheSize) {
+    this.preparedStatementAnalysisCacheSize = preparedStatementAnalysisCacheSize;
+  }
+
   public void setSortTmpDir(String sortTmpDir) {
     this.sortTmpDir = sortTmpDir;
   }
@@ -4117,6 +4410,78 @@ public class IoTDBConfig {
     this.lastCacheLoadStrategy = lastCacheLoadStrategy;
   }
 
+  public boolean isEnableColumnarTableLastCache() {
+    return enableColumnarTableLastCache;
+  }
+
+  public void setEnableColumnarTableLastCache(boolean enableColumnarTableLastCache) {
+    this.enableColumnarTableLastCache = enableColumnarTableLastCache;
+  }
+
+  public boolean isEnableLastCacheSnapshot() {
+    return enableLastCacheSnapshot;
+  }
+
+  public void setEnableLastCacheSnapshot(boolean enableLastCacheSnapshot) {
+    this.enableLastCacheSnapshot = enableLastCacheSnapshot;
+  }
+
+  public long getLastCacheSnapshotIntervalInMs() {
+    return lastCacheSnapshotIntervalInMs;
+  }
+
+  public void setLastCacheSnapshotIntervalInMs(long lastCacheSnapshotIntervalInMs) {
+    this.lastCacheSnapshotIntervalInMs = lastCacheSnapshotIntervalInMs;
+  }
+
+  public double getChunkCacheAdmissionRatioPerQuery() {
+    return chunkCacheAdmissionRatioPerQuery;
+  }
+
+  public void setChunkCacheAdmissionRatioPerQuery(double chunkCacheAdmissionRatioPerQuery) {
+    this.chunkCacheAdmissionRatioPerQuery = chunkCacheAdmissionRatioPerQuery;
+  }
+
+  public int getSeriesScanPrefetchFileNum() {
+    return seriesScanPrefetchFileNum;
+  }
+
+  public void setSeriesScanPrefetchFileNum(int seriesScanPrefetchFileNum) {
+    this.seriesScanPrefetchFileNum = seriesScanPrefetchFileNum;
+  }
+
+  public int getSeriesScanPrefetchChunkNumPerFile() {
+    return seriesScanPrefetchChunkNumPerFile;
+  }
+
+  public void setSeriesScanPrefetchChunkNumPerFile(int seriesScanPrefetchChunkNumPerFile) {
+    this.seriesScanPrefetchChunkNumPerFile = seriesScanPrefetchChunkNumPerFile;
+  }
+
+  public int getSeriesScanPrefetchThreadCount() {
+    return seriesScanPrefetchThreadCount;
+  }
+
+  public void setSeriesScanPrefetchThreadCount(int seriesScanPrefetchThreadCount) {
+    this.seriesScanPrefetchThreadCount = seriesScanPrefetchThreadCount;
+  }
+
+  public boolean isEnableRegionDeviceParallelScan() {
+    return enableRegionDeviceParallelScan;
+  }
+
+  public void setEnableRegionDeviceParallelScan(boolean enableRegionDeviceParallelScan) {
+    this.enableRegionDeviceParallelScan = enableRegionDeviceParallelScan;
+  }
+
+  public int getRegionScanMinDeviceNumPerSplit() {
+    return regionScanMinDeviceNumPerSplit;
+  }
+
+  public void setRegionScanMinDeviceNumPerSplit(int regionScanMinDeviceNumPerSplit) {
+    this.regionScanMinDeviceNumPerSplit = regionScanMinDeviceNumPerSplit;
+  }
+
   public boolean isCacheLastValuesForLoad() {
     return (lastCacheLoadStrategy == LastCacheLoadStrategy.UPDATE
             || lastCacheLoadStrategy == LastCacheLoadStrategy.UPDATE_NO_BLOB)
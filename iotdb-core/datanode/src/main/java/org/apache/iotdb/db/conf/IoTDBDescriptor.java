@@ -388,6 +388,14 @@ public class IoTDBDescriptor {
                 "io_task_queue_size_for_flushing",
                 Integer.toString(conf.getIoTaskQueueSizeForFlushing()))));
 
+    conf.setFlushEncodingParallelism(
+        Math.max(
+            1,
+            Integer.parseInt(
+                properties.getProperty(
+                    "flush_encoding_parallelism",
+                    Integer.toString(conf.getFlushEncodingParallelism())))));
+
     boolean enableWALCompression =
         Boolean.parseBoolean(properties.getProperty("enable_wal_compression", "true"));
     conf.setWALCompressionAlgorithm(
@@ -790,6 +798,12 @@ public class IoTDBDescriptor {
                 "tag_attribute_flush_interval",
                 String.valueOf(conf.getTagAttributeFlushInterval()))));
 
+    conf.setEnableTagAttributeMmapRead(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_tag_attribute_mmap_read",
+                String.valueOf(conf.isEnableTagAttributeMmapRead()))));
+
     conf.setPrimitiveArraySize(
         (Integer.parseInt(
             properties.getProperty(
@@ -1035,6 +1049,36 @@ public class IoTDBDescriptor {
     // tmp filePath for sort operator
     conf.setSortTmpDir(properties.getProperty("sort_tmp_dir", conf.getSortTmpDir()));
 
+    conf.setEnableHashJoin(
+        Boolean.parseBoolean(
+            properties.getProperty("enable_hash_join", Boolean.toString(conf.isEnableHashJoin()))));
+
+    // The buffer for build side of hash join
+    conf.setHashJoinBuildBufferSize(
+        Long.parseLong(
+            properties.getProperty(
+                "hash_join_build_buffer_size_in_bytes",
+                Long.toString(conf.getHashJoinBuildBufferSize()))));
+
+    conf.setEnableHashAggregationSpill(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_hash_aggregation_spill",
+                Boolean.toString(conf.isEnableHashAggregationSpill()))));
+
+    // The buffer for groups of hash aggregation
+    conf.setHashAggregationBufferSize(
+        Long.parseLong(
+            properties.getProperty(
+                "hash_aggregation_buffer_size_in_bytes",
+                Long.toString(conf.getHashAggregationBufferSize()))));
+
+    conf.setPreparedStatementAnalysisCacheSize(
+        Integer.parseInt(
+            properties.getProperty(
+                "prepared_statement_analysis_cache_size",
+                Integer.toString(conf.getPreparedStatementAnalysisCacheSize()))));
+
     conf.setRateLimiterType(properties.getProperty("rate_limiter_type", conf.getRateLimiterType()));
 
     conf.setDataNodeSchemaCacheEvictionPolicy(
@@ -1204,6 +1248,23 @@ public class IoTDBDescriptor {
       conf.setWalBufferSize(walBufferSize);
     }
 
+    int walRecoverThreadNum =
+        Integer.parseInt(
+            properties.getProperty(
+                "wal_recover_thread_num", Integer.toString(conf.getWalRecoverThreadNum())));
+    if (walRecoverThreadNum >= 0) {
+      conf.setWalRecoverThreadNum(walRecoverThreadNum);
+    }
+
+    long walRecoverParseAheadSizeInByte =
+        Long.parseLong(
+            properties.getProperty(
+                "wal_recover_parse_ahead_size_in_byte",
+                Long.toString(conf.getWalRecoverParseAheadSizeInByte())));
+    if (walRecoverParseAheadSizeInByte > 0) {
+      conf.setWalRecoverParseAheadSizeInByte(walRecoverParseAheadSizeInByte);
+    }
+
     boolean WALInsertNodeCacheShrinkClearEnabled =
         Boolean.parseBoolean(
             properties.getProperty(
@@ -1553,6 +1614,19 @@ public class IoTDBDescriptor {
       conf.setWalSyncModeFsyncDelayInMs(walSyncModeFsyncDelayInMs);
     }
 
+    conf.setWalParallelSerializeEnabled(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "wal_parallel_serialize_enabled",
+                ConfigurationFileUtils.getConfigurationDefaultValue(
+                    "wal_parallel_serialize_enabled"))));
+
+    conf.setWalMmapReadEnabled(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "wal_mmap_read_enabled",
+                ConfigurationFileUtils.getConfigurationDefaultValue("wal_mmap_read_enabled"))));
+
     long walFileSizeThreshold =
         Long.parseLong(
             properties.getProperty(
@@ -1841,6 +1915,31 @@ public class IoTDBDescriptor {
       conf.setMqttMaxMessageSize(
           Integer.parseInt(properties.getProperty(IoTDBConstant.MQTT_MAX_MESSAGE_SIZE).trim()));
     }
+
+    if (properties.getProperty("mqtt_insert_batch_size") != null) {
+      conf.setMqttInsertBatchSize(
+          Integer.parseInt(properties.getProperty("mqtt_insert_batch_size").trim()));
+    }
+
+    if (properties.getProperty("mqtt_insert_batch_interval_in_ms") != null) {
+      conf.setMqttInsertBatchIntervalInMs(
+          Long.parseLong(properties.getProperty("mqtt_insert_batch_interval_in_ms").trim()));
+    }
+
+    if (properties.getProperty("mqtt_insert_batch_shard_num") != null) {
+      int shardNum = Integer.parseInt(properties.getProperty("mqtt_insert_batch_shard_num").trim());
+      if (shardNum > 0) {
+        conf.setMqttInsertBatchShardNum(shardNum);
+      }
+    }
+
+    if (properties.getProperty("mqtt_insert_batch_queue_capacity") != null) {
+      int queueCapacity =
+          Integer.parseInt(properties.getProperty("mqtt_insert_batch_queue_capacity").trim());
+      if (queueCapacity > 0) {
+        conf.setMqttInsertBatchQueueCapacity(queueCapacity);
+      }
+    }
   }
 
   // timed flush memtable
@@ -2547,6 +2646,14 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "mpp_data_exchange_keep_alive_time_in_ms",
                 Integer.toString(conf.getMppDataExchangeKeepAliveTimeInMs()))));
+    boolean enableMppDataExchangeCompression =
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_mpp_data_exchange_compression",
+                Boolean.toString(
+                    conf.getMppDataExchangeCompressionType() != CompressionType.UNCOMPRESSED)));
+    conf.setMppDataExchangeCompressionType(
+        enableMppDataExchangeCompression ? CompressionType.LZ4 : CompressionType.UNCOMPRESSED);
 
     conf.setPartitionCacheSize(
         Integer.parseInt(
@@ -2558,6 +2665,94 @@ public class IoTDBDescriptor {
             properties.getProperty(
                 "driver_task_execution_time_slice_in_ms",
                 Integer.toString(conf.getDriverTaskExecutionTimeSliceInMs()))));
+
+    conf.setEnableWorkStealingDriverScheduler(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_work_stealing_driver_scheduler",
+                Boolean.toString(conf.isEnableWorkStealingDriverScheduler()))));
+
+    conf.setEnableColumnarTableLastCache(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_columnar_table_last_cache",
+                Boolean.toString(conf.isEnableColumnarTableLastCache()))));
+
+    conf.setEnableLastCacheSnapshot(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_last_cache_snapshot", Boolean.toString(conf.isEnableLastCacheSnapshot()))));
+
+    conf.setLastCacheSnapshotIntervalInMs(
+        Long.parseLong(
+            properties.getProperty(
+                "last_cache_snapshot_interval_in_ms",
+                Long.toString(conf.getLastCacheSnapshotIntervalInMs()))));
+
+    conf.setChunkCacheAdmissionRatioPerQuery(
+        Double.parseDouble(
+            properties.getProperty(
+                "chunk_cache_admission_ratio_per_query",
+                Double.toString(conf.getChunkCacheAdmissionRatioPerQuery()))));
+
+    conf.setSeriesScanPrefetchFileNum(
+        Integer.parseInt(
+            properties.getProperty(
+                "series_scan_prefetch_file_num",
+                Integer.toString(conf.getSeriesScanPrefetchFileNum()))));
+
+    conf.setSeriesScanPrefetchChunkNumPerFile(
+        Integer.parseInt(
+            properties.getProperty(
+                "series_scan_prefetch_chunk_num_per_file",
+                Integer.toString(conf.getSeriesScanPrefetchChunkNumPerFile()))));
+
+    int seriesScanPrefetchThreadCount =
+        Integer.parseInt(
+            properties.getProperty(
+                "series_scan_prefetch_thread_count",
+                Integer.toString(conf.getSeriesScanPrefetchThreadCount())));
+    if (seriesScanPrefetchThreadCount > 0) {
+      conf.setSeriesScanPrefetchThreadCount(seriesScanPrefetchThreadCount);
+    }
+
+    conf.setEnableRegionDeviceParallelScan(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "enable_region_device_parallel_scan",
+                Boolean.toString(conf.isEnableRegionDeviceParallelScan()))));
+
+    int regionScanMinDeviceNumPerSplit =
+        Integer.parseInt(
+            properties.getProperty(
+                "region_scan_min_device_num_per_split",
+                Integer.toString(conf.getRegionScanMinDeviceNumPerSplit())));
+    if (regionScanMinDeviceNumPerSplit > 0) {
+      conf.setRegionScanMinDeviceNumPerSplit(regionScanMinDeviceNumPerSplit);
+    }
+
+    int iotConsensusLogDispatcherThreadNum =
+        Integer.parseInt(
+            properties.getProperty(
+                "data_region_iot_log_dispatcher_thread_num",
+                Integer.toString(conf.getIotConsensusLogDispatcherThreadNum())));
+    if (iotConsensusLogDispatcherThreadNum >= 0) {
+      conf.setIotConsensusLogDispatcherThreadNum(iotConsensusLogDispatcherThreadNum);
+    }
+
+    conf.setIotConsensusEnableMultiplexedSyncLog(
+        Boolean.parseBoolean(
+            properties.getProperty(
+                "data_region_iot_enable_multiplexed_sync_log",
+                Boolean.toString(conf.isIotConsensusEnableMultiplexedSyncLog()))));
+    long multiplexedSyncLogWaitingTimeInMs =
+        Long.parseLong(
+            properties.getProperty(
+                "data_region_iot_multiplexed_sync_log_waiting_time_in_ms",
+                Long.toString(conf.getIotConsensusMultiplexedSyncLogWaitingTimeInMs())));
+    if (multiplexedSyncLogWaitingTimeInMs >= 0) {
+      conf.setIotConsensusMultiplexedSyncLogWaitingTimeInMs(multiplexedSyncLogWaitingTimeInMs);
+    }
   }
 
   /** Get default encode algorithm by data type */
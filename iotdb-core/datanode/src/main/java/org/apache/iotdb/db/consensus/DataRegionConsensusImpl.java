@@ -146,6 +146,11 @@ public class DataRegionConsensusImpl {
                           .setMaxMemoryRatioForQueue(CONF.getMaxMemoryRatioForQueue())
                           .setRegionMigrationSpeedLimitBytesPerSecond(
                               CONF.getRegionMigrationSpeedLimitBytesPerSecond())
+                          .setLogDispatcherThreadNum(CONF.getIotConsensusLogDispatcherThreadNum())
+                          .setEnableMultiplexedSyncLog(
+                              CONF.isIotConsensusEnableMultiplexedSyncLog())
+                          .setMaxWaitingTimeForMultiplexingInMs(
+                              CONF.getIotConsensusMultiplexedSyncLogWaitingTimeInMs())
                           .build())
                   .build())
           .setPipeConsensusConfig(
@@ -22,9 +22,13 @@ import org.apache.iotdb.common.rpc.thrift.TSStatus;
 import org.apache.iotdb.commons.conf.IoTDBConstant.ClientVersion;
 import org.apache.iotdb.commons.exception.IllegalPathException;
 import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
+import org.apache.iotdb.commons.service.metric.MetricService;
+import org.apache.iotdb.commons.service.metric.enums.Metric;
+import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.db.auth.AuthorityChecker;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.query.QueryProcessException;
 import org.apache.iotdb.db.protocol.session.IClientSession;
 import org.apache.iotdb.db.protocol.session.MqttClientSession;
 import org.apache.iotdb.db.protocol.session.SessionManager;
@@ -38,10 +42,13 @@ import org.apache.iotdb.db.queryengine.plan.execution.ExecutionResult;
 import org.apache.iotdb.db.queryengine.plan.planner.LocalExecutionPlanner;
 import org.apache.iotdb.db.queryengine.plan.relational.metadata.Metadata;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.parser.SqlParser;
+import org.apache.iotdb.db.queryengine.plan.statement.Statement;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowStatement;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertRowsStatement;
 import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertTabletStatement;
 import org.apache.iotdb.db.utils.CommonUtils;
 import org.apache.iotdb.db.utils.TimestampPrecisionUtils;
+import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.rpc.TSStatusCode;
 import org.apache.iotdb.service.rpc.thrift.TSProtocolVersion;
 
@@ -56,9 +63,15 @@ import org.apache.tsfile.utils.BitMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Array;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -77,11 +90,33 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
   private final ISchemaFetcher schemaFetcher;
   private final boolean useTableInsert;
 
+  /** Null when mqtt_insert_batch_size is 1, then each message is written when it arrives. */
+  private final MqttMessageBatcher batcher;
+
+  private static final long UNBATCHED_MESSAGE_LOG_INTERVAL = 10000;
+  private final AtomicLong unbatchedMessageNum = new AtomicLong(0);
+
   public MPPPublishHandler(IoTDBConfig config) {
     this.payloadFormat = PayloadFormatManager.getPayloadFormat(config.getMqttPayloadFormatter());
     partitionFetcher = ClusterPartitionFetcher.getInstance();
     schemaFetcher = ClusterSchemaFetcher.getInstance();
     useTableInsert = PayloadFormatter.TABLE_TYPE.equals(this.payloadFormat.getType());
+    batcher =
+        config.getMqttInsertBatchSize() > 1
+            ? new MqttMessageBatcher(
+                config.getMqttInsertBatchShardNum(),
+                config.getMqttInsertBatchQueueCapacity(),
+                config.getMqttInsertBatchSize(),
+                config.getMqttInsertBatchIntervalInMs(),
+                useTableInsert ? this::insertTableBatch : this::insertTreeBatch)
+            : null;
+  }
+
+  /** Write all the batched messages and stop the batching workers. */
+  public void stop() {
+    if (batcher != null) {
+      batcher.stop();
+    }
   }
 
   @Override
@@ -149,10 +184,10 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
         if (message == null) {
           continue;
         }
-        if (useTableInsert) {
-          insertTable((TableMessage) message, session);
+        if (batcher != null) {
+          submitToBatcher(message, session);
         } else {
-          insertTree((TreeMessage) message, session);
+          insert(message, session);
         }
       }
     } catch (Throwable t) {
@@ -163,14 +198,138 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
     }
   }
 
+  private void insert(Message message, MqttClientSession session) {
+    if (useTableInsert) {
+      insertTable((TableMessage) message, session);
+    } else {
+      insertTree((TreeMessage) message, session);
+    }
+  }
+
+  private void submitToBatcher(Message message, MqttClientSession session) {
+    boolean accepted;
+    try {
+      TimestampPrecisionUtils.checkTimestampPrecision(message.getTimestamp());
+      accepted =
+          batcher.submit(
+              session,
+              useTableInsert
+                  ? getTableBatchKey((TableMessage) message)
+                  : ((TreeMessage) message).getDevice(),
+              message);
+    } catch (Exception e) {
+      LOG.warn("meet error when submitting mqtt message {}, because ", message, e);
+      return;
+    }
+    if (!accepted) {
+      // the shard queue is full, write the message on the handler thread, which also slows down
+      // the handler like the writes without batching do
+      recordUnbatchedMessage();
+      insert(message, session);
+    }
+  }
+
+  private void recordUnbatchedMessage() {
+    MetricService.getInstance()
+        .count(
+            1,
+            Metric.QUANTITY.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            Metric.MQTT_UNBATCHED_MESSAGE.toString());
+    long unbatchedNum = unbatchedMessageNum.incrementAndGet();
+    if (unbatchedNum % UNBATCHED_MESSAGE_LOG_INTERVAL == 1) {
+      LOG.warn(
+          "The mqtt batching queue is full, {} messages are written without batching in total. "
+              + "Consider increasing mqtt_insert_batch_queue_capacity or "
+              + "mqtt_insert_batch_shard_num.",
+          unbatchedNum);
+    }
+  }
+
+  /**
+   * The messages with the same key belong to the same table device and have the same columns, so
+   * they can be written in one tablet.
+   */
+  private static List<Object> getTableBatchKey(TableMessage message) {
+    return Arrays.asList(
+        message.getDatabase(),
+        message.getTable(),
+        message.getTagKeys(),
+        message.getTagValues().stream()
+            .map(value -> value instanceof Object[] ? Arrays.asList((Object[]) value) : value)
+            .collect(Collectors.toList()),
+        message.getAttributeKeys(),
+        message.getFields(),
+        message.getDataTypes());
+  }
+
+  private void insertTableBatch(MqttClientSession session, List<Message> messages) {
+    List<TableMessage> tableMessages =
+        messages.stream()
+            .map(TableMessage.class::cast)
+            .sorted(Comparator.comparingLong(TableMessage::getTimestamp))
+            .collect(Collectors.toList());
+    insertTable(tableMessages, session);
+  }
+
+  private void insertTreeBatch(MqttClientSession session, List<Message> messages) {
+    List<InsertRowStatement> rowStatements = new ArrayList<>(messages.size());
+    for (Message message : messages) {
+      TreeMessage treeMessage = (TreeMessage) message;
+      try {
+        rowStatements.add(constructInsertRowStatement(treeMessage));
+      } catch (Exception e) {
+        LOG.warn(
+            "meet error when inserting device {}, measurements {}, at time {}, because ",
+            treeMessage.getDevice(),
+            treeMessage.getMeasurements(),
+            treeMessage.getTimestamp(),
+            e);
+      }
+    }
+    if (rowStatements.isEmpty()) {
+      return;
+    }
+    InsertRowsStatement statement = new InsertRowsStatement();
+    statement.setInsertRowStatementList(rowStatements);
+    try {
+      executeTreeInsert(statement, session);
+    } catch (Exception e) {
+      LOG.warn(
+          "meet error when inserting {} rows of device {}, because ",
+          rowStatements.size(),
+          ((TreeMessage) messages.get(0)).getDevice(),
+          e);
+    }
+  }
+
   /** Inserting table using tablet */
   private void insertTable(TableMessage message, MqttClientSession session) {
-    TSStatus tsStatus = null;
     try {
       TimestampPrecisionUtils.checkTimestampPrecision(message.getTimestamp());
-      InsertTabletStatement insertTabletStatement = constructInsertTabletStatement(message);
-      session.setDatabaseName(message.getDatabase().toLowerCase());
-      session.setSqlDialect(IClientSession.SqlDialect.TABLE);
+    } catch (Exception e) {
+      LOG.warn(
+          "meet error when inserting database {}, table {}, at time {}, because ",
+          message.getDatabase(),
+          message.getTable(),
+          message.getTimestamp(),
+          e);
+      return;
+    }
+    insertTable(Collections.singletonList(message), session);
+  }
+
+  /** Inserting the messages of one table device with the same columns using one tablet */
+  private void insertTable(List<TableMessage> messages, MqttClientSession session) {
+    TableMessage message = messages.get(0);
+    TSStatus tsStatus = null;
+    try {
+      InsertTabletStatement insertTabletStatement = constructInsertTabletStatement(messages);
+      // the session is shared by the batching workers, so the database is passed by the statement
+      // and the session info rather than set on the session
+      String database = message.getDatabase().toLowerCase();
+      insertTabletStatement.setDatabaseName(database);
       long queryId = sessionManager.requestQueryId();
       SqlParser relationSqlParser = new SqlParser();
       Metadata metadata = LocalExecutionPlanner.getInstance().metadata;
@@ -181,7 +340,7 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
                   relationSqlParser,
                   session,
                   queryId,
-                  sessionManager.getSessionInfo(session),
+                  sessionManager.getSessionInfoOfTableModel(session, database),
                   "",
                   metadata,
                   config.getQueryTimeoutThreshold());
@@ -193,19 +352,25 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
       }
     } catch (Exception e) {
       LOG.warn(
-          "meet error when inserting database {}, table {}, tags {}, attributes {}, fields {}, at time {}, because ",
+          "meet error when inserting database {}, table {}, tags {}, attributes {}, fields {}, at time {}, rows {}, because ",
           message.getDatabase(),
           message.getTable(),
           message.getTagKeys(),
           message.getAttributeKeys(),
           message.getFields(),
           message.getTimestamp(),
+          messages.size(),
           e);
     }
   }
 
-  private InsertTabletStatement constructInsertTabletStatement(TableMessage message)
+  /**
+   * Construct one tablet from the messages, which must belong to the same table device, have the
+   * same columns and be sorted by timestamp.
+   */
+  static InsertTabletStatement constructInsertTabletStatement(List<TableMessage> messages)
       throws IllegalPathException {
+    TableMessage message = messages.get(0);
     InsertTabletStatement insertStatement = new InsertTabletStatement();
     insertStatement.setDevicePath(
         DataNodeDevicePathCache.getInstance().getPartialPath(message.getTable()));
@@ -214,16 +379,29 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
             .flatMap(List::stream)
             .collect(Collectors.toList());
     insertStatement.setMeasurements(measurements.toArray(new String[0]));
-    long[] timestamps = new long[] {message.getTimestamp()};
-    insertStatement.setTimes(timestamps);
     int columnSize = measurements.size();
-    int rowSize = 1;
+    int rowSize = messages.size();
+    long[] timestamps = new long[rowSize];
+    for (int i = 0; i < rowSize; i++) {
+      timestamps[i] = messages.get(i).getTimestamp();
+    }
+    insertStatement.setTimes(timestamps);
 
     BitMap[] bitMaps = new BitMap[columnSize];
     Object[] columns =
         Stream.of(message.getValues(), message.getTagValues(), message.getAttributeValues())
             .flatMap(List::stream)
             .toArray(Object[]::new);
+    if (rowSize > 1) {
+      // each message holds a single-row column, copy them into the columns of all the rows
+      for (int column = 0; column < columnSize; column++) {
+        Object merged = Array.newInstance(columns[column].getClass().getComponentType(), rowSize);
+        for (int row = 0; row < rowSize; row++) {
+          System.arraycopy(getColumn(messages.get(row), column), 0, merged, row, 1);
+        }
+        columns[column] = merged;
+      }
+    }
     insertStatement.setColumns(columns);
     insertStatement.setBitMaps(bitMaps);
     insertStatement.setRowCount(rowSize);
@@ -256,53 +434,21 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
     return insertStatement;
   }
 
+  private static Object getColumn(TableMessage message, int column) {
+    int fieldNum = message.getFields().size();
+    int tagNum = message.getTagKeys().size();
+    if (column < fieldNum) {
+      return message.getValues().get(column);
+    } else if (column < fieldNum + tagNum) {
+      return message.getTagValues().get(column - fieldNum);
+    } else {
+      return message.getAttributeValues().get(column - fieldNum - tagNum);
+    }
+  }
+
   private void insertTree(TreeMessage message, MqttClientSession session) {
-    TSStatus tsStatus = null;
     try {
-      InsertRowStatement statement = new InsertRowStatement();
-      statement.setDevicePath(
-          DataNodeDevicePathCache.getInstance().getPartialPath(message.getDevice()));
-      TimestampPrecisionUtils.checkTimestampPrecision(message.getTimestamp());
-      statement.setTime(message.getTimestamp());
-      statement.setMeasurements(message.getMeasurements().toArray(new String[0]));
-      if (message.getDataTypes() == null) {
-        statement.setDataTypes(new TSDataType[message.getMeasurements().size()]);
-        statement.setValues(message.getValues().toArray(new Object[0]));
-        statement.setNeedInferType(true);
-      } else {
-        List<TSDataType> dataTypes = message.getDataTypes();
-        List<String> values = message.getValues();
-        Object[] inferredValues = new Object[values.size()];
-        for (int i = 0; i < values.size(); ++i) {
-          inferredValues[i] = CommonUtils.parseValue(dataTypes.get(i), values.get(i));
-        }
-        statement.setDataTypes(dataTypes.toArray(new TSDataType[0]));
-        statement.setValues(inferredValues);
-      }
-      statement.setAligned(false);
-
-      tsStatus = AuthorityChecker.checkAuthority(statement, session);
-      if (tsStatus.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
-        LOG.warn(tsStatus.message);
-      } else {
-        long queryId = sessionManager.requestQueryId();
-        ExecutionResult result =
-            Coordinator.getInstance()
-                .executeForTreeModel(
-                    statement,
-                    queryId,
-                    sessionManager.getSessionInfo(session),
-                    "",
-                    partitionFetcher,
-                    schemaFetcher,
-                    config.getQueryTimeoutThreshold(),
-                    false);
-        tsStatus = result.status;
-        LOG.debug("process result: {}", tsStatus);
-        if (tsStatus.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
-          LOG.warn("mqtt json insert error , message = {}", tsStatus.message);
-        }
-      }
+      executeTreeInsert(constructInsertRowStatement(message), session);
     } catch (Exception e) {
       LOG.warn(
           "meet error when inserting device {}, measurements {}, at time {}, because ",
@@ -313,6 +459,57 @@ public class MPPPublishHandler extends AbstractInterceptHandler {
     }
   }
 
+  private static InsertRowStatement constructInsertRowStatement(TreeMessage message)
+      throws IllegalPathException, QueryProcessException {
+    InsertRowStatement statement = new InsertRowStatement();
+    statement.setDevicePath(
+        DataNodeDevicePathCache.getInstance().getPartialPath(message.getDevice()));
+    TimestampPrecisionUtils.checkTimestampPrecision(message.getTimestamp());
+    statement.setTime(message.getTimestamp());
+    statement.setMeasurements(message.getMeasurements().toArray(new String[0]));
+    if (message.getDataTypes() == null) {
+      statement.setDataTypes(new TSDataType[message.getMeasurements().size()]);
+      statement.setValues(message.getValues().toArray(new Object[0]));
+      statement.setNeedInferType(true);
+    } else {
+      List<TSDataType> dataTypes = message.getDataTypes();
+      List<String> values = message.getValues();
+      Object[] inferredValues = new Object[values.size()];
+      for (int i = 0; i < values.size(); ++i) {
+        inferredValues[i] = CommonUtils.parseValue(dataTypes.get(i), values.get(i));
+      }
+      statement.setDataTypes(dataTypes.toArray(new TSDataType[0]));
+      statement.setValues(inferredValues);
+    }
+    statement.setAligned(false);
+    return statement;
+  }
+
+  private void executeTreeInsert(Statement statement, MqttClientSession session) {
+    TSStatus tsStatus = AuthorityChecker.checkAuthority(statement, session);
+    if (tsStatus.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+      LOG.warn(tsStatus.message);
+    } else {
+      long queryId = sessionManager.requestQueryId();
+      ExecutionResult result =
+          Coordinator.getInstance()
+              .executeForTreeModel(
+                  statement,
+                  queryId,
+                  sessionManager.getSessionInfo(session),
+                  "",
+                  partitionFetcher,
+                  schemaFetcher,
+                  config.getQueryTimeoutThreshold(),
+                  false);
+      tsStatus = result.status;
+      LOG.debug("process result: {}", tsStatus);
+      if (tsStatus.getCode() != TSStatusCode.SUCCESS_STATUS.getStatusCode()) {
+        LOG.warn("mqtt json insert error , message = {}", tsStatus.message);
+      }
+    }
+  }
+
   @Override
   public void onSessionLoopError(Throwable throwable) {
     // TODO: Implement something sensible here ...
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.mqtt;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.db.protocol.session.MqttClientSession;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Accumulates the mqtt messages into batches before they are written. The messages are hashed by
+ * their batch key (the device they belong to) into a fixed number of shards, each of which is a
+ * bounded queue consumed by one worker thread, so the messages of one device are always written in
+ * arrival order. A batch is handed to the flusher when it reaches the batch size or when its first
+ * message has waited for the batch interval. When a shard queue is full, {@link #submit} rejects
+ * the message instead of waiting, and the caller writes it by itself: the broker runs the handlers
+ * on its own thread pool with an unbounded task queue, so blocking a handler thread only moves the
+ * backlog into that queue, while writing on it slows the handlers down as much as the writes
+ * without batching do.
+ */
+class MqttMessageBatcher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(MqttMessageBatcher.class);
+
+  /** Offered to the shard queues on stop to wake up the workers waiting for messages. */
+  private static final PendingMessage WAKE_UP = new PendingMessage(null, null);
+
+  private final int batchSize;
+  private final long batchIntervalInMs;
+  private final BiConsumer<MqttClientSession, List<Message>> flusher;
+
+  private final Shard[] shards;
+  private final ExecutorService workers;
+
+  private volatile boolean stopped = false;
+
+  MqttMessageBatcher(
+      int shardNum,
+      int queueCapacity,
+      int batchSize,
+      long batchIntervalInMs,
+      BiConsumer<MqttClientSession, List<Message>> flusher) {
+    this.batchSize = batchSize;
+    this.batchIntervalInMs = Math.max(1, batchIntervalInMs);
+    this.flusher = flusher;
+    this.shards = new Shard[shardNum];
+    this.workers =
+        IoTDBThreadPoolFactory.newFixedThreadPool(shardNum, ThreadName.MQTT_INSERT_BATCH.getName());
+    for (int i = 0; i < shardNum; i++) {
+      shards[i] = new Shard(queueCapacity);
+      workers.submit(shards[i]);
+    }
+  }
+
+  /**
+   * Put the message into the shard of its batch key. After the batcher is stopped, the message is
+   * written directly.
+   *
+   * @return false if the shard queue is full and the message is not accepted
+   */
+  boolean submit(MqttClientSession session, Object batchKey, Message message) {
+    if (stopped) {
+      flush(session, Collections.singletonList(message));
+      return true;
+    }
+    return shards[Math.floorMod(batchKey.hashCode(), shards.length)].queue.offer(
+        new PendingMessage(new BatchKey(session, batchKey), message));
+  }
+
+  /** Stop the workers after all the pending messages are written. */
+  void stop() {
+    stopped = true;
+    for (Shard shard : shards) {
+      // a full queue never blocks its worker, so a failed offer is fine
+      shard.queue.offer(WAKE_UP);
+    }
+    workers.shutdown();
+    try {
+      if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+        LOGGER.warn("Pending mqtt messages are not all written after waiting for 1 minute");
+        workers.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      workers.shutdownNow();
+    }
+  }
+
+  private void flush(MqttClientSession session, List<Message> messages) {
+    try {
+      flusher.accept(session, messages);
+    } catch (Exception e) {
+      LOGGER.warn("Failed to write a batch of {} mqtt messages, because ", messages.size(), e);
+    }
+  }
+
+  private class Shard implements Runnable {
+
+    private final BlockingQueue<PendingMessage> queue;
+
+    /** Open batches in the order of creation, so the first one always expires first. */
+    private final Map<BatchKey, Batch> batches = new LinkedHashMap<>();
+
+    private Shard(int queueCapacity) {
+      this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (!stopped) {
+          PendingMessage pending = queue.poll(nextWaitTimeInMs(), TimeUnit.MILLISECONDS);
+          if (pending != null && pending != WAKE_UP) {
+            add(pending);
+          }
+          flushExpired();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        List<PendingMessage> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.stream().filter(pending -> pending != WAKE_UP).forEach(this::add);
+        batches.values().forEach(batch -> flush(batch.session, batch.messages));
+        batches.clear();
+      }
+    }
+
+    private long nextWaitTimeInMs() {
+      if (batches.isEmpty()) {
+        return batchIntervalInMs;
+      }
+      long firstDeadline = batches.values().iterator().next().createTime + batchIntervalInMs;
+      return Math.max(0, firstDeadline - System.currentTimeMillis());
+    }
+
+    private void add(PendingMessage pending) {
+      Batch batch =
+          batches.computeIfAbsent(
+              pending.key, key -> new Batch(key.session, System.currentTimeMillis()));
+      batch.messages.add(pending.message);
+      if (batch.messages.size() >= batchSize) {
+        batches.remove(pending.key);
+        flush(batch.session, batch.messages);
+      }
+    }
+
+    private void flushExpired() {
+      long expireTime = System.currentTimeMillis() - batchIntervalInMs;
+      Iterator<Batch> iterator = batches.values().iterator();
+      while (iterator.hasNext()) {
+        Batch batch = iterator.next();
+        if (batch.createTime > expireTime) {
+          return;
+        }
+        iterator.remove();
+        flush(batch.session, batch.messages);
+      }
+    }
+  }
+
+  private static class PendingMessage {
+
+    private final BatchKey key;
+    private final Message message;
+
+    private PendingMessage(BatchKey key, Message message) {
+      this.key = key;
+      this.message = message;
+    }
+  }
+
+  private static class BatchKey {
+
+    private final MqttClientSession session;
+    private final Object key;
+
+    private BatchKey(MqttClientSession session, Object key) {
+      this.session = session;
+      this.key = key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof BatchKey)) {
+        return false;
+      }
+      BatchKey that = (BatchKey) o;
+      return session == that.session && Objects.equals(key, that.key);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(session) + Objects.hashCode(key);
+    }
+  }
+
+  private static class Batch {
+
+    private final MqttClientSession session;
+    private final long createTime;
+    private final List<Message> messages = new ArrayList<>();
+
+    private Batch(MqttClientSession session, long createTime) {
+      this.session = session;
+      this.createTime = createTime;
+    }
+  }
+}
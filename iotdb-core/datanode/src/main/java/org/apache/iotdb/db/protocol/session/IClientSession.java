@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.protocol.session;
 
 import org.apache.iotdb.commons.conf.IoTDBConstant.ClientVersion;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Prepare;
 import org.apache.iotdb.service.rpc.thrift.TSConnectionInfo;
 import org.apache.iotdb.service.rpc.thrift.TSConnectionType;
 
@@ -31,11 +32,16 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.time.ZoneId;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
 
 public abstract class IClientSession {
 
+  private static final int MAX_PREPARED_STATEMENT_NUM = 1024;
+
   private long id;
 
   private ClientVersion clientVersion;
@@ -54,6 +60,17 @@ public abstract class IClientSession {
 
   @Nullable private String databaseName;
 
+  // prepared statements of table model keyed by statement name, the least recently used one is
+  // evicted when there are too many
+  private final Map<String, Prepare> preparedStatements =
+      Collections.synchronizedMap(
+          new LinkedHashMap<String, Prepare>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Prepare> eldest) {
+              return size() > MAX_PREPARED_STATEMENT_NUM;
+            }
+          });
+
   public abstract String getClientAddress();
 
   public abstract int getClientPort();
@@ -170,6 +187,20 @@ public abstract class IClientSession {
     this.databaseName = databaseName;
   }
 
+  public void addPreparedStatement(String name, Prepare prepare) {
+    preparedStatements.put(name, prepare);
+  }
+
+  @Nullable
+  public Prepare getPreparedStatement(String name) {
+    return preparedStatements.get(name);
+  }
+
+  @Nullable
+  public Prepare removePreparedStatement(String name) {
+    return preparedStatements.remove(name);
+  }
+
   public enum SqlDialect {
     TREE((byte) 0),
     TABLE((byte) 1);
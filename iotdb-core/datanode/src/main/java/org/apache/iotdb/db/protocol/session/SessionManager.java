@@ -421,6 +421,16 @@ public class SessionManager implements SessionManagerMBean {
         IClientSession.SqlDialect.TABLE);
   }
 
+  public SessionInfo getSessionInfoOfTableModel(IClientSession session, String databaseName) {
+    return new SessionInfo(
+        session.getId(),
+        session.getUsername(),
+        ZoneId.systemDefault(),
+        session.getClientVersion(),
+        databaseName,
+        IClientSession.SqlDialect.TABLE);
+  }
+
   public SessionInfo getSessionInfoOfPipeReceiver(IClientSession session, String databaseName) {
     return new SessionInfo(
         session.getId(),
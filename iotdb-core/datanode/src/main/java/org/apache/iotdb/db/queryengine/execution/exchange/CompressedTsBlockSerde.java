@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.exchange;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.compress.ICompressor;
+import org.apache.tsfile.compress.IUnCompressor;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.column.LongColumn;
+import org.apache.tsfile.read.common.block.column.TsBlockSerde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+
+/**
+ * TsBlockSerde which compresses the serialized TsBlocks sent between fragment instances.
+ *
+ * <p>The time column without null is delta encoded before serialization, so that the sorted
+ * timestamps become small values which can be compressed well. Then the serialized TsBlock is
+ * compressed as a whole and written as a frame:
+ *
+ * <pre>
+ * | MAGIC (int) | flags (byte) | compression type (byte) | uncompressed size (int) | data |
+ * </pre>
+ *
+ * <p>MAGIC is negative while a TsBlock serialized by {@link TsBlockSerde} starts with the
+ * non-negative value column count, so that the frames can be told apart when deserializing and both
+ * of them are accepted no matter whether compression is enabled on this node. A TsBlock is sent
+ * uncompressed if compression is disabled or doesn't make it smaller.
+ */
+public class CompressedTsBlockSerde extends TsBlockSerde {
+
+  private static final int MAGIC = 0xCB7B1000;
+  private static final byte DELTA_TIME_COLUMN = 1;
+  private static final int HEADER_SIZE = Integer.BYTES + 2 * Byte.BYTES + Integer.BYTES;
+
+  private final CompressionType compressionType;
+  private final ICompressor compressor;
+
+  public CompressedTsBlockSerde(CompressionType compressionType) {
+    this.compressionType = compressionType;
+    this.compressor = ICompressor.getCompressor(compressionType);
+  }
+
+  @Override
+  public ByteBuffer serialize(TsBlock tsBlock) throws IOException {
+    if (compressionType == CompressionType.UNCOMPRESSED) {
+      return super.serialize(tsBlock);
+    }
+
+    byte flags = 0;
+    TsBlock toSerialize = tsBlock;
+    Column timeColumn = tsBlock.getTimeColumn();
+    if (timeColumn instanceof LongColumn && !timeColumn.mayHaveNull()) {
+      toSerialize =
+          new TsBlock(
+              tsBlock.getPositionCount(),
+              deltaEncode(timeColumn, tsBlock.getPositionCount()),
+              tsBlock.getValueColumns());
+      flags |= DELTA_TIME_COLUMN;
+    }
+
+    ByteBuffer plain = super.serialize(toSerialize);
+    int uncompressedSize = plain.remaining();
+    byte[] uncompressed = new byte[uncompressedSize];
+    plain.get(uncompressed);
+    byte[] compressed = compressor.compress(uncompressed);
+    if (HEADER_SIZE + compressed.length >= uncompressedSize) {
+      // compression doesn't pay off, send the TsBlock as is
+      MPPDataExchangeServiceMetrics.recordCompression(uncompressedSize, uncompressedSize);
+      return toSerialize == tsBlock ? ByteBuffer.wrap(uncompressed) : super.serialize(tsBlock);
+    }
+
+    ByteBuffer frame = ByteBuffer.allocate(HEADER_SIZE + compressed.length);
+    frame.putInt(MAGIC);
+    frame.put(flags);
+    frame.put(compressionType.serialize());
+    frame.putInt(uncompressedSize);
+    frame.put(compressed);
+    frame.flip();
+    MPPDataExchangeServiceMetrics.recordCompression(uncompressedSize, frame.remaining());
+    return frame;
+  }
+
+  @Override
+  public TsBlock deserialize(ByteBuffer byteBuffer) {
+    if (byteBuffer.remaining() < HEADER_SIZE || byteBuffer.getInt(byteBuffer.position()) != MAGIC) {
+      return super.deserialize(byteBuffer);
+    }
+
+    byteBuffer.getInt();
+    byte flags = byteBuffer.get();
+    IUnCompressor unCompressor =
+        IUnCompressor.getUnCompressor(CompressionType.deserialize(byteBuffer.get()));
+    int uncompressedSize = byteBuffer.getInt();
+    byte[] compressed = new byte[byteBuffer.remaining()];
+    byteBuffer.get(compressed);
+    byte[] uncompressed = new byte[uncompressedSize];
+    try {
+      unCompressor.uncompress(compressed, 0, compressed.length, uncompressed, 0);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to uncompress TsBlock", e);
+    }
+
+    TsBlock tsBlock = super.deserialize(ByteBuffer.wrap(uncompressed));
+    if ((flags & DELTA_TIME_COLUMN) != 0) {
+      tsBlock =
+          new TsBlock(
+              tsBlock.getPositionCount(),
+              deltaDecode(tsBlock.getTimeColumn(), tsBlock.getPositionCount()),
+              tsBlock.getValueColumns());
+    }
+    return tsBlock;
+  }
+
+  private static Column deltaEncode(Column timeColumn, int positionCount) {
+    long[] deltas = new long[positionCount];
+    long previous = 0;
+    for (int i = 0; i < positionCount; i++) {
+      long time = timeColumn.getLong(i);
+      deltas[i] = time - previous;
+      previous = time;
+    }
+    return new LongColumn(positionCount, Optional.empty(), deltas);
+  }
+
+  private static Column deltaDecode(Column deltaColumn, int positionCount) {
+    long[] times = new long[positionCount];
+    long previous = 0;
+    for (int i = 0; i < positionCount; i++) {
+      previous += deltaColumn.getLong(i);
+      times[i] = previous;
+    }
+    return new LongColumn(positionCount, Optional.empty(), times);
+  }
+}
@@ -24,11 +24,20 @@ import org.apache.iotdb.commons.service.AbstractThriftServiceThread;
 import org.apache.iotdb.commons.service.metric.enums.Metric;
 import org.apache.iotdb.commons.service.metric.enums.Tag;
 import org.apache.iotdb.metrics.AbstractMetricService;
+import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
 import org.apache.iotdb.metrics.metricsets.IMetricSet;
+import org.apache.iotdb.metrics.type.Counter;
 import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MetricType;
 
 public class MPPDataExchangeServiceMetrics implements IMetricSet {
+  private static final String BEFORE_COMPRESSION = "before_compression";
+  private static final String AFTER_COMPRESSION = "after_compression";
+
+  // updated by the serde of every sink channel, so they are static
+  private static Counter bytesBeforeCompressionCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+  private static Counter bytesAfterCompressionCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+
   private AbstractThriftServiceThread thriftServiceThread;
 
   public MPPDataExchangeServiceMetrics(AbstractThriftServiceThread thriftServiceThread) {
@@ -44,6 +53,18 @@ public class MPPDataExchangeServiceMetrics implements IMetricSet {
         AbstractThriftServiceThread::getActiveThreadCount,
         Tag.NAME.toString(),
         ThreadName.MPP_DATA_EXCHANGE_RPC_SERVICE.getName());
+    bytesBeforeCompressionCounter =
+        metricService.getOrCreateCounter(
+            Metric.DATA_EXCHANGE_BYTES.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.TYPE.toString(),
+            BEFORE_COMPRESSION);
+    bytesAfterCompressionCounter =
+        metricService.getOrCreateCounter(
+            Metric.DATA_EXCHANGE_BYTES.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.TYPE.toString(),
+            AFTER_COMPRESSION);
   }
 
   @Override
@@ -53,5 +74,23 @@ public class MPPDataExchangeServiceMetrics implements IMetricSet {
         Metric.THRIFT_ACTIVE_THREADS.toString(),
         Tag.NAME.toString(),
         ThreadName.MPP_DATA_EXCHANGE_RPC_SERVICE.getName());
+    bytesBeforeCompressionCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+    bytesAfterCompressionCounter = DoNothingMetricManager.DO_NOTHING_COUNTER;
+    metricService.remove(
+        MetricType.COUNTER,
+        Metric.DATA_EXCHANGE_BYTES.toString(),
+        Tag.TYPE.toString(),
+        BEFORE_COMPRESSION);
+    metricService.remove(
+        MetricType.COUNTER,
+        Metric.DATA_EXCHANGE_BYTES.toString(),
+        Tag.TYPE.toString(),
+        AFTER_COMPRESSION);
+  }
+
+  /** Record the size of a serialized TsBlock before and after compression. */
+  public static void recordCompression(long bytesBeforeCompression, long bytesAfterCompression) {
+    bytesBeforeCompressionCounter.inc(bytesBeforeCompression);
+    bytesAfterCompressionCounter.inc(bytesAfterCompression);
   }
 }
@@ -36,7 +36,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
-import java.util.LinkedList;
+import java.util.ArrayDeque;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.concurrent.ExecutionException;
@@ -44,12 +44,21 @@ import java.util.concurrent.ExecutorService;
 
 import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
 
-/** This is not thread safe class, the caller should ensure multi-threads safety. */
+/**
+ * This is not thread safe class, the caller should ensure multi-threads safety.
+ *
+ * <p>TsBlocks are passed from {@link LocalSinkChannel} to {@link LocalSourceHandle} as is without
+ * serialization. Memory is reserved from {@link LocalMemoryManager} in batches of at least {@link
+ * #RESERVATION_BATCH_IN_BYTES}, so that small TsBlocks don't need to reserve and free memory from
+ * the shared pool one by one.
+ */
 @NotThreadSafe
 public class SharedTsBlockQueue {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(SharedTsBlockQueue.class);
 
+  static final long RESERVATION_BATCH_IN_BYTES = 64L * 1024L;
+
   private final TFragmentInstanceId localFragmentInstanceId;
 
   private final String localPlanNodeId;
@@ -62,7 +71,10 @@ public class SharedTsBlockQueue {
 
   private long bufferRetainedSizeInBytes = 0L;
 
-  private final Queue<TsBlock> queue = new LinkedList<>();
+  // bytes reserved from memory pool, which may be more than bufferRetainedSizeInBytes
+  private long reservedBytes = 0L;
+
+  private final Queue<TsBlock> queue = new ArrayDeque<>();
 
   private SettableFuture<Void> blocked = SettableFuture.create();
 
@@ -196,14 +208,14 @@ public class SharedTsBlockQueue {
       throw new IllegalStateException("queue has been destroyed");
     }
     TsBlock tsBlock = queue.remove();
-    localMemoryManager
-        .getQueryPool()
-        .free(
-            localFragmentInstanceId.getQueryId(),
-            fullFragmentInstanceId,
-            localPlanNodeId,
-            tsBlock.getSizeInBytes());
     bufferRetainedSizeInBytes -= tsBlock.getSizeInBytes();
+    if (blockedOnMemory != null && !blockedOnMemory.isDone()) {
+      // the memory being reserved can't be freed, free the memory of this TsBlock only
+      freeMemory(tsBlock.getSizeInBytes());
+    } else if (reservedBytes - bufferRetainedSizeInBytes > RESERVATION_BATCH_IN_BYTES) {
+      // keep one batch of unused memory for the following TsBlocks
+      freeMemory(reservedBytes - bufferRetainedSizeInBytes - RESERVATION_BATCH_IN_BYTES);
+    }
     // Every time LocalSourceHandle consumes a TsBlock, it needs to send the event to
     // corresponding LocalSinkChannel.
     if (sinkChannel != null) {
@@ -235,6 +247,21 @@ public class SharedTsBlockQueue {
               localFragmentInstanceId.queryId, fullFragmentInstanceId, localPlanNodeId);
       alreadyRegistered = true;
     }
+    long bytesToReserve = bufferRetainedSizeInBytes + tsBlock.getSizeInBytes() - reservedBytes;
+    bufferRetainedSizeInBytes += tsBlock.getSizeInBytes();
+    if (bytesToReserve <= 0) {
+      // memory reserved before is enough
+      queue.add(tsBlock);
+      if (!blocked.isDone()) {
+        blocked.set(null);
+      }
+      return blockedOnMemory;
+    }
+
+    bytesToReserve =
+        Math.max(
+            bytesToReserve,
+            Math.min(RESERVATION_BATCH_IN_BYTES, maxBytesCanReserve - reservedBytes));
     Pair<ListenableFuture<Void>, Boolean> pair =
         localMemoryManager
             .getQueryPool()
@@ -242,10 +269,10 @@ public class SharedTsBlockQueue {
                 localFragmentInstanceId.getQueryId(),
                 fullFragmentInstanceId,
                 localPlanNodeId,
-                tsBlock.getSizeInBytes(),
+                bytesToReserve,
                 maxBytesCanReserve);
     blockedOnMemory = pair.left;
-    bufferRetainedSizeInBytes += tsBlock.getSizeInBytes();
+    reservedBytes += bytesToReserve;
 
     // reserve memory failed, we should wait until there is enough memory
     if (!Boolean.TRUE.equals(pair.right)) {
@@ -288,20 +315,7 @@ public class SharedTsBlockQueue {
     if (!canAddTsBlock.isDone()) {
       canAddTsBlock.set(null);
     }
-    if (blockedOnMemory != null) {
-      bufferRetainedSizeInBytes -= localMemoryManager.getQueryPool().tryCancel(blockedOnMemory);
-    }
-    queue.clear();
-    if (bufferRetainedSizeInBytes > 0L) {
-      localMemoryManager
-          .getQueryPool()
-          .free(
-              localFragmentInstanceId.getQueryId(),
-              fullFragmentInstanceId,
-              localPlanNodeId,
-              bufferRetainedSizeInBytes);
-      bufferRetainedSizeInBytes = 0;
-    }
+    freeReservedMemory();
     if (sinkChannel != null) {
       // attention: LocalSinkChannel of this SharedTsBlockQueue could be null when we close
       // LocalSourceHandle(with limit clause it's possible) before constructing the corresponding
@@ -327,20 +341,7 @@ public class SharedTsBlockQueue {
     if (!canAddTsBlock.isDone()) {
       canAddTsBlock.set(null);
     }
-    if (blockedOnMemory != null) {
-      bufferRetainedSizeInBytes -= localMemoryManager.getQueryPool().tryCancel(blockedOnMemory);
-    }
-    queue.clear();
-    if (bufferRetainedSizeInBytes > 0L) {
-      localMemoryManager
-          .getQueryPool()
-          .free(
-              localFragmentInstanceId.getQueryId(),
-              fullFragmentInstanceId,
-              localPlanNodeId,
-              bufferRetainedSizeInBytes);
-      bufferRetainedSizeInBytes = 0;
-    }
+    freeReservedMemory();
   }
 
   /** Destroy the queue and cancel the future. Should only be called in abnormal case */
@@ -356,20 +357,25 @@ public class SharedTsBlockQueue {
     if (!canAddTsBlock.isDone()) {
       canAddTsBlock.set(null);
     }
+    freeReservedMemory();
+  }
+
+  private void freeMemory(long bytes) {
+    localMemoryManager
+        .getQueryPool()
+        .free(localFragmentInstanceId.getQueryId(), fullFragmentInstanceId, localPlanNodeId, bytes);
+    reservedBytes -= bytes;
+  }
+
+  private void freeReservedMemory() {
     if (blockedOnMemory != null) {
-      bufferRetainedSizeInBytes -= localMemoryManager.getQueryPool().tryCancel(blockedOnMemory);
+      reservedBytes -= localMemoryManager.getQueryPool().tryCancel(blockedOnMemory);
     }
     queue.clear();
-    if (bufferRetainedSizeInBytes > 0L) {
-      localMemoryManager
-          .getQueryPool()
-          .free(
-              localFragmentInstanceId.getQueryId(),
-              fullFragmentInstanceId,
-              localPlanNodeId,
-              bufferRetainedSizeInBytes);
-      bufferRetainedSizeInBytes = 0;
+    if (reservedBytes > 0L) {
+      freeMemory(reservedBytes);
     }
+    bufferRetainedSizeInBytes = 0;
   }
 
   public Optional<Throwable> getAbortedCause() {
@@ -29,6 +29,7 @@ import javax.annotation.concurrent.GuardedBy;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
 public class DataNodeQueryContext {
@@ -38,6 +39,9 @@ public class DataNodeQueryContext {
 
   private final AtomicInteger dataNodeFINum;
 
+  // size of the chunks all the fragment instances of the query have put into the chunk cache
+  private final AtomicLong chunkCacheAdmittedSize = new AtomicLong(0);
+
   // TODO consider more fine-grained locks, now the AtomicInteger in uncachedPathToSeriesScanInfo is
   // unnecessary
   private final ReentrantLock lock = new ReentrantLock();
@@ -63,6 +67,10 @@ public class DataNodeQueryContext {
     return uncachedPathToSeriesScanInfo;
   }
 
+  public AtomicLong getChunkCacheAdmittedSize() {
+    return chunkCacheAdmittedSize;
+  }
+
   public int decreaseDataNodeFINum() {
     return dataNodeFINum.decrementAndGet();
   }
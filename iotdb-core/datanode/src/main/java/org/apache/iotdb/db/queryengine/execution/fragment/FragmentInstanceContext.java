@@ -413,6 +413,18 @@ public class FragmentInstanceContext extends QueryContext {
     this.dataNodeQueryContext = dataNodeQueryContext;
   }
 
+  /**
+   * The chunk cache admission quota is shared by all the fragment instances of the query on this
+   * DataNode, so that splitting a scan into more instances doesn't enlarge it.
+   */
+  @Override
+  public AtomicLong getChunkCacheAdmittedSize() {
+    DataNodeQueryContext queryContext = dataNodeQueryContext;
+    return queryContext == null
+        ? super.getChunkCacheAdmittedSize()
+        : queryContext.getChunkCacheAdmittedSize();
+  }
+
   public FragmentInstanceInfo getInstanceInfo() {
     FragmentInstanceState state = stateMachine.getState();
     long endTime = getEndTime();
@@ -42,6 +42,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /** QueryContext contains the shared information with in a query. */
@@ -76,6 +77,9 @@ public class QueryContext {
   // referenced TVLists for the query
   protected final Set<TVList> tvListSet = new HashSet<>();
 
+  // size of the chunks this context has put into the chunk cache if it's not shared by the query
+  private final AtomicLong chunkCacheAdmittedSize = new AtomicLong(0);
+
   public QueryContext() {}
 
   public QueryContext(long queryId) {
@@ -212,6 +216,10 @@ public class QueryContext {
     this.queryStatistics = queryStatistics;
   }
 
+  public AtomicLong getChunkCacheAdmittedSize() {
+    return chunkCacheAdmittedSize;
+  }
+
   public boolean isIgnoreAllNullRows() {
     return ignoreAllNullRows;
   }
@@ -297,23 +297,23 @@ public class FileLoaderUtils {
                 globalTimeFilter,
                 false);
       } else {
+        // load the value columns in one batch, so that the missed ones in the same metadata index
+        // node are read together
         List<TimeseriesMetadata> valueTimeSeriesMetadataList =
-            new ArrayList<>(valueMeasurementList.size());
+            cache.get(
+                filePath,
+                resource.getTsFileID(),
+                deviceId,
+                valueMeasurementList,
+                allSensors,
+                context.ignoreNotExistsDevice()
+                    || resource.getTimeIndexType() == ITimeIndex.FILE_TIME_INDEX_TYPE,
+                isDebug,
+                context);
         // if all the queried aligned sensors does not exist, we will return null
         boolean exist = false;
-        for (String valueMeasurement : valueMeasurementList) {
-          TimeseriesMetadata valueColumn =
-              cache.get(
-                  filePath,
-                  new TimeSeriesMetadataCacheKey(
-                      resource.getTsFileID(), deviceId, valueMeasurement),
-                  allSensors,
-                  context.ignoreNotExistsDevice()
-                      || resource.getTimeIndexType() == ITimeIndex.FILE_TIME_INDEX_TYPE,
-                  isDebug,
-                  context);
+        for (TimeseriesMetadata valueColumn : valueTimeSeriesMetadataList) {
           exist = (exist || (valueColumn != null));
-          valueTimeSeriesMetadataList.add(valueColumn);
         }
         if (!ignoreAllNullRows || exist) {
           alignedTimeSeriesMetadata =
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source;
+
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.commons.concurrent.IoTThreadFactory;
+import org.apache.iotdb.commons.concurrent.ThreadName;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.file.metadata.AbstractAlignedChunkMetadata;
+import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IChunkMetadata;
+import org.apache.tsfile.file.metadata.ITimeSeriesMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reads ahead the TsFiles that a {@link SeriesScanUtil} will unpack next, so that the I/O of the
+ * next files overlaps with the computation on the current one.
+ *
+ * <p>A prefetch task loads the timeseries metadata of the series in the file into the {@link
+ * org.apache.iotdb.db.storageengine.buffer.TimeSeriesMetadataCache} and its first chunks into the
+ * {@link ChunkCache}, on behalf of the query. Thus the prefetched chunks count against the chunk
+ * cache admission quota of the query, and the scan finds them in the caches when it reaches the
+ * file. A prefetch is only a hint: it is dropped when the pool is busy, when the query has finished
+ * and when the loading fails, and the scan just reads the file by itself.
+ */
+public class SeriesScanPrefetcher {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SeriesScanPrefetcher.class);
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private static final int MAX_PENDING_TASK_NUM = 1024;
+
+  private final int chunkNumPerFile;
+
+  private final ExecutorService prefetchPool;
+
+  private final LongAdder prefetchedFileNum = new LongAdder();
+  private final LongAdder prefetchedChunkNum = new LongAdder();
+  private final LongAdder droppedTaskNum = new LongAdder();
+
+  private SeriesScanPrefetcher() {
+    this.chunkNumPerFile = CONFIG.getSeriesScanPrefetchChunkNumPerFile();
+    int threadCount = CONFIG.getSeriesScanPrefetchThreadCount();
+    this.prefetchPool =
+        IoTDBThreadPoolFactory.newThreadPool(
+            threadCount,
+            threadCount,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(MAX_PENDING_TASK_NUM),
+            new IoTThreadFactory(ThreadName.SERIES_SCAN_PREFETCH.getName()),
+            ThreadName.SERIES_SCAN_PREFETCH.getName());
+  }
+
+  public static SeriesScanPrefetcher getInstance() {
+    return SeriesScanPrefetcherHolder.INSTANCE;
+  }
+
+  private static class SeriesScanPrefetcherHolder {
+    private static final SeriesScanPrefetcher INSTANCE = new SeriesScanPrefetcher();
+  }
+
+  /**
+   * Submit a task to read ahead the given sealed TsFile.
+   *
+   * @param metadataLoader loads the timeseries metadata of the scanned series in the file, it is
+   *     called in the prefetch pool
+   */
+  public void prefetch(
+      FragmentInstanceContext context,
+      TsFileResource resource,
+      Callable<ITimeSeriesMetadata> metadataLoader) {
+    try {
+      prefetchPool.execute(() -> doPrefetch(context, resource, metadataLoader));
+    } catch (RejectedExecutionException e) {
+      droppedTaskNum.increment();
+    }
+  }
+
+  private void doPrefetch(
+      FragmentInstanceContext context,
+      TsFileResource resource,
+      Callable<ITimeSeriesMetadata> metadataLoader) {
+    if (isFinished(context)) {
+      droppedTaskNum.increment();
+      return;
+    }
+    try {
+      ITimeSeriesMetadata timeSeriesMetadata = metadataLoader.call();
+      prefetchedFileNum.increment();
+      if (timeSeriesMetadata == null || chunkNumPerFile <= 0) {
+        return;
+      }
+      List<IChunkMetadata> chunkMetadataList = timeSeriesMetadata.loadChunkMetadataList();
+      for (int i = 0, size = Math.min(chunkNumPerFile, chunkMetadataList.size()); i < size; i++) {
+        if (isFinished(context)) {
+          return;
+        }
+        IChunkMetadata chunkMetadata = chunkMetadataList.get(i);
+        if (chunkMetadata instanceof AbstractAlignedChunkMetadata) {
+          AbstractAlignedChunkMetadata alignedChunkMetadata =
+              (AbstractAlignedChunkMetadata) chunkMetadata;
+          loadChunk(context, resource, alignedChunkMetadata.getTimeChunkMetadata());
+          for (IChunkMetadata valueChunkMetadata :
+              alignedChunkMetadata.getValueChunkMetadataList()) {
+            loadChunk(context, resource, valueChunkMetadata);
+          }
+        } else {
+          loadChunk(context, resource, chunkMetadata);
+        }
+      }
+    } catch (Exception e) {
+      // the scan reads the file by itself later, and reports the error if there is a real one
+      LOGGER.debug("Failed to prefetch {}, skip it", resource.getTsFilePath(), e);
+    }
+  }
+
+  private void loadChunk(
+      FragmentInstanceContext context, TsFileResource resource, IChunkMetadata chunkMetadata)
+      throws IOException {
+    if (!(chunkMetadata instanceof ChunkMetadata)) {
+      return;
+    }
+    ChunkMetadata metadata = (ChunkMetadata) chunkMetadata;
+    ChunkCache.getInstance()
+        .get(
+            new ChunkCache.ChunkCacheKey(
+                resource.getTsFilePath(),
+                resource.getTsFileID(),
+                metadata.getOffsetOfChunkHeader(),
+                resource.isClosed()),
+            metadata.getDeleteIntervalList(),
+            metadata.getStatistics(),
+            context);
+    prefetchedChunkNum.increment();
+  }
+
+  private static boolean isFinished(FragmentInstanceContext context) {
+    FragmentInstanceStateMachine stateMachine = context.getStateMachine();
+    return context.isInterrupted() || (stateMachine != null && stateMachine.getState().isDone());
+  }
+
+  public long getPrefetchedFileNum() {
+    return prefetchedFileNum.sum();
+  }
+
+  public long getPrefetchedChunkNum() {
+    return prefetchedChunkNum.sum();
+  }
+
+  public long getDroppedTaskNum() {
+    return droppedTaskNum.sum();
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.iotdb.db.queryengine.execution.operator.source;
 
 import org.apache.iotdb.commons.path.IFullPath;
 import org.apache.iotdb.commons.path.NonAlignedFullPath;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet;
@@ -93,6 +94,12 @@ public class SeriesScanUtil implements Accountable {
   private int curSeqFileIndex;
   private int curUnseqFileIndex;
 
+  // how many of the following files are read ahead, and the farthest file index that has been
+  // submitted to read ahead
+  private final int prefetchFileNum;
+  private int prefetchedSeqFileIndex;
+  private int prefetchedUnseqFileIndex;
+
   // TimeSeriesMetadata cache
   private ITimeSeriesMetadata firstTimeSeriesMetadata;
   private final List<ITimeSeriesMetadata> seqTimeSeriesMetadata;
@@ -140,6 +147,7 @@ public class SeriesScanUtil implements Accountable {
     this.paginationController = scanOptions.getPaginationController();
 
     this.context = context;
+    this.prefetchFileNum = IoTDBDescriptor.getInstance().getConfig().getSeriesScanPrefetchFileNum();
 
     if (scanOrder.isAscending()) {
       this.orderUtils = new AscTimeOrderUtils();
@@ -205,6 +213,8 @@ public class SeriesScanUtil implements Accountable {
     // init file index
     orderUtils.setCurSeqFileIndex(dataSource);
     curUnseqFileIndex = 0;
+    prefetchedSeqFileIndex = orderUtils.getAscending() ? curSeqFileIndex - 1 : curSeqFileIndex + 1;
+    prefetchedUnseqFileIndex = curUnseqFileIndex - 1;
   }
 
   protected PriorityMergeReader getPriorityMergeReader() {
@@ -1207,6 +1217,7 @@ public class SeriesScanUtil implements Accountable {
   private Optional<ITimeSeriesMetadata> unpackSeqTsFileResource() throws IOException {
     ITimeSeriesMetadata timeseriesMetadata =
         loadTimeSeriesMetadata(orderUtils.getNextSeqFileResource(true), true);
+    prefetchSeqTsFileResources();
     // skip if data type is mismatched which may be caused by delete
     if (timeseriesMetadata != null && timeseriesMetadata.typeMatch(getTsDataTypeList())) {
       timeseriesMetadata.setSeq(true);
@@ -1220,6 +1231,7 @@ public class SeriesScanUtil implements Accountable {
   private Optional<ITimeSeriesMetadata> unpackUnseqTsFileResource() throws IOException {
     ITimeSeriesMetadata timeseriesMetadata =
         loadTimeSeriesMetadata(orderUtils.getNextUnseqFileResource(true), false);
+    prefetchUnseqTsFileResources();
     // skip if data type is mismatched which may be caused by delete
     if (timeseriesMetadata != null && timeseriesMetadata.typeMatch(getTsDataTypeList())) {
       timeseriesMetadata.setSeq(false);
@@ -1230,6 +1242,58 @@ public class SeriesScanUtil implements Accountable {
     }
   }
 
+  /**
+   * Read ahead the next {@link #prefetchFileNum} seq files that have not been read ahead. The
+   * satisfied-checking does not go through {@link QueryDataSource#isSeqSatisfied}, which caches the
+   * state of the current file of the scan.
+   */
+  private void prefetchSeqTsFileResources() {
+    if (prefetchFileNum <= 0) {
+      return;
+    }
+    boolean ascending = orderUtils.getAscending();
+    int step = ascending ? 1 : -1;
+    int seqResourcesSize = dataSource.getSeqResourcesSize();
+    for (int i = 0, index = curSeqFileIndex;
+        i < prefetchFileNum && index >= 0 && index < seqResourcesSize;
+        i++, index += step) {
+      if ((index - prefetchedSeqFileIndex) * step <= 0) {
+        continue;
+      }
+      prefetchedSeqFileIndex = index;
+      prefetchTsFileResource(dataSource.getSeqResourceByIndex(index), true);
+    }
+  }
+
+  /** Read ahead the next {@link #prefetchFileNum} unseq files that have not been read ahead. */
+  private void prefetchUnseqTsFileResources() {
+    if (prefetchFileNum <= 0) {
+      return;
+    }
+    int unseqResourcesSize = dataSource.getUnseqResourcesSize();
+    for (int i = 0, index = curUnseqFileIndex;
+        i < prefetchFileNum && index < unseqResourcesSize;
+        i++, index++) {
+      if (index <= prefetchedUnseqFileIndex) {
+        continue;
+      }
+      prefetchedUnseqFileIndex = index;
+      prefetchTsFileResource(dataSource.getUnseqResourceByIndex(index), false);
+    }
+  }
+
+  private void prefetchTsFileResource(TsFileResource resource, boolean isSeq) {
+    // the unsealed files are mostly in memory, and their metadata is not cached
+    if (resource == null
+        || !resource.isClosed()
+        || !(dataSource.isSingleDevice()
+            || resource.isSatisfied(deviceID, scanOptions.getGlobalTimeFilter(), isSeq, false))) {
+      return;
+    }
+    SeriesScanPrefetcher.getInstance()
+        .prefetch(context, resource, () -> loadTimeSeriesMetadata(resource, isSeq));
+  }
+
   protected ITimeSeriesMetadata loadTimeSeriesMetadata(TsFileResource resource, boolean isSeq)
       throws IOException {
     return FileLoaderUtils.loadTimeSeriesMetadata(
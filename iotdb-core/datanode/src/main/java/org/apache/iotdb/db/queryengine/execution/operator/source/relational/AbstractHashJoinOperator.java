@@ -0,0 +1,655 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational;
+
+import org.apache.iotdb.commons.exception.IoTDBException;
+import org.apache.iotdb.db.queryengine.exception.MemoryNotEnoughException;
+import org.apache.iotdb.db.queryengine.execution.operator.AbstractOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.FlatHashStrategy;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.JoinHash;
+import org.apache.iotdb.db.queryengine.plan.planner.memory.MemoryReservationManager;
+import org.apache.iotdb.db.utils.sort.PartitionedDiskSpiller;
+import org.apache.iotdb.db.utils.sort.SpilledTsBlockReader;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.type.Type;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator.TIME_COLUMN_TEMPLATE;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.UpdateMemory.NOOP;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.JoinHash.NO_MATCH;
+import static org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanGraphPrinter.MAX_RESERVED_MEMORY;
+import static org.apache.iotdb.db.queryengine.plan.relational.utils.TypeUtil.getFlatHashStrategy;
+
+/**
+ * Hash join which consumes the right child(build side) into a {@link JoinHash} first, then streams
+ * the left child(probe side) through it, so neither side needs to be sorted.
+ *
+ * <p>If the build side exceeds the buffer size, both sides are partitioned by the hash of join keys
+ * and spilled to disk, then joined partition by partition(grace hash join). A partition whose build
+ * side still exceeds the buffer size is partitioned again by the following bits of the hash, up to
+ * {@link #MAX_SPILL_LEVEL} levels. Output of the spilled join doesn't keep the order of probe side.
+ */
+public abstract class AbstractHashJoinOperator extends AbstractOperator {
+
+  private static final int SPILL_PARTITION_BITS = 3;
+  private static final int SPILL_PARTITION_COUNT = 1 << SPILL_PARTITION_BITS;
+  private static final int MAX_SPILL_LEVEL = 4;
+
+  public static final String SPILLED_PARTITION_COUNT = "SpilledPartitionCount";
+
+  private enum State {
+    BUILDING,
+    PROBING,
+    SPILLING_PROBE,
+    PROBING_SPILLED,
+    FINISHED
+  }
+
+  private State state = State.BUILDING;
+
+  protected final Operator probeChild;
+  protected final int[] probeJoinKeyPositions;
+  protected final int[] probeOutputSymbolIdx;
+  private final List<TSDataType> probeDataTypes;
+
+  protected final Operator buildChild;
+  protected final int[] buildJoinKeyPositions;
+  protected final int[] buildOutputSymbolIdx;
+  private final List<TSDataType> buildDataTypes;
+
+  private final List<Type> joinKeyTypes;
+  private final FlatHashStrategy hashStrategy;
+
+  protected JoinHash joinHash;
+  protected long buildRowCount;
+  protected boolean buildHasNullJoinKey;
+
+  protected TsBlock probeBlock;
+  protected int probeIndex;
+  private int[] firstMatchedRows;
+  // the next build row to be appended for current probe row, NO_MATCH means not started
+  private int pendingBuildRow = NO_MATCH;
+
+  private final String spillFolderPath;
+  private final long buildBufferSize;
+  private PartitionedDiskSpiller buildSpiller;
+  private PartitionedDiskSpiller probeSpiller;
+  // spilled partitions not joined yet, the top one is the deepest level
+  private final Deque<SpillLevel> spillLevels = new ArrayDeque<>();
+  private SpilledTsBlockReader spilledProbeReader;
+  private int spilledPartitionCount;
+  private int spillRound;
+
+  protected final TsBlockBuilder resultBuilder;
+
+  private final MemoryReservationManager memoryReservationManager;
+  private long usedMemory;
+  private long maxUsedMemory;
+
+  protected AbstractHashJoinOperator(
+      OperatorContext operatorContext,
+      Operator probeChild,
+      int[] probeJoinKeyPositions,
+      int[] probeOutputSymbolIdx,
+      List<TSDataType> probeDataTypes,
+      Operator buildChild,
+      int[] buildJoinKeyPositions,
+      int[] buildOutputSymbolIdx,
+      List<TSDataType> buildDataTypes,
+      List<Type> joinKeyTypes,
+      List<TSDataType> dataTypes,
+      String spillFolderPath,
+      long buildBufferSize) {
+    this.operatorContext = operatorContext;
+    this.probeChild = probeChild;
+    this.probeJoinKeyPositions = probeJoinKeyPositions;
+    this.probeOutputSymbolIdx = probeOutputSymbolIdx;
+    this.probeDataTypes = probeDataTypes;
+    this.buildChild = buildChild;
+    this.buildJoinKeyPositions = buildJoinKeyPositions;
+    this.buildOutputSymbolIdx = buildOutputSymbolIdx;
+    this.buildDataTypes = buildDataTypes;
+    this.joinKeyTypes = joinKeyTypes;
+    this.hashStrategy = getFlatHashStrategy(joinKeyTypes);
+    this.spillFolderPath = spillFolderPath;
+    this.buildBufferSize = buildBufferSize;
+
+    this.memoryReservationManager =
+        operatorContext
+            .getDriverContext()
+            .getFragmentInstanceContext()
+            .getMemoryReservationContext();
+
+    this.joinHash = new JoinHash(joinKeyTypes, buildJoinKeyPositions, NOOP);
+    this.resultBuilder = new TsBlockBuilder(dataTypes);
+  }
+
+  /**
+   * @return true if the probe side can be skipped when the build side is empty
+   */
+  protected abstract boolean skipProbeWhenBuildEmpty();
+
+  /**
+   * Append the current probe row which has no matched build row.
+   *
+   * @param joinKeyHasNull true if any join key of current probe row is NULL
+   */
+  protected abstract void appendUnmatchedProbeRow(boolean joinKeyHasNull);
+
+  /**
+   * Append the current probe row with the matched build rows starting from buildRow, stop when
+   * resultBuilder is full.
+   *
+   * @return the next build row which is not appended yet, {@link JoinHash#NO_MATCH} if all are
+   *     appended
+   */
+  protected int appendMatchedRows(int buildRow) {
+    while (buildRow != NO_MATCH && !resultBuilder.isFull()) {
+      appendProbeRow();
+      appendBuildRow(joinHash.getBlock(buildRow), joinHash.getPosition(buildRow));
+      resultBuilder.declarePosition();
+      buildRow = joinHash.getNextMatchedRow(buildRow);
+    }
+    return buildRow;
+  }
+
+  @Override
+  public ListenableFuture<?> isBlocked() {
+    switch (state) {
+      case BUILDING:
+        return buildChild.isBlocked();
+      case PROBING:
+      case SPILLING_PROBE:
+        return probeBlock != null ? NOT_BLOCKED : probeChild.isBlocked();
+      default:
+        return NOT_BLOCKED;
+    }
+  }
+
+  @Override
+  public boolean hasNext() throws Exception {
+    return retainedTsBlock != null || state != State.FINISHED;
+  }
+
+  @Override
+  public boolean isFinished() throws Exception {
+    return !hasNext();
+  }
+
+  @Override
+  public TsBlock next() throws Exception {
+    if (retainedTsBlock != null) {
+      return getResultFromRetainedTsBlock();
+    }
+
+    long maxRuntime = operatorContext.getMaxRunTime().roundTo(TimeUnit.NANOSECONDS);
+    long start = System.nanoTime();
+    while (state != State.FINISHED
+        && !resultBuilder.isFull()
+        && System.nanoTime() - start < maxRuntime) {
+      boolean canContinue;
+      switch (state) {
+        case BUILDING:
+          canContinue = build();
+          break;
+        case PROBING:
+          canContinue = probe();
+          break;
+        case SPILLING_PROBE:
+          canContinue = spillProbe();
+          break;
+        case PROBING_SPILLED:
+          canContinue = probeSpilled();
+          break;
+        default:
+          throw new IllegalStateException("Unexpected state of hash join: " + state);
+      }
+      if (!canContinue) {
+        break;
+      }
+    }
+
+    if (resultBuilder.isEmpty()) {
+      return null;
+    }
+
+    resultTsBlock =
+        resultBuilder.build(
+            new RunLengthEncodedColumn(TIME_COLUMN_TEMPLATE, resultBuilder.getPositionCount()));
+    resultBuilder.reset();
+    return checkTsBlockSizeAndGetResult();
+  }
+
+  /**
+   * @return false if the build child can't offer data now
+   */
+  private boolean build() throws Exception {
+    if (!buildChild.isBlocked().isDone()) {
+      return false;
+    }
+    if (!buildChild.hasNextWithTimer()) {
+      finishBuild();
+      return true;
+    }
+    TsBlock block = buildChild.nextWithTimer();
+    if (block == null) {
+      return false;
+    }
+    if (block.isEmpty()) {
+      return true;
+    }
+
+    buildRowCount += block.getPositionCount();
+    if (!buildHasNullJoinKey) {
+      buildHasNullJoinKey = hasNullJoinKey(block, buildJoinKeyPositions);
+    }
+
+    if (buildSpiller != null) {
+      spillByPartition(buildSpiller, block, buildJoinKeyPositions);
+      return true;
+    }
+
+    joinHash.addBuildBlock(block);
+    if (joinHash.getEstimatedSize() > buildBufferSize) {
+      // the build side can't be held in memory, turn to grace hash join
+      buildSpiller =
+          new PartitionedDiskSpiller(
+              spillFolderPath,
+              spillFolderPath + operatorContext.getOperatorId() + "-build",
+              buildDataTypes,
+              SPILL_PARTITION_COUNT);
+      for (TsBlock buildBlock : joinHash.getBuildBlocks()) {
+        spillByPartition(buildSpiller, buildBlock, buildJoinKeyPositions);
+      }
+      joinHash = null;
+      recordSpilledPartitions();
+      updateUsedMemory(buildSpiller.getRetainedSizeInBytes());
+    } else {
+      updateUsedMemory(joinHash.getEstimatedSize());
+    }
+    return true;
+  }
+
+  private void finishBuild() throws IoTDBException {
+    if (buildSpiller != null) {
+      buildSpiller.flush();
+      probeSpiller =
+          new PartitionedDiskSpiller(
+              spillFolderPath,
+              spillFolderPath + operatorContext.getOperatorId() + "-probe",
+              probeDataTypes,
+              SPILL_PARTITION_COUNT);
+      updateUsedMemory(probeSpiller.getRetainedSizeInBytes());
+      state = State.SPILLING_PROBE;
+    } else if (buildRowCount == 0 && skipProbeWhenBuildEmpty()) {
+      state = State.FINISHED;
+    } else {
+      state = State.PROBING;
+    }
+  }
+
+  /**
+   * @return false if the probe child can't offer data now
+   */
+  private boolean probe() throws Exception {
+    if (probeBlock == null) {
+      if (!probeChild.isBlocked().isDone()) {
+        return false;
+      }
+      if (!probeChild.hasNextWithTimer()) {
+        state = State.FINISHED;
+        return true;
+      }
+      TsBlock block = probeChild.nextWithTimer();
+      if (block == null) {
+        return false;
+      }
+      if (block.isEmpty()) {
+        return true;
+      }
+      setProbeBlock(block);
+    }
+    processProbeBlock();
+    return true;
+  }
+
+  private boolean spillProbe() throws Exception {
+    if (!probeChild.isBlocked().isDone()) {
+      return false;
+    }
+    if (!probeChild.hasNextWithTimer()) {
+      probeSpiller.flush();
+      spillLevels.push(new SpillLevel(0, buildSpiller, probeSpiller));
+      startNextSpilledPartition();
+      return true;
+    }
+    TsBlock block = probeChild.nextWithTimer();
+    if (block == null) {
+      return false;
+    }
+    if (!block.isEmpty()) {
+      spillByPartition(probeSpiller, block, probeJoinKeyPositions);
+    }
+    return true;
+  }
+
+  private boolean probeSpilled() throws IoTDBException {
+    if (probeBlock == null) {
+      if (!spilledProbeReader.hasNext()) {
+        spilledProbeReader.close();
+        spilledProbeReader = null;
+        startNextSpilledPartition();
+        return true;
+      }
+      setProbeBlock(spilledProbeReader.next());
+    }
+    processProbeBlock();
+    return true;
+  }
+
+  /**
+   * Load the build side of the next spilled partition into memory and prepare to read its probe
+   * side. If the build side of a partition can't be held in memory, the partition is partitioned
+   * again and its sub partitions are joined first.
+   */
+  private void startNextSpilledPartition() throws IoTDBException {
+    joinHash = null;
+    while (!spillLevels.isEmpty()) {
+      SpillLevel spillLevel = spillLevels.peek();
+      if (spillLevel.nextPartition >= SPILL_PARTITION_COUNT) {
+        spillLevels.pop();
+        continue;
+      }
+      int partition = spillLevel.nextPartition++;
+      if (!spillLevel.probeSpiller.hasSpilledData(partition)) {
+        continue;
+      }
+      if (!spillLevel.buildSpiller.hasSpilledData(partition) && skipProbeWhenBuildEmpty()) {
+        continue;
+      }
+
+      if (loadSpilledBuildPartition(spillLevel.buildSpiller, partition)) {
+        updateUsedMemory(joinHash.getEstimatedSize());
+        spilledProbeReader = spillLevel.probeSpiller.getReader(partition);
+        state = State.PROBING_SPILLED;
+        return;
+      }
+      if (spillLevel.level + 1 >= MAX_SPILL_LEVEL) {
+        // the rows are skewed to few join keys, partitioning again won't help
+        throw new MemoryNotEnoughException(
+            String.format(
+                "The build side of hash join still exceeds %d bytes after being partitioned %d times, try to increase hash_join_build_buffer_size_in_bytes",
+                buildBufferSize, MAX_SPILL_LEVEL));
+      }
+      spillLevels.push(repartition(spillLevel, partition));
+    }
+
+    updateUsedMemory(0);
+    state = State.FINISHED;
+  }
+
+  /**
+   * @return false if the build side of the partition exceeds the buffer size, the joinHash is
+   *     discarded then
+   */
+  private boolean loadSpilledBuildPartition(PartitionedDiskSpiller spiller, int partition)
+      throws IoTDBException {
+    joinHash = new JoinHash(joinKeyTypes, buildJoinKeyPositions, NOOP);
+    try (SpilledTsBlockReader buildReader = spiller.getReader(partition)) {
+      while (buildReader.hasNext()) {
+        joinHash.addBuildBlock(buildReader.next());
+        if (joinHash.getEstimatedSize() > buildBufferSize) {
+          joinHash = null;
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /** Partition both sides of the partition by the hash bits of next level. */
+  private SpillLevel repartition(SpillLevel parent, int partition) throws IoTDBException {
+    int level = parent.level + 1;
+    String filePrefix = spillFolderPath + operatorContext.getOperatorId() + "-" + (++spillRound);
+    PartitionedDiskSpiller subBuildSpiller =
+        new PartitionedDiskSpiller(
+            spillFolderPath, filePrefix + "-build", buildDataTypes, SPILL_PARTITION_COUNT);
+    try (SpilledTsBlockReader reader = parent.buildSpiller.getReader(partition)) {
+      while (reader.hasNext()) {
+        spillByPartition(subBuildSpiller, reader.next(), buildJoinKeyPositions, level);
+      }
+    }
+    subBuildSpiller.flush();
+
+    PartitionedDiskSpiller subProbeSpiller =
+        new PartitionedDiskSpiller(
+            spillFolderPath, filePrefix + "-probe", probeDataTypes, SPILL_PARTITION_COUNT);
+    try (SpilledTsBlockReader reader = parent.probeSpiller.getReader(partition)) {
+      while (reader.hasNext()) {
+        spillByPartition(subProbeSpiller, reader.next(), probeJoinKeyPositions, level);
+      }
+    }
+    subProbeSpiller.flush();
+
+    recordSpilledPartitions();
+    return new SpillLevel(level, subBuildSpiller, subProbeSpiller);
+  }
+
+  private void recordSpilledPartitions() {
+    spilledPartitionCount += SPILL_PARTITION_COUNT;
+    operatorContext.recordSpecifiedInfo(
+        SPILLED_PARTITION_COUNT, Integer.toString(spilledPartitionCount));
+  }
+
+  private void setProbeBlock(TsBlock block) {
+    probeBlock = block;
+    probeIndex = 0;
+    firstMatchedRows = joinHash.getFirstMatchedRows(block, probeJoinKeyPositions);
+    pendingBuildRow = NO_MATCH;
+  }
+
+  private void processProbeBlock() {
+    int positionCount = probeBlock.getPositionCount();
+    while (probeIndex < positionCount) {
+      if (resultBuilder.isFull()) {
+        return;
+      }
+
+      if (pendingBuildRow == NO_MATCH) {
+        int firstMatchedRow = firstMatchedRows[probeIndex];
+        if (firstMatchedRow == NO_MATCH) {
+          appendUnmatchedProbeRow(currentProbeJoinKeyHasNull());
+          probeIndex++;
+          continue;
+        }
+        pendingBuildRow = firstMatchedRow;
+      }
+
+      pendingBuildRow = appendMatchedRows(pendingBuildRow);
+      if (pendingBuildRow == NO_MATCH) {
+        probeIndex++;
+      }
+    }
+
+    probeBlock = null;
+    firstMatchedRows = null;
+  }
+
+  private void spillByPartition(
+      PartitionedDiskSpiller spiller, TsBlock block, int[] joinKeyPositions) throws IoTDBException {
+    spillByPartition(spiller, block, joinKeyPositions, 0);
+  }
+
+  /** Each level takes the next SPILL_PARTITION_BITS bits of the hash from the highest ones. */
+  private void spillByPartition(
+      PartitionedDiskSpiller spiller, TsBlock block, int[] joinKeyPositions, int level)
+      throws IoTDBException {
+    int positionCount = block.getPositionCount();
+    Column[] joinKeyColumns = new Column[joinKeyPositions.length];
+    for (int i = 0; i < joinKeyPositions.length; i++) {
+      joinKeyColumns[i] = block.getColumn(joinKeyPositions[i]);
+    }
+    long[] hashes = new long[positionCount];
+    hashStrategy.hashBatched(joinKeyColumns, hashes, 0, positionCount);
+    int shift = Long.SIZE - SPILL_PARTITION_BITS * (level + 1);
+    for (int position = 0; position < positionCount; position++) {
+      spiller.append(
+          (int) ((hashes[position] >>> shift) & (SPILL_PARTITION_COUNT - 1)), block, position);
+    }
+  }
+
+  private boolean currentProbeJoinKeyHasNull() {
+    for (int probeJoinKeyPosition : probeJoinKeyPositions) {
+      if (probeBlock.getColumn(probeJoinKeyPosition).isNull(probeIndex)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasNullJoinKey(TsBlock block, int[] joinKeyPositions) {
+    for (int joinKeyPosition : joinKeyPositions) {
+      if (block.getColumn(joinKeyPosition).mayHaveNull()) {
+        Column column = block.getColumn(joinKeyPosition);
+        for (int i = 0, size = block.getPositionCount(); i < size; i++) {
+          if (column.isNull(i)) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /** Append the output columns of current probe row to the resultBuilder. */
+  protected void appendProbeRow() {
+    for (int i = 0; i < probeOutputSymbolIdx.length; i++) {
+      Column column = probeBlock.getColumn(probeOutputSymbolIdx[i]);
+      ColumnBuilder columnBuilder = resultBuilder.getColumnBuilder(i);
+      if (column.isNull(probeIndex)) {
+        columnBuilder.appendNull();
+      } else {
+        columnBuilder.write(column, probeIndex);
+      }
+    }
+  }
+
+  protected void appendBuildRow(TsBlock buildBlock, int buildPosition) {
+    for (int i = 0; i < buildOutputSymbolIdx.length; i++) {
+      Column column = buildBlock.getColumn(buildOutputSymbolIdx[i]);
+      ColumnBuilder columnBuilder = resultBuilder.getColumnBuilder(probeOutputSymbolIdx.length + i);
+      if (column.isNull(buildPosition)) {
+        columnBuilder.appendNull();
+      } else {
+        columnBuilder.write(column, buildPosition);
+      }
+    }
+  }
+
+  protected void appendNullBuildRow() {
+    for (int i = 0; i < buildOutputSymbolIdx.length; i++) {
+      resultBuilder.getColumnBuilder(probeOutputSymbolIdx.length + i).appendNull();
+    }
+  }
+
+  private void updateUsedMemory(long newUsedMemory) {
+    long delta = newUsedMemory - usedMemory;
+    if (delta > 0) {
+      memoryReservationManager.reserveMemoryCumulatively(delta);
+    } else if (delta < 0) {
+      memoryReservationManager.releaseMemoryCumulatively(-delta);
+    }
+    usedMemory = newUsedMemory;
+    if (usedMemory > maxUsedMemory) {
+      maxUsedMemory = usedMemory;
+      operatorContext.recordSpecifiedInfo(MAX_RESERVED_MEMORY, Long.toString(maxUsedMemory));
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (probeChild != null) {
+      probeChild.close();
+    }
+    if (buildChild != null) {
+      buildChild.close();
+    }
+    if (spilledProbeReader != null) {
+      spilledProbeReader.close();
+      spilledProbeReader = null;
+    }
+    joinHash = null;
+    spillLevels.clear();
+    if (usedMemory > 0) {
+      memoryReservationManager.releaseMemoryCumulatively(usedMemory);
+      usedMemory = 0;
+    }
+  }
+
+  private static class SpillLevel {
+    private final int level;
+    private final PartitionedDiskSpiller buildSpiller;
+    private final PartitionedDiskSpiller probeSpiller;
+    private int nextPartition;
+
+    private SpillLevel(
+        int level, PartitionedDiskSpiller buildSpiller, PartitionedDiskSpiller probeSpiller) {
+      this.level = level;
+      this.buildSpiller = buildSpiller;
+      this.probeSpiller = probeSpiller;
+    }
+  }
+
+  @Override
+  public long calculateMaxPeekMemory() {
+    return Math.max(
+        Math.max(
+            probeChild.calculateMaxPeekMemoryWithCounter(),
+            buildChild.calculateMaxPeekMemoryWithCounter()),
+        calculateRetainedSizeAfterCallingNext() + calculateMaxReturnSize());
+  }
+
+  @Override
+  public long calculateMaxReturnSize() {
+    return maxReturnSize;
+  }
+
+  @Override
+  public long calculateRetainedSizeAfterCallingNext() {
+    return probeChild.calculateMaxReturnSize()
+        + probeChild.calculateRetainedSizeAfterCallingNext()
+        + buildChild.calculateRetainedSizeAfterCallingNext()
+        + buildBufferSize
+        + maxReturnSize;
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational;
+
+import org.apache.iotdb.db.queryengine.execution.MemoryEstimationHelper;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.List;
+
+public class HashInnerJoinOperator extends AbstractHashJoinOperator {
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(HashInnerJoinOperator.class);
+
+  public HashInnerJoinOperator(
+      OperatorContext operatorContext,
+      Operator leftChild,
+      int[] leftJoinKeyPositions,
+      int[] leftOutputSymbolIdx,
+      List<TSDataType> leftDataTypes,
+      Operator rightChild,
+      int[] rightJoinKeyPositions,
+      int[] rightOutputSymbolIdx,
+      List<TSDataType> rightDataTypes,
+      List<Type> joinKeyTypes,
+      List<TSDataType> dataTypes,
+      String spillFolderPath,
+      long buildBufferSize) {
+    super(
+        operatorContext,
+        leftChild,
+        leftJoinKeyPositions,
+        leftOutputSymbolIdx,
+        leftDataTypes,
+        rightChild,
+        rightJoinKeyPositions,
+        rightOutputSymbolIdx,
+        rightDataTypes,
+        joinKeyTypes,
+        dataTypes,
+        spillFolderPath,
+        buildBufferSize);
+  }
+
+  @Override
+  protected boolean skipProbeWhenBuildEmpty() {
+    return true;
+  }
+
+  @Override
+  protected void appendUnmatchedProbeRow(boolean joinKeyHasNull) {
+    // unmatched probe row can not appear in the inner join result
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    return INSTANCE_SIZE
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(probeChild)
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(buildChild)
+        + RamUsageEstimator.sizeOf(probeOutputSymbolIdx)
+        + RamUsageEstimator.sizeOf(buildOutputSymbolIdx)
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(operatorContext)
+        + resultBuilder.getRetainedSizeInBytes();
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational;
+
+import org.apache.iotdb.db.queryengine.execution.MemoryEstimationHelper;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.JoinHash.NO_MATCH;
+
+public class HashSemiJoinOperator extends AbstractHashJoinOperator {
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(HashSemiJoinOperator.class);
+
+  private final int outputColumnNum;
+
+  public HashSemiJoinOperator(
+      OperatorContext operatorContext,
+      Operator leftChild,
+      int leftJoinKeyPosition,
+      int[] leftOutputSymbolIdx,
+      List<TSDataType> leftDataTypes,
+      Operator rightChild,
+      int rightJoinKeyPosition,
+      List<TSDataType> rightDataTypes,
+      Type joinKeyType,
+      List<TSDataType> dataTypes,
+      String spillFolderPath,
+      long buildBufferSize) {
+    super(
+        operatorContext,
+        leftChild,
+        new int[] {leftJoinKeyPosition},
+        leftOutputSymbolIdx,
+        leftDataTypes,
+        rightChild,
+        new int[] {rightJoinKeyPosition},
+        new int[0],
+        rightDataTypes,
+        Collections.singletonList(joinKeyType),
+        dataTypes,
+        spillFolderPath,
+        buildBufferSize);
+    outputColumnNum = dataTypes.size();
+  }
+
+  @Override
+  protected boolean skipProbeWhenBuildEmpty() {
+    return false;
+  }
+
+  @Override
+  protected int appendMatchedRows(int buildRow) {
+    // only one row will be output for each probe row, no matter how many build rows are matched
+    appendValueToResult(true);
+    return NO_MATCH;
+  }
+
+  @Override
+  protected void appendUnmatchedProbeRow(boolean joinKeyHasNull) {
+    if (buildRowCount == 0) {
+      // x IN (empty set) is always false, even if x is NULL
+      appendValueToResult(false);
+    } else if (joinKeyHasNull || buildHasNullJoinKey) {
+      // if left value is NULL or right has NULL value, append NULL to result. This behaves like
+      // MySQL and Trino.
+      appendNullValueToResult();
+    } else {
+      appendValueToResult(false);
+    }
+  }
+
+  private void appendValueToResult(boolean matches) {
+    appendProbeRow();
+    ColumnBuilder columnBuilder = resultBuilder.getColumnBuilder(outputColumnNum - 1);
+    columnBuilder.writeBoolean(matches);
+    resultBuilder.declarePosition();
+  }
+
+  private void appendNullValueToResult() {
+    appendProbeRow();
+    ColumnBuilder columnBuilder = resultBuilder.getColumnBuilder(outputColumnNum - 1);
+    columnBuilder.appendNull();
+    resultBuilder.declarePosition();
+  }
+
+  @Override
+  public long ramBytesUsed() {
+    return INSTANCE_SIZE
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(probeChild)
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(buildChild)
+        + RamUsageEstimator.sizeOf(probeOutputSymbolIdx)
+        + RamUsageEstimator.sizeOf(buildOutputSymbolIdx)
+        + MemoryEstimationHelper.getEstimatedSizeOfAccountableObject(operatorContext)
+        + resultBuilder.getRetainedSizeInBytes();
+  }
+}
@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation;
+
+import org.apache.iotdb.db.exception.sql.SemanticException;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.TDigest;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.TDigestStateFactory;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.statistics.Statistics;
+import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+import org.apache.tsfile.write.UnSupportedDataTypeException;
+
+import java.nio.ByteBuffer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+public class ApproxPercentileAccumulator implements TableAccumulator {
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(ApproxPercentileAccumulator.class);
+  private final TSDataType seriesDataType;
+  private final TDigestStateFactory.SingleTDigestState state =
+      TDigestStateFactory.createSingleState();
+  // the percentage is a literal, it is carried by the intermediate result for the final merge
+  private double percentage = Double.NaN;
+
+  public ApproxPercentileAccumulator(TSDataType seriesDataType) {
+    this.seriesDataType = seriesDataType;
+  }
+
+  @Override
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE + state.getEstimatedSize();
+  }
+
+  @Override
+  public TableAccumulator copy() {
+    return new ApproxPercentileAccumulator(seriesDataType);
+  }
+
+  @Override
+  public void addInput(Column[] arguments, AggregationMask mask) {
+    percentage = getPercentage(arguments[1]);
+    TDigest digest = getOrCreateTDigest(state);
+
+    switch (seriesDataType) {
+      case INT32:
+        addIntInput(arguments[0], mask, digest);
+        return;
+      case INT64:
+      case TIMESTAMP:
+        addLongInput(arguments[0], mask, digest);
+        return;
+      case FLOAT:
+        addFloatInput(arguments[0], mask, digest);
+        return;
+      case DOUBLE:
+        addDoubleInput(arguments[0], mask, digest);
+        return;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format(
+                "Unsupported data type in APPROX_PERCENTILE Aggregation: %s", seriesDataType));
+    }
+  }
+
+  @Override
+  public void addIntermediate(Column argument) {
+    for (int i = 0; i < argument.getPositionCount(); i++) {
+      if (!argument.isNull(i)) {
+        ByteBuffer buffer = ByteBuffer.wrap(argument.getBinary(i).getValues());
+        double currentPercentage = ReadWriteIOUtils.readDouble(buffer);
+        if (!Double.isNaN(currentPercentage)) {
+          percentage = currentPercentage;
+        }
+        state.merge(new TDigest(buffer));
+      }
+    }
+  }
+
+  @Override
+  public void evaluateIntermediate(ColumnBuilder columnBuilder) {
+    checkArgument(
+        columnBuilder instanceof BinaryColumnBuilder,
+        "intermediate input and output of APPROX_PERCENTILE should be BinaryColumn");
+    columnBuilder.writeBinary(serializeIntermediate(percentage, getOrCreateTDigest(state)));
+  }
+
+  @Override
+  public void evaluateFinal(ColumnBuilder columnBuilder) {
+    TDigest digest = state.getTDigest();
+    if (digest == null || digest.isEmpty() || Double.isNaN(percentage)) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeDouble(digest.quantile(percentage));
+    }
+  }
+
+  @Override
+  public boolean hasFinalResult() {
+    return false;
+  }
+
+  @Override
+  public void addStatistics(Statistics[] statistics) {
+    throw new UnsupportedOperationException(
+        "ApproxPercentileAccumulator does not support statistics");
+  }
+
+  @Override
+  public void reset() {
+    TDigest digest = state.getTDigest();
+    if (digest != null) {
+      digest.reset();
+    }
+  }
+
+  public void addIntInput(Column valueColumn, AggregationMask mask, TDigest digest) {
+    int positionCount = mask.getSelectedPositionCount();
+
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < valueColumn.getPositionCount(); i++) {
+        if (!valueColumn.isNull(i)) {
+          digest.add(valueColumn.getInt(i));
+        }
+      }
+    } else {
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!valueColumn.isNull(position)) {
+          digest.add(valueColumn.getInt(position));
+        }
+      }
+    }
+  }
+
+  public void addLongInput(Column valueColumn, AggregationMask mask, TDigest digest) {
+    int positionCount = mask.getSelectedPositionCount();
+
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < valueColumn.getPositionCount(); i++) {
+        if (!valueColumn.isNull(i)) {
+          digest.add(valueColumn.getLong(i));
+        }
+      }
+    } else {
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!valueColumn.isNull(position)) {
+          digest.add(valueColumn.getLong(position));
+        }
+      }
+    }
+  }
+
+  public void addFloatInput(Column valueColumn, AggregationMask mask, TDigest digest) {
+    int positionCount = mask.getSelectedPositionCount();
+
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < valueColumn.getPositionCount(); i++) {
+        if (!valueColumn.isNull(i)) {
+          digest.add(valueColumn.getFloat(i));
+        }
+      }
+    } else {
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!valueColumn.isNull(position)) {
+          digest.add(valueColumn.getFloat(position));
+        }
+      }
+    }
+  }
+
+  public void addDoubleInput(Column valueColumn, AggregationMask mask, TDigest digest) {
+    int positionCount = mask.getSelectedPositionCount();
+
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < valueColumn.getPositionCount(); i++) {
+        if (!valueColumn.isNull(i)) {
+          digest.add(valueColumn.getDouble(i));
+        }
+      }
+    } else {
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!valueColumn.isNull(position)) {
+          digest.add(valueColumn.getDouble(position));
+        }
+      }
+    }
+  }
+
+  public static TDigest getOrCreateTDigest(TDigestStateFactory.SingleTDigestState state) {
+    TDigest digest = state.getTDigest();
+    if (digest == null) {
+      digest = new TDigest();
+      state.setTDigest(digest);
+    }
+    return digest;
+  }
+
+  /** Get the percentage from the literal argument, which must be in [0, 1]. */
+  public static double getPercentage(Column column) {
+    double percentage;
+    switch (column.getDataType()) {
+      case INT32:
+        percentage = column.getInt(0);
+        break;
+      case INT64:
+        percentage = column.getLong(0);
+        break;
+      case FLOAT:
+        percentage = column.getFloat(0);
+        break;
+      case DOUBLE:
+        percentage = column.getDouble(0);
+        break;
+      default:
+        throw new SemanticException(
+            "The second argument of 'approx_percentile' function must be a numeric literal");
+    }
+    if (percentage < 0 || percentage > 1) {
+      throw new SemanticException(
+          "The second argument of 'approx_percentile' function must be in [0, 1], but got "
+              + percentage);
+    }
+    return percentage;
+  }
+
+  public static Binary serializeIntermediate(double percentage, TDigest digest) {
+    ByteBuffer buffer = ByteBuffer.allocate(Double.BYTES + digest.getSerializedSize());
+    ReadWriteIOUtils.write(percentage, buffer);
+    digest.serialize(buffer);
+    return new Binary(buffer.array());
+  }
+}
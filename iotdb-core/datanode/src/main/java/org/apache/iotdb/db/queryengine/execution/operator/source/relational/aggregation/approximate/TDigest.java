@@ -0,0 +1,326 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate;
+
+import org.apache.iotdb.commons.exception.IoTDBRuntimeException;
+
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.apache.iotdb.rpc.TSStatusCode.NUMERIC_VALUE_OUT_OF_RANGE;
+
+/**
+ * A merging t-digest used to estimate quantiles. The added values are buffered and periodically
+ * merged into a list of centroids sorted by mean. The size of a centroid is limited by the k1 scale
+ * function, so the centroids near both tails stay small and extreme quantiles like p99 remain
+ * accurate. Two digests can be merged by merging their centroids, so the digest can be used as the
+ * intermediate result of a distributed aggregation.
+ */
+public class TDigest {
+
+  public static final double DEFAULT_COMPRESSION = 100;
+
+  private static final long INSTANCE_SIZE = RamUsageEstimator.shallowSizeOfInstance(TDigest.class);
+
+  private static final double[] EMPTY = new double[0];
+  private static final int INITIAL_BUFFER_CAPACITY = 16;
+
+  private final double compression;
+
+  // merged centroids, sorted by mean
+  private double[] means;
+  private double[] weights;
+  private int centroidCount;
+  private double mergedWeight;
+
+  // values or centroids of other digests which are not merged yet, the buffers grow on demand up
+  // to bufferCapacity, so that the digests of small groups don't hold the whole buffers
+  private final int bufferCapacity;
+  private double[] bufferMeans = EMPTY;
+  private double[] bufferWeights = EMPTY;
+  private int bufferSize;
+  private double unmergedWeight;
+
+  private double min = Double.POSITIVE_INFINITY;
+  private double max = Double.NEGATIVE_INFINITY;
+
+  public TDigest() {
+    this(DEFAULT_COMPRESSION);
+  }
+
+  public TDigest(double compression) {
+    this.compression = compression;
+    this.means = EMPTY;
+    this.weights = EMPTY;
+    this.bufferCapacity = getBufferCapacity(compression);
+  }
+
+  public TDigest(ByteBuffer byteBuffer) {
+    // deserialize
+    this(ReadWriteIOUtils.readDouble(byteBuffer));
+    this.min = ReadWriteIOUtils.readDouble(byteBuffer);
+    this.max = ReadWriteIOUtils.readDouble(byteBuffer);
+    this.centroidCount = ReadWriteIOUtils.readInt(byteBuffer);
+    this.means = new double[centroidCount];
+    this.weights = new double[centroidCount];
+    for (int i = 0; i < centroidCount; i++) {
+      means[i] = ReadWriteIOUtils.readDouble(byteBuffer);
+      weights[i] = ReadWriteIOUtils.readDouble(byteBuffer);
+      mergedWeight += weights[i];
+    }
+  }
+
+  private static int getBufferCapacity(double compression) {
+    if (compression < 10 || compression > 10000) {
+      throw new IoTDBRuntimeException(
+          String.format("Compression of TDigest must be in [10, 10000]: %s", compression),
+          NUMERIC_VALUE_OUT_OF_RANGE.getStatusCode(),
+          true);
+    }
+    return (int) Math.ceil(compression) * 2;
+  }
+
+  public void add(double value) {
+    if (!Double.isNaN(value)) {
+      add(value, 1);
+    }
+  }
+
+  private void add(double mean, double weight) {
+    if (bufferSize == bufferMeans.length) {
+      if (bufferMeans.length < bufferCapacity) {
+        growBuffer();
+      } else {
+        compress();
+      }
+    }
+    bufferMeans[bufferSize] = mean;
+    bufferWeights[bufferSize] = weight;
+    bufferSize++;
+    unmergedWeight += weight;
+    min = Math.min(min, mean);
+    max = Math.max(max, mean);
+  }
+
+  private void growBuffer() {
+    int newCapacity =
+        Math.min(bufferCapacity, Math.max(INITIAL_BUFFER_CAPACITY, bufferMeans.length * 2));
+    bufferMeans = Arrays.copyOf(bufferMeans, newCapacity);
+    bufferWeights = Arrays.copyOf(bufferWeights, newCapacity);
+  }
+
+  /** Merges another TDigest instance into this one. */
+  public void merge(TDigest other) {
+    for (int i = 0; i < other.centroidCount; i++) {
+      add(other.means[i], other.weights[i]);
+    }
+    for (int i = 0; i < other.bufferSize; i++) {
+      add(other.bufferMeans[i], other.bufferWeights[i]);
+    }
+    // the mean of a centroid is not the extreme value of it
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  /** Merges the buffered values into the centroids. */
+  private void compress() {
+    if (bufferSize == 0) {
+      return;
+    }
+    int size = centroidCount + bufferSize;
+    double[] newMeans = Arrays.copyOf(means, size);
+    double[] newWeights = Arrays.copyOf(weights, size);
+    System.arraycopy(bufferMeans, 0, newMeans, centroidCount, bufferSize);
+    System.arraycopy(bufferWeights, 0, newWeights, centroidCount, bufferSize);
+    sort(newMeans, newWeights, 0, size - 1);
+
+    double totalWeight = mergedWeight + unmergedWeight;
+    double weightSoFar = 0;
+    double weightLimit = totalWeight * integratedQ(integratedK(0) + 1);
+    double currentMean = newMeans[0];
+    double currentWeight = newWeights[0];
+    // the centroids are merged in place, the written position never passes the read position
+    int count = 0;
+    for (int i = 1; i < size; i++) {
+      double proposedWeight = currentWeight + newWeights[i];
+      if (weightSoFar + proposedWeight <= weightLimit) {
+        currentWeight = proposedWeight;
+        currentMean += (newMeans[i] - currentMean) * newWeights[i] / currentWeight;
+      } else {
+        newMeans[count] = currentMean;
+        newWeights[count] = currentWeight;
+        count++;
+        weightSoFar += currentWeight;
+        weightLimit = totalWeight * integratedQ(integratedK(weightSoFar / totalWeight) + 1);
+        currentMean = newMeans[i];
+        currentWeight = newWeights[i];
+      }
+    }
+    newMeans[count] = currentMean;
+    newWeights[count] = currentWeight;
+    count++;
+
+    means = Arrays.copyOf(newMeans, count);
+    weights = Arrays.copyOf(newWeights, count);
+    centroidCount = count;
+    mergedWeight = totalWeight;
+    bufferSize = 0;
+    unmergedWeight = 0;
+  }
+
+  /** The k1 scale function, which maps a quantile to the index of the centroid. */
+  private double integratedK(double q) {
+    return compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+  }
+
+  private double integratedQ(double k) {
+    return (Math.sin(Math.min(k * 2 * Math.PI / compression, Math.PI / 2)) + 1) / 2;
+  }
+
+  /**
+   * Returns the estimated value at the given quantile.
+   *
+   * @param q the quantile in [0, 1]
+   * @return the estimated value, or NaN if no value has been added
+   */
+  public double quantile(double q) {
+    compress();
+    if (centroidCount == 0) {
+      return Double.NaN;
+    }
+    if (q <= 0) {
+      return min;
+    }
+    if (q >= 1) {
+      return max;
+    }
+
+    // each centroid is treated as being centered at the middle of its weight
+    double index = q * mergedWeight;
+    double weightSoFar = weights[0] / 2;
+    if (index <= weightSoFar) {
+      return min + (means[0] - min) * index / weightSoFar;
+    }
+    for (int i = 0; i < centroidCount - 1; i++) {
+      double deltaWeight = (weights[i] + weights[i + 1]) / 2;
+      if (weightSoFar + deltaWeight > index) {
+        return means[i] + (means[i + 1] - means[i]) * (index - weightSoFar) / deltaWeight;
+      }
+      weightSoFar += deltaWeight;
+    }
+    int last = centroidCount - 1;
+    double z = Math.min(1, (index - weightSoFar) / (weights[last] / 2));
+    return means[last] + (max - means[last]) * z;
+  }
+
+  public double getCount() {
+    return mergedWeight + unmergedWeight;
+  }
+
+  public boolean isEmpty() {
+    return centroidCount == 0 && bufferSize == 0;
+  }
+
+  /** Resets the digest. */
+  public void reset() {
+    means = EMPTY;
+    weights = EMPTY;
+    bufferMeans = EMPTY;
+    bufferWeights = EMPTY;
+    centroidCount = 0;
+    mergedWeight = 0;
+    bufferSize = 0;
+    unmergedWeight = 0;
+    min = Double.POSITIVE_INFINITY;
+    max = Double.NEGATIVE_INFINITY;
+  }
+
+  public int getSerializedSize() {
+    compress();
+    return Double.BYTES * 3 + Integer.BYTES + centroidCount * Double.BYTES * 2;
+  }
+
+  public void serialize(ByteBuffer byteBuffer) {
+    compress();
+    ReadWriteIOUtils.write(compression, byteBuffer);
+    ReadWriteIOUtils.write(min, byteBuffer);
+    ReadWriteIOUtils.write(max, byteBuffer);
+    ReadWriteIOUtils.write(centroidCount, byteBuffer);
+    for (int i = 0; i < centroidCount; i++) {
+      ReadWriteIOUtils.write(means[i], byteBuffer);
+      ReadWriteIOUtils.write(weights[i], byteBuffer);
+    }
+  }
+
+  public long getEstimatedSize() {
+    // the buffers are allocated lazily, but the digest is accounted with the arrays it can grow to,
+    // the number of centroids after compressing is bounded by the buffer capacity
+    return INSTANCE_SIZE
+        + 4
+            * RamUsageEstimator.alignObjectSize(
+                RamUsageEstimator.NUM_BYTES_ARRAY_HEADER + (long) Double.BYTES * bufferCapacity);
+  }
+
+  /** Sorts the means in ascending order, and the weights are moved along with the means. */
+  private static void sort(double[] keys, double[] values, int low, int high) {
+    while (high - low > 16) {
+      int middle = (low + high) >>> 1;
+      double pivot = keys[middle];
+      int i = low;
+      int j = high;
+      while (i <= j) {
+        while (keys[i] < pivot) {
+          i++;
+        }
+        while (keys[j] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          swap(keys, values, i++, j--);
+        }
+      }
+      // recurse into the smaller part to bound the stack depth
+      if (j - low < high - i) {
+        sort(keys, values, low, j);
+        low = i;
+      } else {
+        sort(keys, values, i, high);
+        high = j;
+      }
+    }
+    for (int i = low + 1; i <= high; i++) {
+      for (int j = i; j > low && keys[j - 1] > keys[j]; j--) {
+        swap(keys, values, j, j - 1);
+      }
+    }
+  }
+
+  private static void swap(double[] keys, double[] values, int i, int j) {
+    double key = keys[i];
+    keys[i] = keys[j];
+    keys[j] = key;
+    double value = values[i];
+    values[i] = values[j];
+    values[j] = value;
+  }
+}
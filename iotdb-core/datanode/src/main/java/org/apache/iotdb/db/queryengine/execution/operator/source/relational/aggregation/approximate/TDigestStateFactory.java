@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate;
+
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.array.TDigestBigArray;
+
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import static java.util.Objects.requireNonNull;
+
+public class TDigestStateFactory {
+  public static SingleTDigestState createSingleState() {
+    return new SingleTDigestState();
+  }
+
+  public static GroupedTDigestState createGroupedState() {
+    return new GroupedTDigestState();
+  }
+
+  public static class SingleTDigestState {
+    private static final long INSTANCE_SIZE =
+        RamUsageEstimator.shallowSizeOfInstance(SingleTDigestState.class);
+    private TDigest digest;
+
+    public TDigest getTDigest() {
+      return digest;
+    }
+
+    public void setTDigest(TDigest value) {
+      digest = value;
+    }
+
+    public long getEstimatedSize() {
+      return INSTANCE_SIZE + (digest == null ? 0 : digest.getEstimatedSize());
+    }
+
+    public void merge(TDigest other) {
+      if (this.digest == null) {
+        setTDigest(other);
+      } else {
+        digest.merge(other);
+      }
+    }
+  }
+
+  public static class GroupedTDigestState {
+    private static final long INSTANCE_SIZE =
+        RamUsageEstimator.shallowSizeOfInstance(GroupedTDigestState.class);
+    private TDigestBigArray digests = new TDigestBigArray();
+
+    public TDigestBigArray getTDigests() {
+      return digests;
+    }
+
+    public void setTDigests(TDigestBigArray value) {
+      requireNonNull(value, "value is null");
+      this.digests = value;
+    }
+
+    public long getEstimatedSize() {
+      return INSTANCE_SIZE + digests.sizeOf();
+    }
+
+    public void merge(int groupId, TDigest digest) {
+      TDigest existingDigest = digests.get(groupId);
+      if (existingDigest == null) {
+        digests.set(groupId, digest);
+      } else {
+        existingDigest.merge(digest);
+      }
+    }
+
+    public boolean isEmpty() {
+      return digests.isEmpty();
+    }
+  }
+}
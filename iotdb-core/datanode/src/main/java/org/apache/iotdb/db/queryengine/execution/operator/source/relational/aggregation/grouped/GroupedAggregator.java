@@ -33,6 +33,7 @@ import java.util.List;
 import java.util.OptionalInt;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 import static java.util.Objects.requireNonNull;
 import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.TableScanOperator.TIME_COLUMN_TEMPLATE;
 
@@ -40,18 +41,40 @@ public class GroupedAggregator {
   private final GroupedAccumulator accumulator;
   private final AggregationNode.Step step;
   private final TSDataType outputType;
+  // type of the intermediate result, null if the accumulator can't output intermediate result
+  private final TSDataType spillType;
   private final int[] inputChannels;
   private final OptionalInt maskChannel;
 
+  // output intermediate result instead of the result of step, used when spilling to disk
+  private boolean spillOutput;
+
+  public GroupedAggregator(
+      GroupedAccumulator accumulator,
+      AggregationNode.Step step,
+      TSDataType outputType,
+      List<Integer> inputChannels,
+      OptionalInt maskChannel) {
+    this(
+        accumulator,
+        step,
+        outputType,
+        step.isOutputPartial() ? outputType : null,
+        inputChannels,
+        maskChannel);
+  }
+
   public GroupedAggregator(
       GroupedAccumulator accumulator,
       AggregationNode.Step step,
       TSDataType outputType,
+      TSDataType spillType,
       List<Integer> inputChannels,
       OptionalInt maskChannel) {
     this.accumulator = requireNonNull(accumulator, "accumulator is null");
     this.step = requireNonNull(step, "step is null");
     this.outputType = requireNonNull(outputType, "intermediateType is null");
+    this.spillType = spillType;
     this.inputChannels = Ints.toArray(requireNonNull(inputChannels, "inputChannels is null"));
     this.maskChannel = requireNonNull(maskChannel, "maskChannel is null");
     checkArgument(
@@ -85,8 +108,23 @@ public class GroupedAggregator {
     }
   }
 
+  /** Merge the intermediate results spilled before, the argument is of {@link #getSpillType()}. */
+  public void processIntermediate(int groupCount, int[] groupIds, Column argument) {
+    accumulator.setGroupCount(groupCount);
+    accumulator.addIntermediate(groupIds, argument);
+  }
+
+  public TSDataType getSpillType() {
+    return spillType;
+  }
+
+  public void setSpillOutput() {
+    checkState(spillType != null, "Intermediate result of the aggregator can't be spilled");
+    this.spillOutput = true;
+  }
+
   public void evaluate(int groupId, ColumnBuilder columnBuilder) {
-    if (step.isOutputPartial()) {
+    if (spillOutput || step.isOutputPartial()) {
       accumulator.evaluateIntermediate(groupId, columnBuilder);
     } else {
       accumulator.evaluateFinal(groupId, columnBuilder);
@@ -99,6 +137,7 @@ public class GroupedAggregator {
 
   public void reset() {
     accumulator.reset();
+    spillOutput = false;
   }
 
   public long getEstimatedSize() {
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped;
+
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.AggregationMask;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.TDigest;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate.TDigestStateFactory;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.array.TDigestBigArray;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+import org.apache.tsfile.write.UnSupportedDataTypeException;
+
+import java.nio.ByteBuffer;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.ApproxPercentileAccumulator.getPercentage;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.ApproxPercentileAccumulator.serializeIntermediate;
+
+public class GroupedApproxPercentileAccumulator implements GroupedAccumulator {
+  private static final long INSTANCE_SIZE =
+      RamUsageEstimator.shallowSizeOfInstance(GroupedApproxPercentileAccumulator.class);
+  private final TSDataType seriesDataType;
+
+  private final TDigestStateFactory.GroupedTDigestState state =
+      TDigestStateFactory.createGroupedState();
+  // the percentage is a literal, it is carried by the intermediate result for the final merge
+  private double percentage = Double.NaN;
+
+  public GroupedApproxPercentileAccumulator(TSDataType seriesDataType) {
+    this.seriesDataType = seriesDataType;
+  }
+
+  @Override
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE + state.getEstimatedSize();
+  }
+
+  @Override
+  public void setGroupCount(long groupCount) {
+    state.getTDigests().ensureCapacity(groupCount);
+  }
+
+  @Override
+  public void addInput(int[] groupIds, Column[] arguments, AggregationMask mask) {
+    percentage = getPercentage(arguments[1]);
+    TDigestBigArray digests = state.getTDigests();
+
+    switch (seriesDataType) {
+      case INT32:
+        addIntInput(groupIds, arguments[0], mask, digests);
+        return;
+      case INT64:
+      case TIMESTAMP:
+        addLongInput(groupIds, arguments[0], mask, digests);
+        return;
+      case FLOAT:
+        addFloatInput(groupIds, arguments[0], mask, digests);
+        return;
+      case DOUBLE:
+        addDoubleInput(groupIds, arguments[0], mask, digests);
+        return;
+      default:
+        throw new UnSupportedDataTypeException(
+            String.format(
+                "Unsupported data type in APPROX_PERCENTILE Aggregation: %s", seriesDataType));
+    }
+  }
+
+  @Override
+  public void addIntermediate(int[] groupIds, Column argument) {
+    for (int i = 0; i < groupIds.length; i++) {
+      if (!argument.isNull(i)) {
+        ByteBuffer buffer = ByteBuffer.wrap(argument.getBinary(i).getValues());
+        double currentPercentage = ReadWriteIOUtils.readDouble(buffer);
+        if (!Double.isNaN(currentPercentage)) {
+          percentage = currentPercentage;
+        }
+        state.merge(groupIds[i], new TDigest(buffer));
+      }
+    }
+  }
+
+  @Override
+  public void evaluateIntermediate(int groupId, ColumnBuilder columnBuilder) {
+    columnBuilder.writeBinary(
+        serializeIntermediate(percentage, state.getTDigests().getOrCreate(groupId)));
+  }
+
+  @Override
+  public void evaluateFinal(int groupId, ColumnBuilder columnBuilder) {
+    TDigest digest = state.getTDigests().get(groupId);
+    if (digest == null || digest.isEmpty() || Double.isNaN(percentage)) {
+      columnBuilder.appendNull();
+    } else {
+      columnBuilder.writeDouble(digest.quantile(percentage));
+    }
+  }
+
+  @Override
+  public void prepareFinal() {}
+
+  @Override
+  public void reset() {
+    state.getTDigests().reset();
+  }
+
+  public void addIntInput(
+      int[] groupIds, Column column, AggregationMask mask, TDigestBigArray digests) {
+    int positionCount = mask.getSelectedPositionCount();
+
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < positionCount; i++) {
+        if (!column.isNull(i)) {
+          digests.getOrCreate(groupIds[i]).add(column.getInt(i));
+        }
+      }
+    } else {
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!column.isNull(position)) {
+          digests.getOrCreate(groupIds[position]).add(column.getInt(position));
+        }
+      }
+    }
+  }
+
+  public void addLongInput(
+      int[] groupIds, Column column, AggregationMask mask, TDigestBigArray digests) {
+    int positionCount = mask.getSelectedPositionCount();
+
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < positionCount; i++) {
+        if (!column.isNull(i)) {
+          digests.getOrCreate(groupIds[i]).add(column.getLong(i));
+        }
+      }
+    } else {
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!column.isNull(position)) {
+          digests.getOrCreate(groupIds[position]).add(column.getLong(position));
+        }
+      }
+    }
+  }
+
+  public void addFloatInput(
+      int[] groupIds, Column column, AggregationMask mask, TDigestBigArray digests) {
+    int positionCount = mask.getSelectedPositionCount();
+
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < positionCount; i++) {
+        if (!column.isNull(i)) {
+          digests.getOrCreate(groupIds[i]).add(column.getFloat(i));
+        }
+      }
+    } else {
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!column.isNull(position)) {
+          digests.getOrCreate(groupIds[position]).add(column.getFloat(position));
+        }
+      }
+    }
+  }
+
+  public void addDoubleInput(
+      int[] groupIds, Column column, AggregationMask mask, TDigestBigArray digests) {
+    int positionCount = mask.getSelectedPositionCount();
+
+    if (mask.isSelectAll()) {
+      for (int i = 0; i < positionCount; i++) {
+        if (!column.isNull(i)) {
+          digests.getOrCreate(groupIds[i]).add(column.getDouble(i));
+        }
+      }
+    } else {
+      int[] selectedPositions = mask.getSelectedPositions();
+      int position;
+      for (int i = 0; i < positionCount; i++) {
+        position = selectedPositions[i];
+        if (!column.isNull(position)) {
+          digests.getOrCreate(groupIds[position]).add(column.getDouble(position));
+        }
+      }
+    }
+  }
+}
@@ -25,6 +25,7 @@ import org.apache.iotdb.db.queryengine.execution.operator.Operator;
 import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.builder.HashAggregationBuilder;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.builder.InMemoryHashAggregationBuilder;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.builder.SpillableHashAggregationBuilder;
 import org.apache.iotdb.db.queryengine.plan.planner.memory.MemoryReservationManager;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.AggregationNode;
 
@@ -37,6 +38,7 @@ import org.apache.tsfile.utils.RamUsageEstimator;
 import java.util.List;
 import java.util.Optional;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.UpdateMemory.NOOP;
 import static org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanGraphPrinter.CURRENT_USED_MEMORY;
@@ -59,6 +61,7 @@ public class HashAggregationOperator extends AbstractOperator {
 
   private final boolean spillEnabled;
   private final long unspillMemoryLimit;
+  private final String spillFolderPath;
 
   private HashAggregationBuilder aggregationBuilder;
 
@@ -79,6 +82,38 @@ public class HashAggregationOperator extends AbstractOperator {
       long maxPartialMemory,
       boolean spillEnabled,
       long unspillMemoryLimit) {
+    this(
+        operatorContext,
+        child,
+        groupByTypes,
+        groupByChannels,
+        aggregators,
+        step,
+        expectedGroups,
+        maxPartialMemory,
+        spillEnabled,
+        unspillMemoryLimit,
+        null);
+  }
+
+  /**
+   * @param unspillMemoryLimit if spillEnabled, groups are spilled to spillFolderPath once their
+   *     estimated size exceeds it
+   */
+  public HashAggregationOperator(
+      OperatorContext operatorContext,
+      Operator child,
+      List<Type> groupByTypes,
+      List<Integer> groupByChannels,
+      List<GroupedAggregator> aggregators,
+      AggregationNode.Step step,
+      int expectedGroups,
+      long maxPartialMemory,
+      boolean spillEnabled,
+      long unspillMemoryLimit,
+      String spillFolderPath) {
+    checkArgument(
+        !spillEnabled || spillFolderPath != null, "spillFolderPath is needed if spill is enabled");
     super.operatorContext = operatorContext;
     this.child = child;
     this.groupByTypes = ImmutableList.copyOf(groupByTypes);
@@ -89,6 +124,7 @@ public class HashAggregationOperator extends AbstractOperator {
     this.maxPartialMemory = maxPartialMemory;
     this.spillEnabled = spillEnabled;
     this.unspillMemoryLimit = unspillMemoryLimit;
+    this.spillFolderPath = spillFolderPath;
     this.memoryReservationManager =
         operatorContext
             .getDriverContext()
@@ -114,7 +150,16 @@ public class HashAggregationOperator extends AbstractOperator {
 
     if (aggregationBuilder == null) {
       if (spillEnabled) {
-        throw new UnsupportedOperationException();
+        aggregationBuilder =
+            new SpillableHashAggregationBuilder(
+                aggregators,
+                step,
+                expectedGroups,
+                groupByTypes,
+                groupByChannels,
+                operatorContext,
+                unspillMemoryLimit,
+                spillFolderPath);
       } else {
         aggregationBuilder =
             new InMemoryHashAggregationBuilder(
@@ -148,6 +193,13 @@ public class HashAggregationOperator extends AbstractOperator {
     } else {
       // evaluate output
       resultTsBlock = getOutput();
+      if (aggregationBuilder != null) {
+        // the builder may load spilled groups to merge when building result
+        updateOccupiedMemorySize();
+      }
+      if (resultTsBlock == null) {
+        return null;
+      }
       return checkTsBlockSizeAndGetResult();
     }
   }
@@ -183,6 +235,8 @@ public class HashAggregationOperator extends AbstractOperator {
       // aggregationBuilder.close() will release all memory reserved in memory accounting.
       // The reference must be set to null afterwards to avoid unaccounted memory.
       aggregationBuilder = null;
+      memoryReservationManager.releaseMemoryCumulatively(previousRetainedSize);
+      previousRetainedSize = 0;
     }
     // memoryContext.setBytes(0);
   }
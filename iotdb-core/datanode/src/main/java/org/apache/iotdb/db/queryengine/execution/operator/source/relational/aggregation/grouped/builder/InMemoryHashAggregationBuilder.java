@@ -61,7 +61,10 @@ public class InMemoryHashAggregationBuilder implements HashAggregationBuilder {
   private boolean full;
 
   private Iterator<Integer> groupIds;
-  private final TsBlockBuilder pageBuilder;
+  private TsBlockBuilder pageBuilder;
+
+  // if present, input of the aggregators are the intermediate results spilled before
+  private final Optional<Integer> unspillIntermediateChannelOffset;
 
   private final int expectedGroups;
   private final Optional<Integer> hashChannel;
@@ -122,6 +125,7 @@ public class InMemoryHashAggregationBuilder implements HashAggregationBuilder {
     this.hashChannel = hashChannel;
 
     this.operatorContext = operatorContext;
+    this.unspillIntermediateChannelOffset = unspillIntermediateChannelOffset;
   }
 
   @Override
@@ -140,6 +144,15 @@ public class InMemoryHashAggregationBuilder implements HashAggregationBuilder {
       operatorContext.recordSpecifiedInfo(MAX_GROUP_NUMBER, Long.toString(groupCount));
       maxGroupNumber = groupCount;
     }
+    if (unspillIntermediateChannelOffset.isPresent()) {
+      int offset = unspillIntermediateChannelOffset.get();
+      for (int i = 0; i < groupedAggregators.size(); i++) {
+        groupedAggregators
+            .get(i)
+            .processIntermediate(groupCount, groupByIdBlock, block.getColumn(offset + i));
+      }
+      return;
+    }
     for (GroupedAggregator groupedAggregator : groupedAggregators) {
       groupedAggregator.processBlock(groupCount, groupByIdBlock, block);
     }
@@ -159,7 +172,7 @@ public class InMemoryHashAggregationBuilder implements HashAggregationBuilder {
     groupedAggregators.forEach(GroupedAggregator::reset);
     full = false;
     groupIds = null;
-    pageBuilder.reset();
+    pageBuilder = new TsBlockBuilder(buildTypes());
   }
 
   @Override
@@ -193,10 +206,15 @@ public class InMemoryHashAggregationBuilder implements HashAggregationBuilder {
     return getGroupCount() * Integer.BYTES;
   }
 
+  /**
+   * Make {@link #buildResult()} output the group keys and the intermediate results of aggregators,
+   * whose types are {@link #buildSpillTypes()}.
+   */
   public void setSpillOutput() {
     for (GroupedAggregator groupedAggregator : groupedAggregators) {
-      // groupedAggregator.setSpillOutput();
+      groupedAggregator.setSpillOutput();
     }
+    pageBuilder = new TsBlockBuilder(buildSpillTypes());
   }
 
   public int getKeyChannels() {
@@ -221,10 +239,11 @@ public class InMemoryHashAggregationBuilder implements HashAggregationBuilder {
     return !groupIds.hasNext();
   }
 
-  public List<Type> buildSpillTypes() {
-    ArrayList<Type> types = new ArrayList<>(groupByOutputTypes);
+  public List<TSDataType> buildSpillTypes() {
+    List<TSDataType> types = new ArrayList<>(groupByOutputTypes.size() + groupedAggregators.size());
+    groupByOutputTypes.forEach(type -> types.add(InternalTypeManager.getTSDataType(type)));
     for (GroupedAggregator groupedAggregator : groupedAggregators) {
-      // types.add(groupedAggregator.getSpillType());
+      types.add(groupedAggregator.getSpillType());
     }
     return types;
   }
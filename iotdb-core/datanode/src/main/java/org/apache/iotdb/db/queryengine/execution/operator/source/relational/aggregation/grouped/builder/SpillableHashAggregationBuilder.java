@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.builder;
+
+import org.apache.iotdb.commons.exception.IoTDBException;
+import org.apache.iotdb.commons.exception.IoTDBRuntimeException;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedAggregator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.FlatHashStrategy;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.AggregationNode;
+import org.apache.iotdb.db.utils.sort.PartitionedDiskSpiller;
+import org.apache.iotdb.db.utils.sort.SpilledTsBlockReader;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.type.Type;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.UpdateMemory.NOOP;
+import static org.apache.iotdb.db.queryengine.plan.relational.utils.TypeUtil.getFlatHashStrategy;
+
+/**
+ * Aggregate in memory until the estimated size exceeds the memory limit, then the intermediate
+ * results of all groups are partitioned by the hash of group keys and spilled to disk, and the
+ * aggregation continues with an empty in-memory builder.
+ *
+ * <p>When building result, the groups still in memory are spilled as well, then the spilled
+ * intermediate results are merged partition by partition, so only the groups of one partition are
+ * held in memory at a time. A partition is loaded within the time slice of the operator, {@link
+ * #buildResult()} returns null if the loading is not done yet.
+ */
+public class SpillableHashAggregationBuilder implements HashAggregationBuilder {
+
+  private static final int SPILL_PARTITION_BITS = 4;
+  private static final int SPILL_PARTITION_COUNT = 1 << SPILL_PARTITION_BITS;
+
+  public static final String SPILL_COUNT = "SpillCount";
+
+  private final List<GroupedAggregator> groupedAggregators;
+  private final AggregationNode.Step step;
+  private final int expectedGroups;
+  private final List<Type> groupByTypes;
+  private final List<Integer> groupByChannels;
+  private final OperatorContext operatorContext;
+  private final long memoryLimitForMerge;
+  private final String spillFolderPath;
+  private final FlatHashStrategy hashStrategy;
+
+  private InMemoryHashAggregationBuilder inMemoryBuilder;
+
+  private PartitionedDiskSpiller spiller;
+  private int spillCount;
+
+  // builder which merges the spilled intermediate results of current partition
+  private InMemoryHashAggregationBuilder mergingBuilder;
+  // reader of the spilled intermediate results not loaded into mergingBuilder yet
+  private SpilledTsBlockReader mergingReader;
+  private int mergingPartition = -1;
+
+  public SpillableHashAggregationBuilder(
+      List<GroupedAggregator> groupedAggregators,
+      AggregationNode.Step step,
+      int expectedGroups,
+      List<Type> groupByTypes,
+      List<Integer> groupByChannels,
+      OperatorContext operatorContext,
+      long memoryLimitForMerge,
+      String spillFolderPath) {
+    this.groupedAggregators = groupedAggregators;
+    this.step = step;
+    this.expectedGroups = expectedGroups;
+    this.groupByTypes = groupByTypes;
+    this.groupByChannels = groupByChannels;
+    this.operatorContext = operatorContext;
+    this.memoryLimitForMerge = memoryLimitForMerge;
+    this.spillFolderPath = spillFolderPath;
+    this.hashStrategy = getFlatHashStrategy(groupByTypes);
+    this.inMemoryBuilder =
+        new InMemoryHashAggregationBuilder(
+            groupedAggregators,
+            step,
+            expectedGroups,
+            groupByTypes,
+            groupByChannels,
+            Optional.empty(),
+            operatorContext,
+            Long.MAX_VALUE,
+            NOOP);
+  }
+
+  @Override
+  public void processBlock(TsBlock block) {
+    inMemoryBuilder.processBlock(block);
+  }
+
+  @Override
+  public void updateMemory() {
+    if (inMemoryBuilder.getEstimatedSize() > memoryLimitForMerge) {
+      spillInMemoryBuilder();
+    }
+  }
+
+  @Override
+  public TsBlock buildResult() {
+    if (spiller == null) {
+      return inMemoryBuilder.buildResult();
+    }
+
+    if (mergingPartition < 0) {
+      // all input are consumed, spill the remaining groups so that all partitions can be merged
+      spillInMemoryBuilder();
+      try {
+        spiller.flush();
+      } catch (IoTDBException e) {
+        throw new IoTDBRuntimeException(e, e.getErrorCode());
+      }
+      startNextPartition();
+    }
+
+    if (mergingReader != null && !loadMergingPartition()) {
+      return null;
+    }
+    TsBlock result = mergingBuilder.buildResult();
+    if (mergingBuilder.finished()) {
+      startNextPartition();
+    }
+    return result;
+  }
+
+  @Override
+  public boolean finished() {
+    if (spiller == null) {
+      return inMemoryBuilder.finished();
+    }
+    return mergingPartition >= SPILL_PARTITION_COUNT;
+  }
+
+  private void spillInMemoryBuilder() {
+    if (inMemoryBuilder.getGroupCount() == 0) {
+      return;
+    }
+    if (spiller == null) {
+      spiller =
+          new PartitionedDiskSpiller(
+              spillFolderPath,
+              spillFolderPath + operatorContext.getOperatorId() + "-agg",
+              inMemoryBuilder.buildSpillTypes(),
+              SPILL_PARTITION_COUNT);
+    }
+
+    inMemoryBuilder.setSpillOutput();
+    try {
+      do {
+        spillByPartition(inMemoryBuilder.buildResult());
+      } while (!inMemoryBuilder.finished());
+    } catch (IoTDBException e) {
+      throw new IoTDBRuntimeException(e, e.getErrorCode());
+    }
+    operatorContext.recordSpecifiedInfo(SPILL_COUNT, Integer.toString(++spillCount));
+
+    // reset() also resets the accumulators, aggregate the following input from scratch
+    inMemoryBuilder.reset();
+  }
+
+  private void spillByPartition(TsBlock block) throws IoTDBException {
+    int positionCount = block.getPositionCount();
+    Column[] groupByColumns = new Column[groupByTypes.size()];
+    for (int i = 0; i < groupByColumns.length; i++) {
+      groupByColumns[i] = block.getColumn(i);
+    }
+    long[] hashes = new long[positionCount];
+    hashStrategy.hashBatched(groupByColumns, hashes, 0, positionCount);
+    for (int position = 0; position < positionCount; position++) {
+      spiller.append(
+          (int) (hashes[position] >>> (Long.SIZE - SPILL_PARTITION_BITS)), block, position);
+    }
+  }
+
+  /** Prepare to merge the spilled intermediate results of next partition which has data. */
+  private void startNextPartition() {
+    if (mergingBuilder != null) {
+      mergingBuilder.close();
+      mergingBuilder = null;
+    }
+    for (mergingPartition++; mergingPartition < SPILL_PARTITION_COUNT; mergingPartition++) {
+      if (!spiller.hasSpilledData(mergingPartition)) {
+        continue;
+      }
+
+      // the aggregators are shared by all partitions, clear the states of last partition
+      groupedAggregators.forEach(GroupedAggregator::reset);
+      mergingBuilder =
+          new InMemoryHashAggregationBuilder(
+              groupedAggregators,
+              step,
+              expectedGroups,
+              groupByTypes,
+              IntStream.range(0, groupByTypes.size()).boxed().collect(Collectors.toList()),
+              Optional.empty(),
+              operatorContext,
+              Long.MAX_VALUE,
+              Optional.of(groupByTypes.size()),
+              NOOP);
+      mergingReader = spiller.getReader(mergingPartition);
+      return;
+    }
+  }
+
+  /**
+   * Merge the spilled intermediate results of current partition until all are merged or the time
+   * slice is used up.
+   *
+   * @return true if all the intermediate results of current partition are merged
+   */
+  private boolean loadMergingPartition() {
+    long maxRuntime = operatorContext.getMaxRunTime().roundTo(TimeUnit.NANOSECONDS);
+    long start = System.nanoTime();
+    try {
+      do {
+        if (!mergingReader.hasNext()) {
+          closeMergingReader();
+          return true;
+        }
+        mergingBuilder.processBlock(mergingReader.next());
+      } while (System.nanoTime() - start < maxRuntime);
+    } catch (IoTDBException e) {
+      throw new IoTDBRuntimeException(e, e.getErrorCode());
+    }
+    return false;
+  }
+
+  private void closeMergingReader() {
+    if (mergingReader != null) {
+      try {
+        mergingReader.close();
+      } catch (IoTDBException e) {
+        throw new IoTDBRuntimeException(e, e.getErrorCode());
+      }
+      mergingReader = null;
+    }
+  }
+
+  @Override
+  public long getEstimatedSize() {
+    if (spiller == null) {
+      return inMemoryBuilder.getEstimatedSize();
+    }
+    // inMemoryBuilder is empty and its aggregators are used by mergingBuilder when merging
+    long size = spiller.getRetainedSizeInBytes();
+    if (mergingPartition < 0) {
+      size += inMemoryBuilder.getEstimatedSize();
+    } else if (mergingBuilder != null) {
+      size += mergingBuilder.getEstimatedSize();
+    }
+    return size;
+  }
+
+  @Override
+  public boolean isFull() {
+    return false;
+  }
+
+  /** Discard all the groups in memory and on disk, then the builder accepts input from scratch. */
+  @Override
+  public void reset() {
+    closeMergingReader();
+    if (mergingBuilder != null) {
+      mergingBuilder.close();
+      mergingBuilder = null;
+    }
+    mergingPartition = -1;
+    // files spilled again with the same prefix are truncated, so the stale ones are never read
+    spiller = null;
+    inMemoryBuilder.reset();
+  }
+
+  @Override
+  public void close() {
+    closeMergingReader();
+    inMemoryBuilder.close();
+    if (mergingBuilder != null) {
+      mergingBuilder.close();
+    }
+  }
+}
@@ -131,6 +131,28 @@ public class FlatGroupByHash implements GroupByHash {
     return getNonDictionaryPageWork(columns);
   }
 
+  @Override
+  public int[] getExistingGroupIds(Column[] page) {
+    int positionCount = page[0].getPositionCount();
+    int[] groupIds = new int[positionCount];
+    if (positionCount == 0) {
+      return groupIds;
+    }
+
+    Column[] columns = getColumnsFromPage(page);
+    long[] hashes = getHashesBufferArray();
+    int lastPosition = 0;
+    while (lastPosition < positionCount) {
+      int batchSize = min(positionCount - lastPosition, hashes.length);
+      flatHash.computeHashes(columns, hashes, lastPosition, batchSize);
+      for (int i = 0; i < batchSize; i++) {
+        groupIds[lastPosition + i] = flatHash.getGroupId(columns, lastPosition + i, hashes[i]);
+      }
+      lastPosition += batchSize;
+    }
+    return groupIds;
+  }
+
   @Override
   public int getCapacity() {
     return flatHash.getCapacity();
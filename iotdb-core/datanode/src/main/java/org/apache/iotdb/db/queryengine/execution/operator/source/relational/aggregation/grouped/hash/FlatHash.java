@@ -212,6 +212,18 @@ public final class FlatHash {
     return getIndex(columns, position, hash) >= 0;
   }
 
+  /**
+   * @return the group id of the row at the given position, or -1 if the row doesn't belong to any
+   *     existing group. No new group will be created.
+   */
+  public int getGroupId(Column[] columns, int position, long hash) {
+    int index = getIndex(columns, position, hash);
+    if (index < 0) {
+      return -1;
+    }
+    return bytesToInt(getRecords(index), getRecordOffset(index) + recordGroupIdOffset);
+  }
+
   public void computeHashes(Column[] columns, long[] hashes, int offset, int length) {
     if (hasPrecomputedHash) {
       Column hashColumn = columns[columns.length - 1];
@@ -54,6 +54,12 @@ public interface GroupByHash {
    */
   int[] getGroupIds(Column[] groupedColumns);
 
+  /**
+   * Look up the group ids of incoming rows without adding new groups, -1 will be returned for the
+   * rows which don't belong to any existing group.
+   */
+  int[] getExistingGroupIds(Column[] groupedColumns);
+
   long getRawHash(int groupId);
 
   @VisibleForTesting
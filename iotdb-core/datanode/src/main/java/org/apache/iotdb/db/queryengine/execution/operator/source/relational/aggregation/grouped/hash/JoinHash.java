@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash;
+
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.UpdateMemory;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.type.Type;
+import org.apache.tsfile.utils.RamUsageEstimator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.GroupByHash.DEFAULT_GROUP_NUMBER;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.GroupByHash.createGroupByHash;
+
+/**
+ * Lookup structure of the build side of hash join. Distinct join keys are stored in a {@link
+ * GroupByHash}, and all build rows sharing the same group are chained in insertion order, so that
+ * probing one row costs one hash lookup plus the walk of its matched rows.
+ *
+ * <p>Rows containing NULL join key will never be matched, they are not added into the chains.
+ */
+public class JoinHash {
+  private static final long INSTANCE_SIZE = RamUsageEstimator.shallowSizeOfInstance(JoinHash.class);
+
+  public static final int NO_MATCH = -1;
+
+  private static final int INITIAL_ROW_CAPACITY = 1024;
+
+  private final GroupByHash groupByHash;
+  private final int[] joinKeyPositions;
+
+  private final List<TsBlock> buildBlocks = new ArrayList<>();
+  private long buildBlocksRetainedSize;
+
+  // first and last row of each group
+  private int[] groupHead;
+  private int[] groupTail;
+
+  // next row in the same group, and (blockIndex << 32 | position) of each row
+  private int[] rowNext = new int[INITIAL_ROW_CAPACITY];
+  private long[] rowAddress = new long[INITIAL_ROW_CAPACITY];
+  private int rowCount;
+
+  public JoinHash(List<Type> joinKeyTypes, int[] joinKeyPositions, UpdateMemory updateMemory) {
+    this.groupByHash = createGroupByHash(joinKeyTypes, false, DEFAULT_GROUP_NUMBER, updateMemory);
+    this.joinKeyPositions = joinKeyPositions;
+    this.groupHead = new int[DEFAULT_GROUP_NUMBER];
+    Arrays.fill(groupHead, NO_MATCH);
+    this.groupTail = new int[DEFAULT_GROUP_NUMBER];
+  }
+
+  public void addBuildBlock(TsBlock block) {
+    int positionCount = block.getPositionCount();
+    if (positionCount == 0) {
+      return;
+    }
+
+    int blockIndex = buildBlocks.size();
+    buildBlocks.add(block);
+    buildBlocksRetainedSize += block.getRetainedSizeInBytes();
+
+    Column[] joinKeyColumns = getJoinKeyColumns(block, joinKeyPositions);
+    int[] groupIds = groupByHash.getGroupIds(joinKeyColumns);
+    ensureGroupCapacity(groupByHash.getGroupCount());
+    ensureRowCapacity(rowCount + positionCount);
+
+    for (int position = 0; position < positionCount; position++) {
+      if (hasNull(joinKeyColumns, position)) {
+        continue;
+      }
+      int row = rowCount++;
+      rowAddress[row] = ((long) blockIndex << 32) | position;
+      rowNext[row] = NO_MATCH;
+
+      int groupId = groupIds[position];
+      if (groupHead[groupId] == NO_MATCH) {
+        groupHead[groupId] = row;
+      } else {
+        rowNext[groupTail[groupId]] = row;
+      }
+      groupTail[groupId] = row;
+    }
+  }
+
+  /**
+   * @return the first matched build row of each probe position, {@link #NO_MATCH} if the position
+   *     has no matched build row or any of its join keys is NULL.
+   */
+  public int[] getFirstMatchedRows(TsBlock probeBlock, int[] probeJoinKeyPositions) {
+    Column[] joinKeyColumns = getJoinKeyColumns(probeBlock, probeJoinKeyPositions);
+    int[] groupIds = groupByHash.getExistingGroupIds(joinKeyColumns);
+    for (int position = 0; position < groupIds.length; position++) {
+      int groupId = groupIds[position];
+      if (groupId == NO_MATCH || hasNull(joinKeyColumns, position)) {
+        groupIds[position] = NO_MATCH;
+      } else {
+        groupIds[position] = groupHead[groupId];
+      }
+    }
+    return groupIds;
+  }
+
+  public int getNextMatchedRow(int row) {
+    return rowNext[row];
+  }
+
+  public TsBlock getBlock(int row) {
+    return buildBlocks.get((int) (rowAddress[row] >>> 32));
+  }
+
+  public int getPosition(int row) {
+    return (int) rowAddress[row];
+  }
+
+  public boolean isEmpty() {
+    return rowCount == 0;
+  }
+
+  public List<TsBlock> getBuildBlocks() {
+    return buildBlocks;
+  }
+
+  public long getEstimatedSize() {
+    return INSTANCE_SIZE
+        + groupByHash.getEstimatedSize()
+        + buildBlocksRetainedSize
+        + RamUsageEstimator.sizeOf(groupHead)
+        + RamUsageEstimator.sizeOf(groupTail)
+        + RamUsageEstimator.sizeOf(rowNext)
+        + RamUsageEstimator.sizeOf(rowAddress);
+  }
+
+  private void ensureGroupCapacity(int groupCount) {
+    int oldCapacity = groupHead.length;
+    if (groupCount <= oldCapacity) {
+      return;
+    }
+    int newCapacity = Math.max(oldCapacity * 2, groupCount);
+    groupHead = Arrays.copyOf(groupHead, newCapacity);
+    Arrays.fill(groupHead, oldCapacity, newCapacity, NO_MATCH);
+    groupTail = Arrays.copyOf(groupTail, newCapacity);
+  }
+
+  private void ensureRowCapacity(int expectedRowCount) {
+    if (expectedRowCount <= rowNext.length) {
+      return;
+    }
+    int newCapacity = Math.max(rowNext.length * 2, expectedRowCount);
+    rowNext = Arrays.copyOf(rowNext, newCapacity);
+    rowAddress = Arrays.copyOf(rowAddress, newCapacity);
+  }
+
+  private static Column[] getJoinKeyColumns(TsBlock block, int[] joinKeyPositions) {
+    Column[] columns = new Column[joinKeyPositions.length];
+    for (int i = 0; i < joinKeyPositions.length; i++) {
+      columns[i] = block.getColumn(joinKeyPositions[i]);
+    }
+    return columns;
+  }
+
+  private static boolean hasNull(Column[] columns, int position) {
+    for (Column column : columns) {
+      if (column.isNull(position)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -42,8 +42,10 @@ import org.apache.iotdb.db.queryengine.execution.schedule.queue.IndexedBlockingR
 import org.apache.iotdb.db.queryengine.execution.schedule.queue.L1PriorityQueue;
 import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.DriverTaskHandle;
 import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.MultilevelPriorityQueue;
+import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.WorkStealingMultilevelPriorityQueue;
 import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTask;
 import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTaskStatus;
+import org.apache.iotdb.db.queryengine.metric.DriverSchedulerMetricSet;
 import org.apache.iotdb.db.storageengine.rescon.quotas.DataNodeThrottleQuotaManager;
 import org.apache.iotdb.db.utils.SetThreadName;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
@@ -66,6 +68,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static org.apache.iotdb.db.queryengine.metric.DriverSchedulerMetricSet.READY_QUEUE_WAIT_TIME;
+
 /** The manager of fragment instances scheduling. */
 public class DriverScheduler implements IDriverScheduler, IService {
 
@@ -74,6 +78,8 @@ public class DriverScheduler implements IDriverScheduler, IService {
   private static final DataNodeMemoryConfig memoryConfig =
       IoTDBDescriptor.getInstance().getMemoryConfig();
   private static final double LEVEL_TIME_MULTIPLIER = 2;
+  private static final DriverSchedulerMetricSet DRIVER_SCHEDULER_METRIC_SET =
+      DriverSchedulerMetricSet.getInstance();
 
   public static DriverScheduler getInstance() {
     return InstanceHolder.instance;
@@ -97,12 +103,16 @@ public class DriverScheduler implements IDriverScheduler, IService {
 
   private DriverScheduler() {
     this.readyQueue =
-        new MultilevelPriorityQueue(LEVEL_TIME_MULTIPLIER, TASK_MAX_CAPACITY, new DriverTask());
+        config.isEnableWorkStealingDriverScheduler()
+            ? new WorkStealingMultilevelPriorityQueue(
+                LEVEL_TIME_MULTIPLIER, TASK_MAX_CAPACITY, WORKER_THREAD_NUM)
+            : new MultilevelPriorityQueue(
+                LEVEL_TIME_MULTIPLIER, TASK_MAX_CAPACITY, new DriverTask());
     this.timeoutQueue =
         new L1PriorityQueue<>(
             QUERY_MAX_CAPACITY, new DriverTask.TimeoutComparator(), new DriverTask());
     this.queryMap = new ConcurrentHashMap<>();
-    this.blockedTasks = Collections.synchronizedSet(new HashSet<>());
+    this.blockedTasks = ConcurrentHashMap.newKeySet();
     this.scheduler = new Scheduler();
     this.workerGroups = new ThreadGroup("ScheduleThreads");
     this.threads = new ArrayList<>();
@@ -420,6 +430,12 @@ public class DriverScheduler implements IDriverScheduler, IService {
     return readyQueue.size();
   }
 
+  public long getReadyQueueStealCount() {
+    return readyQueue instanceof WorkStealingMultilevelPriorityQueue
+        ? ((WorkStealingMultilevelPriorityQueue) readyQueue).getStealCount()
+        : 0;
+  }
+
   public long getBlockQueueTaskCount() {
     return blockedTasks.size();
   }
@@ -504,6 +520,7 @@ public class DriverScheduler implements IDriverScheduler, IService {
             .getDriverContext()
             .getFragmentInstanceContext()
             .addReadyQueuedTime(readyQueuedTime);
+        DRIVER_SCHEDULER_METRIC_SET.recordTaskQueueTime(READY_QUEUE_WAIT_TIME, readyQueuedTime);
       } finally {
         task.unlock();
       }
@@ -25,6 +25,7 @@ import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTask;
 
 import java.util.PriorityQueue;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -107,14 +108,7 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
 
     int level = task.getPriority().getLevel();
     if (levelWaitingSplits[level].isEmpty()) {
-      // Accesses to levelScheduledTime are not synchronized, so we have a data race
-      // here - our level time math will be off. However, the staleness is bounded by
-      // the fact that only running splits that complete during this computation
-      // can update the level time. Therefore, this is benign.
-      long level0Time = getLevel0TargetTime();
-      long levelExpectedTime = (long) (level0Time / Math.pow(levelTimeMultiplier, level));
-      long delta = levelExpectedTime - levelScheduledTime[level].get();
-      levelScheduledTime[level].addAndGet(delta);
+      catchUpEmptyLevelScheduledTime(level);
     }
     levelWaitingSplits[level].offer(task);
   }
@@ -137,8 +131,7 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
         pushToQueue(result);
         continue;
       }
-      int selectedLevel = result.getPriority().getLevel();
-      levelMinScheduledTime[selectedLevel].set(result.getPriority().getLevelScheduledTime());
+      recordLevelMinScheduledTime(result);
       return result;
     }
   }
@@ -212,11 +205,27 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
    * the DriverTask with the lowest scheduled time.
    */
   private DriverTask chooseLevelAndTask() {
+    int selectedLevel = chooseLevel(level -> !levelWaitingSplits[level].isEmpty());
+    // selected level == -1 means that the queue is empty and this method is only called when the
+    // queue is not empty.
+    checkState(selectedLevel != -1, "selected level can not equal to -1");
+    DriverTask result = levelWaitingSplits[selectedLevel].poll();
+    checkState(result != null, "result driverTask cannot be null");
+    return result;
+  }
+
+  /**
+   * Select, among the levels accepted by hasWaitingTasks, the one with the lowest ratio of actual
+   * to target scheduled time.
+   *
+   * @return the selected level, -1 if no level has waiting tasks
+   */
+  protected int chooseLevel(IntPredicate hasWaitingTasks) {
     long targetScheduledTime = getLevel0TargetTime();
     double worstRatio = 1;
     int selectedLevel = -1;
     for (int level = 0; level < LEVEL_THRESHOLD_SECONDS.length; level++) {
-      if (!levelWaitingSplits[level].isEmpty()) {
+      if (hasWaitingTasks.test(level)) {
         long levelTime = levelScheduledTime[level].get();
         double ratio = levelTime == 0 ? 0 : targetScheduledTime / (1.0 * levelTime);
         if (selectedLevel == -1 || ratio > worstRatio) {
@@ -227,13 +236,27 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
 
       targetScheduledTime /= levelTimeMultiplier;
     }
+    return selectedLevel;
+  }
 
-    // selected level == -1 means that the queue is empty and this method is only called when the
-    // queue is not empty.
-    checkState(selectedLevel != -1, "selected level can not equal to -1");
-    DriverTask result = levelWaitingSplits[selectedLevel].poll();
-    checkState(result != null, "result driverTask cannot be null");
-    return result;
+  /**
+   * During periods of time when a level has no waiting tasks, it will not accumulate scheduled
+   * time. Set its scheduled time to the expected one before a task arrives at it again.
+   */
+  protected void catchUpEmptyLevelScheduledTime(int level) {
+    // Accesses to levelScheduledTime are not synchronized, so we have a data race
+    // here - our level time math will be off. However, the staleness is bounded by
+    // the fact that only running splits that complete during this computation
+    // can update the level time. Therefore, this is benign.
+    long level0Time = getLevel0TargetTime();
+    long levelExpectedTime = (long) (level0Time / Math.pow(levelTimeMultiplier, level));
+    long delta = levelExpectedTime - levelScheduledTime[level].get();
+    levelScheduledTime[level].addAndGet(delta);
+  }
+
+  protected void recordLevelMinScheduledTime(DriverTask task) {
+    Priority priority = task.getPriority();
+    levelMinScheduledTime[priority.getLevel()].set(priority.getLevelScheduledTime());
   }
 
   /**
@@ -244,9 +267,12 @@ public class MultilevelPriorityQueue extends IndexedBlockingReserveQueue<DriverT
    * is 2 : 1. However, the actual proportion of levelScheduledTime of level0 and level1 is 3 : 2,
    * in this situation the expected time of level0 will be Math.max(3, 2 * 2) = 4.
    *
+   * <p>All the level times are atomics, so reading them without holding the queue lock only gives a
+   * slightly stale but still usable target.
+   *
    * @return the expected scheduled time of LEVEL0
    */
-  private synchronized long getLevel0TargetTime() {
+  private long getLevel0TargetTime() {
     long level0TargetTime = levelScheduledTime[0].get();
     double currentMultiplier = levelTimeMultiplier;
 
@@ -0,0 +1,418 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue;
+
+import org.apache.iotdb.db.queryengine.execution.schedule.queue.ID;
+import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTask;
+
+import com.google.common.base.Preconditions;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * A {@link MultilevelPriorityQueue} whose tasks are spread over one shard per worker thread instead
+ * of being guarded by one queue lock.
+ *
+ * <p>A worker pushes the tasks it yields back into its own shard. Tasks pushed by threads which
+ * never poll (e.g. the ones unblocking a task) are spread over the shards round-robin.
+ *
+ * <p>The level to run is still chosen from the global level scheduled times and the global number
+ * of waiting tasks of each level, so the time-slice proportion between levels is kept as in {@link
+ * MultilevelPriorityQueue}. A worker then takes the task of that level from its own shard, or
+ * steals it from another shard if its own one has none. Inside a level, a task is only ordered
+ * against the tasks of the same shard.
+ */
+public class WorkStealingMultilevelPriorityQueue extends MultilevelPriorityQueue {
+
+  private static final int HIGHEST_PRIORITY_LEVEL = -2;
+
+  private final Shard[] shards;
+
+  /** Home shard of the current thread, assigned on its first poll. */
+  private final ThreadLocal<Integer> homeShard = new ThreadLocal<>();
+
+  private final AtomicInteger nextHomeShard = new AtomicInteger();
+  private final AtomicInteger nextPushShard = new AtomicInteger();
+
+  /** Number of waiting tasks of each level over all shards. */
+  private final AtomicInteger[] levelWaitingCount;
+
+  private final AtomicInteger highestPriorityWaitingCount = new AtomicInteger();
+
+  /** Number of waiting tasks over all shards. */
+  private final AtomicInteger waitingCount = new AtomicInteger();
+
+  /** Number of waiting tasks plus the reserved space of polled ones, bounded by capacity. */
+  private final AtomicInteger occupiedCount = new AtomicInteger();
+
+  private final AtomicLong stealCount = new AtomicLong();
+
+  private final ReentrantLock idleLock = new ReentrantLock();
+  private final Condition notEmpty = idleLock.newCondition();
+  private final AtomicInteger idleWorkers = new AtomicInteger();
+
+  public WorkStealingMultilevelPriorityQueue(
+      double levelTimeMultiplier, int maxCapacity, int shardNum) {
+    super(levelTimeMultiplier, maxCapacity, new DriverTask());
+    checkArgument(shardNum > 0, "shardNum should be positive");
+    this.shards = new Shard[shardNum];
+    for (int i = 0; i < shardNum; i++) {
+      shards[i] = new Shard();
+    }
+    this.levelWaitingCount = new AtomicInteger[getNumOfPriorityLevels()];
+    for (int level = 0; level < levelWaitingCount.length; level++) {
+      levelWaitingCount[level] = new AtomicInteger();
+    }
+  }
+
+  // region overridden public functions
+
+  @Override
+  public DriverTask poll() throws InterruptedException {
+    int home = getOrAssignHomeShard();
+    while (true) {
+      DriverTask task = pollFromShards(home);
+      if (task != null) {
+        return task;
+      }
+      idleLock.lockInterruptibly();
+      try {
+        // idleWorkers is increased before waitingCount is checked, and pushers increase
+        // waitingCount before checking idleWorkers, so at least one side sees the other.
+        idleWorkers.incrementAndGet();
+        while (waitingCount.get() == 0) {
+          notEmpty.await();
+        }
+      } finally {
+        idleWorkers.decrementAndGet();
+        idleLock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public void push(DriverTask task) {
+    if (task == null) {
+      throw new NullPointerException("pushed element is null");
+    }
+    int occupied;
+    do {
+      occupied = occupiedCount.get();
+      Preconditions.checkState(occupied < capacity, "The system can't allow more query tasks.");
+    } while (!occupiedCount.compareAndSet(occupied, occupied + 1));
+    pushToShard(task);
+  }
+
+  @Override
+  public void repush(DriverTask task) {
+    if (task == null) {
+      throw new NullPointerException("pushed element is null");
+    }
+    pushToShard(task);
+  }
+
+  @Override
+  public void decreaseReservedSize() {
+    occupiedCount.decrementAndGet();
+  }
+
+  @Override
+  public DriverTask remove(ID id) {
+    // queryHolder is shared and only safe under the queue monitor, so use a private one.
+    DriverTask holder = new DriverTask();
+    holder.setId(id);
+    for (Shard shard : shards) {
+      DriverTask removed;
+      shard.lock.lock();
+      try {
+        removed = shard.remove(holder);
+      } finally {
+        shard.lock.unlock();
+      }
+      if (removed != null) {
+        waitingCount.decrementAndGet();
+        occupiedCount.decrementAndGet();
+        return removed;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void clear() {
+    for (Shard shard : shards) {
+      int cleared;
+      shard.lock.lock();
+      try {
+        cleared = shard.clear();
+      } finally {
+        shard.lock.unlock();
+      }
+      waitingCount.addAndGet(-cleared);
+      occupiedCount.addAndGet(-cleared);
+    }
+  }
+
+  @Override
+  public int size() {
+    return waitingCount.get();
+  }
+
+  // endregion
+
+  // region overridden protected functions
+
+  @Override
+  public void pushToQueue(DriverTask task) {
+    pushToShard(task);
+  }
+
+  @Override
+  protected DriverTask pollFirst() {
+    return pollFromShards(getOrAssignHomeShard());
+  }
+
+  @Override
+  protected DriverTask remove(DriverTask driverTask) {
+    return remove(driverTask.getDriverTaskId());
+  }
+
+  @Override
+  protected boolean isEmpty() {
+    return waitingCount.get() == 0;
+  }
+
+  @Override
+  protected boolean contains(DriverTask driverTask) {
+    for (Shard shard : shards) {
+      shard.lock.lock();
+      try {
+        if (shard.contains(driverTask)) {
+          return true;
+        }
+      } finally {
+        shard.lock.unlock();
+      }
+    }
+    return false;
+  }
+
+  @Override
+  protected void clearAllElements() {
+    clear();
+  }
+
+  // endregion
+
+  // region helper functions
+
+  private int getOrAssignHomeShard() {
+    Integer home = homeShard.get();
+    if (home == null) {
+      home = Math.floorMod(nextHomeShard.getAndIncrement(), shards.length);
+      homeShard.set(home);
+    }
+    return home;
+  }
+
+  private void pushToShard(DriverTask task) {
+    checkArgument(task != null, "DriverTask to be pushed is null");
+    Integer home = homeShard.get();
+    int index = home != null ? home : Math.floorMod(nextPushShard.getAndIncrement(), shards.length);
+    Shard shard = shards[index];
+    shard.lock.lock();
+    try {
+      shard.offer(task);
+    } finally {
+      shard.lock.unlock();
+    }
+    waitingCount.incrementAndGet();
+    if (idleWorkers.get() > 0) {
+      idleLock.lock();
+      try {
+        notEmpty.signal();
+      } finally {
+        idleLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Choose the level globally, then take a task of that level from the home shard first and from
+   * the others if the home shard has none. Return null if the queue is empty.
+   */
+  private DriverTask pollFromShards(int home) {
+    // The counters are updated outside the shard locks, so the chosen level may turn out to be
+    // empty in every shard. Choose again in this case until the queue is seen empty.
+    while (waitingCount.get() > 0) {
+      int level =
+          highestPriorityWaitingCount.get() > 0
+              ? HIGHEST_PRIORITY_LEVEL
+              : chooseLevel(l -> levelWaitingCount[l].get() > 0);
+      if (level == -1) {
+        Thread.yield();
+        continue;
+      }
+      for (int i = 0; i < shards.length; i++) {
+        Shard shard = shards[(home + i) % shards.length];
+        if (shard.size == 0) {
+          continue;
+        }
+        DriverTask task;
+        shard.lock.lock();
+        try {
+          task = shard.poll(level);
+        } finally {
+          shard.lock.unlock();
+        }
+        if (task != null) {
+          waitingCount.decrementAndGet();
+          if (i != 0) {
+            stealCount.incrementAndGet();
+          }
+          return task;
+        }
+      }
+    }
+    return null;
+  }
+
+  public long getStealCount() {
+    return stealCount.get();
+  }
+
+  // endregion
+
+  /** The per-worker part of the queue, every access should hold its lock. */
+  private final class Shard {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final PriorityQueue<DriverTask> highestPriorityLevelQueue =
+        new PriorityQueue<>(new DriverTask.SchedulePriorityComparator());
+    private final PriorityQueue<DriverTask>[] levelWaitingTasks;
+
+    /** Read without the lock to skip empty shards quickly. */
+    private volatile int size;
+
+    @SuppressWarnings("unchecked")
+    private Shard() {
+      this.levelWaitingTasks = new PriorityQueue[getNumOfPriorityLevels()];
+      for (int level = 0; level < levelWaitingTasks.length; level++) {
+        levelWaitingTasks[level] = new PriorityQueue<>(new DriverTask.SchedulePriorityComparator());
+      }
+    }
+
+    private void offer(DriverTask task) {
+      if (task.isHighestPriority()) {
+        highestPriorityWaitingCount.incrementAndGet();
+        highestPriorityLevelQueue.offer(task);
+      } else {
+        offerToLevel(task);
+      }
+      size++;
+    }
+
+    private void offerToLevel(DriverTask task) {
+      int level = task.getPriority().getLevel();
+      if (levelWaitingCount[level].getAndIncrement() == 0) {
+        catchUpEmptyLevelScheduledTime(level);
+      }
+      levelWaitingTasks[level].offer(task);
+    }
+
+    /** Poll a task of the given level, return null if this shard has none. */
+    private DriverTask poll(int level) {
+      if (level == HIGHEST_PRIORITY_LEVEL) {
+        DriverTask result = highestPriorityLevelQueue.poll();
+        if (result != null) {
+          highestPriorityWaitingCount.decrementAndGet();
+          size--;
+        }
+        return result;
+      }
+      if (levelWaitingTasks[level].isEmpty()) {
+        return null;
+      }
+      int selectedLevel = level;
+      while (true) {
+        DriverTask result = levelWaitingTasks[selectedLevel].poll();
+        checkState(result != null, "result driverTask cannot be null");
+        levelWaitingCount[selectedLevel].decrementAndGet();
+        if (result.updatePriority()) {
+          // The level of the DriverTaskHandle has changed, move the task to its new level and
+          // choose again among the levels of this shard, which can not be all empty now.
+          offerToLevel(result);
+          selectedLevel = chooseLevel(l -> !levelWaitingTasks[l].isEmpty());
+          continue;
+        }
+        recordLevelMinScheduledTime(result);
+        size--;
+        return result;
+      }
+    }
+
+    private DriverTask remove(DriverTask driverTask) {
+      if (highestPriorityLevelQueue.remove(driverTask)) {
+        highestPriorityWaitingCount.decrementAndGet();
+        size--;
+        return driverTask;
+      }
+      for (int level = 0; level < levelWaitingTasks.length; level++) {
+        if (levelWaitingTasks[level].remove(driverTask)) {
+          levelWaitingCount[level].decrementAndGet();
+          size--;
+          return driverTask;
+        }
+      }
+      return null;
+    }
+
+    private boolean contains(DriverTask driverTask) {
+      if (highestPriorityLevelQueue.contains(driverTask)) {
+        return true;
+      }
+      for (PriorityQueue<DriverTask> level : levelWaitingTasks) {
+        if (level.contains(driverTask)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private int clear() {
+      int cleared = size;
+      highestPriorityWaitingCount.addAndGet(-highestPriorityLevelQueue.size());
+      highestPriorityLevelQueue.clear();
+      for (int level = 0; level < levelWaitingTasks.length; level++) {
+        levelWaitingCount[level].addAndGet(-levelWaitingTasks[level].size());
+        levelWaitingTasks[level].clear();
+      }
+      size = 0;
+      return cleared;
+    }
+  }
+}
@@ -46,12 +46,28 @@ public class ChunkCacheMetrics implements IMetricSet {
         ChunkCache::getHitRate,
         Tag.NAME.toString(),
         "chunk");
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        chunkCache,
+        ChunkCache::getAdmissionBypassCount,
+        Tag.NAME.toString(),
+        "ChunkCache",
+        Tag.TYPE.toString(),
+        "admission_bypass");
   }
 
   @Override
   public void unbindFrom(AbstractMetricService metricService) {
     metricService.remove(
         MetricType.AUTO_GAUGE, Metric.CACHE_HIT_RATE.toString(), Tag.NAME.toString(), "chunk");
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.CACHE.toString(),
+        Tag.NAME.toString(),
+        "ChunkCache",
+        Tag.TYPE.toString(),
+        "admission_bypass");
   }
 
   @Override
@@ -38,6 +38,8 @@ public class DriverSchedulerMetricSet implements IMetricSet {
 
   public static final String READY_QUEUED_TIME = "ready_queued_time";
   public static final String BLOCK_QUEUED_TIME = "block_queued_time";
+  public static final String READY_QUEUE_WAIT_TIME = "ready_queue_wait_time";
+  public static final String READY_QUEUE_STEAL_COUNT = "ready_queue_steal_count";
   public static final String READY_QUEUE_TASK_COUNT = "ready_queue_task_count";
   public static final String BLOCK_QUEUE_TASK_COUNT = "block_queue_task_count";
   private static final String TIMEOUT_QUEUE_SIZE = "timeout_queue_task_count";
@@ -45,6 +47,7 @@ public class DriverSchedulerMetricSet implements IMetricSet {
 
   private Timer readyQueuedTimeTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer blockQueuedTimeTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Timer readyQueueWaitTimeTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
 
   @Override
   public void bindTo(AbstractMetricService metricService) {
@@ -60,6 +63,19 @@ public class DriverSchedulerMetricSet implements IMetricSet {
             MetricLevel.IMPORTANT,
             Tag.NAME.toString(),
             BLOCK_QUEUED_TIME);
+    readyQueueWaitTimeTimer =
+        metricService.getOrCreateTimer(
+            Metric.DRIVER_SCHEDULER.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.NAME.toString(),
+            READY_QUEUE_WAIT_TIME);
+    metricService.createAutoGauge(
+        Metric.DRIVER_SCHEDULER.toString(),
+        MetricLevel.IMPORTANT,
+        DriverScheduler.getInstance(),
+        DriverScheduler::getReadyQueueStealCount,
+        Tag.NAME.toString(),
+        READY_QUEUE_STEAL_COUNT);
     metricService.createAutoGauge(
         Metric.DRIVER_SCHEDULER.toString(),
         MetricLevel.IMPORTANT,
@@ -104,6 +120,7 @@ public class DriverSchedulerMetricSet implements IMetricSet {
   public void unbindFrom(AbstractMetricService metricService) {
     readyQueuedTimeTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     blockQueuedTimeTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    readyQueueWaitTimeTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     metricService.remove(
         MetricType.TIMER,
         Metric.DRIVER_SCHEDULER.toString(),
@@ -114,6 +131,16 @@ public class DriverSchedulerMetricSet implements IMetricSet {
         Metric.DRIVER_SCHEDULER.toString(),
         Tag.NAME.toString(),
         BLOCK_QUEUED_TIME);
+    metricService.remove(
+        MetricType.TIMER,
+        Metric.DRIVER_SCHEDULER.toString(),
+        Tag.NAME.toString(),
+        READY_QUEUE_WAIT_TIME);
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.DRIVER_SCHEDULER.toString(),
+        Tag.NAME.toString(),
+        READY_QUEUE_STEAL_COUNT);
     metricService.remove(
         MetricType.AUTO_GAUGE,
         Metric.DRIVER_SCHEDULER.toString(),
@@ -134,6 +161,9 @@ public class DriverSchedulerMetricSet implements IMetricSet {
       case BLOCK_QUEUED_TIME:
         blockQueuedTimeTimer.updateNanos(queueTimeInNanos);
         break;
+      case READY_QUEUE_WAIT_TIME:
+        readyQueueWaitTimeTimer.updateNanos(queueTimeInNanos);
+        break;
       default:
         break;
     }
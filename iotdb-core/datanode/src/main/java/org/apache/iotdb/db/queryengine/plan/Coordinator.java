@@ -31,6 +31,7 @@ import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.conf.IoTDBConstant;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.exception.sql.SemanticException;
 import org.apache.iotdb.db.protocol.session.IClientSession;
 import org.apache.iotdb.db.queryengine.common.DataNodeEndPoints;
 import org.apache.iotdb.db.queryengine.common.MPPQueryContext;
@@ -48,6 +49,8 @@ import org.apache.iotdb.db.queryengine.plan.execution.config.TableConfigTaskVisi
 import org.apache.iotdb.db.queryengine.plan.execution.config.TreeConfigTaskVisitor;
 import org.apache.iotdb.db.queryengine.plan.planner.LocalExecutionPlanner;
 import org.apache.iotdb.db.queryengine.plan.planner.TreeModelPlanner;
+import org.apache.iotdb.db.queryengine.plan.relational.analyzer.ParameterExtractor;
+import org.apache.iotdb.db.queryengine.plan.relational.analyzer.PreparedStatementAnalysisCache;
 import org.apache.iotdb.db.queryengine.plan.relational.metadata.Metadata;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.PlannerContext;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.TableModelPlanner;
@@ -66,6 +69,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.CreateFunction;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.CreateModel;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.CreateTable;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.CreateTraining;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Deallocate;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DeleteDevice;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DescribeTable;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DropColumn;
@@ -73,12 +77,14 @@ import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DropDB;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DropFunction;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DropModel;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DropTable;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Execute;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.ExtendRegion;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Flush;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.KillQuery;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.LoadConfiguration;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.MigrateRegion;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.PipeStatement;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Prepare;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.ReconstructRegion;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.RelationalAuthorStatement;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.RemoveAINode;
@@ -121,11 +127,13 @@ import org.apache.iotdb.db.queryengine.plan.relational.type.InternalTypeManager;
 import org.apache.iotdb.db.queryengine.plan.statement.IConfigStatement;
 import org.apache.iotdb.db.queryengine.plan.statement.Statement;
 import org.apache.iotdb.db.utils.SetThreadName;
+import org.apache.iotdb.rpc.TSStatusCode;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
@@ -385,6 +393,9 @@ public class Coordinator {
     TableModelPlanner tableModelPlanner =
         new TableModelPlanner(
             statement.toRelationalStatement(queryContext),
+            Collections.emptyList(),
+            Collections.emptyMap(),
+            null,
             sqlParser,
             metadata,
             scheduledExecutor,
@@ -462,7 +473,9 @@ public class Coordinator {
         || statement instanceof CreateTraining
         || statement instanceof ShowModels
         || statement instanceof DropModel
-        || statement instanceof RemoveRegion) {
+        || statement instanceof RemoveRegion
+        || statement instanceof Prepare
+        || statement instanceof Deallocate) {
       return new ConfigExecution(
           queryContext,
           null,
@@ -470,12 +483,55 @@ public class Coordinator {
           statement.accept(
               new TableConfigTaskVisitor(clientSession, metadata, accessControl), queryContext));
     }
+    if (statement instanceof Execute) {
+      return createQueryExecutionForPreparedStatement(
+          (Execute) statement, sqlParser, clientSession, queryContext, metadata);
+    }
     if (statement instanceof WrappedInsertStatement) {
       ((WrappedInsertStatement) statement).setContext(queryContext);
     }
     final TableModelPlanner tableModelPlanner =
         new TableModelPlanner(
             statement,
+            Collections.emptyList(),
+            Collections.emptyMap(),
+            null,
+            sqlParser,
+            metadata,
+            scheduledExecutor,
+            SYNC_INTERNAL_SERVICE_CLIENT_MANAGER,
+            ASYNC_INTERNAL_SERVICE_CLIENT_MANAGER,
+            statementRewrite,
+            logicalPlanOptimizers,
+            distributionPlanOptimizers,
+            accessControl,
+            dataNodeLocationSupplier);
+    return new QueryExecution(tableModelPlanner, queryContext, executor);
+  }
+
+  private IQueryExecution createQueryExecutionForPreparedStatement(
+      final Execute execute,
+      final SqlParser sqlParser,
+      final IClientSession clientSession,
+      final MPPQueryContext queryContext,
+      final Metadata metadata) {
+    final Prepare prepare = clientSession.getPreparedStatement(execute.getName().getValue());
+    if (prepare == null) {
+      throw new SemanticException(
+          String.format("Prepared statement %s does not exist", execute.getName()),
+          TSStatusCode.PREPARED_STATEMENT_NOT_EXIST.getStatusCode());
+    }
+    // the parsed statement is reused unless it has folded the current time into literals
+    final org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Statement statement =
+        prepare.isCurrentTimeDependent()
+            ? sqlParser.createStatement(prepare.getSql(), clientSession.getZoneId(), clientSession)
+            : prepare.getStatement();
+    final TableModelPlanner tableModelPlanner =
+        new TableModelPlanner(
+            statement,
+            execute.getParameters(),
+            ParameterExtractor.bindParameters(statement, execute.getParameters()),
+            PreparedStatementAnalysisCache.normalize(prepare),
             sqlParser,
             metadata,
             scheduledExecutor,
@@ -90,6 +90,12 @@ public interface IDualKeyCache<FK, SK, V> {
   @GuardedBy("DataNodeSchemaCache#writeLock")
   void invalidateAll();
 
+  /**
+   * Visit all the cache values with their keys. The visiting does not change the eviction order of
+   * the values.
+   */
+  void forEach(final IDualKeyCacheVisitor<FK, SK, V> visitor);
+
   /** Return all the current cache status and statistics. */
   IDualKeyCacheStats stats();
 
@@ -21,6 +21,7 @@ package org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.i
 
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.IDualKeyCache;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.IDualKeyCacheStats;
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.IDualKeyCacheVisitor;
 
 import org.apache.tsfile.utils.RamUsageEstimator;
 
@@ -197,6 +198,20 @@ class DualKeyCacheImpl<FK, SK, V, T extends ICacheEntry<SK, V>>
     }
   }
 
+  @Override
+  public void forEach(final IDualKeyCacheVisitor<FK, SK, V> visitor) {
+    for (final FK firstKey : firstKeyMap.getAllKeys()) {
+      final ICacheEntryGroup<FK, SK, V, T> entryGroup = firstKeyMap.get(firstKey);
+      if (Objects.isNull(entryGroup)) {
+        continue;
+      }
+      entryGroup
+          .getAllCacheEntries()
+          .forEachRemaining(
+              entry -> visitor.visit(firstKey, entry.getKey(), entry.getValue().getValue()));
+    }
+  }
+
   private void mayEvict() {
     long exceedMemory;
     while ((exceedMemory = cacheStats.getExceedMemory()) > 0) {
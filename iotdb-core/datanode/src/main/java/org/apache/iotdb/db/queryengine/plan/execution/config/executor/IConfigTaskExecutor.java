@@ -40,8 +40,10 @@ import org.apache.iotdb.db.queryengine.plan.execution.config.metadata.region.Mig
 import org.apache.iotdb.db.queryengine.plan.execution.config.metadata.region.ReconstructRegionTask;
 import org.apache.iotdb.db.queryengine.plan.execution.config.metadata.region.RemoveRegionTask;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.metadata.write.view.AlterLogicalViewNode;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Deallocate;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DeleteDevice;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DropDB;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Prepare;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.ShowCluster;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.ShowDB;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Use;
@@ -410,6 +412,11 @@ public interface IConfigTaskExecutor {
 
   SettableFuture<ConfigTaskResult> setSqlDialect(IClientSession.SqlDialect sqlDialect);
 
+  SettableFuture<ConfigTaskResult> prepareStatement(Prepare prepare, IClientSession clientSession);
+
+  SettableFuture<ConfigTaskResult> deallocatePreparedStatement(
+      Deallocate deallocate, IClientSession clientSession);
+
   SettableFuture<ConfigTaskResult> showCurrentUser(String currentUser);
 
   SettableFuture<ConfigTaskResult> showCurrentDatabase(@Nullable String currentDatabase);
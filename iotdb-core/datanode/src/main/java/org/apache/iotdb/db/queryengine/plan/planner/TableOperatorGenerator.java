@@ -116,6 +116,9 @@ import org.apache.iotdb.db.queryengine.execution.operator.source.relational.Asof
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.AsofMergeSortLeftJoinOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.DefaultAggTableScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.DeviceIteratorScanOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.HashInnerJoinOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.HashLeftJoinOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.HashSemiJoinOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.InformationSchemaTableScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.LastQueryAggTableScanOperator;
 import org.apache.iotdb.db.queryengine.execution.operator.source.relational.MarkDistinctOperator;
@@ -297,6 +300,7 @@ import static java.util.Objects.requireNonNull;
 import static org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory.FIELD;
 import static org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory.TIME;
 import static org.apache.iotdb.commons.udf.builtin.relational.TableBuiltinAggregationFunction.getAggregationTypeByFuncName;
+import static org.apache.iotdb.commons.udf.builtin.relational.TableBuiltinAggregationFunction.getIntermediateType;
 import static org.apache.iotdb.db.queryengine.common.DataNodeEndPoints.isSameNode;
 import static org.apache.iotdb.db.queryengine.execution.operator.process.join.merge.MergeSortComparator.getComparatorForTable;
 import static org.apache.iotdb.db.queryengine.execution.operator.process.rowpattern.PhysicalValuePointer.CLASSIFIER;
@@ -1854,16 +1858,7 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
         sortItemDataTypeList,
         context.getTypeProvider());
 
-    String filePrefix =
-        IoTDBDescriptor.getInstance().getConfig().getSortTmpDir()
-            + File.separator
-            + operatorContext.getDriverContext().getFragmentInstanceContext().getId().getFullId()
-            + File.separator
-            + operatorContext.getDriverContext().getPipelineId()
-            + File.separator;
-
-    context.getDriverContext().setHaveTmpFile(true);
-    context.getDriverContext().getFragmentInstanceContext().setMayHaveTmpFile(true);
+    String filePrefix = genSpillFolderPath(operatorContext, context);
 
     Operator child = node.getChild().accept(this, context);
 
@@ -1963,16 +1958,7 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
         sortItemDataTypeList,
         context.getTypeProvider());
 
-    String filePrefix =
-        IoTDBDescriptor.getInstance().getConfig().getSortTmpDir()
-            + File.separator
-            + operatorContext.getDriverContext().getFragmentInstanceContext().getId().getFullId()
-            + File.separator
-            + operatorContext.getDriverContext().getPipelineId()
-            + File.separator;
-
-    context.getDriverContext().setHaveTmpFile(true);
-    context.getDriverContext().getFragmentInstanceContext().setMayHaveTmpFile(true);
+    String filePrefix = genSpillFolderPath(operatorContext, context);
 
     Operator child = node.getChild().accept(this, context);
 
@@ -2159,6 +2145,20 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
       }
     }
 
+    if (node.getJoinAlgorithm() == JoinNode.JoinAlgorithm.HASH) {
+      return genHashJoinOperator(
+          node,
+          context,
+          leftChild,
+          leftJoinKeyPositions,
+          leftOutputSymbolIdx,
+          rightChild,
+          rightJoinKeyPositions,
+          rightOutputSymbolIdx,
+          joinKeyTypes,
+          dataTypes);
+    }
+
     if (requireNonNull(node.getJoinType()) == JoinNode.JoinType.INNER) {
       OperatorContext operatorContext =
           context
@@ -2219,6 +2219,83 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
     throw new IllegalStateException("Unsupported join type: " + node.getJoinType());
   }
 
+  private Operator genHashJoinOperator(
+      JoinNode node,
+      LocalExecutionPlanContext context,
+      Operator leftChild,
+      int[] leftJoinKeyPositions,
+      int[] leftOutputSymbolIdx,
+      Operator rightChild,
+      int[] rightJoinKeyPositions,
+      int[] rightOutputSymbolIdx,
+      List<Type> joinKeyTypes,
+      List<TSDataType> dataTypes) {
+    List<TSDataType> leftDataTypes =
+        getOutputColumnTypes(node.getLeftChild(), context.getTypeProvider());
+    List<TSDataType> rightDataTypes =
+        getOutputColumnTypes(node.getRightChild(), context.getTypeProvider());
+    long buildBufferSize = IoTDBDescriptor.getInstance().getConfig().getHashJoinBuildBufferSize();
+    if (requireNonNull(node.getJoinType()) == JoinNode.JoinType.INNER) {
+      OperatorContext operatorContext =
+          context
+              .getDriverContext()
+              .addOperatorContext(
+                  context.getNextOperatorId(),
+                  node.getPlanNodeId(),
+                  HashInnerJoinOperator.class.getSimpleName());
+      return new HashInnerJoinOperator(
+          operatorContext,
+          leftChild,
+          leftJoinKeyPositions,
+          leftOutputSymbolIdx,
+          leftDataTypes,
+          rightChild,
+          rightJoinKeyPositions,
+          rightOutputSymbolIdx,
+          rightDataTypes,
+          joinKeyTypes,
+          dataTypes,
+          genSpillFolderPath(operatorContext, context),
+          buildBufferSize);
+    } else if (requireNonNull(node.getJoinType()) == JoinNode.JoinType.LEFT) {
+      OperatorContext operatorContext =
+          context
+              .getDriverContext()
+              .addOperatorContext(
+                  context.getNextOperatorId(),
+                  node.getPlanNodeId(),
+                  HashLeftJoinOperator.class.getSimpleName());
+      return new HashLeftJoinOperator(
+          operatorContext,
+          leftChild,
+          leftJoinKeyPositions,
+          leftOutputSymbolIdx,
+          leftDataTypes,
+          rightChild,
+          rightJoinKeyPositions,
+          rightOutputSymbolIdx,
+          rightDataTypes,
+          joinKeyTypes,
+          dataTypes,
+          genSpillFolderPath(operatorContext, context),
+          buildBufferSize);
+    }
+    throw new IllegalStateException("Unsupported hash join type: " + node.getJoinType());
+  }
+
+  private String genSpillFolderPath(
+      OperatorContext operatorContext, LocalExecutionPlanContext context) {
+    // the operator may spill its data to disk if they can't be held in memory
+    context.getDriverContext().setHaveTmpFile(true);
+    context.getDriverContext().getFragmentInstanceContext().setMayHaveTmpFile(true);
+    return IoTDBDescriptor.getInstance().getConfig().getSortTmpDir()
+        + File.separator
+        + operatorContext.getDriverContext().getFragmentInstanceContext().getId().getFullId()
+        + File.separator
+        + operatorContext.getDriverContext().getPipelineId()
+        + File.separator;
+  }
+
   private void semanticCheckForJoin(JoinNode node) {
     try {
       checkArgument(
@@ -2300,6 +2377,29 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
         sourceJoinKeyType,
         context.getTypeProvider().getTableModelType(node.getFilteringSourceJoinSymbol()));
 
+    if (node.getJoinAlgorithm() == JoinNode.JoinAlgorithm.HASH) {
+      OperatorContext operatorContext =
+          context
+              .getDriverContext()
+              .addOperatorContext(
+                  context.getNextOperatorId(),
+                  node.getPlanNodeId(),
+                  HashSemiJoinOperator.class.getSimpleName());
+      return new HashSemiJoinOperator(
+          operatorContext,
+          leftChild,
+          sourceJoinKeyPosition,
+          sourceOutputSymbolIdx,
+          getOutputColumnTypes(node.getLeftChild(), context.getTypeProvider()),
+          rightChild,
+          filteringSourceJoinKeyPosition,
+          getOutputColumnTypes(node.getRightChild(), context.getTypeProvider()),
+          sourceJoinKeyType,
+          dataTypes,
+          genSpillFolderPath(operatorContext, context),
+          IoTDBDescriptor.getInstance().getConfig().getHashJoinBuildBufferSize());
+    }
+
     OperatorContext operatorContext =
         context
             .getDriverContext()
@@ -2674,17 +2774,24 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
                 node.getPlanNodeId(),
                 HashAggregationOperator.class.getSimpleName());
 
+    List<GroupedAggregator> aggregators = aggregatorBuilder.build();
+    boolean spillEnabled =
+        IoTDBDescriptor.getInstance().getConfig().isEnableHashAggregationSpill()
+            && aggregators.stream().allMatch(aggregator -> aggregator.getSpillType() != null);
+    String spillFolderPath = spillEnabled ? genSpillFolderPath(operatorContext, context) : null;
+
     return new HashAggregationOperator(
         operatorContext,
         child,
         groupByTypes,
         groupByChannels,
-        aggregatorBuilder.build(),
+        aggregators,
         node.getStep(),
         DEFAULT_GROUP_NUMBER,
         Long.MAX_VALUE,
-        false,
-        Long.MAX_VALUE);
+        spillEnabled,
+        IoTDBDescriptor.getInstance().getConfig().getHashAggregationBufferSize(),
+        spillFolderPath);
   }
 
   private Comparator<SortKey> genGroupKeyComparator(
@@ -2737,10 +2844,20 @@ public class TableOperatorGenerator extends PlanVisitor<Operator, LocalExecution
       maskChannel = OptionalInt.of(childLayout.get(aggregation.getMask().get()));
     }
 
+    // intermediate result of DISTINCT aggregation can't be merged, so it can't be spilled
+    TSDataType spillType =
+        aggregation.isDistinct()
+            ? null
+            : getTSDataType(
+                getIntermediateType(
+                    functionName,
+                    aggregation.getResolvedFunction().getSignature().getArgumentTypes()));
+
     return new GroupedAggregator(
         accumulator,
         step,
         getTSDataType(typeProvider.getTableModelType(symbol)),
+        spillType,
         argumentChannels,
         maskChannel);
   }
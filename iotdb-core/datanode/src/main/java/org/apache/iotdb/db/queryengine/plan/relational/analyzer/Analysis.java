@@ -255,6 +255,75 @@ public class Analysis implements IAnalysis {
     this.parameters = ImmutableMap.copyOf(requireNonNull(parameters, "parameters is null"));
   }
 
+  /**
+   * Copy the result of analyzer of this analysis, but bind the parameters of the statement with new
+   * values. The partitions and other states set by planner are not copied, so the analysis of a
+   * prepared statement can be reused by its executions.
+   */
+  Analysis copyWithParameters(Map<NodeRef<Parameter>, Expression> parameters) {
+    Analysis copy = new Analysis(root, parameters);
+    copy.databaseName = this.databaseName;
+    copy.updateType = this.updateType;
+    copy.containsSelectDistinct = this.containsSelectDistinct;
+    copy.hasValueFilter = this.hasValueFilter;
+    copy.isQuery = this.isQuery;
+    copy.namedQueries.putAll(this.namedQueries);
+    copy.expandableNamedQueries.putAll(this.expandableNamedQueries);
+    copy.expandableBaseScopes.putAll(this.expandableBaseScopes);
+    copy.implicitFromScopes.putAll(this.implicitFromScopes);
+    copy.scopes.putAll(this.scopes);
+    copy.columnReferences.putAll(this.columnReferences);
+    copy.tableColumnReferences.putAll(this.tableColumnReferences);
+    copy.labels.putAll(this.labels);
+    copy.ranges.putAll(this.ranges);
+    copy.undefinedLabels.putAll(this.undefinedLabels);
+    copy.patternFunctionAnalysis.putAll(this.patternFunctionAnalysis);
+    copy.resolvedLabels.putAll(this.resolvedLabels);
+    copy.subsets.putAll(this.subsets);
+    copy.fill.putAll(this.fill);
+    copy.offset.putAll(this.offset);
+    copy.limit.putAll(this.limit);
+    copy.selectAllResultFields.putAll(this.selectAllResultFields);
+    copy.joins.putAll(this.joins);
+    copy.joinUsing.putAll(this.joinUsing);
+    copy.subQueries.putAll(this.subQueries);
+    copy.predicateCoercions.putAll(this.predicateCoercions);
+    copy.tables.putAll(this.tables);
+    copy.types.putAll(this.types);
+    copy.coercions.putAll(this.coercions);
+    copy.sortKeyCoercionsForFrameBoundCalculation.putAll(
+        this.sortKeyCoercionsForFrameBoundCalculation);
+    copy.sortKeyCoercionsForFrameBoundComparison.putAll(
+        this.sortKeyCoercionsForFrameBoundComparison);
+    copy.frameBoundCalculations.putAll(this.frameBoundCalculations);
+    copy.relationCoercions.putAll(this.relationCoercions);
+    copy.resolvedFunctions.putAll(this.resolvedFunctions);
+    copy.aggregates.putAll(this.aggregates);
+    copy.orderByAggregates.putAll(this.orderByAggregates);
+    copy.groupingSets.putAll(this.groupingSets);
+    copy.where.putAll(this.where);
+    copy.having.putAll(this.having);
+    copy.gapFill.putAll(this.gapFill);
+    copy.gapFillGroupingKeys.putAll(this.gapFillGroupingKeys);
+    copy.orderByExpressions.putAll(this.orderByExpressions);
+    copy.selectExpressions.putAll(this.selectExpressions);
+    copy.relationNames.putAll(this.relationNames);
+    copy.tableFunctionAnalyses.putAll(this.tableFunctionAnalyses);
+    copy.tableColumnSchemas.putAll(this.tableColumnSchemas);
+    copy.windowDefinitions.putAll(this.windowDefinitions);
+    copy.windows.putAll(this.windows);
+    copy.windowFunctions.putAll(this.windowFunctions);
+    copy.orderByWindowFunctions.putAll(this.orderByWindowFunctions);
+    copy.patternRecognitionFunctionCalls.addAll(this.patternRecognitionFunctionCalls);
+    copy.patternNavigationFunctions.addAll(this.patternNavigationFunctions);
+    copy.typeOnlyCoercions.addAll(this.typeOnlyCoercions);
+    copy.redundantOrderBy.addAll(this.redundantOrderBy);
+    copy.aliasedRelations.addAll(this.aliasedRelations);
+    copy.originColumnDetails.putAll(this.originColumnDetails);
+    copy.fieldLineage.putAll(this.fieldLineage);
+    return copy;
+  }
+
   public Map<NodeRef<Parameter>, Expression> getParameters() {
     return parameters;
   }
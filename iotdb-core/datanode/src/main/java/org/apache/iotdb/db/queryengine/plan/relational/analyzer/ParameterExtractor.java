@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.analyzer;
+
+import org.apache.iotdb.db.exception.sql.SemanticException;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DefaultTraversalVisitor;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DereferenceExpression;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Identifier;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Node;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Parameter;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.SubqueryExpression;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/** Collect the parameters of prepared statement and bind them with the values of EXECUTE. */
+public final class ParameterExtractor {
+
+  private ParameterExtractor() {
+    // util class
+  }
+
+  public static List<Parameter> getParameters(Node node) {
+    List<Parameter> parameters = new ArrayList<>();
+    new DefaultTraversalVisitor<Void>() {
+      @Override
+      protected Void visitParameter(Parameter node, Void context) {
+        parameters.add(node);
+        return null;
+      }
+    }.process(node, null);
+    parameters.sort(Comparator.comparingInt(Parameter::getId));
+    return parameters;
+  }
+
+  public static Map<NodeRef<Parameter>, Expression> bindParameters(
+      Node node, List<Expression> values) {
+    List<Parameter> parameters = getParameters(node);
+    if (parameters.size() != values.size()) {
+      throw new SemanticException(
+          String.format(
+              "Incorrect number of parameters: expected %d but found %d",
+              parameters.size(), values.size()));
+    }
+    values.forEach(ParameterExtractor::checkConstant);
+
+    ImmutableMap.Builder<NodeRef<Parameter>, Expression> builder = ImmutableMap.builder();
+    for (Parameter parameter : parameters) {
+      builder.put(NodeRef.of(parameter), values.get(parameter.getId()));
+    }
+    return builder.build();
+  }
+
+  // values are analyzed in the scope of prepared statement, they must not reference any column
+  private static void checkConstant(Expression value) {
+    new DefaultTraversalVisitor<Void>() {
+      @Override
+      protected Void visitIdentifier(Identifier node, Void context) {
+        throw new SemanticException("Parameter value must be constant: " + value);
+      }
+
+      @Override
+      protected Void visitDereferenceExpression(DereferenceExpression node, Void context) {
+        throw new SemanticException("Parameter value must be constant: " + value);
+      }
+
+      @Override
+      protected Void visitSubqueryExpression(SubqueryExpression node, Void context) {
+        throw new SemanticException("Parameter value must be constant: " + value);
+      }
+
+      @Override
+      protected Void visitParameter(Parameter node, Void context) {
+        throw new SemanticException("Parameter value must be constant: " + value);
+      }
+    }.process(value, null);
+  }
+}
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.analyzer;
+
+import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.common.MPPQueryContext;
+import org.apache.iotdb.db.queryengine.common.SessionInfo;
+import org.apache.iotdb.db.queryengine.execution.warnings.WarningCollector;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.Metadata;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.QualifiedObjectName;
+import org.apache.iotdb.db.queryengine.plan.relational.security.AccessControl;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Prepare;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.util.SqlFormatter;
+import org.apache.iotdb.db.schemaengine.table.DataNodeTableCache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.tsfile.read.common.type.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Cache the analysis of prepared statements, so that EXECUTE only binds its parameter values to the
+ * cached analysis instead of analyzing the statement again. The analysis is keyed by the normalized
+ * sql, the database and time zone of session, and the version of table schema, so any change of
+ * table schema makes it unreachable. Partitions and device entries are fetched by planner for every
+ * execution, they are not part of the cached analysis. The copies of cached analysis share the
+ * nodes of statement, so the planner must rewrite copies of them instead of the nodes themselves.
+ */
+public class PreparedStatementAnalysisCache {
+
+  private static final Logger LOGGER =
+      LoggerFactory.getLogger(PreparedStatementAnalysisCache.class);
+
+  private final Cache<CacheKey, CachedAnalysis> cache;
+
+  private PreparedStatementAnalysisCache() {
+    cache =
+        Caffeine.newBuilder()
+            .maximumSize(
+                IoTDBDescriptor.getInstance().getConfig().getPreparedStatementAnalysisCacheSize())
+            .build();
+  }
+
+  public static PreparedStatementAnalysisCache getInstance() {
+    return PreparedStatementAnalysisCacheHolder.INSTANCE;
+  }
+
+  private static class PreparedStatementAnalysisCacheHolder {
+    private static final PreparedStatementAnalysisCache INSTANCE =
+        new PreparedStatementAnalysisCache();
+
+    private PreparedStatementAnalysisCacheHolder() {}
+  }
+
+  /**
+   * Get the normalized sql of the prepared statement, which is the same for the statements
+   * differing only in whitespaces, comments or letter case of keywords.
+   *
+   * @return null if the analysis of the statement can't be cached
+   */
+  @Nullable
+  public static String normalize(Prepare prepare) {
+    if (prepare.isCurrentTimeDependent()) {
+      return null;
+    }
+    try {
+      return SqlFormatter.formatSql(prepare.getStatement());
+    } catch (RuntimeException e) {
+      LOGGER.debug("Failed to normalize prepared statement {}", prepare.getSql(), e);
+      return null;
+    }
+  }
+
+  /** The key must be created before analyzing, so the analysis won't be newer than its key. */
+  public CacheKey createKey(String normalizedSql, SessionInfo session) {
+    return new CacheKey(
+        normalizedSql,
+        session.getDatabaseName().orElse(null),
+        session.getZoneId(),
+        DataNodeTableCache.getInstance().getVersion());
+  }
+
+  /**
+   * Bind the parameter values to a copy of cached analysis.
+   *
+   * @return null if there is no cached analysis or the types of values differ from the cached one
+   */
+  @Nullable
+  public Analysis get(
+      CacheKey key,
+      List<Expression> parameters,
+      MPPQueryContext context,
+      Metadata metadata,
+      StatementAnalyzerFactory statementAnalyzerFactory,
+      AccessControl accessControl) {
+    final CachedAnalysis cached = cache.getIfPresent(key);
+    if (cached == null) {
+      return null;
+    }
+    final SessionInfo session = context.getSession();
+    final Analysis analysis =
+        cached.analysis.copyWithParameters(
+            ParameterExtractor.bindParameters(cached.analysis.getStatement(), parameters));
+
+    // parameter values are constant, analyze them in an empty scope
+    final Scope scope =
+        Scope.builder().withRelationType(RelationId.anonymous(), new RelationType()).build();
+    final List<Type> parameterTypes = new ArrayList<>(parameters.size());
+    for (Expression parameter : parameters) {
+      parameterTypes.add(
+          ExpressionAnalyzer.analyzeExpression(
+                  metadata,
+                  context,
+                  session,
+                  statementAnalyzerFactory,
+                  accessControl,
+                  scope,
+                  analysis,
+                  parameter,
+                  WarningCollector.NOOP,
+                  CorrelationSupport.DISALLOWED)
+              .getType(parameter));
+    }
+    if (!parameterTypes.equals(cached.parameterTypes)) {
+      return null;
+    }
+
+    // privileges may have been changed, or the statement is executed by another user
+    for (Map<QualifiedObjectName, Set<String>> tables :
+        cached.analysis.getTableColumnReferences().values()) {
+      for (QualifiedObjectName table : tables.keySet()) {
+        accessControl.checkCanSelectFromTable(session.getUserName(), table);
+      }
+    }
+    return analysis;
+  }
+
+  /** Cache the result of analyzer, it must be called before the analysis is used by planner. */
+  public void put(CacheKey key, Analysis analysis, List<Expression> parameters) {
+    if (!analysis.isQuery() || analysis.isFinishQueryAfterAnalyze()) {
+      return;
+    }
+    final List<Type> parameterTypes = new ArrayList<>(parameters.size());
+    for (Expression parameter : parameters) {
+      final Type type = analysis.getTypes().get(NodeRef.of(parameter));
+      if (type == null) {
+        return;
+      }
+      parameterTypes.add(type);
+    }
+    cache.put(
+        key,
+        new CachedAnalysis(analysis.copyWithParameters(analysis.getParameters()), parameterTypes));
+  }
+
+  @TestOnly
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  public static class CacheKey {
+
+    private final String normalizedSql;
+    @Nullable private final String database;
+    private final ZoneId zoneId;
+    private final long tableSchemaVersion;
+
+    private CacheKey(
+        String normalizedSql, @Nullable String database, ZoneId zoneId, long tableSchemaVersion) {
+      this.normalizedSql = normalizedSql;
+      this.database = database;
+      this.zoneId = zoneId;
+      this.tableSchemaVersion = tableSchemaVersion;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      CacheKey cacheKey = (CacheKey) o;
+      return tableSchemaVersion == cacheKey.tableSchemaVersion
+          && normalizedSql.equals(cacheKey.normalizedSql)
+          && Objects.equals(database, cacheKey.database)
+          && zoneId.equals(cacheKey.zoneId);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(normalizedSql, database, zoneId, tableSchemaVersion);
+    }
+  }
+
+  private static class CachedAnalysis {
+
+    // only the result of analyzer, it's copied before being used by any execution
+    private final Analysis analysis;
+    private final List<Type> parameterTypes;
+
+    private CachedAnalysis(Analysis analysis, List<Type> parameterTypes) {
+      this.analysis = analysis;
+      this.parameterTypes = parameterTypes;
+    }
+  }
+}
@@ -669,6 +669,20 @@ public class TableMetadataImpl implements Metadata {
                   "Aggregation functions [%s] should only have three arguments", functionName));
         }
         break;
+      case SqlConstant.APPROX_PERCENTILE:
+        if (argumentTypes.size() != 2) {
+          throw new SemanticException(
+              String.format(
+                  "Aggregate functions [%s] should only have two arguments", functionName));
+        }
+        if (!isSupportedMathNumericType(argumentTypes.get(0))
+            || !isSupportedMathNumericType(argumentTypes.get(1))) {
+          throw new SemanticException(
+              String.format(
+                  "Aggregate functions [%s] only support numeric data types [INT32, INT64, FLOAT, DOUBLE], and the second argument should be a numeric literal",
+                  functionName));
+        }
+        break;
       case SqlConstant.COUNT:
         break;
       default:
@@ -701,6 +715,7 @@ public class TableMetadataImpl implements Metadata {
       case SqlConstant.VARIANCE:
       case SqlConstant.VAR_POP:
       case SqlConstant.VAR_SAMP:
+      case SqlConstant.APPROX_PERCENTILE:
         return DOUBLE;
       case SqlConstant.APPROX_MOST_FREQUENT:
         return STRING;
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache;
+
+import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.utils.TsPrimitiveType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.BiConsumer;
+
+/**
+ * The last cache of one device. The time column is seen as "" as a measurement.
+ *
+ * <p>All the methods modifying the cache return the change of its estimated size, except {@link
+ * #invalidate(String, boolean)} which returns the released size.
+ */
+public interface IDeviceLastCache {
+
+  int initOrInvalidate(
+      final String database,
+      final String tableName,
+      final String[] measurements,
+      final boolean isInvalidate,
+      final boolean isTableModel);
+
+  default int tryUpdate(
+      final @Nonnull String[] measurements, final @Nonnull TimeValuePair[] timeValuePairs) {
+    return tryUpdate(measurements, timeValuePairs, false);
+  }
+
+  int tryUpdate(
+      final @Nonnull String[] measurements,
+      final @Nonnull TimeValuePair[] timeValuePairs,
+      final boolean invalidateNull);
+
+  int invalidate(final String measurement, final boolean isTableModel);
+
+  @Nullable
+  TimeValuePair getTimeValuePair(final @Nonnull String measurement);
+
+  // Shall pass in "" if last by time
+  Optional<Pair<OptionalLong, TsPrimitiveType[]>> getLastRow(
+      final @Nonnull String sourceMeasurement, final List<String> targetMeasurements);
+
+  /**
+   * Visit the cached {@link TimeValuePair}s, the columns whose last point is unknown are skipped.
+   */
+  void forEachTimeValuePair(final BiConsumer<String, TimeValuePair> consumer);
+
+  int estimateSize();
+}
@@ -0,0 +1,583 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache;
+
+import org.apache.iotdb.commons.file.SystemFileFactory;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
+import org.apache.iotdb.db.storageengine.dataregion.modification.ModificationFile;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
+import org.apache.tsfile.utils.TsPrimitiveType;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TableDeviceLastCache.EMPTY_PRIMITIVE_TYPE;
+import static org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TableDeviceLastCache.EMPTY_TIME_VALUE_PAIR;
+
+/**
+ * Saves the last cache in {@link TableDeviceSchemaCache} to a snapshot file, and reloads it on
+ * restart so that the LAST queries after restart need not read the TsFiles to warm the cache.
+ *
+ * <p>Besides the cache, a snapshot records the sealed TsFiles with their sizes, their mods sizes
+ * and their devices. On loading, the devices in a TsFile which is unsealed, unknown to the snapshot
+ * or changed since the snapshot are not restored, since their last values may be newer than the
+ * cached ones or be deleted. Neither are the devices in a recorded TsFile which has been removed
+ * since the snapshot (by TTL, unloading or deleting the data directly), whose last values may be
+ * gone, nor the devices not in any unchanged TsFile. The files are recorded before the cache is
+ * visited, thus any writing or deletion which is not seen by the visiting lands in a file that is
+ * not restored.
+ */
+public class LastCacheSnapshotManager {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(LastCacheSnapshotManager.class);
+
+  private static final String SNAPSHOT_FILE_NAME = "last_cache.snapshot";
+  private static final String TMP_SUFFIX = ".tmp";
+  private static final int FORMAT_VERSION = 2;
+
+  private static final byte TABLE_DEVICE = 0;
+  private static final byte TREE_DEVICE = 1;
+  private static final byte END_OF_DEVICES = 2;
+
+  private static final byte EMPTY_PAIR = 0;
+  private static final byte TIME_ONLY_PAIR = 1;
+  private static final byte VALUE_PAIR = 2;
+
+  private final File snapshotFile;
+
+  private volatile long lastLoadTimeInMs = 0;
+  private volatile long lastLoadedDeviceNum = 0;
+
+  LastCacheSnapshotManager(final File snapshotFile) {
+    this.snapshotFile = snapshotFile;
+  }
+
+  public static LastCacheSnapshotManager getInstance() {
+    return LastCacheSnapshotManagerHolder.INSTANCE;
+  }
+
+  private static class LastCacheSnapshotManagerHolder {
+    private static final LastCacheSnapshotManager INSTANCE =
+        new LastCacheSnapshotManager(
+            SystemFileFactory.INSTANCE.getFile(
+                IoTDBDescriptor.getInstance().getConfig().getSystemDir(), SNAPSHOT_FILE_NAME));
+  }
+
+  /////////////////////////////// Snapshot ///////////////////////////////
+
+  public void snapshot(final Collection<DataRegion> dataRegions) {
+    snapshot(collectSealedFiles(dataRegions));
+  }
+
+  /**
+   * @param sealedFiles the path of the sealed TsFiles -> the file info, shall be collected before
+   *     calling this
+   */
+  synchronized void snapshot(final Map<String, SealedFileInfo> sealedFiles) {
+    final long startTime = System.currentTimeMillis();
+    final File tmpFile = new File(snapshotFile.getPath() + TMP_SUFFIX);
+    // Copy the entries first, so that the cache is not locked while writing the file
+    final List<DeviceLastCache> devices = new ArrayList<>();
+    TableDeviceSchemaCache.getInstance()
+        .forEachDevice(
+            (tableId, deviceId, entry) -> {
+              final DeviceLastCache device = DeviceLastCache.copyOf(tableId, deviceId, entry);
+              if (Objects.nonNull(device)) {
+                devices.add(device);
+              }
+            });
+    try {
+      Files.createDirectories(snapshotFile.getAbsoluteFile().getParentFile().toPath());
+      try (final FileOutputStream fileOutputStream = new FileOutputStream(tmpFile);
+          final BufferedOutputStream outputStream = new BufferedOutputStream(fileOutputStream)) {
+        ReadWriteIOUtils.write(FORMAT_VERSION, outputStream);
+        serializeSealedFiles(sealedFiles, outputStream);
+        for (final DeviceLastCache device : devices) {
+          device.serialize(outputStream);
+        }
+        ReadWriteIOUtils.write(END_OF_DEVICES, outputStream);
+        outputStream.flush();
+        fileOutputStream.getFD().sync();
+      }
+      Files.move(
+          tmpFile.toPath(),
+          snapshotFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      LOGGER.info(
+          "Saved the last cache of {} devices to {}, cost {}ms.",
+          devices.size(),
+          snapshotFile,
+          System.currentTimeMillis() - startTime);
+    } catch (final IOException e) {
+      LOGGER.warn("Failed to save the last cache snapshot to {}.", snapshotFile, e);
+      try {
+        Files.deleteIfExists(tmpFile.toPath());
+      } catch (final IOException ignored) {
+        // Overwritten by the next snapshot
+      }
+    }
+  }
+
+  /**
+   * The devices are shared by many files, thus they are written once into a dictionary, and each
+   * file refers to its devices by the indexes in the dictionary.
+   */
+  private static void serializeSealedFiles(
+      final Map<String, SealedFileInfo> sealedFiles, final OutputStream outputStream)
+      throws IOException {
+    final Map<IDeviceID, Integer> deviceIndexes = new LinkedHashMap<>();
+    for (final SealedFileInfo file : sealedFiles.values()) {
+      for (final IDeviceID deviceId : file.devices) {
+        deviceIndexes.putIfAbsent(deviceId, deviceIndexes.size());
+      }
+    }
+    ReadWriteIOUtils.write(deviceIndexes.size(), outputStream);
+    for (final IDeviceID deviceId : deviceIndexes.keySet()) {
+      deviceId.serialize(outputStream);
+    }
+    ReadWriteIOUtils.write(sealedFiles.size(), outputStream);
+    for (final Map.Entry<String, SealedFileInfo> file : sealedFiles.entrySet()) {
+      ReadWriteIOUtils.write(file.getKey(), outputStream);
+      ReadWriteIOUtils.write(file.getValue().tsFileSize, outputStream);
+      ReadWriteIOUtils.write(file.getValue().modsSize, outputStream);
+      ReadWriteIOUtils.write(file.getValue().devices.size(), outputStream);
+      for (final IDeviceID deviceId : file.getValue().devices) {
+        ReadWriteIOUtils.write(deviceIndexes.get(deviceId), outputStream);
+      }
+    }
+  }
+
+  private static Map<String, SealedFileInfo> deserializeSealedFiles(final InputStream inputStream)
+      throws IOException {
+    final IDeviceID[] devices = new IDeviceID[ReadWriteIOUtils.readInt(inputStream)];
+    for (int i = 0; i < devices.length; ++i) {
+      devices[i] = IDeviceID.Deserializer.DEFAULT_DESERIALIZER.deserializeFrom(inputStream);
+    }
+    final int fileNum = ReadWriteIOUtils.readInt(inputStream);
+    final Map<String, SealedFileInfo> sealedFiles = new HashMap<>(fileNum);
+    for (int i = 0; i < fileNum; ++i) {
+      final String path = ReadWriteIOUtils.readString(inputStream);
+      final long tsFileSize = ReadWriteIOUtils.readLong(inputStream);
+      final long modsSize = ReadWriteIOUtils.readLong(inputStream);
+      final int deviceNum = ReadWriteIOUtils.readInt(inputStream);
+      final Set<IDeviceID> fileDevices = new HashSet<>(deviceNum);
+      for (int j = 0; j < deviceNum; ++j) {
+        fileDevices.add(devices[ReadWriteIOUtils.readInt(inputStream)]);
+      }
+      sealedFiles.put(path, new SealedFileInfo(tsFileSize, modsSize, fileDevices));
+    }
+    return sealedFiles;
+  }
+
+  /** The last cache of a device copied from {@link TableDeviceSchemaCache}. */
+  private static class DeviceLastCache {
+    private final boolean isTableModel;
+    private final String database;
+    private final boolean isAligned;
+    private final IDeviceID deviceId;
+    private final List<String> measurements = new ArrayList<>();
+    private final List<TimeValuePair> timeValuePairs = new ArrayList<>();
+    private final List<IMeasurementSchema> schemas = new ArrayList<>();
+
+    private DeviceLastCache(
+        final boolean isTableModel,
+        final String database,
+        final boolean isAligned,
+        final IDeviceID deviceId) {
+      this.isTableModel = isTableModel;
+      this.database = database;
+      this.isAligned = isAligned;
+      this.deviceId = deviceId;
+    }
+
+    /** Returns {@code null} if the device has nothing to be saved. */
+    private static DeviceLastCache copyOf(
+        final TableId tableId, final IDeviceID deviceId, final TableDeviceCacheEntry entry) {
+      final boolean isTableModel = Objects.nonNull(tableId.getDatabase());
+      final IDeviceSchema deviceSchema = entry.getDeviceSchema();
+      if (!isTableModel && !(deviceSchema instanceof TreeDeviceNormalSchema)) {
+        return null;
+      }
+      final DeviceLastCache device =
+          isTableModel
+              ? new DeviceLastCache(true, tableId.getDatabase(), false, deviceId)
+              : new DeviceLastCache(
+                  false,
+                  ((TreeDeviceNormalSchema) deviceSchema).getDatabase(),
+                  ((TreeDeviceNormalSchema) deviceSchema).isAligned(),
+                  deviceId);
+      entry.forEachLastCacheTimeValuePair(
+          (measurement, timeValuePair) -> {
+            if (!isSerializable(timeValuePair)) {
+              return;
+            }
+            if (!isTableModel) {
+              final SchemaCacheEntry schemaCacheEntry =
+                  ((TreeDeviceNormalSchema) deviceSchema).getSchemaCacheEntry(measurement);
+              if (Objects.isNull(schemaCacheEntry)
+                  || !(schemaCacheEntry.getSchema() instanceof MeasurementSchema)) {
+                return;
+              }
+              device.schemas.add(schemaCacheEntry.getSchema());
+            }
+            device.measurements.add(measurement);
+            device.timeValuePairs.add(timeValuePair);
+          });
+      return device.measurements.isEmpty() ? null : device;
+    }
+
+    private void serialize(final OutputStream outputStream) throws IOException {
+      if (isTableModel) {
+        ReadWriteIOUtils.write(TABLE_DEVICE, outputStream);
+        ReadWriteIOUtils.write(database, outputStream);
+      } else {
+        ReadWriteIOUtils.write(TREE_DEVICE, outputStream);
+        ReadWriteIOUtils.write(database, outputStream);
+        ReadWriteIOUtils.write(isAligned, outputStream);
+      }
+      deviceId.serialize(outputStream);
+      ReadWriteIOUtils.write(measurements.size(), outputStream);
+      for (int i = 0; i < measurements.size(); ++i) {
+        ReadWriteIOUtils.write(measurements.get(i), outputStream);
+        if (!isTableModel) {
+          schemas.get(i).serializeTo(outputStream);
+        }
+        serializeTimeValuePair(timeValuePairs.get(i), outputStream);
+      }
+    }
+  }
+
+  private static boolean isSerializable(final TimeValuePair timeValuePair) {
+    if (timeValuePair == EMPTY_TIME_VALUE_PAIR
+        || timeValuePair.getValue() == EMPTY_PRIMITIVE_TYPE) {
+      return true;
+    }
+    switch (timeValuePair.getValue().getDataType()) {
+      case BOOLEAN:
+      case INT32:
+      case DATE:
+      case INT64:
+      case TIMESTAMP:
+      case FLOAT:
+      case DOUBLE:
+      case TEXT:
+      case STRING:
+      case BLOB:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static void serializeTimeValuePair(
+      final TimeValuePair timeValuePair, final OutputStream outputStream) throws IOException {
+    if (timeValuePair == EMPTY_TIME_VALUE_PAIR) {
+      ReadWriteIOUtils.write(EMPTY_PAIR, outputStream);
+      return;
+    }
+    final TsPrimitiveType value = timeValuePair.getValue();
+    if (value == EMPTY_PRIMITIVE_TYPE) {
+      ReadWriteIOUtils.write(TIME_ONLY_PAIR, outputStream);
+      ReadWriteIOUtils.write(timeValuePair.getTimestamp(), outputStream);
+      return;
+    }
+    ReadWriteIOUtils.write(VALUE_PAIR, outputStream);
+    ReadWriteIOUtils.write(value.getDataType(), outputStream);
+    ReadWriteIOUtils.write(timeValuePair.getTimestamp(), outputStream);
+    switch (value.getDataType()) {
+      case BOOLEAN:
+        ReadWriteIOUtils.write(value.getBoolean(), outputStream);
+        break;
+      case INT32:
+      case DATE:
+        ReadWriteIOUtils.write(value.getInt(), outputStream);
+        break;
+      case INT64:
+      case TIMESTAMP:
+        ReadWriteIOUtils.write(value.getLong(), outputStream);
+        break;
+      case FLOAT:
+        ReadWriteIOUtils.write(value.getFloat(), outputStream);
+        break;
+      case DOUBLE:
+        ReadWriteIOUtils.write(value.getDouble(), outputStream);
+        break;
+      default:
+        ReadWriteIOUtils.write(value.getBinary(), outputStream);
+    }
+  }
+
+  /////////////////////////////// Load ///////////////////////////////
+
+  public void load(final Collection<DataRegion> dataRegions) {
+    load(sealedFiles -> getRestorableDeviceFilter(getTsFiles(dataRegions), sealedFiles));
+  }
+
+  /**
+   * @param restorableDeviceFilterProvider given the sealed files recorded in the snapshot, returns
+   *     the filter of the devices whose last values are unchanged since the snapshot
+   */
+  synchronized void load(
+      final Function<Map<String, SealedFileInfo>, Predicate<IDeviceID>>
+          restorableDeviceFilterProvider) {
+    if (!snapshotFile.exists()) {
+      return;
+    }
+    final long startTime = System.currentTimeMillis();
+    int loadedDeviceNum = 0;
+    int skippedDeviceNum = 0;
+    try (final InputStream inputStream =
+        new BufferedInputStream(new FileInputStream(snapshotFile))) {
+      final int version = ReadWriteIOUtils.readInt(inputStream);
+      if (version != FORMAT_VERSION) {
+        LOGGER.warn("Ignored the last cache snapshot {} of version {}.", snapshotFile, version);
+        return;
+      }
+      final Map<String, SealedFileInfo> sealedFiles = deserializeSealedFiles(inputStream);
+      final Predicate<IDeviceID> restorableDeviceFilter =
+          restorableDeviceFilterProvider.apply(sealedFiles);
+
+      byte type;
+      while ((type = ReadWriteIOUtils.readByte(inputStream)) != END_OF_DEVICES) {
+        if (deserializeAndRestoreDevice(
+            type == TABLE_DEVICE, inputStream, restorableDeviceFilter)) {
+          ++loadedDeviceNum;
+        } else {
+          ++skippedDeviceNum;
+        }
+      }
+      lastLoadedDeviceNum = loadedDeviceNum;
+      lastLoadTimeInMs = System.currentTimeMillis() - startTime;
+      LOGGER.info(
+          "Loaded the last cache of {} devices from {}, skipped {} devices, cost {}ms.",
+          loadedDeviceNum,
+          snapshotFile,
+          skippedDeviceNum,
+          lastLoadTimeInMs);
+    } catch (final IOException | RuntimeException e) {
+      // The restored devices are consistent, only the following ones are lost
+      LOGGER.warn(
+          "Failed to load the last cache snapshot {}, {} devices are loaded.",
+          snapshotFile,
+          loadedDeviceNum,
+          e);
+    }
+  }
+
+  private boolean deserializeAndRestoreDevice(
+      final boolean isTableModel,
+      final InputStream inputStream,
+      final Predicate<IDeviceID> restorableDeviceFilter)
+      throws IOException {
+    final String database = ReadWriteIOUtils.readString(inputStream);
+    final boolean isAligned = !isTableModel && ReadWriteIOUtils.readBool(inputStream);
+    final IDeviceID deviceId =
+        IDeviceID.Deserializer.DEFAULT_DESERIALIZER.deserializeFrom(inputStream);
+
+    final int size = ReadWriteIOUtils.readInt(inputStream);
+    final String[] measurements = new String[size];
+    final IMeasurementSchema[] schemas = isTableModel ? null : new IMeasurementSchema[size];
+    final TimeValuePair[] timeValuePairs = new TimeValuePair[size];
+    for (int i = 0; i < size; ++i) {
+      measurements[i] = ReadWriteIOUtils.readString(inputStream);
+      if (!isTableModel) {
+        schemas[i] = MeasurementSchema.deserializeFrom(inputStream);
+      }
+      timeValuePairs[i] = deserializeTimeValuePair(inputStream);
+    }
+
+    if (!restorableDeviceFilter.test(deviceId)) {
+      return false;
+    }
+    final TableDeviceSchemaCache schemaCache = TableDeviceSchemaCache.getInstance();
+    if (isTableModel) {
+      schemaCache.initOrInvalidateLastCache(database, deviceId, measurements, false);
+      schemaCache.updateLastCacheIfExists(database, deviceId, measurements, timeValuePairs);
+    } else {
+      schemaCache.updateLastCache(database, deviceId, measurements, null, isAligned, schemas, true);
+      schemaCache.updateLastCache(
+          database, deviceId, measurements, timeValuePairs, isAligned, schemas, false);
+    }
+    return true;
+  }
+
+  private static TimeValuePair deserializeTimeValuePair(final InputStream inputStream)
+      throws IOException {
+    final byte type = ReadWriteIOUtils.readByte(inputStream);
+    if (type == EMPTY_PAIR) {
+      return EMPTY_TIME_VALUE_PAIR;
+    }
+    if (type == TIME_ONLY_PAIR) {
+      return new TimeValuePair(ReadWriteIOUtils.readLong(inputStream), EMPTY_PRIMITIVE_TYPE);
+    }
+    final TSDataType dataType = TSDataType.deserializeFrom(inputStream);
+    final long time = ReadWriteIOUtils.readLong(inputStream);
+    final Object value;
+    switch (dataType) {
+      case BOOLEAN:
+        value = ReadWriteIOUtils.readBool(inputStream);
+        break;
+      case INT32:
+      case DATE:
+        value = ReadWriteIOUtils.readInt(inputStream);
+        break;
+      case INT64:
+      case TIMESTAMP:
+        value = ReadWriteIOUtils.readLong(inputStream);
+        break;
+      case FLOAT:
+        value = ReadWriteIOUtils.readFloat(inputStream);
+        break;
+      case DOUBLE:
+        value = ReadWriteIOUtils.readDouble(inputStream);
+        break;
+      default:
+        value = ReadWriteIOUtils.readBinary(inputStream);
+    }
+    return new TimeValuePair(time, TsPrimitiveType.getByType(dataType, value));
+  }
+
+  /////////////////////////////// Files ///////////////////////////////
+
+  private static List<TsFileResource> getTsFiles(final Collection<DataRegion> dataRegions) {
+    final List<TsFileResource> tsFiles = new ArrayList<>();
+    for (final DataRegion dataRegion : dataRegions) {
+      tsFiles.addAll(dataRegion.getTsFileManager().getTsFileList(true));
+      tsFiles.addAll(dataRegion.getTsFileManager().getTsFileList(false));
+    }
+    return tsFiles;
+  }
+
+  private static Map<String, SealedFileInfo> collectSealedFiles(
+      final Collection<DataRegion> dataRegions) {
+    final Map<String, SealedFileInfo> sealedFiles = new HashMap<>();
+    for (final TsFileResource resource : getTsFiles(dataRegions)) {
+      if (resource.isClosed()) {
+        sealedFiles.put(
+            resource.getTsFilePath(),
+            new SealedFileInfo(
+                resource.getTsFileSize(), getModsSize(resource), resource.getDevices()));
+      }
+    }
+    return sealedFiles;
+  }
+
+  static Predicate<IDeviceID> getRestorableDeviceFilter(
+      final Collection<TsFileResource> tsFiles, final Map<String, SealedFileInfo> sealedFiles) {
+    final Set<IDeviceID> unchangedDevices = new HashSet<>();
+    final Set<IDeviceID> changedDevices = new HashSet<>();
+    final Set<String> existingFiles = new HashSet<>();
+    for (final TsFileResource resource : tsFiles) {
+      existingFiles.add(resource.getTsFilePath());
+      final SealedFileInfo sealedFile = sealedFiles.get(resource.getTsFilePath());
+      if (!resource.isClosed()
+          || Objects.isNull(sealedFile)
+          || sealedFile.tsFileSize != resource.getTsFileSize()
+          || sealedFile.modsSize != getModsSize(resource)) {
+        changedDevices.addAll(resource.getDevices());
+      } else {
+        unchangedDevices.addAll(resource.getDevices());
+      }
+    }
+    // The data of the removed files may be the last values in the snapshot
+    for (final Map.Entry<String, SealedFileInfo> sealedFile : sealedFiles.entrySet()) {
+      if (!existingFiles.contains(sealedFile.getKey())) {
+        changedDevices.addAll(sealedFile.getValue().devices);
+      }
+    }
+    return deviceId -> unchangedDevices.contains(deviceId) && !changedDevices.contains(deviceId);
+  }
+
+  private static long getModsSize(final TsFileResource resource) {
+    return ModificationFile.getExclusiveMods(resource.getTsFile()).length();
+  }
+
+  /** The sizes and the devices of a sealed TsFile recorded in the snapshot. */
+  static final class SealedFileInfo {
+    private final long tsFileSize;
+    private final long modsSize;
+    private final Set<IDeviceID> devices;
+
+    SealedFileInfo(final long tsFileSize, final long modsSize, final Set<IDeviceID> devices) {
+      this.tsFileSize = tsFileSize;
+      this.modsSize = modsSize;
+      this.devices = devices;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof SealedFileInfo)) {
+        return false;
+      }
+      final SealedFileInfo that = (SealedFileInfo) o;
+      return tsFileSize == that.tsFileSize
+          && modsSize == that.modsSize
+          && devices.equals(that.devices);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(tsFileSize, modsSize, devices);
+    }
+  }
+
+  /////////////////////////////// Metrics ///////////////////////////////
+
+  long getLastLoadTimeInMs() {
+    return lastLoadTimeInMs;
+  }
+
+  long getLastLoadedDeviceNum() {
+    return lastLoadedDeviceNum;
+  }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.common.schematree.DeviceSchemaInfo;
 
 import org.apache.tsfile.enums.TSDataType;
@@ -40,6 +41,7 @@ import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 
 import static org.apache.iotdb.commons.schema.SchemaConstant.NON_TEMPLATE;
 
@@ -50,13 +52,16 @@ public class TableDeviceCacheEntry {
       RamUsageEstimator.shallowSizeOfInstance(TableDeviceCacheEntry.class)
           + 2 * RamUsageEstimator.shallowSizeOfInstance(AtomicReference.class);
 
+  private static final boolean ENABLE_COLUMNAR_TABLE_LAST_CACHE =
+      IoTDBDescriptor.getInstance().getConfig().isEnableColumnarTableLastCache();
+
   // the cached attributeMap may not be the latest, but there won't be any correctness problems
   // because when missing getting the key-value from this attributeMap, caller will try to get or
   // create from remote
   // there may exist key is not null, but value is null in this map, which means that the key's
   // corresponding value is null, doesn't mean that the key doesn't exist
   private final AtomicReference<IDeviceSchema> deviceSchema = new AtomicReference<>();
-  private final AtomicReference<TableDeviceLastCache> lastCache = new AtomicReference<>();
+  private final AtomicReference<IDeviceLastCache> lastCache = new AtomicReference<>();
 
   /////////////////////////////// Attribute ///////////////////////////////
 
@@ -183,11 +188,15 @@ public class TableDeviceCacheEntry {
       final String[] measurements,
       final boolean isInvalidate,
       final boolean isTableModel) {
-    int result =
-        lastCache.compareAndSet(null, new TableDeviceLastCache())
-            ? TableDeviceLastCache.INSTANCE_SIZE
-            : 0;
-    final TableDeviceLastCache cache = lastCache.get();
+    int result = 0;
+    if (Objects.isNull(lastCache.get())) {
+      final IDeviceLastCache newCache =
+          isTableModel && ENABLE_COLUMNAR_TABLE_LAST_CACHE
+              ? new TableDeviceColumnarLastCache()
+              : new TableDeviceLastCache();
+      result = lastCache.compareAndSet(null, newCache) ? newCache.estimateSize() : 0;
+    }
+    final IDeviceLastCache cache = lastCache.get();
     result +=
         Objects.nonNull(cache)
             ? cache.initOrInvalidate(database, tableName, measurements, isInvalidate, isTableModel)
@@ -197,7 +206,7 @@ public class TableDeviceCacheEntry {
 
   int tryUpdateLastCache(
       final String[] measurements, final TimeValuePair[] timeValuePairs, boolean invalidateNull) {
-    final TableDeviceLastCache cache = lastCache.get();
+    final IDeviceLastCache cache = lastCache.get();
     final int result =
         Objects.nonNull(cache) ? cache.tryUpdate(measurements, timeValuePairs, invalidateNull) : 0;
     return Objects.nonNull(lastCache.get()) ? result : 0;
@@ -208,13 +217,13 @@ public class TableDeviceCacheEntry {
   }
 
   int invalidateLastCache(final String measurement, final boolean isTableModel) {
-    final TableDeviceLastCache cache = lastCache.get();
+    final IDeviceLastCache cache = lastCache.get();
     final int result = Objects.nonNull(cache) ? cache.invalidate(measurement, isTableModel) : 0;
     return Objects.nonNull(lastCache.get()) ? result : 0;
   }
 
   TimeValuePair getTimeValuePair(final String measurement) {
-    final TableDeviceLastCache cache = lastCache.get();
+    final IDeviceLastCache cache = lastCache.get();
     return Objects.nonNull(cache) ? cache.getTimeValuePair(measurement) : null;
   }
 
@@ -233,12 +242,19 @@ public class TableDeviceCacheEntry {
   // Shall pass in "" if last by time
   Optional<Pair<OptionalLong, TsPrimitiveType[]>> getLastRow(
       final String sourceMeasurement, final List<String> targetMeasurements) {
-    final TableDeviceLastCache cache = lastCache.get();
+    final IDeviceLastCache cache = lastCache.get();
     return Objects.nonNull(cache)
         ? cache.getLastRow(sourceMeasurement, targetMeasurements)
         : Optional.empty();
   }
 
+  void forEachLastCacheTimeValuePair(final BiConsumer<String, TimeValuePair> consumer) {
+    final IDeviceLastCache cache = lastCache.get();
+    if (Objects.nonNull(cache)) {
+      cache.forEachTimeValuePair(consumer);
+    }
+  }
+
   int invalidateLastCache() {
     final AtomicInteger size = new AtomicInteger(0);
     lastCache.updateAndGet(
@@ -255,7 +271,7 @@ public class TableDeviceCacheEntry {
 
   int estimateSize() {
     final IDeviceSchema schema = deviceSchema.get();
-    final TableDeviceLastCache cache = lastCache.get();
+    final IDeviceLastCache cache = lastCache.get();
     return (int)
         (INSTANCE_SIZE
             + (Objects.nonNull(schema) ? schema.estimateSize() : 0)
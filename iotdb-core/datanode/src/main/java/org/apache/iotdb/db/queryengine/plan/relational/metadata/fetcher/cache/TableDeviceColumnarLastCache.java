@@ -0,0 +1,413 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache;
+
+import org.apache.iotdb.db.schemaengine.table.DataNodeTableCache;
+
+import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.utils.RamUsageEstimator;
+import org.apache.tsfile.utils.TsPrimitiveType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.BiConsumer;
+
+import static org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TableDeviceLastCache.EMPTY_PRIMITIVE_TYPE;
+import static org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TableDeviceLastCache.EMPTY_TIME_VALUE_PAIR;
+import static org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.TableDeviceLastCache.HIT_AND_ALL_NULL;
+
+/**
+ * A columnar layout of {@link TableDeviceLastCache} for the table model. The cached columns are
+ * kept as a sorted array of the interned column names, and the last points are kept in primitive
+ * arrays indexed by the ordinal of the column in it. Only the values which are not primitive are
+ * kept as objects.
+ *
+ * <p>Compared with a map of {@link TimeValuePair}s, this saves the map entry, the pair and the
+ * boxed value of each column, at the cost of allocating a {@link TimeValuePair} when it is read.
+ */
+@ThreadSafe
+public class TableDeviceColumnarLastCache implements IDeviceLastCache {
+  static final int INSTANCE_SIZE =
+      (int) RamUsageEstimator.shallowSizeOfInstance(TableDeviceColumnarLastCache.class);
+
+  private static final String[] EMPTY_COLUMNS = new String[0];
+
+  // The state of a cached column, the ones after NULL_VALUE are also the types of the value
+  // The column is fetched but the last point is unknown yet, see PLACEHOLDER_TIME_VALUE_PAIR
+  private static final byte PLACEHOLDER = 0;
+  // The column does not have any point, see EMPTY_TIME_VALUE_PAIR
+  private static final byte EMPTY = 1;
+  // The value is EMPTY_PRIMITIVE_TYPE, e.g. the time column
+  private static final byte EMPTY_VALUE = 2;
+  private static final byte NULL_VALUE = 3;
+  private static final byte BOOLEAN = 4;
+  private static final byte INT = 5;
+  private static final byte LONG = 6;
+  private static final byte FLOAT = 7;
+  private static final byte DOUBLE = 8;
+  // The Binary is kept in objects
+  private static final byte BINARY = 9;
+  // Other kinds of TsPrimitiveType, the value itself is kept in objects
+  private static final byte OBJECT = 10;
+
+  @GuardedBy("this")
+  private String[] columns = EMPTY_COLUMNS;
+
+  @GuardedBy("this")
+  private long[] times;
+
+  @GuardedBy("this")
+  private long[] values;
+
+  @GuardedBy("this")
+  private byte[] states;
+
+  // Lazily allocated by the first value which is not primitive
+  @GuardedBy("this")
+  private Object[] objects;
+
+  // The estimated size of the elements in objects
+  @GuardedBy("this")
+  private int objectsSize;
+
+  @Override
+  public synchronized int initOrInvalidate(
+      final String database,
+      final String tableName,
+      final String[] measurements,
+      final boolean isInvalidate,
+      final boolean isTableModel) {
+    final int sizeBefore = estimateSize();
+    final List<String> newColumns = new ArrayList<>();
+    for (final String measurement : measurements) {
+      final int index = indexOf(measurement);
+      if (isInvalidate) {
+        if (index >= 0) {
+          removeColumn(index);
+        }
+        continue;
+      }
+      if (index >= 0) {
+        continue;
+      }
+      final String finalMeasurement =
+          isTableModel
+              ? DataNodeTableCache.getInstance()
+                  .tryGetInternColumnName(database, tableName, measurement)
+              : measurement;
+      // Removing table measurement, do not put cache
+      if (Objects.nonNull(finalMeasurement)) {
+        newColumns.add(finalMeasurement);
+      }
+    }
+    if (!newColumns.isEmpty()) {
+      addColumns(newColumns);
+    }
+    return estimateSize() - sizeBefore;
+  }
+
+  @Override
+  public synchronized int tryUpdate(
+      final @Nonnull String[] measurements,
+      final @Nonnull TimeValuePair[] timeValuePairs,
+      final boolean invalidateNull) {
+    final int sizeBefore = estimateSize();
+    long lastTime = Long.MIN_VALUE;
+
+    for (int i = 0; i < measurements.length; ++i) {
+      if (Objects.isNull(timeValuePairs[i])) {
+        if (invalidateNull) {
+          final int index = indexOf(measurements[i]);
+          if (index >= 0) {
+            removeColumn(index);
+          }
+        }
+        continue;
+      }
+
+      if (lastTime < timeValuePairs[i].getTimestamp()) {
+        lastTime = timeValuePairs[i].getTimestamp();
+      }
+      final int index = indexOf(measurements[i]);
+      if (index >= 0 && times[index] <= timeValuePairs[i].getTimestamp()) {
+        set(index, timeValuePairs[i]);
+      }
+    }
+    final int timeIndex = indexOf("");
+    if (timeIndex >= 0 && times[timeIndex] < lastTime) {
+      clearObject(timeIndex);
+      times[timeIndex] = lastTime;
+      states[timeIndex] = EMPTY_VALUE;
+    }
+    return estimateSize() - sizeBefore;
+  }
+
+  @Override
+  @GuardedBy("DataRegionInsertLock#writeLock")
+  public synchronized int invalidate(final String measurement, final boolean isTableModel) {
+    final int index = indexOf(measurement);
+    if (index < 0) {
+      return 0;
+    }
+    final int sizeBefore = estimateSize();
+    final long time = times[index];
+    removeColumn(index);
+    final int timeIndex = indexOf("");
+    if (timeIndex >= 0 && times[timeIndex] <= time) {
+      removeColumn(timeIndex);
+    }
+    return sizeBefore - estimateSize();
+  }
+
+  @Override
+  @Nullable
+  public synchronized TimeValuePair getTimeValuePair(final @Nonnull String measurement) {
+    final int index = indexOf(measurement);
+    if (index < 0) {
+      return null;
+    }
+    switch (states[index]) {
+      case PLACEHOLDER:
+        return null;
+      case EMPTY:
+        return EMPTY_TIME_VALUE_PAIR;
+      default:
+        return new TimeValuePair(times[index], getValue(index));
+    }
+  }
+
+  @Override
+  public synchronized Optional<Pair<OptionalLong, TsPrimitiveType[]>> getLastRow(
+      final @Nonnull String sourceMeasurement, final List<String> targetMeasurements) {
+    final int sourceIndex = indexOf(sourceMeasurement);
+    if (sourceIndex < 0 || states[sourceIndex] == PLACEHOLDER) {
+      return Optional.empty();
+    }
+
+    if (states[sourceIndex] == EMPTY) {
+      return HIT_AND_ALL_NULL;
+    }
+    final long alignTime = times[sourceIndex];
+
+    final TsPrimitiveType[] row = new TsPrimitiveType[targetMeasurements.size()];
+    for (int i = 0; i < row.length; ++i) {
+      final String targetMeasurement = targetMeasurements.get(i);
+      if (targetMeasurement.isEmpty()) {
+        row[i] = new TsPrimitiveType.TsLong(alignTime);
+        continue;
+      }
+      final int index = indexOf(targetMeasurement);
+      if (index < 0) {
+        continue;
+      }
+      row[i] = times[index] == alignTime ? getValue(index) : EMPTY_PRIMITIVE_TYPE;
+    }
+    return Optional.of(new Pair<>(OptionalLong.of(alignTime), row));
+  }
+
+  @Override
+  public synchronized void forEachTimeValuePair(final BiConsumer<String, TimeValuePair> consumer) {
+    for (int i = 0; i < columns.length; ++i) {
+      if (states[i] != PLACEHOLDER) {
+        consumer.accept(
+            columns[i],
+            states[i] == EMPTY ? EMPTY_TIME_VALUE_PAIR : new TimeValuePair(times[i], getValue(i)));
+      }
+    }
+  }
+
+  @Override
+  public synchronized int estimateSize() {
+    if (columns.length == 0) {
+      return INSTANCE_SIZE;
+    }
+    return (int)
+        (INSTANCE_SIZE
+            + RamUsageEstimator.shallowSizeOf(columns)
+            + RamUsageEstimator.sizeOf(times)
+            + RamUsageEstimator.sizeOf(values)
+            + RamUsageEstimator.sizeOf(states)
+            + (Objects.nonNull(objects) ? RamUsageEstimator.shallowSizeOf(objects) : 0)
+            + objectsSize);
+  }
+
+  private int indexOf(final String measurement) {
+    return Arrays.binarySearch(columns, measurement);
+  }
+
+  private TsPrimitiveType getValue(final int index) {
+    switch (states[index]) {
+      case NULL_VALUE:
+        return null;
+      case BOOLEAN:
+        return new TsPrimitiveType.TsBoolean(values[index] != 0);
+      case INT:
+        return new TsPrimitiveType.TsInt((int) values[index]);
+      case LONG:
+        return new TsPrimitiveType.TsLong(values[index]);
+      case FLOAT:
+        return new TsPrimitiveType.TsFloat(Float.intBitsToFloat((int) values[index]));
+      case DOUBLE:
+        return new TsPrimitiveType.TsDouble(Double.longBitsToDouble(values[index]));
+      case BINARY:
+        return new TsPrimitiveType.TsBinary((Binary) objects[index]);
+      case OBJECT:
+        return (TsPrimitiveType) objects[index];
+      default:
+        // PLACEHOLDER, EMPTY and EMPTY_VALUE
+        return EMPTY_PRIMITIVE_TYPE;
+    }
+  }
+
+  private void set(final int index, final TimeValuePair timeValuePair) {
+    clearObject(index);
+    if (timeValuePair == EMPTY_TIME_VALUE_PAIR) {
+      times[index] = Long.MIN_VALUE;
+      states[index] = EMPTY;
+      return;
+    }
+    times[index] = timeValuePair.getTimestamp();
+    final TsPrimitiveType value = timeValuePair.getValue();
+    if (Objects.isNull(value)) {
+      states[index] = NULL_VALUE;
+    } else if (value == EMPTY_PRIMITIVE_TYPE) {
+      states[index] = EMPTY_VALUE;
+    } else if (value instanceof TsPrimitiveType.TsBoolean) {
+      states[index] = BOOLEAN;
+      values[index] = value.getBoolean() ? 1 : 0;
+    } else if (value instanceof TsPrimitiveType.TsInt) {
+      states[index] = INT;
+      values[index] = value.getInt();
+    } else if (value instanceof TsPrimitiveType.TsLong) {
+      states[index] = LONG;
+      values[index] = value.getLong();
+    } else if (value instanceof TsPrimitiveType.TsFloat) {
+      states[index] = FLOAT;
+      values[index] = Float.floatToRawIntBits(value.getFloat());
+    } else if (value instanceof TsPrimitiveType.TsDouble) {
+      states[index] = DOUBLE;
+      values[index] = Double.doubleToRawLongBits(value.getDouble());
+    } else if (value instanceof TsPrimitiveType.TsBinary) {
+      states[index] = BINARY;
+      setObject(index, value.getBinary(), (int) value.getBinary().ramBytesUsed());
+    } else {
+      states[index] = OBJECT;
+      setObject(index, value, value.getSize());
+    }
+  }
+
+  private void setObject(final int index, final Object object, final int size) {
+    if (Objects.isNull(objects)) {
+      objects = new Object[columns.length];
+    }
+    objects[index] = object;
+    objectsSize += size;
+  }
+
+  private void clearObject(final int index) {
+    if (Objects.isNull(objects) || Objects.isNull(objects[index])) {
+      return;
+    }
+    objectsSize -= getObjectSize(index);
+    objects[index] = null;
+  }
+
+  private int getObjectSize(final int index) {
+    if (Objects.isNull(objects) || Objects.isNull(objects[index])) {
+      return 0;
+    }
+    return states[index] == BINARY
+        ? (int) ((Binary) objects[index]).ramBytesUsed()
+        : ((TsPrimitiveType) objects[index]).getSize();
+  }
+
+  /** Merge the new columns, which are not cached yet, into the sorted columns. */
+  private void addColumns(final List<String> newColumns) {
+    final String[] added = newColumns.stream().distinct().sorted().toArray(String[]::new);
+    final int length = columns.length + added.length;
+    final String[] newColumnArray = new String[length];
+    final long[] newTimes = new long[length];
+    final long[] newValues = new long[length];
+    final byte[] newStates = new byte[length];
+    final Object[] newObjects = Objects.nonNull(objects) ? new Object[length] : null;
+
+    int i = 0;
+    int j = 0;
+    for (int k = 0; k < length; ++k) {
+      if (j == added.length || (i < columns.length && columns[i].compareTo(added[j]) < 0)) {
+        newColumnArray[k] = columns[i];
+        newTimes[k] = times[i];
+        newValues[k] = values[i];
+        newStates[k] = states[i];
+        if (Objects.nonNull(newObjects)) {
+          newObjects[k] = objects[i];
+        }
+        ++i;
+      } else {
+        newColumnArray[k] = added[j++];
+        newTimes[k] = Long.MIN_VALUE;
+        newStates[k] = PLACEHOLDER;
+      }
+    }
+    columns = newColumnArray;
+    times = newTimes;
+    values = newValues;
+    states = newStates;
+    objects = newObjects;
+  }
+
+  private void removeColumn(final int index) {
+    clearObject(index);
+    final int length = columns.length - 1;
+    if (length == 0) {
+      columns = EMPTY_COLUMNS;
+      times = null;
+      values = null;
+      states = null;
+      objects = null;
+      return;
+    }
+    columns = removeElement(columns, new String[length], index, length);
+    times = removeElement(times, new long[length], index, length);
+    values = removeElement(values, new long[length], index, length);
+    states = removeElement(states, new byte[length], index, length);
+    if (Objects.nonNull(objects)) {
+      objects = removeElement(objects, new Object[length], index, length);
+    }
+  }
+
+  private static <T> T removeElement(
+      final T source, final T target, final int index, final int length) {
+    System.arraycopy(source, 0, target, 0, index);
+    System.arraycopy(source, index + 1, target, index, length - index);
+    return target;
+  }
+}
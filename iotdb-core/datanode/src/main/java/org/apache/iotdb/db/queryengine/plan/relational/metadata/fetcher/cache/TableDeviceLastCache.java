@@ -40,9 +40,10 @@ import java.util.OptionalLong;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 
 @ThreadSafe
-public class TableDeviceLastCache {
+public class TableDeviceLastCache implements IDeviceLastCache {
   static final int INSTANCE_SIZE =
       (int) RamUsageEstimator.shallowSizeOfInstance(TableDeviceLastCache.class)
           + (int) RamUsageEstimator.shallowSizeOfInstance(ConcurrentHashMap.class);
@@ -80,7 +81,7 @@ public class TableDeviceLastCache {
         }
       };
 
-  private static final Optional<Pair<OptionalLong, TsPrimitiveType[]>> HIT_AND_ALL_NULL =
+  static final Optional<Pair<OptionalLong, TsPrimitiveType[]>> HIT_AND_ALL_NULL =
       Optional.of(new Pair<>(OptionalLong.empty(), null));
   public static final TimeValuePair EMPTY_TIME_VALUE_PAIR =
       new TimeValuePair(Long.MIN_VALUE, EMPTY_PRIMITIVE_TYPE);
@@ -90,7 +91,8 @@ public class TableDeviceLastCache {
   // Time is seen as "" as a measurement
   private final Map<String, TimeValuePair> measurement2CachedLastMap = new ConcurrentHashMap<>();
 
-  int initOrInvalidate(
+  @Override
+  public int initOrInvalidate(
       final String database,
       final String tableName,
       final String[] measurements,
@@ -132,12 +134,8 @@ public class TableDeviceLastCache {
     return diff.get();
   }
 
-  int tryUpdate(
-      final @Nonnull String[] measurements, final @Nonnull TimeValuePair[] timeValuePairs) {
-    return tryUpdate(measurements, timeValuePairs, false);
-  }
-
-  int tryUpdate(
+  @Override
+  public int tryUpdate(
       final @Nonnull String[] measurements,
       final @Nonnull TimeValuePair[] timeValuePairs,
       final boolean invalidateNull) {
@@ -176,8 +174,9 @@ public class TableDeviceLastCache {
     return diff.get();
   }
 
+  @Override
   @GuardedBy("DataRegionInsertLock#writeLock")
-  int invalidate(final String measurement, final boolean isTableModel) {
+  public int invalidate(final String measurement, final boolean isTableModel) {
     final AtomicInteger diff = new AtomicInteger();
     final AtomicLong time = new AtomicLong();
     measurement2CachedLastMap.computeIfPresent(
@@ -214,14 +213,15 @@ public class TableDeviceLastCache {
             : tvPair.getSize());
   }
 
+  @Override
   @Nullable
-  TimeValuePair getTimeValuePair(final @Nonnull String measurement) {
+  public TimeValuePair getTimeValuePair(final @Nonnull String measurement) {
     final TimeValuePair result = measurement2CachedLastMap.get(measurement);
     return result != PLACEHOLDER_TIME_VALUE_PAIR ? result : null;
   }
 
-  // Shall pass in "" if last by time
-  Optional<Pair<OptionalLong, TsPrimitiveType[]>> getLastRow(
+  @Override
+  public Optional<Pair<OptionalLong, TsPrimitiveType[]>> getLastRow(
       final @Nonnull String sourceMeasurement, final List<String> targetMeasurements) {
     final TimeValuePair pair = measurement2CachedLastMap.get(sourceMeasurement);
     if (Objects.isNull(pair) || pair == PLACEHOLDER_TIME_VALUE_PAIR) {
@@ -255,7 +255,18 @@ public class TableDeviceLastCache {
                 .toArray(TsPrimitiveType[]::new)));
   }
 
-  int estimateSize() {
+  @Override
+  public void forEachTimeValuePair(final BiConsumer<String, TimeValuePair> consumer) {
+    measurement2CachedLastMap.forEach(
+        (measurement, tvPair) -> {
+          if (tvPair != PLACEHOLDER_TIME_VALUE_PAIR) {
+            consumer.accept(measurement, tvPair);
+          }
+        });
+  }
+
+  @Override
+  public int estimateSize() {
     return INSTANCE_SIZE
         + (int) RamUsageEstimator.HASHTABLE_RAM_BYTES_PER_ENTRY * measurement2CachedLastMap.size()
         + measurement2CachedLastMap.values().stream()
@@ -32,6 +32,7 @@ import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.common.schematree.DeviceSchemaInfo;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.IDualKeyCache;
+import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.IDualKeyCacheVisitor;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.impl.DualKeyCacheBuilder;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.dualkeycache.impl.DualKeyCachePolicy;
 import org.apache.iotdb.db.queryengine.plan.relational.metadata.QualifiedObjectName;
@@ -535,6 +536,16 @@ public class TableDeviceSchemaCache {
 
   /////////////////////////////// Management  ///////////////////////////////
 
+  void forEachDevice(
+      final IDualKeyCacheVisitor<TableId, IDeviceID, TableDeviceCacheEntry> deviceVisitor) {
+    readWriteLock.readLock().lock();
+    try {
+      dualKeyCache.forEach(deviceVisitor);
+    } finally {
+      readWriteLock.readLock().unlock();
+    }
+  }
+
   long getHitCount() {
     return dualKeyCache.stats().hitCount();
   }
@@ -32,6 +32,9 @@ public class TableDeviceSchemaCacheMetrics implements IMetricSet {
 
   private static final String SCHEMA_CACHE_TOTAL_USAGE = "schema_cache_total_usage";
   private static final String SCHEMA_CACHE_MEM_CAPACITY = "schema_cache_mem_capacity";
+  private static final String LAST_CACHE_SNAPSHOT_LOAD_TIME = "last_cache_snapshot_load_time";
+  private static final String LAST_CACHE_SNAPSHOT_LOADED_DEVICES =
+      "last_cache_snapshot_loaded_devices";
 
   private final TableDeviceSchemaCache tableDeviceSchemaCache;
 
@@ -78,6 +81,20 @@ public class TableDeviceSchemaCacheMetrics implements IMetricSet {
         MetricLevel.IMPORTANT,
         tableDeviceSchemaCache,
         TableDeviceSchemaCache::entriesCount);
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        LastCacheSnapshotManager.getInstance(),
+        LastCacheSnapshotManager::getLastLoadTimeInMs,
+        Tag.NAME.toString(),
+        LAST_CACHE_SNAPSHOT_LOAD_TIME);
+    metricService.createAutoGauge(
+        Metric.CACHE.toString(),
+        MetricLevel.IMPORTANT,
+        LastCacheSnapshotManager.getInstance(),
+        LastCacheSnapshotManager::getLastLoadedDeviceNum,
+        Tag.NAME.toString(),
+        LAST_CACHE_SNAPSHOT_LOADED_DEVICES);
   }
 
   @Override
@@ -107,6 +124,16 @@ public class TableDeviceSchemaCacheMetrics implements IMetricSet {
         Tag.NAME.toString(),
         SCHEMA_CACHE_MEM_CAPACITY);
     metricService.remove(MetricType.AUTO_GAUGE, Metric.CACHE_ENTRIES_NUM.toString());
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.CACHE.toString(),
+        Tag.NAME.toString(),
+        LAST_CACHE_SNAPSHOT_LOAD_TIME);
+    metricService.remove(
+        MetricType.AUTO_GAUGE,
+        Metric.CACHE.toString(),
+        Tag.NAME.toString(),
+        LAST_CACHE_SNAPSHOT_LOADED_DEVICES);
   }
 
   @Override
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.queryengine.plan.relational.planner;
 
 import org.apache.iotdb.db.queryengine.plan.expression.UnknownExpressionTypeException;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.ir.GlobalTimePredicateExtractVisitor;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.ComparisonExpression;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Identifier;
@@ -47,7 +48,9 @@ public class PredicateUtils {
   /**
    * TODO consider more expression types
    *
-   * <p>Extract global time predicate from query predicate.
+   * <p>Extract global time predicate from query predicate. The terms of the AND expressions in
+   * predicate are rewritten in place, so a predicate which may be shared must be copied by {@link
+   * GlobalTimePredicateExtractVisitor#copyLogicalExpressions} first.
    *
    * @param predicate raw query predicate
    * @param canRewrite determined by the father of current expression
@@ -35,13 +35,17 @@ import org.apache.iotdb.db.queryengine.plan.planner.plan.DistributedQueryPlan;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.LogicalQueryPlan;
 import org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analysis;
 import org.apache.iotdb.db.queryengine.plan.relational.analyzer.Analyzer;
+import org.apache.iotdb.db.queryengine.plan.relational.analyzer.NodeRef;
+import org.apache.iotdb.db.queryengine.plan.relational.analyzer.PreparedStatementAnalysisCache;
 import org.apache.iotdb.db.queryengine.plan.relational.analyzer.StatementAnalyzerFactory;
 import org.apache.iotdb.db.queryengine.plan.relational.metadata.Metadata;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.distribute.TableDistributedPlanner;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.DataNodeLocationSupplierFactory;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.optimizations.PlanOptimizer;
 import org.apache.iotdb.db.queryengine.plan.relational.security.AccessControl;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.LoadTsFile;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Parameter;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.PipeEnriched;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Statement;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.WrappedInsertStatement;
@@ -55,16 +59,24 @@ import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertTabletStatement
 import org.apache.iotdb.rpc.RpcUtils;
 import org.apache.iotdb.rpc.TSStatusCode;
 
+import javax.annotation.Nullable;
+
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
 
+import static org.apache.iotdb.db.queryengine.metric.QueryPlanCostMetricSet.ANALYZER;
 import static org.apache.iotdb.db.queryengine.metric.QueryPlanCostMetricSet.DISTRIBUTION_PLANNER;
 
 public class TableModelPlanner implements IPlanner {
 
   private final Statement statement;
+  // values of the parameters in statement, only used by EXECUTE of prepared statement
+  private final List<Expression> parameters;
+  private final Map<NodeRef<Parameter>, Expression> parameterLookup;
+  // normalized sql of the prepared statement, null if its analysis can't be cached
+  @Nullable private final String preparedSql;
 
   private final SqlParser sqlParser;
   private final Metadata metadata;
@@ -89,6 +101,9 @@ public class TableModelPlanner implements IPlanner {
 
   public TableModelPlanner(
       final Statement statement,
+      final List<Expression> parameters,
+      final Map<NodeRef<Parameter>, Expression> parameterLookup,
+      @Nullable final String preparedSql,
       final SqlParser sqlParser,
       final Metadata metadata,
       final ScheduledExecutorService scheduledExecutor,
@@ -102,6 +117,9 @@ public class TableModelPlanner implements IPlanner {
       final AccessControl accessControl,
       final DataNodeLocationSupplierFactory.DataNodeLocationSupplier dataNodeLocationSupplier) {
     this.statement = statement;
+    this.parameters = parameters;
+    this.parameterLookup = parameterLookup;
+    this.preparedSql = preparedSql;
     this.sqlParser = sqlParser;
     this.metadata = metadata;
     this.scheduledExecutor = scheduledExecutor;
@@ -116,12 +134,37 @@ public class TableModelPlanner implements IPlanner {
 
   @Override
   public IAnalysis analyze(final MPPQueryContext context) {
+    final StatementAnalyzerFactory statementAnalyzerFactory =
+        new StatementAnalyzerFactory(metadata, sqlParser, accessControl);
+    if (preparedSql == null) {
+      return analyze(context, statementAnalyzerFactory);
+    }
+
+    final PreparedStatementAnalysisCache cache = PreparedStatementAnalysisCache.getInstance();
+    final PreparedStatementAnalysisCache.CacheKey key =
+        cache.createKey(preparedSql, context.getSession());
+    final long startTime = System.nanoTime();
+    final Analysis cachedAnalysis =
+        cache.get(key, parameters, context, metadata, statementAnalyzerFactory, accessControl);
+    if (cachedAnalysis != null) {
+      final long analyzeCost = System.nanoTime() - startTime;
+      QueryPlanCostMetricSet.getInstance().recordTreePlanCost(ANALYZER, analyzeCost);
+      context.setAnalyzeCost(analyzeCost);
+      return cachedAnalysis;
+    }
+    final Analysis analysis = analyze(context, statementAnalyzerFactory);
+    cache.put(key, analysis, parameters);
+    return analysis;
+  }
+
+  private Analysis analyze(
+      final MPPQueryContext context, final StatementAnalyzerFactory statementAnalyzerFactory) {
     return new Analyzer(
             context,
             context.getSession(),
-            new StatementAnalyzerFactory(metadata, sqlParser, accessControl),
-            Collections.emptyList(),
-            Collections.emptyMap(),
+            statementAnalyzerFactory,
+            parameters,
+            parameterLookup,
             statementRewrite,
             warningCollector)
         .analyze(statement);
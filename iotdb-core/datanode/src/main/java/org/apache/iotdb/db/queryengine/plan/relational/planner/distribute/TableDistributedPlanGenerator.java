@@ -28,6 +28,8 @@ import org.apache.iotdb.commons.partition.SchemaPartition;
 import org.apache.iotdb.commons.schema.table.TsTable;
 import org.apache.iotdb.commons.schema.table.column.TsTableColumnCategory;
 import org.apache.iotdb.commons.utils.TimePartitionUtils;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.sql.SemanticException;
 import org.apache.iotdb.db.queryengine.common.MPPQueryContext;
 import org.apache.iotdb.db.queryengine.common.QueryId;
@@ -519,6 +521,14 @@ public class TableDistributedPlanGenerator
 
     List<PlanNode> leftChildrenNodes = node.getLeftChild().accept(this, context);
     List<PlanNode> rightChildrenNodes = node.getRightChild().accept(this, context);
+    boolean isHashJoin = node.getJoinAlgorithm() == JoinNode.JoinAlgorithm.HASH;
+    if (isHashJoin) {
+      // HashJoin doesn't require any ordering of its children, merge them via CollectNode
+      node.setLeftChild(mergeChildrenViaCollectOrMergeSort(null, leftChildrenNodes));
+      node.setRightChild(mergeChildrenViaCollectOrMergeSort(null, rightChildrenNodes));
+      return Collections.singletonList(node);
+    }
+
     if (!node.isCrossJoin()) {
       // child of JoinNode(excluding CrossJoin) must be SortNode, so after rewritten, the child must
       // be MergeSortNode or
@@ -594,6 +604,11 @@ public class TableDistributedPlanGenerator
   public List<PlanNode> visitSemiJoin(SemiJoinNode node, PlanContext context) {
     List<PlanNode> leftChildrenNodes = node.getLeftChild().accept(this, context);
     List<PlanNode> rightChildrenNodes = node.getRightChild().accept(this, context);
+    if (node.getJoinAlgorithm() == JoinNode.JoinAlgorithm.HASH) {
+      node.setLeftChild(mergeChildrenViaCollectOrMergeSort(null, leftChildrenNodes));
+      node.setRightChild(mergeChildrenViaCollectOrMergeSort(null, rightChildrenNodes));
+      return Collections.singletonList(node);
+    }
     checkArgument(
         leftChildrenNodes.size() == 1,
         "The size of left children node of SemiJoinNode should be 1");
@@ -676,7 +691,7 @@ public class TableDistributedPlanGenerator
               });
       deviceTableScanNode.appendDeviceEntry(deviceEntry);
     }
-    List<PlanNode> result = new ArrayList<>(tableScanNodeMap.values());
+    List<PlanNode> result = splitByDeviceRange(new ArrayList<>(tableScanNodeMap.values()));
     if (context.hasSortProperty) {
       processSortProperty(node, result, context);
     }
@@ -757,7 +772,7 @@ public class TableDistributedPlanGenerator
       return Collections.singletonList(node);
     }
 
-    final List<PlanNode> resultTableScanNodeList = new ArrayList<>();
+    List<PlanNode> resultTableScanNodeList = new ArrayList<>();
     TRegionReplicaSet mostUsedDataRegion = null;
     int maxDeviceEntrySizeOfTableScan = 0;
     for (final Map.Entry<TRegionReplicaSet, DeviceTableScanNode> entry :
@@ -775,6 +790,7 @@ public class TableDistributedPlanGenerator
       throw new RootFIPlacementException(tableScanNodeMap.keySet());
     }
     context.mostUsedRegion = mostUsedDataRegion;
+    resultTableScanNodeList = splitByDeviceRange(resultTableScanNodeList);
 
     if (!context.hasSortProperty) {
       return resultTableScanNodeList;
@@ -908,6 +924,7 @@ public class TableDistributedPlanGenerator
       throw new RootFIPlacementException(tableScanNodeMap.keySet());
     }
     context.mostUsedRegion = mostUsedDataRegion;
+    resultTableScanNodeList = splitByDeviceRange(resultTableScanNodeList);
 
     if (!context.hasSortProperty) {
       return resultTableScanNodeList;
@@ -1115,6 +1132,7 @@ public class TableDistributedPlanGenerator
       throw new RootFIPlacementException(regionNodeMap.keySet());
     }
     context.mostUsedRegion = mostUsedDataRegion;
+    resultTableScanNodeList = splitByDeviceRange(resultTableScanNodeList);
 
     if (context.hasSortProperty) {
       processSortProperty(node, resultTableScanNodeList, context);
@@ -1353,6 +1371,48 @@ public class TableDistributedPlanGenerator
     return collectNode;
   }
 
+  /**
+   * Split each scan node into several ones with disjoint ranges of its devices, so that the devices
+   * of a DataRegion are scanned by parallel fragment instances. The split nodes are merged by the
+   * parent in the same way as the scan nodes of different DataRegions.
+   */
+  private List<PlanNode> splitByDeviceRange(final List<PlanNode> scanNodes) {
+    final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    if (!config.isEnableRegionDeviceParallelScan() || scanNodes.isEmpty()) {
+      return scanNodes;
+    }
+    // the query threads are shared by the scans of all the DataRegions
+    final int maxSplitNum = config.getDegreeOfParallelism() / scanNodes.size();
+    if (maxSplitNum <= 1) {
+      return scanNodes;
+    }
+
+    final List<PlanNode> result = new ArrayList<>();
+    for (final PlanNode planNode : scanNodes) {
+      final DeviceTableScanNode scanNode = (DeviceTableScanNode) planNode;
+      final List<DeviceEntry> deviceEntries = scanNode.getDeviceEntries();
+      final int splitNum =
+          Math.min(maxSplitNum, deviceEntries.size() / config.getRegionScanMinDeviceNumPerSplit());
+      // the pushed down limit and offset are applied to all the devices of the scan
+      if (splitNum <= 1 || scanNode.getPushDownLimit() > 0 || scanNode.getPushDownOffset() > 0) {
+        result.add(scanNode);
+        continue;
+      }
+      for (int i = 0; i < splitNum; i++) {
+        final DeviceTableScanNode subScanNode = scanNode.clone();
+        subScanNode.setPlanNodeId(queryId.genPlanNodeId());
+        subScanNode.setDeviceEntries(
+            new ArrayList<>(
+                deviceEntries.subList(
+                    deviceEntries.size() * i / splitNum,
+                    deviceEntries.size() * (i + 1) / splitNum)));
+        subScanNode.setRegionReplicaSet(scanNode.getRegionReplicaSet());
+        result.add(subScanNode);
+      }
+    }
+    return result;
+  }
+
   private void processSortProperty(
       final DeviceTableScanNode deviceTableScanNode,
       final List<PlanNode> resultTableScanNodeList,
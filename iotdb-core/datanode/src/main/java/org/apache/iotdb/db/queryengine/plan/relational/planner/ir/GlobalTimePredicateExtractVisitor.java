@@ -57,7 +57,9 @@ public class GlobalTimePredicateExtractVisitor
       "visit() not implemented for %s in GlobalTimePredicateExtract.";
 
   /**
-   * Extract global time predicate from query predicate.
+   * Extract global time predicate from query predicate. The terms of the {@link LogicalExpression}s
+   * in predicate are rewritten in place, so the predicate must be copied by {@link
+   * #copyLogicalExpressions} if it may be shared.
    *
    * @param predicate raw query predicate
    * @return Pair, left is globalTimePredicate, right is if hasValueFilter.
@@ -70,6 +72,27 @@ public class GlobalTimePredicateExtractVisitor
             predicate, new GlobalTimePredicateExtractVisitor.Context(true, true, timeColumnName));
   }
 
+  /**
+   * Copy the {@link LogicalExpression}s which may be rewritten by {@link #extractGlobalTimeFilter},
+   * the other expressions are not changed by it and are shared with the copy.
+   */
+  public static Expression copyLogicalExpressions(Expression predicate) {
+    if (predicate instanceof NotExpression) {
+      return new NotExpression(copyLogicalExpressions(((NotExpression) predicate).getValue()));
+    }
+    if (!(predicate instanceof LogicalExpression)) {
+      return predicate;
+    }
+    LogicalExpression logicalExpression = (LogicalExpression) predicate;
+    List<Expression> terms = new ArrayList<>(logicalExpression.getTerms().size());
+    for (Expression term : logicalExpression.getTerms()) {
+      terms.add(copyLogicalExpressions(term));
+    }
+    return terms.size() == 1
+        ? terms.get(0)
+        : new LogicalExpression(logicalExpression.getOperator(), terms);
+  }
+
   protected Pair<Expression, Boolean> visitExpression(
       Pair<Expression, Boolean> node, Context context) {
     throw new IllegalStateException(String.format(NOT_SUPPORTED, node.getClass()));
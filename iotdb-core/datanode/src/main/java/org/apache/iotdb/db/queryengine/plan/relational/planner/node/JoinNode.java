@@ -58,6 +58,7 @@ public class JoinNode extends TwoChildProcessNode {
   // some filter like 'a.xx_column < b.yy_column'
   private final Optional<Expression> filter;
   private final Optional<Boolean> spillable;
+  private final JoinAlgorithm joinAlgorithm;
 
   // private final boolean maySkipOutputDuplicates;
   // private final Optional<Symbol> leftHashSymbol;
@@ -76,6 +77,32 @@ public class JoinNode extends TwoChildProcessNode {
       List<Symbol> rightOutputSymbols,
       Optional<Expression> filter,
       Optional<Boolean> spillable) {
+    this(
+        id,
+        joinType,
+        leftChild,
+        rightChild,
+        criteria,
+        asofCriteria,
+        leftOutputSymbols,
+        rightOutputSymbols,
+        filter,
+        spillable,
+        JoinAlgorithm.MERGE_SORT);
+  }
+
+  public JoinNode(
+      PlanNodeId id,
+      JoinType joinType,
+      PlanNode leftChild,
+      PlanNode rightChild,
+      List<EquiJoinClause> criteria,
+      Optional<AsofJoinClause> asofCriteria,
+      List<Symbol> leftOutputSymbols,
+      List<Symbol> rightOutputSymbols,
+      Optional<Expression> filter,
+      Optional<Boolean> spillable,
+      JoinAlgorithm joinAlgorithm) {
     super(id);
     requireNonNull(joinType, "type is null");
     requireNonNull(leftChild, "left is null");
@@ -94,6 +121,7 @@ public class JoinNode extends TwoChildProcessNode {
     // requireNonNull(leftHashSymbol, "leftHashSymbol is null");
     // requireNonNull(rightHashSymbol, "rightHashSymbol is null");
     requireNonNull(spillable, "spillable is null");
+    requireNonNull(joinAlgorithm, "joinAlgorithm is null");
 
     this.joinType = joinType;
     this.leftChild = leftChild;
@@ -104,6 +132,7 @@ public class JoinNode extends TwoChildProcessNode {
     this.rightOutputSymbols = ImmutableList.copyOf(rightOutputSymbols);
     this.filter = filter;
     this.spillable = spillable;
+    this.joinAlgorithm = joinAlgorithm;
     // this.maySkipOutputDuplicates = maySkipOutputDuplicates;
     // this.leftHashSymbol = leftHashSymbol;
     // this.rightHashSymbol = rightHashSymbol;
@@ -141,7 +170,8 @@ public class JoinNode extends TwoChildProcessNode {
       List<EquiJoinClause> criteria,
       Optional<AsofJoinClause> asofCriteria,
       List<Symbol> leftOutputSymbols,
-      List<Symbol> rightOutputSymbols) {
+      List<Symbol> rightOutputSymbols,
+      JoinAlgorithm joinAlgorithm) {
     super(id);
     requireNonNull(joinType, "type is null");
     requireNonNull(criteria, "criteria is null");
@@ -150,6 +180,7 @@ public class JoinNode extends TwoChildProcessNode {
     this.rightOutputSymbols = rightOutputSymbols;
     this.filter = Optional.empty();
     this.spillable = Optional.empty();
+    this.joinAlgorithm = joinAlgorithm;
 
     this.joinType = joinType;
     this.criteria = criteria;
@@ -170,7 +201,8 @@ public class JoinNode extends TwoChildProcessNode {
         rightOutputSymbols,
         leftOutputSymbols,
         filter,
-        spillable);
+        spillable,
+        joinAlgorithm);
   }
 
   @Override
@@ -191,7 +223,8 @@ public class JoinNode extends TwoChildProcessNode {
         leftOutputSymbols,
         rightOutputSymbols,
         filter,
-        spillable);
+        spillable,
+        joinAlgorithm);
   }
 
   @Override
@@ -215,7 +248,8 @@ public class JoinNode extends TwoChildProcessNode {
             leftOutputSymbols,
             rightOutputSymbols,
             filter,
-            spillable);
+            spillable,
+            joinAlgorithm);
     joinNode.setLeftChild(null);
     joinNode.setRightChild(null);
     return joinNode;
@@ -256,6 +290,7 @@ public class JoinNode extends TwoChildProcessNode {
     for (Symbol rightOutputSymbol : rightOutputSymbols) {
       Symbol.serialize(rightOutputSymbol, byteBuffer);
     }
+    ReadWriteIOUtils.write((byte) joinAlgorithm.ordinal(), byteBuffer);
   }
 
   @Override
@@ -288,6 +323,7 @@ public class JoinNode extends TwoChildProcessNode {
     for (Symbol rightOutputSymbol : rightOutputSymbols) {
       Symbol.serialize(rightOutputSymbol, stream);
     }
+    ReadWriteIOUtils.write((byte) joinAlgorithm.ordinal(), stream);
   }
 
   public static JoinNode deserialize(ByteBuffer byteBuffer) {
@@ -321,9 +357,17 @@ public class JoinNode extends TwoChildProcessNode {
       rightOutputSymbols.add(Symbol.deserialize(byteBuffer));
     }
 
+    JoinAlgorithm joinAlgorithm = JoinAlgorithm.values()[ReadWriteIOUtils.readByte(byteBuffer)];
+
     PlanNodeId planNodeId = PlanNodeId.deserialize(byteBuffer);
     return new JoinNode(
-        planNodeId, joinType, criteria, asofJoinClause, leftOutputSymbols, rightOutputSymbols);
+        planNodeId,
+        joinType,
+        criteria,
+        asofJoinClause,
+        leftOutputSymbols,
+        rightOutputSymbols,
+        joinAlgorithm);
   }
 
   public JoinType getJoinType() {
@@ -354,6 +398,10 @@ public class JoinNode extends TwoChildProcessNode {
     return spillable;
   }
 
+  public JoinAlgorithm getJoinAlgorithm() {
+    return joinAlgorithm;
+  }
+
   public boolean isCrossJoin() {
     return !asofCriteria.isPresent()
         && criteria.isEmpty()
@@ -528,4 +576,12 @@ public class JoinNode extends TwoChildProcessNode {
       throw new IllegalArgumentException("Unsupported join type: " + this);
     }
   }
+
+  /** Physical algorithm used to execute the equi-join. */
+  public enum JoinAlgorithm {
+    // both children are sorted by join keys and merged
+    MERGE_SORT,
+    // right child is built into a hash table and probed by the left child
+    HASH
+  }
 }
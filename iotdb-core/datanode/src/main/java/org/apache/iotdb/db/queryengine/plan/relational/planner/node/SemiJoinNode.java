@@ -27,6 +27,7 @@ import org.apache.iotdb.db.queryengine.plan.planner.plan.node.process.TwoChildPr
 import org.apache.iotdb.db.queryengine.plan.relational.planner.Symbol;
 
 import com.google.common.collect.ImmutableList;
+import org.apache.tsfile.utils.ReadWriteIOUtils;
 
 import java.io.DataOutputStream;
 import java.io.IOException;
@@ -41,6 +42,7 @@ public class SemiJoinNode extends TwoChildProcessNode {
   private final Symbol sourceJoinSymbol;
   private final Symbol filteringSourceJoinSymbol;
   private final Symbol semiJoinOutput;
+  private final JoinNode.JoinAlgorithm joinAlgorithm;
 
   public SemiJoinNode(
       PlanNodeId id,
@@ -49,11 +51,30 @@ public class SemiJoinNode extends TwoChildProcessNode {
       Symbol sourceJoinSymbol,
       Symbol filteringSourceJoinSymbol,
       Symbol semiJoinOutput) {
+    this(
+        id,
+        source,
+        filteringSource,
+        sourceJoinSymbol,
+        filteringSourceJoinSymbol,
+        semiJoinOutput,
+        JoinNode.JoinAlgorithm.MERGE_SORT);
+  }
+
+  public SemiJoinNode(
+      PlanNodeId id,
+      PlanNode source,
+      PlanNode filteringSource,
+      Symbol sourceJoinSymbol,
+      Symbol filteringSourceJoinSymbol,
+      Symbol semiJoinOutput,
+      JoinNode.JoinAlgorithm joinAlgorithm) {
     super(id, source, filteringSource);
     this.sourceJoinSymbol = requireNonNull(sourceJoinSymbol, "sourceJoinSymbol is null");
     this.filteringSourceJoinSymbol =
         requireNonNull(filteringSourceJoinSymbol, "filteringSourceJoinSymbol is null");
     this.semiJoinOutput = requireNonNull(semiJoinOutput, "semiJoinOutput is null");
+    this.joinAlgorithm = requireNonNull(joinAlgorithm, "joinAlgorithm is null");
 
     if (source != null) {
       checkArgument(
@@ -88,6 +109,10 @@ public class SemiJoinNode extends TwoChildProcessNode {
     return semiJoinOutput;
   }
 
+  public JoinNode.JoinAlgorithm getJoinAlgorithm() {
+    return joinAlgorithm;
+  }
+
   @Override
   public List<Symbol> getOutputSymbols() {
     return ImmutableList.<Symbol>builder()
@@ -110,14 +135,21 @@ public class SemiJoinNode extends TwoChildProcessNode {
         newChildren.get(1),
         sourceJoinSymbol,
         filteringSourceJoinSymbol,
-        semiJoinOutput);
+        semiJoinOutput,
+        joinAlgorithm);
   }
 
   @Override
   public PlanNode clone() {
     // clone without children
     return new SemiJoinNode(
-        getPlanNodeId(), null, null, sourceJoinSymbol, filteringSourceJoinSymbol, semiJoinOutput);
+        getPlanNodeId(),
+        null,
+        null,
+        sourceJoinSymbol,
+        filteringSourceJoinSymbol,
+        semiJoinOutput,
+        joinAlgorithm);
   }
 
   @Override
@@ -143,13 +175,18 @@ public class SemiJoinNode extends TwoChildProcessNode {
 
     return Objects.equals(this.sourceJoinSymbol, other.sourceJoinSymbol)
         && Objects.equals(this.filteringSourceJoinSymbol, other.filteringSourceJoinSymbol)
-        && Objects.equals(this.semiJoinOutput, other.semiJoinOutput);
+        && Objects.equals(this.semiJoinOutput, other.semiJoinOutput)
+        && this.joinAlgorithm == other.joinAlgorithm;
   }
 
   @Override
   public int hashCode() {
     return Objects.hash(
-        super.hashCode(), sourceJoinSymbol, filteringSourceJoinSymbol, semiJoinOutput);
+        super.hashCode(),
+        sourceJoinSymbol,
+        filteringSourceJoinSymbol,
+        semiJoinOutput,
+        joinAlgorithm);
   }
 
   @Override
@@ -159,6 +196,7 @@ public class SemiJoinNode extends TwoChildProcessNode {
     Symbol.serialize(sourceJoinSymbol, byteBuffer);
     Symbol.serialize(filteringSourceJoinSymbol, byteBuffer);
     Symbol.serialize(semiJoinOutput, byteBuffer);
+    ReadWriteIOUtils.write((byte) joinAlgorithm.ordinal(), byteBuffer);
   }
 
   @Override
@@ -168,14 +206,23 @@ public class SemiJoinNode extends TwoChildProcessNode {
     Symbol.serialize(sourceJoinSymbol, stream);
     Symbol.serialize(filteringSourceJoinSymbol, stream);
     Symbol.serialize(semiJoinOutput, stream);
+    ReadWriteIOUtils.write((byte) joinAlgorithm.ordinal(), stream);
   }
 
   public static SemiJoinNode deserialize(ByteBuffer byteBuffer) {
     Symbol sourceJoinSymbol = Symbol.deserialize(byteBuffer);
     Symbol filteringSourceJoinSymbol = Symbol.deserialize(byteBuffer);
     Symbol semiJoinOutput = Symbol.deserialize(byteBuffer);
+    JoinNode.JoinAlgorithm joinAlgorithm =
+        JoinNode.JoinAlgorithm.values()[ReadWriteIOUtils.readByte(byteBuffer)];
     PlanNodeId planNodeId = PlanNodeId.deserialize(byteBuffer);
     return new SemiJoinNode(
-        planNodeId, null, null, sourceJoinSymbol, filteringSourceJoinSymbol, semiJoinOutput);
+        planNodeId,
+        null,
+        null,
+        sourceJoinSymbol,
+        filteringSourceJoinSymbol,
+        semiJoinOutput,
+        joinAlgorithm);
   }
 }
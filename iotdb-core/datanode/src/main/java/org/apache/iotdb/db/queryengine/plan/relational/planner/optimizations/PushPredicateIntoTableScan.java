@@ -110,6 +110,7 @@ import static org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder.
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.SortOrder.DESC_NULLS_LAST;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.SymbolsExtractor.extractUnique;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.DeterminismEvaluator.isDeterministic;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.GlobalTimePredicateExtractVisitor.copyLogicalExpressions;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.GlobalTimePredicateExtractVisitor.extractGlobalTimeFilter;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.IrUtils.combineConjuncts;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.IrUtils.extractConjuncts;
@@ -459,10 +460,13 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
       // exist expressions can push down to scan operator
       if (!splitExpression.getExpressionsCanPushDown().isEmpty()) {
         List<Expression> expressions = splitExpression.getExpressionsCanPushDown();
+        // the extraction rewrites the logical expressions in place, and they may be shared with
+        // the analysis cached for prepared statements, so rewrite a copy of them
         Expression pushDownPredicate =
-            expressions.size() == 1
-                ? expressions.get(0)
-                : new LogicalExpression(LogicalExpression.Operator.AND, expressions);
+            copyLogicalExpressions(
+                expressions.size() == 1
+                    ? expressions.get(0)
+                    : new LogicalExpression(LogicalExpression.Operator.AND, expressions));
 
         // extract global time filter and set it to DeviceTableScanNode
         Pair<Expression, Boolean> resultPair =
@@ -844,7 +848,23 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
       }
 
       JoinNode outputJoinNode = (JoinNode) output;
-      if (!((JoinNode) output).isCrossJoin()) {
+      if (canUseHashJoin(outputJoinNode)) {
+        // equi inner join or left join, build right child into hash table, no need to sort
+        outputJoinNode =
+            new JoinNode(
+                outputJoinNode.getPlanNodeId(),
+                outputJoinNode.getJoinType(),
+                outputJoinNode.getLeftChild(),
+                outputJoinNode.getRightChild(),
+                outputJoinNode.getCriteria(),
+                outputJoinNode.getAsofCriteria(),
+                outputJoinNode.getLeftOutputSymbols(),
+                outputJoinNode.getRightOutputSymbols(),
+                outputJoinNode.getFilter(),
+                outputJoinNode.isSpillable(),
+                JoinNode.JoinAlgorithm.HASH);
+        output = outputJoinNode;
+      } else if (!outputJoinNode.isCrossJoin()) {
         // inner join or full join, use MergeSortJoinNode
         appendSortNodeForMergeSortJoin(outputJoinNode);
       }
@@ -898,6 +918,15 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
       return symbolAllocator.newSymbol(expression, analysis.getType(expression));
     }
 
+    private boolean canUseHashJoin(JoinNode joinNode) {
+      return CONFIG.isEnableHashJoin()
+          && (joinNode.getJoinType() == JoinNode.JoinType.INNER
+              || joinNode.getJoinType() == JoinNode.JoinType.LEFT)
+          && !joinNode.getCriteria().isEmpty()
+          && !joinNode.getAsofCriteria().isPresent()
+          && !joinNode.getFilter().isPresent();
+    }
+
     private void appendSortNodeForMergeSortJoin(JoinNode joinNode) {
       int size = joinNode.getCriteria().size();
       JoinNode.AsofJoinClause asofJoinClause = joinNode.getAsofCriteria().orElse(null);
@@ -994,6 +1023,17 @@ public class PushPredicateIntoTableScan implements PlanOptimizer {
 
     private SemiJoinNode appendSortNodeForSemiJoin(
         SemiJoinNode node, PlanNode rewrittenSource, PlanNode rewrittenFilteringSource) {
+      if (CONFIG.isEnableHashJoin()) {
+        // filtering source is built into hash table, no need to sort both children
+        return new SemiJoinNode(
+            node.getPlanNodeId(),
+            rewrittenSource,
+            rewrittenFilteringSource,
+            node.getSourceJoinSymbol(),
+            node.getFilteringSourceJoinSymbol(),
+            node.getSemiJoinOutput(),
+            JoinNode.JoinAlgorithm.HASH);
+      }
       OrderingScheme sourceOrderingScheme =
           new OrderingScheme(
               ImmutableList.of(node.getSourceJoinSymbol()),
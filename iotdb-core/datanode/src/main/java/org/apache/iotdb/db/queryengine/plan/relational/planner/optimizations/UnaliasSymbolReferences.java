@@ -797,7 +797,8 @@ public class UnaliasSymbolReferences implements PlanOptimizer {
               newLeftOutputSymbols,
               newRightOutputSymbols,
               newFilter,
-              node.isSpillable()),
+              node.isSpillable(),
+              node.getJoinAlgorithm()),
           outputMapping);
     }
 
@@ -825,7 +826,8 @@ public class UnaliasSymbolReferences implements PlanOptimizer {
               rewrittenFilteringSource.getRoot(),
               newSourceJoinSymbol,
               newFilteringSourceJoinSymbol,
-              newSemiJoinOutput),
+              newSemiJoinOutput,
+              node.getJoinAlgorithm()),
           outputMapping);
     }
 
@@ -729,6 +729,18 @@ public abstract class AstVisitor<R, C> {
     return visitStatement(node, context);
   }
 
+  protected R visitPrepare(Prepare node, C context) {
+    return visitStatement(node, context);
+  }
+
+  protected R visitExecute(Execute node, C context) {
+    return visitStatement(node, context);
+  }
+
+  protected R visitDeallocate(Deallocate node, C context) {
+    return visitStatement(node, context);
+  }
+
   protected R visitCreateTraining(CreateTraining node, C context) {
     return visitStatement(node, context);
   }
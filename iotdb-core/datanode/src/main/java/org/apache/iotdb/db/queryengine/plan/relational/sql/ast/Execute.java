@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.sql.ast;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nonnull;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+public final class Execute extends Statement {
+
+  private final Identifier name;
+  private final List<Expression> parameters;
+
+  public Execute(
+      @Nonnull NodeLocation location,
+      @Nonnull Identifier name,
+      @Nonnull List<Expression> parameters) {
+    super(requireNonNull(location, "location is null"));
+    this.name = requireNonNull(name, "name is null");
+    this.parameters = ImmutableList.copyOf(requireNonNull(parameters, "parameters is null"));
+  }
+
+  public Identifier getName() {
+    return name;
+  }
+
+  public List<Expression> getParameters() {
+    return parameters;
+  }
+
+  @Override
+  public <R, C> R accept(AstVisitor<R, C> visitor, C context) {
+    return visitor.visitExecute(this, context);
+  }
+
+  @Override
+  public List<Node> getChildren() {
+    return ImmutableList.copyOf(parameters);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    Execute execute = (Execute) o;
+    return Objects.equals(name, execute.name) && Objects.equals(parameters, execute.parameters);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, parameters);
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this).add("name", name).add("parameters", parameters).toString();
+  }
+}
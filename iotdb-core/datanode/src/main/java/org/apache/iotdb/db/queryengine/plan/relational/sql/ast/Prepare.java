@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.sql.ast;
+
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nonnull;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+public final class Prepare extends Statement {
+
+  private final Identifier name;
+  private final Statement statement;
+  // original sql of the prepared statement, used to parse it again if it can't be reused
+  private final String sql;
+  // whether the parsed statement depends on the time it is parsed, e.g. now()
+  private final boolean currentTimeDependent;
+
+  public Prepare(
+      @Nonnull NodeLocation location,
+      @Nonnull Identifier name,
+      @Nonnull Statement statement,
+      @Nonnull String sql,
+      boolean currentTimeDependent) {
+    super(requireNonNull(location, "location is null"));
+    this.name = requireNonNull(name, "name is null");
+    this.statement = requireNonNull(statement, "statement is null");
+    this.sql = requireNonNull(sql, "sql is null");
+    this.currentTimeDependent = currentTimeDependent;
+  }
+
+  public Identifier getName() {
+    return name;
+  }
+
+  public Statement getStatement() {
+    return statement;
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  public boolean isCurrentTimeDependent() {
+    return currentTimeDependent;
+  }
+
+  @Override
+  public <R, C> R accept(AstVisitor<R, C> visitor, C context) {
+    return visitor.visitPrepare(this, context);
+  }
+
+  @Override
+  public List<Node> getChildren() {
+    return ImmutableList.of(statement);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    Prepare prepare = (Prepare) o;
+    return Objects.equals(name, prepare.name) && Objects.equals(statement, prepare.statement);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, statement);
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this).add("name", name).add("statement", statement).toString();
+  }
+}
@@ -70,6 +70,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.CurrentTime;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.CurrentUser;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DataType;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DataTypeParameter;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Deallocate;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Delete;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DeleteDevice;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DereferenceExpression;
@@ -88,6 +89,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.DropTopic;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.EmptyPattern;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Except;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.ExcludedPattern;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Execute;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.ExistsPredicate;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Explain;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.ExplainAnalyze;
@@ -142,6 +144,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.PatternQuantifier
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.PatternRecognitionRelation;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.PatternRecognitionRelation.RowsPerMatch;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.PatternVariable;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Prepare;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.ProcessingMode;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Property;
 import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.QualifiedName;
@@ -255,6 +258,7 @@ import org.apache.iotdb.db.utils.TimestampPrecisionUtils;
 import com.google.common.collect.ImmutableList;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.misc.Interval;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.TerminalNode;
 import org.apache.tsfile.enums.TSDataType;
@@ -318,6 +322,7 @@ import static org.apache.iotdb.db.queryengine.plan.relational.sql.ast.SkipTo.ski
 import static org.apache.iotdb.db.utils.TimestampPrecisionUtils.currPrecision;
 import static org.apache.iotdb.db.utils.constant.SqlConstant.APPROX_COUNT_DISTINCT;
 import static org.apache.iotdb.db.utils.constant.SqlConstant.APPROX_MOST_FREQUENT;
+import static org.apache.iotdb.db.utils.constant.SqlConstant.APPROX_PERCENTILE;
 import static org.apache.iotdb.db.utils.constant.SqlConstant.FIRST_AGGREGATION;
 import static org.apache.iotdb.db.utils.constant.SqlConstant.FIRST_BY_AGGREGATION;
 import static org.apache.iotdb.db.utils.constant.SqlConstant.LAST_AGGREGATION;
@@ -1553,6 +1558,51 @@ public class AstBuilder extends RelationalSqlBaseVisitor<Node> {
     return new ShowCurrentTimestamp(getLocation(ctx));
   }
 
+  @Override
+  public Node visitPrepareStatement(RelationalSqlParser.PrepareStatementContext ctx) {
+    Statement statement = (Statement) visit(ctx.sql);
+    if (!(statement instanceof Query)) {
+      throw new SemanticException("Only query can be prepared");
+    }
+    String sql =
+        ctx.sql
+            .start
+            .getInputStream()
+            .getText(Interval.of(ctx.sql.start.getStartIndex(), ctx.sql.stop.getStopIndex()));
+    return new Prepare(
+        getLocation(ctx),
+        lowerIdentifier((Identifier) visit(ctx.statementName)),
+        statement,
+        sql,
+        containsToken(ctx.sql, RelationalSqlLexer.NOW));
+  }
+
+  @Override
+  public Node visitExecuteStatement(RelationalSqlParser.ExecuteStatementContext ctx) {
+    return new Execute(
+        getLocation(ctx),
+        lowerIdentifier((Identifier) visit(ctx.statementName)),
+        visit(ctx.expression(), Expression.class));
+  }
+
+  @Override
+  public Node visitDeallocateStatement(RelationalSqlParser.DeallocateStatementContext ctx) {
+    return new Deallocate(getLocation(ctx), lowerIdentifier((Identifier) visit(ctx.statementName)));
+  }
+
+  // now() in time values is evaluated while parsing, so statement containing it can't be reused
+  private static boolean containsToken(ParseTree tree, int tokenType) {
+    if (tree instanceof TerminalNode) {
+      return ((TerminalNode) tree).getSymbol().getType() == tokenType;
+    }
+    for (int i = 0; i < tree.getChildCount(); i++) {
+      if (containsToken(tree.getChild(i), tokenType)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public Node visitShowQueriesStatement(RelationalSqlParser.ShowQueriesStatementContext ctx) {
     Optional<OrderBy> orderBy = Optional.empty();
@@ -3297,6 +3347,13 @@ public class AstBuilder extends RelationalSqlBaseVisitor<Node> {
         throw new SemanticException(
             "The second and third argument of 'approx_most_frequent' function must be positive integer literal");
       }
+    } else if (name.toString().equalsIgnoreCase(APPROX_PERCENTILE)) {
+      if (arguments.size() == 2
+          && !(arguments.get(1) instanceof DoubleLiteral
+              || arguments.get(1) instanceof LongLiteral)) {
+        throw new SemanticException(
+            "The second argument of 'approx_percentile' function must be a numeric literal");
+      }
     }
 
     return new FunctionCall(getLocation(ctx), name, window, nulls, distinct, mode, arguments);
@@ -34,11 +34,14 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.FileChannel;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -59,6 +62,16 @@ public class TagLogFile implements AutoCloseable {
       IoTDBDescriptor.getInstance().getConfig().getTagAttributeFlushInterval();
   private int unFlushedRecordNum = 0;
 
+  private static final boolean ENABLE_MMAP_READ =
+      IoTDBDescriptor.getInstance().getConfig().isEnableTagAttributeMmapRead();
+
+  // the file is mapped in segments consisting of whole blocks, and only the segments which are
+  // totally inside the file are mapped, so that a mapped page beyond the file end is never read.
+  private static final long SEGMENT_SIZE = (long) MAX_LENGTH * 4096;
+
+  // the mapped segments are only appended while the file is open, and dropped when it's closed
+  private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
   public TagLogFile(String schemaDir, String logFileName) throws IOException {
 
     File metadataDir = SystemFileFactory.INSTANCE.getFile(schemaDir);
@@ -102,20 +115,47 @@ public class TagLogFile implements AutoCloseable {
     if (position < 0) {
       return new Pair<>(Collections.emptyMap(), Collections.emptyMap());
     }
-    ByteBuffer byteBuffer = parseByteBuffer(fileChannel, position);
+    ByteBuffer byteBuffer = parseByteBuffer(this::readBlock, position);
     return new Pair<>(ReadWriteIOUtils.readMap(byteBuffer), ReadWriteIOUtils.readMap(byteBuffer));
   }
 
+  /**
+   * Read tags and attributes of multiple records from tag file. The records are read in the order
+   * of their positions, so that the file is scanned sequentially.
+   *
+   * @return tags map and attributes map of each position, in the same order as the positions
+   * @throws IOException error occurred when reading disk
+   */
+  public List<Pair<Map<String, String>, Map<String, String>>> read(long[] positions)
+      throws IOException {
+    Integer[] order = new Integer[positions.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparingLong(i -> positions[i]));
+    List<Pair<Map<String, String>, Map<String, String>>> result =
+        new ArrayList<>(Collections.nCopies(positions.length, null));
+    for (int i : order) {
+      result.set(i, read(positions[i]));
+    }
+    return result;
+  }
+
   public Map<String, String> readTag(long position) throws IOException {
-    ByteBuffer byteBuffer = parseByteBuffer(fileChannel, position);
+    ByteBuffer byteBuffer = parseByteBuffer(this::readBlock, position);
     return ReadWriteIOUtils.readMap(byteBuffer);
   }
 
   public static ByteBuffer parseByteBuffer(FileChannel fileChannel, long position)
       throws IOException {
+    return parseByteBuffer(fileChannel::read, position);
+  }
+
+  private static ByteBuffer parseByteBuffer(BlockReader blockReader, long position)
+      throws IOException {
     // Read the first block
     ByteBuffer byteBuffer = ByteBuffer.allocate(MAX_LENGTH);
-    fileChannel.read(byteBuffer, position);
+    blockReader.read(byteBuffer, position);
     byteBuffer.flip();
     if (byteBuffer.limit() > 0) { // This indicates that there is data at this position
       int firstInt = ReadWriteIOUtils.readInt(byteBuffer); // first int
@@ -130,7 +170,7 @@ public class TagLogFile implements AutoCloseable {
           // read one offset, then use filechannel's read to read it
           byteBuffers.position(MAX_LENGTH * i);
           byteBuffers.limit(MAX_LENGTH * (i + 1));
-          fileChannel.read(byteBuffers, nextPosition);
+          blockReader.read(byteBuffers, nextPosition);
           byteBuffers.position(4 + i * Long.BYTES);
         }
         byteBuffers.limit(byteBuffers.capacity());
@@ -140,6 +180,53 @@ public class TagLogFile implements AutoCloseable {
     return byteBuffer;
   }
 
+  /**
+   * Read the bytes at the position into the buffer from the mapped segment if it is totally inside
+   * the file, otherwise from the file channel.
+   */
+  private int readBlock(ByteBuffer byteBuffer, long position) throws IOException {
+    int segmentIndex = (int) (position / SEGMENT_SIZE);
+    long offsetInSegment = position % SEGMENT_SIZE;
+    if (!ENABLE_MMAP_READ || offsetInSegment + byteBuffer.remaining() > SEGMENT_SIZE) {
+      return fileChannel.read(byteBuffer, position);
+    }
+    MappedByteBuffer segment = getSegment(segmentIndex);
+    if (segment == null) {
+      return fileChannel.read(byteBuffer, position);
+    }
+    int length = byteBuffer.remaining();
+    ByteBuffer source = segment.duplicate();
+    source.position((int) offsetInSegment);
+    source.limit((int) offsetInSegment + length);
+    byteBuffer.put(source);
+    return length;
+  }
+
+  private MappedByteBuffer getSegment(int segmentIndex) throws IOException {
+    MappedByteBuffer[] currentSegments = segments;
+    if (segmentIndex < currentSegments.length) {
+      return currentSegments[segmentIndex];
+    }
+    synchronized (this) {
+      currentSegments = segments;
+      if (segmentIndex < currentSegments.length) {
+        return currentSegments[segmentIndex];
+      }
+      long mappableSegmentNum = fileChannel.size() / SEGMENT_SIZE;
+      if (segmentIndex >= mappableSegmentNum) {
+        // the segment is not totally written
+        return null;
+      }
+      MappedByteBuffer[] newSegments = Arrays.copyOf(currentSegments, (int) mappableSegmentNum);
+      for (int i = currentSegments.length; i < newSegments.length; i++) {
+        newSegments[i] =
+            fileChannel.map(FileChannel.MapMode.READ_ONLY, i * SEGMENT_SIZE, SEGMENT_SIZE);
+      }
+      segments = newSegments;
+      return newSegments[segmentIndex];
+    }
+  }
+
   private List<Long> parseOffsetList(long position) throws IOException {
     List<Long> blockOffset = new ArrayList<>();
     blockOffset.add(position);
@@ -358,8 +445,17 @@ public class TagLogFile implements AutoCloseable {
     }
   }
 
+  @FunctionalInterface
+  private interface BlockReader {
+    int read(ByteBuffer byteBuffer, long position) throws IOException;
+  }
+
   @Override
   public void close() throws IOException {
+    synchronized (this) {
+      // the segments are unmapped by GC, since a concurrent reader may still be copying from them
+      segments = new MappedByteBuffer[0];
+    }
     if (Objects.nonNull(fileChannel) && fileChannel.isOpen()) {
       fileChannel.force(true);
       fileChannel.close();
@@ -28,6 +28,8 @@ import org.apache.iotdb.commons.schema.SchemaConstant;
 import org.apache.iotdb.commons.schema.filter.SchemaFilter;
 import org.apache.iotdb.commons.schema.filter.SchemaFilterType;
 import org.apache.iotdb.commons.schema.filter.impl.TagFilter;
+import org.apache.iotdb.commons.schema.filter.impl.multichildren.AndFilter;
+import org.apache.iotdb.commons.schema.filter.impl.multichildren.OrFilter;
 import org.apache.iotdb.commons.schema.node.IMNode;
 import org.apache.iotdb.commons.schema.node.role.IMeasurementMNode;
 import org.apache.iotdb.commons.schema.tree.SchemaIterator;
@@ -47,11 +49,13 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -59,8 +63,6 @@ import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
-import static java.util.stream.Collectors.toList;
-
 public class TagManager {
 
   private static final String TAG_FORMAT = "tag key is %s, tag value is %s, tlog offset is %d";
@@ -73,10 +75,11 @@ public class TagManager {
   private static final Logger logger = LoggerFactory.getLogger(TagManager.class);
   private static final CommonConfig COMMON_CONFIG = CommonDescriptor.getInstance().getConfig();
 
+  private static final int READ_BATCH_SIZE = 256;
+
   private TagLogFile tagLogFile;
-  // tag key -> tag value -> LeafMNode
-  private final Map<String, Map<String, Set<IMeasurementMNode<?>>>> tagIndex =
-      new ConcurrentHashMap<>();
+  // tag key -> tag value -> LeafMNode, kept in memory only and rebuilt by recoverIndex on restart
+  private final Map<String, Map<String, TagPostingList>> tagIndex = new ConcurrentHashMap<>();
 
   private final MemSchemaRegionStatistics regionStatistics;
 
@@ -165,29 +168,24 @@ public class TagManager {
     }
 
     int tagIndexOldSize = tagIndex.size();
-    Map<String, Set<IMeasurementMNode<?>>> tagValueMap =
+    Map<String, TagPostingList> tagValueMap =
         tagIndex.computeIfAbsent(tagKey, k -> new ConcurrentHashMap<>());
     int tagIndexNewSize = tagIndex.size();
 
     int tagValueMapOldSize = tagValueMap.size();
-    Set<IMeasurementMNode<?>> measurementsSet =
-        tagValueMap.computeIfAbsent(tagValue, v -> Collections.synchronizedSet(new HashSet<>()));
+    TagPostingList postingList = tagValueMap.computeIfAbsent(tagValue, v -> new TagPostingList());
     int tagValueMapNewSize = tagValueMap.size();
 
-    int measurementsSetOldSize = measurementsSet.size();
-    measurementsSet.add(measurementMNode);
-    int measurementsSetNewSize = measurementsSet.size();
-
     long memorySize = 0;
     if (tagIndexNewSize - tagIndexOldSize == 1) {
       // the last 4 is the memory occupied by the size of tagvaluemap
       memorySize += RamUsageEstimator.sizeOf(tagKey) + 4;
     }
     if (tagValueMapNewSize - tagValueMapOldSize == 1) {
-      // the last 4 is the memory occupied by the size of measurementsSet
+      // the last 4 is the memory occupied by the size of postingList
       memorySize += RamUsageEstimator.sizeOf(tagValue) + 4;
     }
-    if (measurementsSetNewSize - measurementsSetOldSize == 1) {
+    if (postingList.add(measurementMNode)) {
       // 8 is the memory occupied by the length of the IMeasurementMNode
       memorySize += RamUsageEstimator.NUM_BYTES_OBJECT_REF + 4;
     }
@@ -226,59 +224,93 @@ public class TagManager {
     releaseMemory(memorySize);
   }
 
-  private List<IMeasurementMNode<?>> getMatchedTimeseriesInIndex(TagFilter tagFilter) {
-    if (!tagIndex.containsKey(tagFilter.getKey())) {
+  private List<TagPostingList> getMatchedPostingLists(TagFilter tagFilter) {
+    Map<String, TagPostingList> value2Node = tagIndex.get(tagFilter.getKey());
+    if (value2Node == null || value2Node.isEmpty()) {
       return Collections.emptyList();
     }
-    Map<String, Set<IMeasurementMNode<?>>> value2Node = tagIndex.get(tagFilter.getKey());
-    if (value2Node.isEmpty()) {
-      return Collections.emptyList();
+    if (!tagFilter.isContains()) {
+      TagPostingList postingList = value2Node.get(tagFilter.getValue());
+      return postingList == null ? Collections.emptyList() : Collections.singletonList(postingList);
     }
+    List<TagPostingList> postingLists = new ArrayList<>();
+    for (Map.Entry<String, TagPostingList> entry : value2Node.entrySet()) {
+      if (entry.getKey() != null && entry.getKey().contains(tagFilter.getValue())) {
+        postingLists.add(entry.getValue());
+      }
+    }
+    return postingLists;
+  }
 
-    List<IMeasurementMNode<?>> allMatchedNodes = new ArrayList<>();
-    if (tagFilter.isContains()) {
-      for (Map.Entry<String, Set<IMeasurementMNode<?>>> entry : value2Node.entrySet()) {
-        if (entry.getKey() == null || entry.getValue() == null) {
-          continue;
+  /**
+   * Get the nodes satisfying the TagFilters of the SchemaFilter from the inverted index. The
+   * posting lists of TagFilters combined by AND are intersected and those combined by OR are
+   * merged.
+   *
+   * @return null if the SchemaFilter can't be evaluated by the index, otherwise a superset of the
+   *     nodes satisfying the SchemaFilter
+   */
+  private Set<IMeasurementMNode<?>> getMatchedTimeseriesInIndex(SchemaFilter schemaFilter) {
+    switch (schemaFilter.getSchemaFilterType()) {
+      case TAGS_FILTER:
+        Set<IMeasurementMNode<?>> result = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (TagPostingList postingList : getMatchedPostingLists((TagFilter) schemaFilter)) {
+          result.addAll(postingList.toList());
         }
-        String tagValue = entry.getKey();
-        if (tagValue.contains(tagFilter.getValue())) {
-          allMatchedNodes.addAll(entry.getValue());
+        return result;
+      case AND:
+        List<Set<IMeasurementMNode<?>>> intersection = new ArrayList<>();
+        for (SchemaFilter child : ((AndFilter) schemaFilter).getChildren()) {
+          Set<IMeasurementMNode<?>> childMatched = getMatchedTimeseriesInIndex(child);
+          if (childMatched != null) {
+            intersection.add(childMatched);
+          }
         }
-      }
-    } else {
-      for (Map.Entry<String, Set<IMeasurementMNode<?>>> entry : value2Node.entrySet()) {
-        if (entry.getKey() == null || entry.getValue() == null) {
-          continue;
+        if (intersection.isEmpty()) {
+          return null;
         }
-        String tagValue = entry.getKey();
-        if (tagFilter.getValue().equals(tagValue)) {
-          allMatchedNodes.addAll(entry.getValue());
+        // intersect from the smallest one
+        intersection.sort(Comparator.comparingInt(Set::size));
+        Set<IMeasurementMNode<?>> matched = intersection.get(0);
+        for (int i = 1; i < intersection.size() && !matched.isEmpty(); i++) {
+          matched.retainAll(intersection.get(i));
         }
-      }
+        return matched;
+      case OR:
+        Set<IMeasurementMNode<?>> union = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (SchemaFilter child : ((OrFilter) schemaFilter).getChildren()) {
+          Set<IMeasurementMNode<?>> childMatched = getMatchedTimeseriesInIndex(child);
+          if (childMatched == null) {
+            // any node may satisfy this child
+            return null;
+          }
+          union.addAll(childMatched);
+        }
+        return union;
+      default:
+        return null;
     }
-    // we just sort them by the alphabetical order
-    allMatchedNodes =
-        allMatchedNodes.stream()
-            .sorted(Comparator.comparing(IMNode::getFullPath))
-            .collect(toList());
-
-    return allMatchedNodes;
   }
 
   public ISchemaReader<ITimeSeriesSchemaInfo> getTimeSeriesReaderWithIndex(
       final IShowTimeSeriesPlan plan) {
     // schemaFilter must not null
     final SchemaFilter schemaFilter = plan.getSchemaFilter();
-    // currently, only one TagFilter is supported
-    // all IMeasurementMNode in allMatchedNodes satisfied TagFilter
+    // all IMeasurementMNode in allMatchedNodes satisfied the TagFilters, the whole schemaFilter is
+    // checked by TimeseriesReaderWithViewFetch
+    Set<IMeasurementMNode<?>> matchedNodes = getMatchedTimeseriesInIndex(schemaFilter);
+    if (matchedNodes == null) {
+      matchedNodes =
+          getMatchedTimeseriesInIndex(
+              SchemaFilter.extract(schemaFilter, SchemaFilterType.TAGS_FILTER).get(0));
+    }
+    // we just sort them by the alphabetical order
     final Iterator<IMeasurementMNode<?>> allMatchedNodes =
-        getMatchedTimeseriesInIndex(
-                (TagFilter) SchemaFilter.extract(schemaFilter, SchemaFilterType.TAGS_FILTER).get(0))
-            .iterator();
+        matchedNodes.stream().sorted(Comparator.comparing(IMNode::getFullPath)).iterator();
     final PartialPath pathPattern = plan.getPath();
     final SchemaIterator<ITimeSeriesSchemaInfo> schemaIterator =
         new SchemaIterator<ITimeSeriesSchemaInfo>() {
+          private final Deque<ITimeSeriesSchemaInfo> matchedBatch = new ArrayDeque<>();
           private ITimeSeriesSchemaInfo nextMatched;
           private Throwable throwable;
 
@@ -305,25 +337,39 @@ public class TagManager {
           }
 
           private void getNext() throws IOException {
-            nextMatched = null;
-            while (allMatchedNodes.hasNext()) {
+            if (matchedBatch.isEmpty()) {
+              fetchNextBatch();
+            }
+            nextMatched = matchedBatch.poll();
+          }
+
+          /** Read the tags and attributes of a batch of matched nodes in the order of offset. */
+          private void fetchNextBatch() throws IOException {
+            final List<IMeasurementMNode<?>> nodes = new ArrayList<>();
+            while (allMatchedNodes.hasNext() && nodes.size() < READ_BATCH_SIZE) {
               final IMeasurementMNode<?> node = allMatchedNodes.next();
               if (plan.isPrefixMatch()
                   ? pathPattern.prefixMatchFullPath(node.getPartialPath())
                   : pathPattern.matchFullPath(node.getPartialPath())) {
-                final Pair<Map<String, String>, Map<String, String>> tagAndAttributePair =
-                    readTagFile(node.getOffset());
-                nextMatched =
-                    new ShowTimeSeriesResult(
-                        node.getFullPath(),
-                        node.getAlias(),
-                        node.getSchema(),
-                        tagAndAttributePair.left,
-                        tagAndAttributePair.right,
-                        node.getParent().getAsDeviceMNode().isAligned());
-                break;
+                nodes.add(node);
               }
             }
+            if (nodes.isEmpty()) {
+              return;
+            }
+            final List<Pair<Map<String, String>, Map<String, String>>> tagAndAttributePairs =
+                tagLogFile.read(nodes.stream().mapToLong(IMeasurementMNode::getOffset).toArray());
+            for (int i = 0; i < nodes.size(); i++) {
+              final IMeasurementMNode<?> node = nodes.get(i);
+              matchedBatch.add(
+                  new ShowTimeSeriesResult(
+                      node.getFullPath(),
+                      node.getAlias(),
+                      node.getSchema(),
+                      tagAndAttributePairs.get(i).left,
+                      tagAndAttributePairs.get(i).right,
+                      node.getParent().getAsDeviceMNode().isAligned()));
+            }
           }
 
           @Override
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.schemaengine.schemaregion.tag;
+
+import org.apache.iotdb.commons.schema.node.role.IMeasurementMNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The measurement nodes having the same tag key and value, i.e. the posting list of the tag
+ * inverted index.
+ *
+ * <p>The nodes are kept in an open addressing hash table compared by identity, which only costs one
+ * reference per slot instead of one entry object per node in a {@link java.util.HashSet}.
+ *
+ * <p>The posting lists are not persisted. They live on heap and are rebuilt from the {@link
+ * TagLogFile} when the MTree is recovered.
+ */
+public class TagPostingList {
+
+  private static final int MIN_CAPACITY = 4;
+
+  private IMeasurementMNode<?>[] table = new IMeasurementMNode<?>[MIN_CAPACITY];
+  private int size = 0;
+
+  /** Return true if the node is not in the posting list before. */
+  public synchronized boolean add(IMeasurementMNode<?> node) {
+    int index = indexOf(table, node);
+    if (table[index] != null) {
+      return false;
+    }
+    table[index] = node;
+    size++;
+    // keep the load factor below 0.75
+    if (size * 4 > table.length * 3) {
+      resize(table.length * 2);
+    }
+    return true;
+  }
+
+  /** Return true if the node is in the posting list before. */
+  public synchronized boolean remove(IMeasurementMNode<?> node) {
+    int index = indexOf(table, node);
+    if (table[index] == null) {
+      return false;
+    }
+    table[index] = null;
+    size--;
+    // shift the following nodes of the same cluster back, so that they can still be found
+    int mask = table.length - 1;
+    for (int i = (index + 1) & mask; table[i] != null; i = (i + 1) & mask) {
+      IMeasurementMNode<?> moved = table[i];
+      table[i] = null;
+      table[indexOf(table, moved)] = moved;
+    }
+    if (table.length > MIN_CAPACITY && size * 8 < table.length) {
+      resize(table.length / 2);
+    }
+    return true;
+  }
+
+  public synchronized boolean contains(IMeasurementMNode<?> node) {
+    return table[indexOf(table, node)] != null;
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  public synchronized boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Copy the nodes into the given list. */
+  public synchronized void copyTo(List<IMeasurementMNode<?>> result) {
+    for (IMeasurementMNode<?> node : table) {
+      if (node != null) {
+        result.add(node);
+      }
+    }
+  }
+
+  public List<IMeasurementMNode<?>> toList() {
+    List<IMeasurementMNode<?>> result = new ArrayList<>(size());
+    copyTo(result);
+    return result;
+  }
+
+  private void resize(int capacity) {
+    IMeasurementMNode<?>[] newTable = new IMeasurementMNode<?>[capacity];
+    for (IMeasurementMNode<?> node : table) {
+      if (node != null) {
+        newTable[indexOf(newTable, node)] = node;
+      }
+    }
+    table = newTable;
+  }
+
+  /** Return the slot of the node, or the empty slot where it should be put if it is absent. */
+  private static int indexOf(IMeasurementMNode<?>[] table, IMeasurementMNode<?> node) {
+    int mask = table.length - 1;
+    // spread the identity hash code since the table size is power of 2
+    int hash = System.identityHashCode(node) * 0x9E3779B9;
+    for (int i = (hash ^ (hash >>> 16)) & mask; ; i = (i + 1) & mask) {
+      if (table[i] == null || table[i] == node) {
+        return i;
+      }
+    }
+  }
+}
@@ -28,6 +28,7 @@ import org.apache.iotdb.db.storageengine.dataregion.DataRegion;
 import org.apache.iotdb.db.storageengine.dataregion.flush.FlushManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.checkpoint.CheckpointType;
+import org.apache.iotdb.db.storageengine.dataregion.wal.recover.WALRecoverManager;
 import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.metrics.AbstractMetricService;
 import org.apache.iotdb.metrics.impl.DoNothingMetricManager;
@@ -40,7 +41,6 @@ import org.apache.iotdb.metrics.utils.MetricLevel;
 import org.apache.iotdb.metrics.utils.MetricType;
 
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -188,6 +188,8 @@ public class WritingMetrics implements IMetricSet {
   public static final String WAL_ENTRY_NUM_FOR_ONE_TSFILE = "wal_entry_num_for_one_tsfile";
   public static final String WAL_QUEUE_CURRENT_MEM_COST = "wal_queue_current_mem_cost";
   public static final String WAL_QUEUE_MAX_MEM_COST = "wal_queue_max_mem_cost";
+  public static final String WAL_RECOVER_TOTAL_SIZE = "wal_recover_total_size";
+  public static final String WAL_RECOVER_RECOVERED_SIZE = "wal_recover_recovered_size";
 
   private Histogram usedRatioHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
   private Histogram entriesCountHistogram = DoNothingMetricManager.DO_NOTHING_HISTOGRAM;
@@ -281,6 +283,20 @@ public class WritingMetrics implements IMetricSet {
         (s) -> s.getWalBufferQueueMemoryBlock().getUsedMemoryInBytes(),
         Tag.NAME.toString(),
         WAL_QUEUE_CURRENT_MEM_COST);
+    metricService.createAutoGauge(
+        Metric.WAL_RECOVER.toString(),
+        MetricLevel.IMPORTANT,
+        WALRecoverManager.getInstance(),
+        WALRecoverManager::getTotalWALFilesSize,
+        Tag.NAME.toString(),
+        WAL_RECOVER_TOTAL_SIZE);
+    metricService.createAutoGauge(
+        Metric.WAL_RECOVER.toString(),
+        MetricLevel.IMPORTANT,
+        WALRecoverManager.getInstance(),
+        WALRecoverManager::getRecoveredWALFilesSize,
+        Tag.NAME.toString(),
+        WAL_RECOVER_RECOVERED_SIZE);
   }
 
   private void unbindWALMetrics(AbstractMetricService metricService) {
@@ -313,6 +329,14 @@ public class WritingMetrics implements IMetricSet {
         Metric.WAL_QUEUE_MEM_COST.toString(),
         Tag.NAME.toString(),
         WAL_QUEUE_MAX_MEM_COST);
+    Arrays.asList(WAL_RECOVER_TOTAL_SIZE, WAL_RECOVER_RECOVERED_SIZE)
+        .forEach(
+            name ->
+                metricService.remove(
+                    MetricType.AUTO_GAUGE,
+                    Metric.WAL_RECOVER.toString(),
+                    Tag.NAME.toString(),
+                    name));
   }
 
   // endregion
@@ -321,6 +345,7 @@ public class WritingMetrics implements IMetricSet {
   public static final String MAKE_CHECKPOINT = "make_checkpoint";
   public static final String SERIALIZE_WAL_ENTRY = "serialize_wal_entry";
   public static final String SERIALIZE_WAL_ENTRY_TOTAL = "serialize_wal_entry_total";
+  public static final String SERIALIZE_WAL_ENTRY_IN_WRITER = "serialize_wal_entry_in_writer";
   public static final String SYNC_WAL_BUFFER = "sync_wal_buffer";
   public static final String SYNC = "sync";
   public static final String FSYNC = "fsync";
@@ -328,6 +353,7 @@ public class WritingMetrics implements IMetricSet {
   private Timer createMemoryTableTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer flushMemoryTableTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer serializeWalEntryTotalTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+  private Timer serializeWalEntryInWriterTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer syncTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
   private Timer fsyncTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
 
@@ -364,6 +390,14 @@ public class WritingMetrics implements IMetricSet {
             SERIALIZE_WAL_ENTRY,
             Tag.TYPE.toString(),
             SERIALIZE_WAL_ENTRY_TOTAL);
+    serializeWalEntryInWriterTimer =
+        metricService.getOrCreateTimer(
+            Metric.WAL_COST.toString(),
+            MetricLevel.IMPORTANT,
+            Tag.STAGE.toString(),
+            SERIALIZE_WAL_ENTRY,
+            Tag.TYPE.toString(),
+            SERIALIZE_WAL_ENTRY_IN_WRITER);
     syncTimer =
         metricService.getOrCreateTimer(
             Metric.WAL_COST.toString(),
@@ -387,6 +421,7 @@ public class WritingMetrics implements IMetricSet {
     createMemoryTableTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     flushMemoryTableTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     serializeWalEntryTotalTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
+    serializeWalEntryInWriterTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     syncTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     fsyncTimer = DoNothingMetricManager.DO_NOTHING_TIMER;
     Arrays.asList(
@@ -402,7 +437,7 @@ public class WritingMetrics implements IMetricSet {
                     MAKE_CHECKPOINT,
                     Tag.TYPE.toString(),
                     type));
-    Collections.singletonList(SERIALIZE_WAL_ENTRY_TOTAL)
+    Arrays.asList(SERIALIZE_WAL_ENTRY_TOTAL, SERIALIZE_WAL_ENTRY_IN_WRITER)
         .forEach(
             type ->
                 metricService.remove(
@@ -890,6 +925,10 @@ public class WritingMetrics implements IMetricSet {
     serializeWalEntryTotalTimer.updateNanos(costTimeInNanos);
   }
 
+  public void recordSerializeWALEntryInWriterCost(long costTimeInNanos) {
+    serializeWalEntryInWriterTimer.updateNanos(costTimeInNanos);
+  }
+
   public void recordCompressWALBufferCost(long costTimeInNanos) {
     walCompressCostHistogram.update(costTimeInNanos);
   }
@@ -56,6 +56,7 @@ import org.apache.iotdb.db.exception.runtime.StorageEngineFailureException;
 import org.apache.iotdb.db.pipe.agent.PipeDataNodeAgent;
 import org.apache.iotdb.db.queryengine.plan.analyze.cache.schema.DataNodeTTLCache;
 import org.apache.iotdb.db.queryengine.plan.planner.plan.node.load.LoadTsFilePieceNode;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache.LastCacheSnapshotManager;
 import org.apache.iotdb.db.queryengine.plan.scheduler.load.LoadTsFileScheduler;
 import org.apache.iotdb.db.service.metrics.FileMetrics;
 import org.apache.iotdb.db.service.metrics.WritingMetrics;
@@ -141,6 +142,7 @@ public class StorageEngine implements IService {
 
   private ScheduledExecutorService seqMemtableTimedFlushCheckThread;
   private ScheduledExecutorService unseqMemtableTimedFlushCheckThread;
+  private ScheduledExecutorService lastCacheSnapshotThread;
 
   private final TsFileFlushPolicy fileFlushPolicy = new DirectFlushPolicy();
 
@@ -214,6 +216,10 @@ public class StorageEngine implements IService {
         new Thread(
             () -> {
               checkResults(futures, "StorageEngine failed to recover.");
+              // load before writing, otherwise the snapshot may overwrite newer last values
+              if (isLastCacheSnapshotEnabled()) {
+                LastCacheSnapshotManager.getInstance().load(dataRegionMap.values());
+              }
               isReadyForReadAndWrite.set(true);
               LOGGER.info(
                   "Storage Engine recover cost: {}s.",
@@ -295,6 +301,7 @@ public class StorageEngine implements IService {
     asyncRecoverDataRegion();
 
     startTimedService();
+    startLastCacheSnapshotService();
 
     // wait here for dataRegionMap recovered
     while (!isReadyForReadAndWrite.get()) {
@@ -339,6 +346,32 @@ public class StorageEngine implements IService {
     }
   }
 
+  private boolean isLastCacheSnapshotEnabled() {
+    return CONFIG.isEnableLastCacheSnapshot()
+        && CommonDescriptor.getInstance().getConfig().isLastCacheEnable();
+  }
+
+  private void startLastCacheSnapshotService() {
+    if (isLastCacheSnapshotEnabled() && CONFIG.getLastCacheSnapshotIntervalInMs() > 0) {
+      lastCacheSnapshotThread =
+          IoTDBThreadPoolFactory.newSingleThreadScheduledExecutor(
+              ThreadName.LAST_CACHE_SNAPSHOT.getName());
+      ScheduledExecutorUtil.safelyScheduleAtFixedRate(
+          lastCacheSnapshotThread,
+          this::snapshotLastCache,
+          CONFIG.getLastCacheSnapshotIntervalInMs(),
+          CONFIG.getLastCacheSnapshotIntervalInMs(),
+          TimeUnit.MILLISECONDS);
+      LOGGER.info("start last cache snapshot thread successfully.");
+    }
+  }
+
+  private void snapshotLastCache() {
+    if (isReadyForReadAndWrite.get()) {
+      LastCacheSnapshotManager.getInstance().snapshot(dataRegionMap.values());
+    }
+  }
+
   private void timedFlushSeqMemTable() {
     for (DataRegion dataRegion : dataRegionMap.values()) {
       if (dataRegion != null) {
@@ -398,6 +431,10 @@ public class StorageEngine implements IService {
       }
     }
     syncCloseAllProcessor();
+    ThreadUtils.stopThreadPool(lastCacheSnapshotThread, ThreadName.LAST_CACHE_SNAPSHOT);
+    if (isLastCacheSnapshotEnabled()) {
+      snapshotLastCache();
+    }
     ThreadUtils.stopThreadPool(
         seqMemtableTimedFlushCheckThread, ThreadName.TIMED_FLUSH_SEQ_MEMTABLE);
     ThreadUtils.stopThreadPool(
@@ -420,6 +457,10 @@ public class StorageEngine implements IService {
     } catch (TsFileProcessorException e) {
       throw new ShutdownException(e);
     }
+    shutdownTimedService(lastCacheSnapshotThread, "LastCacheSnapshotThread");
+    if (isLastCacheSnapshotEnabled()) {
+      snapshotLastCache();
+    }
     shutdownTimedService(seqMemtableTimedFlushCheckThread, "SeqMemtableTimedFlushCheckThread");
     shutdownTimedService(unseqMemtableTimedFlushCheckThread, "UnseqMemtableTimedFlushCheckThread");
     cachedThreadPool.shutdownNow();
@@ -770,6 +811,7 @@ public class StorageEngine implements IService {
         deletingDataRegionMap.computeIfAbsent(regionId, k -> dataRegionMap.remove(regionId));
     if (region != null) {
       region.markDeleted();
+      ChunkCache.getInstance().removeRegionStatistics(regionId.getId());
       try {
         region.abortCompaction();
         region.syncDeleteDataFiles();
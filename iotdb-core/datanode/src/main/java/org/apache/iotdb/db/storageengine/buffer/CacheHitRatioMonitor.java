@@ -31,6 +31,8 @@ import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
+
 @SuppressWarnings("squid:S6548")
 public class CacheHitRatioMonitor implements CacheHitRatioMonitorMXBean, IService {
 
@@ -83,6 +85,16 @@ public class CacheHitRatioMonitor implements CacheHitRatioMonitorMXBean, IServic
     return 0;
   }
 
+  @Override
+  public Map<Integer, Double> getChunkHitRatioOfRegions() {
+    return ChunkCache.getInstance().getRegionHitRatios();
+  }
+
+  @Override
+  public long getChunkCacheAdmissionBypassCount() {
+    return ChunkCache.getInstance().getAdmissionBypassCount();
+  }
+
   @Override
   public double getTimeSeriesMetadataHitRatio() {
     return TimeSeriesMetadataCache.getInstance().calculateTimeSeriesMetadataHitRatio();
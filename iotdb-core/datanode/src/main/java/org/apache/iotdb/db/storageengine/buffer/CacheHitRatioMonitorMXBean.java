@@ -19,6 +19,8 @@
 
 package org.apache.iotdb.db.storageengine.buffer;
 
+import java.util.Map;
+
 public interface CacheHitRatioMonitorMXBean {
 
   double getChunkHitRatio();
@@ -31,6 +33,10 @@ public interface CacheHitRatioMonitorMXBean {
 
   long getChunkCacheAverageSize();
 
+  Map<Integer, Double> getChunkHitRatioOfRegions();
+
+  long getChunkCacheAdmissionBypassCount();
+
   double getTimeSeriesMetadataHitRatio();
 
   long getTimeSeriesMetadataCacheEvictionCount();
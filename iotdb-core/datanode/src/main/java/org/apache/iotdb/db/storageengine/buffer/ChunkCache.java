@@ -25,6 +25,7 @@ import org.apache.iotdb.commons.memory.MemoryBlockType;
 import org.apache.iotdb.commons.service.metric.MetricService;
 import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.DataNodeMemoryConfig;
+import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.queryengine.metric.ChunkCacheMetrics;
@@ -43,9 +44,16 @@ import org.apache.tsfile.utils.RamUsageEstimator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.function.LongConsumer;
 
@@ -55,6 +63,10 @@ import static org.apache.iotdb.db.queryengine.metric.SeriesScanCostMetricSet.REA
 /**
  * This class is used to cache <code>Chunk</code> of <code>ChunkMetaData</code> in IoTDB. The
  * caching strategy is LRU.
+ *
+ * <p>To keep a large range scan from evicting the hot chunks, the chunks one query loads from disk
+ * are put into the cache only until their size reaches the admission quota of a query. After that
+ * the query still reads the cached chunks, but reads the missed ones without caching them.
  */
 @SuppressWarnings("squid:S6548")
 public class ChunkCache {
@@ -63,6 +75,7 @@ public class ChunkCache {
   private static final Logger DEBUG_LOGGER = LoggerFactory.getLogger("QUERY_DEBUG");
   private static final DataNodeMemoryConfig MEMORY_CONFIG =
       IoTDBDescriptor.getInstance().getMemoryConfig();
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
   private static final IMemoryBlock CACHE_MEMORY_BLOCK;
   private static final boolean CACHE_ENABLE = MEMORY_CONFIG.isMetaDataCacheEnable();
 
@@ -72,6 +85,12 @@ public class ChunkCache {
   // to save memory footprint, we don't save measurementId in ChunkHeader of Chunk
   private final Cache<ChunkCacheKey, Chunk> lruCache;
 
+  private final Map<Integer, RegionStatistics> regionStatisticsMap = new ConcurrentHashMap<>();
+  private final LongAdder admissionBypassCount = new LongAdder();
+
+  // the max size of the chunks one query can put into the cache
+  private long admissionSizePerQuery;
+
   static {
     CACHE_MEMORY_BLOCK =
         MEMORY_CONFIG
@@ -85,13 +104,15 @@ public class ChunkCache {
     if (CACHE_ENABLE) {
       LOGGER.info("ChunkCache size = {}", CACHE_MEMORY_BLOCK.getTotalMemorySizeInBytes());
     }
+    final double admissionRatio = CONFIG.getChunkCacheAdmissionRatioPerQuery();
+    admissionSizePerQuery =
+        admissionRatio > 0 && admissionRatio < 1
+            ? (long) (CACHE_MEMORY_BLOCK.getTotalMemorySizeInBytes() * admissionRatio)
+            : Long.MAX_VALUE;
     lruCache =
         Caffeine.newBuilder()
             .maximumWeight(CACHE_MEMORY_BLOCK.getTotalMemorySizeInBytes())
-            .weigher(
-                (Weigher<ChunkCacheKey, Chunk>)
-                    (key, chunk) ->
-                        (int) (key.getRetainedSizeInBytes() + chunk.getRetainedSizeInBytes()))
+            .weigher((Weigher<ChunkCacheKey, Chunk>) ChunkCache::getWeight)
             .recordStats()
             .build();
 
@@ -99,6 +120,10 @@ public class ChunkCache {
     MetricService.getInstance().addMetricSet(new ChunkCacheMetrics(this));
   }
 
+  private static int getWeight(ChunkCacheKey key, Chunk chunk) {
+    return (int) (key.getRetainedSizeInBytes() + chunk.getRetainedSizeInBytes());
+  }
+
   public double getHitRate() {
     return lruCache.stats().hitRate() * 100;
   }
@@ -119,7 +144,8 @@ public class ChunkCache {
         false,
         emptyConsumer,
         emptyConsumer,
-        emptyConsumer);
+        emptyConsumer,
+        null);
   }
 
   public Chunk get(
@@ -141,7 +167,8 @@ public class ChunkCache {
         queryContext.isDebug(),
         ioSizeRecorder,
         cacheHitAdder,
-        cacheMissAdder);
+        cacheMissAdder,
+        queryContext.getChunkCacheAdmittedSize());
   }
 
   private Chunk get(
@@ -151,7 +178,8 @@ public class ChunkCache {
       boolean debug,
       LongConsumer ioSizeRecorder,
       LongConsumer cacheHitAdder,
-      LongConsumer cacheMissAdder)
+      LongConsumer cacheMissAdder,
+      @Nullable AtomicLong admittedSize)
       throws IOException {
     long startTime = System.nanoTime();
     ChunkLoader chunkLoader = new ChunkLoader(ioSizeRecorder);
@@ -161,7 +189,20 @@ public class ChunkCache {
         return constructChunk(chunk, timeRangeList, chunkStatistic);
       }
 
-      Chunk chunk = lruCache.get(chunkCacheKey, chunkLoader);
+      Chunk chunk;
+      if (Objects.isNull(admittedSize) || admittedSize.get() < admissionSizePerQuery) {
+        chunk = lruCache.get(chunkCacheKey, chunkLoader);
+        if (chunkLoader.isCacheMiss() && Objects.nonNull(admittedSize)) {
+          admittedSize.addAndGet(getWeight(chunkCacheKey, chunk));
+        }
+      } else {
+        // the query has used up its admission quota, do not let it evict the cached chunks
+        chunk = lruCache.getIfPresent(chunkCacheKey);
+        if (Objects.isNull(chunk)) {
+          chunk = chunkLoader.apply(chunkCacheKey);
+          admissionBypassCount.increment();
+        }
+      }
 
       if (debug) {
         DEBUG_LOGGER.info("get chunk from cache whose key is: {}", chunkCacheKey);
@@ -171,6 +212,7 @@ public class ChunkCache {
     } catch (IoTDBIORuntimeException e) {
       throw e.getCause();
     } finally {
+      getRegionStatistics(chunkCacheKey.tsFileID.regionId).record(!chunkLoader.isCacheMiss());
       if (chunkLoader.isCacheMiss()) {
         cacheMissAdder.accept(1);
         SERIES_SCAN_COST_METRIC_SET.recordSeriesScanCost(
@@ -183,6 +225,13 @@ public class ChunkCache {
     }
   }
 
+  private RegionStatistics getRegionStatistics(int regionId) {
+    final RegionStatistics statistics = regionStatisticsMap.get(regionId);
+    return Objects.nonNull(statistics)
+        ? statistics
+        : regionStatisticsMap.computeIfAbsent(regionId, k -> new RegionStatistics());
+  }
+
   private Chunk constructChunk(
       Chunk chunk, List<TimeRange> timeRangeList, Statistics chunkStatistic) {
     return new Chunk(
@@ -209,6 +258,28 @@ public class ChunkCache {
     return lruCache.stats().averageLoadPenalty();
   }
 
+  /** The number of the chunks read without caching because of the admission quota. */
+  public long getAdmissionBypassCount() {
+    return admissionBypassCount.sum();
+  }
+
+  /** Returns the hit ratio of each data region, whose key is the id of the region. */
+  public Map<Integer, Double> getRegionHitRatios() {
+    final Map<Integer, Double> result = new HashMap<>();
+    regionStatisticsMap.forEach(
+        (regionId, statistics) -> result.put(regionId, statistics.hitRatio()));
+    return result;
+  }
+
+  @TestOnly
+  public void setAdmissionSizePerQuery(long admissionSizePerQuery) {
+    this.admissionSizePerQuery = admissionSizePerQuery;
+  }
+
+  public void removeRegionStatistics(int regionId) {
+    regionStatisticsMap.remove(regionId);
+  }
+
   /** clear LRUCache. */
   public void clear() {
     lruCache.invalidateAll();
@@ -291,6 +362,24 @@ public class ChunkCache {
     }
   }
 
+  private static class RegionStatistics {
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder requestCount = new LongAdder();
+
+    private void record(boolean isHit) {
+      if (isHit) {
+        hitCount.increment();
+      }
+      requestCount.increment();
+    }
+
+    private double hitRatio() {
+      final long requests = requestCount.sum();
+      return requests == 0 ? 1.0 : (double) hitCount.sum() / requests;
+    }
+  }
+
   private static class ChunkLoader implements Function<ChunkCacheKey, Chunk> {
 
     private boolean cacheMiss = false;
@@ -27,6 +27,7 @@ import org.apache.iotdb.commons.utils.TestOnly;
 import org.apache.iotdb.db.conf.DataNodeMemoryConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.QueryStatistics;
 import org.apache.iotdb.db.queryengine.metric.TimeSeriesMetadataCacheMetrics;
 import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileID;
@@ -45,7 +46,11 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -256,6 +261,184 @@ public class TimeSeriesMetadataCache {
     }
   }
 
+  /**
+   * Get the TimeseriesMetadata of several measurements of one device in one file. The cache is
+   * probed for all the measurements first, and the missed ones are loaded under one lock of the
+   * device and file: the bloom filter is fetched once, and each read of a metadata index leaf puts
+   * all the missed measurements and the sensors in allSensors it contains into the cache, so that
+   * the measurements located in the same leaf don't trigger another read.
+   *
+   * @return the TimeseriesMetadata list in the same order as measurements, the element is null if
+   *     the measurement doesn't exist in this file
+   */
+  @SuppressWarnings({"squid:S1860", "squid:S6541", "squid:S3776"}) // Suppress synchronize warning
+  public List<TimeseriesMetadata> get(
+      String filePath,
+      TsFileID tsFileID,
+      IDeviceID device,
+      List<String> measurements,
+      Set<String> allSensors,
+      boolean ignoreNotExists,
+      boolean debug,
+      QueryContext queryContext)
+      throws IOException {
+    List<TimeseriesMetadata> result = new ArrayList<>(measurements.size());
+    if (!CACHE_ENABLE) {
+      for (String measurement : measurements) {
+        result.add(
+            get(
+                filePath,
+                new TimeSeriesMetadataCacheKey(tsFileID, device, measurement),
+                allSensors,
+                ignoreNotExists,
+                debug,
+                queryContext));
+      }
+      return result;
+    }
+
+    long startTime = System.nanoTime();
+    long loadBloomFilterTime = 0;
+    int missCount = 0;
+    LongConsumer timeSeriesMetadataIoSizeRecorder =
+        queryContext.getQueryStatistics().getLoadTimeSeriesMetadataActualIOSize()::addAndGet;
+    LongConsumer bloomFilterIoSizeRecorder =
+        queryContext.getQueryStatistics().getLoadBloomFilterActualIOSize()::addAndGet;
+    try {
+      Map<String, TimeseriesMetadata> loadedMetadata = new HashMap<>();
+      boolean hasMissed = false;
+      for (String measurement : measurements) {
+        TimeseriesMetadata timeseriesMetadata =
+            lruCache.getIfPresent(new TimeSeriesMetadataCacheKey(tsFileID, device, measurement));
+        result.add(timeseriesMetadata);
+        hasMissed = hasMissed || timeseriesMetadata == null;
+      }
+
+      if (hasMissed) {
+        String deviceStringFormat = device.toString();
+        // allow for the parallelism of different devices
+        synchronized (
+            devices.computeIfAbsent(
+                deviceStringFormat + SEPARATOR + filePath, WeakReference::new)) {
+          // double check, and index the measurements which need to be loaded
+          Set<String> missedMeasurements = new LinkedHashSet<>();
+          for (int i = 0, size = measurements.size(); i < size; i++) {
+            if (result.get(i) == null) {
+              TimeseriesMetadata timeseriesMetadata =
+                  lruCache.getIfPresent(
+                      new TimeSeriesMetadataCacheKey(tsFileID, device, measurements.get(i)));
+              if (timeseriesMetadata == null) {
+                missedMeasurements.add(measurements.get(i));
+                missCount++;
+              } else {
+                result.set(i, timeseriesMetadata);
+              }
+            }
+          }
+
+          if (!missedMeasurements.isEmpty()) {
+            if (debug) {
+              DEBUG_LOGGER.info(
+                  "Cache miss: {}.{} in file: {}", device, missedMeasurements, filePath);
+              DEBUG_LOGGER.info("Device: {}, all sensors: {}", device, allSensors);
+            }
+            long loadBloomFilterStartTime = System.nanoTime();
+            BloomFilter bloomFilter =
+                BloomFilterCache.getInstance()
+                    .get(
+                        new BloomFilterCache.BloomFilterCacheKey(filePath, tsFileID),
+                        debug,
+                        bloomFilterIoSizeRecorder,
+                        queryContext.getQueryStatistics().getLoadBloomFilterFromCacheCount()
+                            ::addAndGet,
+                        queryContext.getQueryStatistics().getLoadBloomFilterFromDiskCount()
+                            ::addAndGet);
+            loadBloomFilterTime = System.nanoTime() - loadBloomFilterStartTime;
+
+            Set<String> sensors = new HashSet<>(missedMeasurements);
+            if (allSensors != null) {
+              sensors.addAll(allSensors);
+            }
+            Set<String> loadedMeasurements = new HashSet<>();
+            TsFileSequenceReader reader = null;
+            for (String measurement : missedMeasurements) {
+              if (loadedMeasurements.contains(measurement)) {
+                // already loaded together with a measurement in the same leaf node
+                continue;
+              }
+              if (bloomFilter != null
+                  && !bloomFilter.contains(
+                      deviceStringFormat + TsFileConstant.PATH_SEPARATOR + measurement)) {
+                if (debug) {
+                  DEBUG_LOGGER.info(
+                      "TimeSeries meta data {}.{} is filter by bloomFilter!", device, measurement);
+                }
+                continue;
+              }
+              if (reader == null) {
+                reader =
+                    FileReaderManager.getInstance()
+                        .get(filePath, true, timeSeriesMetadataIoSizeRecorder);
+              }
+              List<TimeseriesMetadata> timeSeriesMetadataList =
+                  reader.readTimeseriesMetadata(
+                      device,
+                      measurement,
+                      sensors,
+                      ignoreNotExists,
+                      timeSeriesMetadataIoSizeRecorder);
+              loadedMeasurements.add(measurement);
+              // put TimeSeriesMetadata of all sensors used in this read into cache
+              for (TimeseriesMetadata metadata : timeSeriesMetadataList) {
+                String measurementId = metadata.getMeasurementId();
+                boolean notEmpty = metadata.getStatistics().getCount() != 0;
+                if (notEmpty) {
+                  lruCache.put(
+                      new TimeSeriesMetadataCacheKey(tsFileID, device, measurementId), metadata);
+                }
+                if (missedMeasurements.contains(measurementId)) {
+                  loadedMeasurements.add(measurementId);
+                  if (notEmpty) {
+                    loadedMetadata.put(measurementId, metadata);
+                  }
+                }
+              }
+            }
+          }
+        }
+      }
+
+      for (int i = 0, size = measurements.size(); i < size; i++) {
+        TimeseriesMetadata timeseriesMetadata = result.get(i);
+        if (timeseriesMetadata == null) {
+          timeseriesMetadata = loadedMetadata.get(measurements.get(i));
+        }
+        if (timeseriesMetadata == null) {
+          if (debug) {
+            DEBUG_LOGGER.info(
+                "The file doesn't have this time series {}.{}.", device, measurements.get(i));
+          }
+        } else {
+          result.set(i, new TimeseriesMetadata(timeseriesMetadata));
+        }
+      }
+      return result;
+    } finally {
+      QueryStatistics queryStatistics = queryContext.getQueryStatistics();
+      queryStatistics.getLoadBloomFilterTime().getAndAdd(loadBloomFilterTime);
+      queryStatistics
+          .getLoadTimeSeriesMetadataFromCacheCount()
+          .addAndGet((long) measurements.size() - missCount);
+      long costTime = System.nanoTime() - startTime - loadBloomFilterTime;
+      if (missCount == 0) {
+        queryStatistics.getLoadTimeSeriesMetadataFromCacheTime().getAndAdd(costTime);
+      } else {
+        queryStatistics.getLoadTimeSeriesMetadataFromDiskCount().addAndGet(missCount);
+        queryStatistics.getLoadTimeSeriesMetadataFromDiskTime().getAndAdd(costTime);
+      }
+    }
+  }
+
   public double calculateTimeSeriesMetadataHitRatio() {
     return lruCache.stats().hitRate();
   }
@@ -192,6 +192,7 @@ import java.util.TreeMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -199,9 +200,12 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.apache.iotdb.commons.conf.IoTDBConstant.FILE_NAME_SEPARATOR;
 import static org.apache.iotdb.commons.utils.PathUtils.isTableModelDatabase;
@@ -245,6 +249,9 @@ public class DataRegion implements IDataRegionForQuery {
 
   private static final Logger logger = LoggerFactory.getLogger(DataRegion.class);
 
+  private static final int TIME_PARTITION_LOCK_STRIPE_NUM = 16;
+  private static final int ALL_TIME_PARTITION_LOCKS = (1 << TIME_PARTITION_LOCK_STRIPE_NUM) - 1;
+
   /**
    * A read write lock for guaranteeing concurrent safety when accessing all fields in this class
    * (i.e., schema, (un)sequenceFileList, work(un)SequenceTsFileProcessor,
@@ -253,6 +260,25 @@ public class DataRegion implements IDataRegionForQuery {
    */
   private final ReadWriteLock insertLock = new ReentrantReadWriteLock();
 
+  /**
+   * Striped locks of time partitions. Insertions of one row or one tablet hold the read lock of
+   * {@link #insertLock} and the write locks of the stripes their time partitions fall in, so that
+   * insertions into different time partitions (thus different {@link TsFileProcessor}s) can be
+   * executed concurrently. Queries hold the read locks of all stripes, and operations holding the
+   * write lock of {@link #insertLock} (flush, deletion, close, etc.) exclude all insertions.
+   */
+  private final ReadWriteLock[] timePartitionLocks =
+      Stream.generate(ReentrantReadWriteLock::new)
+          .limit(TIME_PARTITION_LOCK_STRIPE_NUM)
+          .toArray(ReadWriteLock[]::new);
+
+  /**
+   * Serializes the creation and closing of work {@link TsFileProcessor}s, because insertions into
+   * different time partitions may create or close them concurrently while only holding the read
+   * lock of {@link #insertLock}.
+   */
+  private final Lock workTsFileProcessorLock = new ReentrantLock();
+
   /** Condition to safely delete data region. */
   private final Condition deletedCondition = insertLock.writeLock().newCondition();
 
@@ -267,11 +293,19 @@ public class DataRegion implements IDataRegionForQuery {
    */
   private final ReadWriteLock closeQueryLock = new ReentrantReadWriteLock();
 
-  /** time partition id in the database -> {@link TsFileProcessor} for this time partition. */
-  private final TreeMap<Long, TsFileProcessor> workSequenceTsFileProcessors = new TreeMap<>();
+  /**
+   * time partition id in the database -> {@link TsFileProcessor} for this time partition. It is
+   * concurrently modified by insertions into different time partitions.
+   */
+  private final ConcurrentSkipListMap<Long, TsFileProcessor> workSequenceTsFileProcessors =
+      new ConcurrentSkipListMap<>();
 
-  /** time partition id in the database -> {@link TsFileProcessor} for this time partition. */
-  private final TreeMap<Long, TsFileProcessor> workUnsequenceTsFileProcessors = new TreeMap<>();
+  /**
+   * time partition id in the database -> {@link TsFileProcessor} for this time partition. It is
+   * concurrently modified by insertions into different time partitions.
+   */
+  private final ConcurrentSkipListMap<Long, TsFileProcessor> workUnsequenceTsFileProcessors =
+      new ConcurrentSkipListMap<>();
 
   /** sequence {@link TsFileProcessor}s which are closing. */
   private final Set<TsFileProcessor> closingSequenceTsFileProcessor = ConcurrentHashMap.newKeySet();
@@ -1107,15 +1141,16 @@ public class DataRegion implements IDataRegionForQuery {
           insertRowNode.getTime(), (CommonDateTimeUtils.currentTime() - ttl));
     }
     StorageEngine.blockInsertionIfReject();
+    long timePartitionId = TimePartitionUtils.getTimePartitionId(insertRowNode.getTime());
+    int timePartitionLockMask = 1 << getTimePartitionLockIndex(timePartitionId);
     long startTime = System.nanoTime();
-    writeLock("InsertRow");
+    timePartitionWriteLock(timePartitionLockMask);
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
     try {
       if (deleted) {
         return;
       }
       // init map
-      long timePartitionId = TimePartitionUtils.getTimePartitionId(insertRowNode.getTime());
       initFlushTimeMap(timePartitionId);
 
       boolean isSequence =
@@ -1140,7 +1175,7 @@ public class DataRegion implements IDataRegionForQuery {
             System.nanoTime() - startTime);
       }
     } finally {
-      writeUnlock();
+      timePartitionWriteUnlock(timePartitionLockMask);
     }
   }
 
@@ -1269,8 +1304,9 @@ public class DataRegion implements IDataRegionForQuery {
   public void insertTablet(InsertTabletNode insertTabletNode)
       throws BatchProcessException, WriteProcessException {
     StorageEngine.blockInsertionIfReject();
+    int timePartitionLockMask = getTimePartitionLockMask(insertTabletNode);
     long startTime = System.nanoTime();
-    writeLock("insertTablet");
+    timePartitionWriteLock(timePartitionLockMask);
     PERFORMANCE_OVERVIEW_METRICS.recordScheduleLockCost(System.nanoTime() - startTime);
     try {
       if (deleted) {
@@ -1293,8 +1329,49 @@ public class DataRegion implements IDataRegionForQuery {
         throw new BatchProcessException(results);
       }
     } finally {
-      writeUnlock();
+      timePartitionWriteUnlock(timePartitionLockMask);
+    }
+  }
+
+  private int getTimePartitionLockIndex(long timePartitionId) {
+    return (int) Math.floorMod(timePartitionId, (long) TIME_PARTITION_LOCK_STRIPE_NUM);
+  }
+
+  /** get the bit mask of the time partition locks which the rows of the tablet fall in */
+  private int getTimePartitionLockMask(InsertTabletNode insertTabletNode) {
+    long[] times = insertTabletNode.getTimes();
+    int mask = 0;
+    long lastTimePartitionId = Long.MIN_VALUE;
+    for (int i = 0; i < insertTabletNode.getRowCount() && mask != ALL_TIME_PARTITION_LOCKS; i++) {
+      long timePartitionId = TimePartitionUtils.getTimePartitionId(times[i]);
+      if (timePartitionId != lastTimePartitionId) {
+        mask |= 1 << getTimePartitionLockIndex(timePartitionId);
+        lastTimePartitionId = timePartitionId;
+      }
     }
+    return mask;
+  }
+
+  /**
+   * lock the read lock of the insert lock and the write locks of the time partitions in the mask,
+   * the stripes are always locked in ascending order to avoid deadlock
+   */
+  private void timePartitionWriteLock(int timePartitionLockMask) {
+    insertLock.readLock().lock();
+    for (int i = 0; i < TIME_PARTITION_LOCK_STRIPE_NUM; i++) {
+      if ((timePartitionLockMask & (1 << i)) != 0) {
+        timePartitionLocks[i].writeLock().lock();
+      }
+    }
+  }
+
+  private void timePartitionWriteUnlock(int timePartitionLockMask) {
+    for (int i = TIME_PARTITION_LOCK_STRIPE_NUM - 1; i >= 0; i--) {
+      if ((timePartitionLockMask & (1 << i)) != 0) {
+        timePartitionLocks[i].writeLock().unlock();
+      }
+    }
+    insertLock.readLock().unlock();
   }
 
   private boolean executeInsertTablet(
@@ -1649,24 +1726,34 @@ public class DataRegion implements IDataRegionForQuery {
    * @param sequence whether is sequence or not
    */
   private TsFileProcessor getOrCreateTsFileProcessorIntern(
-      long timeRangeId, TreeMap<Long, TsFileProcessor> tsFileProcessorTreeMap, boolean sequence)
+      long timeRangeId,
+      ConcurrentSkipListMap<Long, TsFileProcessor> tsFileProcessorTreeMap,
+      boolean sequence)
       throws IOException, DiskSpaceInsufficientException {
 
     TsFileProcessor res = tsFileProcessorTreeMap.get(timeRangeId);
-    if (null == res) {
-      // build new processor, memory control module will control the number of memtables
-      TimePartitionManager.getInstance()
-          .updateAfterOpeningTsFileProcessor(
-              new DataRegionId(Integer.parseInt(dataRegionId)), timeRangeId);
-      res = newTsFileProcessor(sequence, timeRangeId);
-      if (workSequenceTsFileProcessors.get(timeRangeId) == null
-          && workUnsequenceTsFileProcessors.get(timeRangeId) == null) {
-        WritingMetrics.getInstance().recordActiveTimePartitionCount(1);
+    if (null != res) {
+      return res;
+    }
+    workTsFileProcessorLock.lock();
+    try {
+      res = tsFileProcessorTreeMap.get(timeRangeId);
+      if (null == res) {
+        // build new processor, memory control module will control the number of memtables
+        TimePartitionManager.getInstance()
+            .updateAfterOpeningTsFileProcessor(
+                new DataRegionId(Integer.parseInt(dataRegionId)), timeRangeId);
+        res = newTsFileProcessor(sequence, timeRangeId);
+        if (workSequenceTsFileProcessors.get(timeRangeId) == null
+            && workUnsequenceTsFileProcessors.get(timeRangeId) == null) {
+          WritingMetrics.getInstance().recordActiveTimePartitionCount(1);
+        }
+        tsFileProcessorTreeMap.put(timeRangeId, res);
+        tsFileManager.add(res.getTsFileResource(), sequence);
       }
-      tsFileProcessorTreeMap.put(timeRangeId, res);
-      tsFileManager.add(res.getTsFileResource(), sequence);
+    } finally {
+      workTsFileProcessorLock.unlock();
     }
-
     return res;
   }
 
@@ -1716,12 +1803,23 @@ public class DataRegion implements IDataRegionForQuery {
   }
 
   /**
-   * close one tsfile processor, thread-safety should be ensured by caller
+   * close one tsfile processor, the caller should hold the insert lock, either the read lock with
+   * the lock of the time partition or the write lock
    *
    * @param sequence whether this tsfile processor is sequence or not
    * @param tsFileProcessor tsfile processor
    */
   public Future<?> asyncCloseOneTsFileProcessor(boolean sequence, TsFileProcessor tsFileProcessor) {
+    workTsFileProcessorLock.lock();
+    try {
+      return asyncCloseOneTsFileProcessorInternal(sequence, tsFileProcessor);
+    } finally {
+      workTsFileProcessorLock.unlock();
+    }
+  }
+
+  private Future<?> asyncCloseOneTsFileProcessorInternal(
+      boolean sequence, TsFileProcessor tsFileProcessor) {
     // for sequence tsfile, we update the endTimeMap only when the file is prepared to be closed.
     // for unsequence tsfile, we have maintained the endTimeMap when an insertion comes.
     if (closingSequenceTsFileProcessor.contains(tsFileProcessor)
@@ -2219,6 +2317,9 @@ public class DataRegion implements IDataRegionForQuery {
   public void readLock() {
     // apply read lock for SG insert lock to prevent inconsistent with concurrently writing memtable
     insertLock.readLock().lock();
+    for (ReadWriteLock timePartitionLock : timePartitionLocks) {
+      timePartitionLock.readLock().lock();
+    }
     // apply read lock for TsFileResource list
     tsFileManager.readLock();
   }
@@ -2227,6 +2328,9 @@ public class DataRegion implements IDataRegionForQuery {
   @Override
   public void readUnlock() {
     tsFileManager.readUnlock();
+    for (int i = TIME_PARTITION_LOCK_STRIPE_NUM - 1; i >= 0; i--) {
+      timePartitionLocks[i].readLock().unlock();
+    }
     insertLock.readLock().unlock();
   }
 
@@ -3435,7 +3539,7 @@ public class DataRegion implements IDataRegionForQuery {
    * @return all working sequence tsfile processors
    */
   public Collection<TsFileProcessor> getWorkSequenceTsFileProcessors() {
-    return workSequenceTsFileProcessors.values();
+    return new ArrayList<>(workSequenceTsFileProcessors.values());
   }
 
   public boolean removeTsFile(File fileToBeRemoved) {
@@ -3521,7 +3625,7 @@ public class DataRegion implements IDataRegionForQuery {
    * @return all working unsequence tsfile processors
    */
   public Collection<TsFileProcessor> getWorkUnsequenceTsFileProcessors() {
-    return workUnsequenceTsFileProcessors.values();
+    return new ArrayList<>(workUnsequenceTsFileProcessors.values());
   }
 
   public List<TsFileResource> getSequenceFileList() {
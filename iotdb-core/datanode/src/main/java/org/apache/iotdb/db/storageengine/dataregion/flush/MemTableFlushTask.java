@@ -48,15 +48,25 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * flush task to flush one memtable using a pipeline model to flush, which is sort memtable ->
  * encoding -> write to disk (io task)
+ *
+ * <p>If flush_encoding_parallelism is larger than 1, the sort and encoding of different devices are
+ * executed concurrently by {@link DeviceEncodingTask}s, the encoding task only forwards the encoded
+ * chunk groups to the io task in device order, so the layout of TsFile is not changed. Each device
+ * buffers at most io_task_queue_size_for_flushing encoded chunks, and the buffers are counted in
+ * the temporary memory for flushing.
  */
 public class MemTableFlushTask {
 
@@ -87,6 +97,15 @@ public class MemTableFlushTask {
 
   private volatile long memSerializeTime = 0L;
   private volatile long ioTime = 0L;
+  private final AtomicLong sortTime = new AtomicLong(0L);
+
+  private final int encodingParallelism = config.getFlushEncodingParallelism();
+  // limits the number of devices which are being encoded or waiting to be forwarded to io task
+  private final Semaphore encodingPermits = new Semaphore(encodingParallelism);
+  // the device encoding tasks, which are cancelled if the flush fails
+  private final List<Future<Void>> deviceEncodingFutures = new ArrayList<>();
+  // whether the io task has received TaskEnd, otherwise a finished io task has failed
+  private volatile boolean ioTaskEnded = false;
 
   private final BatchEncodeInfo encodeInfo;
   private long[] times;
@@ -146,60 +165,40 @@ public class MemTableFlushTask {
               : memTable.memSize()
                   / memTable.getSeriesNumber()
                   * config.getIoTaskQueueSizeForFlushing();
+    }
+    if (encodingParallelism > 1 && memTable.getSeriesNumber() != 0) {
+      // the encoded chunks buffered by the devices which are being encoded concurrently
+      estimatedTemporaryMemSize +=
+          memTable.memSize()
+              / memTable.getSeriesNumber()
+              * config.getIoTaskQueueSizeForFlushing()
+              * encodingParallelism;
+    }
+    if (estimatedTemporaryMemSize != 0) {
       SystemInfo.getInstance().applyTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
     }
     long start = System.currentTimeMillis();
-    long sortTime = 0;
-
-    // for map do not use get(key) to iterate
-    Map<IDeviceID, IWritableMemChunkGroup> memTableMap = memTable.getMemTableMap();
-    List<IDeviceID> deviceIDList = new ArrayList<>(memTableMap.keySet());
-    // sort the IDeviceID in lexicographical order
-    Collections.sort(deviceIDList);
-    for (IDeviceID deviceID : deviceIDList) {
-      final Map<String, IWritableMemChunk> value = memTableMap.get(deviceID).getMemChunkMap();
-      // skip the empty device/chunk group
-      if (memTableMap.get(deviceID).isEmpty() || value.isEmpty()) {
-        continue;
-      }
-      encodingTaskQueue.put(new StartFlushGroupIOTask(deviceID));
-      List<String> seriesInOrder = new ArrayList<>(value.keySet());
-      Collections.sort(seriesInOrder);
-      for (String seriesId : seriesInOrder) {
-        long startTime = System.currentTimeMillis();
-        IWritableMemChunk series = value.get(seriesId);
-        if (series.count() == 0) {
-          continue;
-        }
-        /*
-         * sort task (first task of flush pipeline)
-         */
-        series.sortTvListForFlush();
-        long subTaskTime = System.currentTimeMillis() - startTime;
-        sortTime += subTaskTime;
-        WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.SORT_TASK, subTaskTime);
-        encodingTaskQueue.put(series);
-      }
-
-      encodingTaskQueue.put(new EndChunkGroupIoTask());
-    }
-    encodingTaskQueue.put(new TaskEnd());
-    LOGGER.debug(
-        "Database {} memtable flushing into file {}: data sort time cost {} ms.",
-        storageGroup,
-        writer.getFile().getName(),
-        sortTime);
-    WRITING_METRICS.recordFlushCost(WritingMetrics.FLUSH_STAGE_SORT, sortTime);
 
     try {
-      encodingTaskFuture.get();
+      putEncodingTasks();
+      waitForEncodingTask();
     } catch (InterruptedException | ExecutionException e) {
-      ioTaskFuture.cancel(true);
+      cancelSubTasks();
+      if (estimatedTemporaryMemSize != 0) {
+        SystemInfo.getInstance().releaseTemporaryMemoryForFlushing(estimatedTemporaryMemSize);
+      }
       if (e instanceof InterruptedException) {
         Thread.currentThread().interrupt();
       }
       throw e;
     }
+    // all the sort tasks are done after the encoding task has consumed all devices
+    LOGGER.debug(
+        "Database {} memtable flushing into file {}: data sort time cost {} ms.",
+        storageGroup,
+        writer.getFile().getName(),
+        sortTime.get());
+    WRITING_METRICS.recordFlushCost(WritingMetrics.FLUSH_STAGE_SORT, sortTime.get());
 
     ioTaskFuture.get();
 
@@ -265,6 +264,31 @@ public class MemTableFlushTask {
               }
             } else if (task instanceof TaskEnd) {
               break;
+            } else if (task instanceof EncodedChunkGroup) {
+              long startTime = System.currentTimeMillis();
+              try {
+                // forward the devices in order, so that chunk groups are written in device order
+                forwardEncodedChunkGroup((EncodedChunkGroup) task);
+              } catch (InterruptedException e) {
+                LOGGER.error(
+                    "Database {} memtable flushing to file {}, encoding task is interrupted.",
+                    storageGroup,
+                    writer.getFile().getName(),
+                    e);
+                Thread.currentThread().interrupt();
+                break;
+              } catch (ExecutionException e) {
+                LOGGER.error(
+                    "Database {} memtable flushing to file {}, device encoding task meets error.",
+                    storageGroup,
+                    writer.getFile().getName(),
+                    e);
+                throw new IllegalStateException(e.getCause());
+              } finally {
+                encodingPermits.release();
+              }
+              // the time waiting for the concurrent encoding is the cost of encoding stage
+              memSerializeTime += System.currentTimeMillis() - startTime;
             } else {
               long starTime = System.currentTimeMillis();
               IWritableMemChunk writableMemChunk = (IWritableMemChunk) task;
@@ -293,6 +317,181 @@ public class MemTableFlushTask {
         }
       };
 
+  /**
+   * Forward the encoded chunks of the device to io task while the device is still being encoded,
+   * until the end of its chunk group.
+   */
+  private void forwardEncodedChunkGroup(EncodedChunkGroup chunkGroup)
+      throws InterruptedException, ExecutionException {
+    while (true) {
+      Object encoded = chunkGroup.encodedQueue.poll(100, TimeUnit.MILLISECONDS);
+      if (encoded == null) {
+        if (chunkGroup.future.isDone()) {
+          // a finished task has offered EndChunkGroupIoTask, so the task must have failed
+          chunkGroup.future.get();
+        }
+        continue;
+      }
+      ioTaskQueue.put(encoded);
+      if (encoded instanceof EndChunkGroupIoTask) {
+        return;
+      }
+    }
+  }
+
+  /** Put the series of all devices into the encoding task queue in device order. */
+  private void putEncodingTasks() throws InterruptedException {
+    // for map do not use get(key) to iterate
+    Map<IDeviceID, IWritableMemChunkGroup> memTableMap = memTable.getMemTableMap();
+    List<IDeviceID> deviceIDList = new ArrayList<>(memTableMap.keySet());
+    // sort the IDeviceID in lexicographical order
+    Collections.sort(deviceIDList);
+    for (IDeviceID deviceID : deviceIDList) {
+      final Map<String, IWritableMemChunk> value = memTableMap.get(deviceID).getMemChunkMap();
+      // skip the empty device/chunk group
+      if (memTableMap.get(deviceID).isEmpty() || value.isEmpty()) {
+        continue;
+      }
+      if (encodingParallelism > 1) {
+        if (!acquireEncodingPermit()) {
+          // the encoding task has failed, its exception will be thrown by encodingTaskFuture
+          break;
+        }
+        BlockingQueue<Object> encodedQueue =
+            new LinkedBlockingQueue<>(config.getIoTaskQueueSizeForFlushing());
+        Future<Void> deviceEncodingFuture =
+            SUB_TASK_POOL_MANAGER.submit(new DeviceEncodingTask(deviceID, value, encodedQueue));
+        deviceEncodingFutures.add(deviceEncodingFuture);
+        encodingTaskQueue.put(new EncodedChunkGroup(encodedQueue, deviceEncodingFuture));
+        continue;
+      }
+      encodingTaskQueue.put(new StartFlushGroupIOTask(deviceID));
+      List<String> seriesInOrder = new ArrayList<>(value.keySet());
+      Collections.sort(seriesInOrder);
+      for (String seriesId : seriesInOrder) {
+        long startTime = System.currentTimeMillis();
+        IWritableMemChunk series = value.get(seriesId);
+        if (series.count() == 0) {
+          continue;
+        }
+        /*
+         * sort task (first task of flush pipeline)
+         */
+        series.sortTvListForFlush();
+        long subTaskTime = System.currentTimeMillis() - startTime;
+        sortTime.addAndGet(subTaskTime);
+        WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.SORT_TASK, subTaskTime);
+        encodingTaskQueue.put(series);
+      }
+
+      encodingTaskQueue.put(new EndChunkGroupIoTask());
+    }
+    encodingTaskQueue.put(new TaskEnd());
+  }
+
+  private boolean acquireEncodingPermit() throws InterruptedException {
+    while (!encodingPermits.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+      if (encodingTaskFuture.isDone() || isIoTaskFailed()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isIoTaskFailed() {
+    return ioTaskFuture.isDone() && !ioTaskEnded;
+  }
+
+  /**
+   * Wait until the encoding task finishes. If the io task fails before that, the encoding task and
+   * the device encoding tasks may be blocked forever by the bounded queues, so the flush fails.
+   */
+  private void waitForEncodingTask() throws InterruptedException, ExecutionException {
+    while (true) {
+      try {
+        encodingTaskFuture.get(100, TimeUnit.MILLISECONDS);
+        return;
+      } catch (TimeoutException e) {
+        if (isIoTaskFailed()) {
+          ioTaskFuture.get();
+          throw new ExecutionException(
+              new IOException("Io task exits before all the chunks are written"));
+        }
+      }
+    }
+  }
+
+  /** Cancel all the sub tasks of the failed flush, so that no thread is left blocked on queues. */
+  private void cancelSubTasks() {
+    encodingTaskFuture.cancel(true);
+    ioTaskFuture.cancel(true);
+    for (Future<Void> deviceEncodingFuture : deviceEncodingFutures) {
+      deviceEncodingFuture.cancel(true);
+    }
+  }
+
+  /**
+   * sort and encode all series of one device, the encoded chunk writers are put between the start
+   * and end messages of the chunk group into a bounded queue, which blocks the task until the
+   * encoding task forwards them to io task
+   */
+  private class DeviceEncodingTask implements Callable<Void> {
+
+    private final IDeviceID deviceId;
+    private final Map<String, IWritableMemChunk> memChunkMap;
+    private final BlockingQueue<Object> encodedChunkGroup;
+
+    private DeviceEncodingTask(
+        IDeviceID deviceId,
+        Map<String, IWritableMemChunk> memChunkMap,
+        BlockingQueue<Object> encodedChunkGroup) {
+      this.deviceId = deviceId;
+      this.memChunkMap = memChunkMap;
+      this.encodedChunkGroup = encodedChunkGroup;
+    }
+
+    @Override
+    public Void call() throws InterruptedException {
+      encodedChunkGroup.put(new StartFlushGroupIOTask(deviceId));
+      // encodeInfo and times are mutable states of encoding, so each device owns its copy
+      BatchEncodeInfo deviceEncodeInfo =
+          new BatchEncodeInfo(
+              0,
+              0,
+              0,
+              encodeInfo.maxNumberOfPointsInPage,
+              encodeInfo.maxNumberOfPointsInChunk,
+              encodeInfo.targetChunkSize);
+      long[] deviceTimes = null;
+      List<String> seriesInOrder = new ArrayList<>(memChunkMap.keySet());
+      Collections.sort(seriesInOrder);
+      for (String seriesId : seriesInOrder) {
+        // the encoding swallows interruptions, so check whether the flush is cancelled
+        if (Thread.currentThread().isInterrupted()) {
+          throw new InterruptedException();
+        }
+        IWritableMemChunk series = memChunkMap.get(seriesId);
+        if (series.count() == 0) {
+          continue;
+        }
+        long startTime = System.currentTimeMillis();
+        series.sortTvListForFlush();
+        long sortEndTime = System.currentTimeMillis();
+        sortTime.addAndGet(sortEndTime - startTime);
+        WRITING_METRICS.recordFlushSubTaskCost(WritingMetrics.SORT_TASK, sortEndTime - startTime);
+
+        if (series instanceof AlignedWritableMemChunk && deviceTimes == null) {
+          deviceTimes = new long[MAX_NUMBER_OF_POINTS_IN_PAGE];
+        }
+        series.encode(encodedChunkGroup, deviceEncodeInfo, deviceTimes);
+        WRITING_METRICS.recordFlushSubTaskCost(
+            WritingMetrics.ENCODING_TASK, System.currentTimeMillis() - sortEndTime);
+      }
+      encodedChunkGroup.put(new EndChunkGroupIoTask());
+      return null;
+    }
+  }
+
   public static void recordFlushPointsMetricInternal(
       long totalPointsNum, String storageGroupName, String dataRegionId) {
     long currentTime = CommonDateTimeUtils.currentTime();
@@ -344,6 +543,7 @@ public class MemTableFlushTask {
             if (ioMessage instanceof StartFlushGroupIOTask) {
               this.writer.startChunkGroup(((StartFlushGroupIOTask) ioMessage).deviceId);
             } else if (ioMessage instanceof TaskEnd) {
+              ioTaskEnded = true;
               break;
             } else if (ioMessage instanceof EndChunkGroupIoTask) {
               this.writer.setMinPlanIndex(memTable.getMinPlanIndex());
@@ -380,6 +580,17 @@ public class MemTableFlushTask {
     EndChunkGroupIoTask() {}
   }
 
+  static class EncodedChunkGroup {
+
+    private final BlockingQueue<Object> encodedQueue;
+    private final Future<Void> future;
+
+    EncodedChunkGroup(BlockingQueue<Object> encodedQueue, Future<Void> future) {
+      this.encodedQueue = encodedQueue;
+      this.future = future;
+    }
+  }
+
   static class StartFlushGroupIOTask {
 
     private final IDeviceID deviceId;
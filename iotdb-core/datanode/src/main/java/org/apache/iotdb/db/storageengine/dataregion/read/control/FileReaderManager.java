@@ -28,7 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.util.Iterator;
+import java.io.UncheckedIOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -37,6 +37,10 @@ import java.util.function.LongConsumer;
 /**
  * {@link FileReaderManager} is a singleton, which is used to manage all file readers(opened file
  * streams) to ensure that each file is opened at most once.
+ *
+ * <p>Getting readers and updating reference counts don't hold a global lock, they are only
+ * serialized with the operations on the same file by the concurrent maps, so that queries reading
+ * different files don't contend with each other.
  */
 public class FileReaderManager {
 
@@ -88,17 +92,39 @@ public class FileReaderManager {
     return FileReaderManagerHelper.INSTANCE;
   }
 
-  public synchronized void closeFileAndRemoveReader(String filePath) throws IOException {
+  public void closeFileAndRemoveReader(String filePath) throws IOException {
     closedReferenceMap.remove(filePath);
-    TsFileSequenceReader reader = closedFileReaderMap.remove(filePath);
-    if (reader != null) {
-      reader.close();
-    }
+    closeAndRemoveReader(closedFileReaderMap, filePath);
     unclosedReferenceMap.remove(filePath);
-    reader = unclosedFileReaderMap.remove(filePath);
-    if (reader != null) {
-      reader.close();
+    closeAndRemoveReader(unclosedFileReaderMap, filePath);
+  }
+
+  /**
+   * Close and remove the reader of filePath in one atomic update of the map, so that it can't
+   * interleave with a concurrent {@link #get} opening the same file: the opener either gets the
+   * reader before it is removed or opens a new one after it is closed.
+   *
+   * @return whether a reader of filePath was closed
+   */
+  private boolean closeAndRemoveReader(Map<String, TsFileSequenceReader> readerMap, String filePath)
+      throws IOException {
+    boolean[] closed = new boolean[1];
+    try {
+      readerMap.computeIfPresent(
+          filePath,
+          (path, reader) -> {
+            closed[0] = true;
+            try {
+              reader.close();
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+            return null;
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
     }
+    return closed[0];
   }
 
   /**
@@ -112,8 +138,7 @@ public class FileReaderManager {
    * @throws IOException when reader cannot be created.
    */
   @SuppressWarnings("squid:S2095")
-  public synchronized TsFileSequenceReader get(String filePath, boolean isClosed)
-      throws IOException {
+  public TsFileSequenceReader get(String filePath, boolean isClosed) throws IOException {
     return get(filePath, isClosed, null);
   }
 
@@ -129,31 +154,44 @@ public class FileReaderManager {
    * @throws IOException when reader cannot be created.
    */
   @SuppressWarnings("squid:S2095")
-  public synchronized TsFileSequenceReader get(
-      String filePath, boolean isClosed, LongConsumer ioSizeRecorder) throws IOException {
+  public TsFileSequenceReader get(String filePath, boolean isClosed, LongConsumer ioSizeRecorder)
+      throws IOException {
 
     Map<String, TsFileSequenceReader> readerMap =
         !isClosed ? unclosedFileReaderMap : closedFileReaderMap;
-    if (!readerMap.containsKey(filePath)) {
-      int currentOpenedReaderCount = readerMap.size();
-      if (currentOpenedReaderCount >= MAX_CACHED_FILE_SIZE
-          && (currentOpenedReaderCount % PRINT_INTERVAL == 0)) {
-        logger.warn("Query has opened {} files !", readerMap.size());
-      }
-
-      TsFileSequenceReader tsFileReader = null;
-      // check if the file is old version
-      if (!isClosed) {
-        tsFileReader = new UnClosedTsFileReader(filePath, ioSizeRecorder);
-      } else {
-        // already do the version check in TsFileSequenceReader's constructor
-        tsFileReader = new TsFileSequenceReader(filePath, ioSizeRecorder);
-      }
-      readerMap.put(filePath, tsFileReader);
+    TsFileSequenceReader tsFileReader = readerMap.get(filePath);
+    if (tsFileReader != null) {
       return tsFileReader;
     }
 
-    return readerMap.get(filePath);
+    int currentOpenedReaderCount = readerMap.size();
+    if (currentOpenedReaderCount >= MAX_CACHED_FILE_SIZE
+        && (currentOpenedReaderCount % PRINT_INTERVAL == 0)) {
+      logger.warn("Query has opened {} files !", readerMap.size());
+    }
+    try {
+      // The file is opened inside computeIfAbsent so that it is opened at most once. This does
+      // I/O (opening the file and checking its head and tail) while holding the bin of filePath,
+      // which also blocks the updates of the other files hashed to the same bin. That is bounded
+      // by one file open, which is much cheaper than opening the same file twice and closing one.
+      return readerMap.computeIfAbsent(
+          filePath,
+          path -> {
+            try {
+              // check if the file is old version
+              if (!isClosed) {
+                return new UnClosedTsFileReader(path, ioSizeRecorder);
+              } else {
+                // already do the version check in TsFileSequenceReader's constructor
+                return new TsFileSequenceReader(path, ioSizeRecorder);
+              }
+            } catch (IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
   }
 
   /**
@@ -162,17 +200,17 @@ public class FileReaderManager {
    */
   public void increaseFileReaderReference(TsFileResource tsFile, boolean isClosed) {
     tsFile.readLock();
-    synchronized (this) {
-      if (!isClosed) {
-        unclosedReferenceMap
-            .computeIfAbsent(tsFile.getTsFilePath(), k -> new AtomicInteger())
-            .getAndIncrement();
-      } else {
-        closedReferenceMap
-            .computeIfAbsent(tsFile.getTsFilePath(), k -> new AtomicInteger())
-            .getAndIncrement();
-      }
-    }
+    Map<String, AtomicInteger> refMap = isClosed ? closedReferenceMap : unclosedReferenceMap;
+    // compute() is atomic with closing the reader when the reference count decreases to 0
+    refMap.compute(
+        tsFile.getTsFilePath(),
+        (k, refCount) -> {
+          if (refCount == null) {
+            refCount = new AtomicInteger();
+          }
+          refCount.getAndIncrement();
+          return refCount;
+        });
   }
 
   /**
@@ -180,43 +218,35 @@ public class FileReaderManager {
    * Only when the reference count of a reader equals zero, the reader can be closed and removed.
    */
   public void decreaseFileReaderReference(TsFileResource tsFile, boolean isClosed) {
-    synchronized (this) {
-      if (!isClosed && unclosedReferenceMap.containsKey(tsFile.getTsFilePath())) {
-        if (unclosedReferenceMap.get(tsFile.getTsFilePath()).decrementAndGet() == 0) {
-          closeUnUsedReaderAndRemoveRef(tsFile.getTsFilePath(), false);
-        }
-      } else if (closedReferenceMap.containsKey(tsFile.getTsFilePath())
-          && (closedReferenceMap.get(tsFile.getTsFilePath()).decrementAndGet() == 0)) {
-        closeUnUsedReaderAndRemoveRef(tsFile.getTsFilePath(), true);
-      }
+    if (!isClosed && unclosedReferenceMap.containsKey(tsFile.getTsFilePath())) {
+      decreaseReferenceAndCloseUnusedReader(tsFile.getTsFilePath(), false);
+    } else {
+      decreaseReferenceAndCloseUnusedReader(tsFile.getTsFilePath(), true);
     }
     tsFile.readUnlock();
   }
 
-  private void closeUnUsedReaderAndRemoveRef(String tsFilePath, boolean isClosed) {
+  private void decreaseReferenceAndCloseUnusedReader(String tsFilePath, boolean isClosed) {
     Map<String, TsFileSequenceReader> readerMap =
         isClosed ? closedFileReaderMap : unclosedFileReaderMap;
     Map<String, AtomicInteger> refMap = isClosed ? closedReferenceMap : unclosedReferenceMap;
-    synchronized (this) {
-      // check ref num again
-      if (refMap.get(tsFilePath).get() != 0) {
-        return;
-      }
-
-      TsFileSequenceReader reader = readerMap.get(tsFilePath);
-      if (reader != null) {
-        try {
-          reader.close();
-        } catch (IOException e) {
-          logger.error("Can not close TsFileSequenceReader {} !", reader.getFileName(), e);
-        }
-      }
-      readerMap.remove(tsFilePath);
-      refMap.remove(tsFilePath);
-      if (resourceLogger.isDebugEnabled()) {
-        resourceLogger.debug("{} TsFileReader is closed because of no reference.", tsFilePath);
-      }
-    }
+    refMap.computeIfPresent(
+        tsFilePath,
+        (k, refCount) -> {
+          if (refCount.decrementAndGet() != 0) {
+            return refCount;
+          }
+          try {
+            closeAndRemoveReader(readerMap, tsFilePath);
+          } catch (IOException e) {
+            logger.error("Can not close TsFileSequenceReader {} !", tsFilePath, e);
+          }
+          if (resourceLogger.isDebugEnabled()) {
+            resourceLogger.debug("{} TsFileReader is closed because of no reference.", tsFilePath);
+          }
+          // remove the reference count
+          return null;
+        });
   }
 
   /**
@@ -225,32 +255,24 @@ public class FileReaderManager {
    *
    * @throws IOException if failed to close file handlers, IOException will be thrown
    */
-  public synchronized void closeAndRemoveAllOpenedReaders() throws IOException {
-    Iterator<Map.Entry<String, TsFileSequenceReader>> iterator =
-        closedFileReaderMap.entrySet().iterator();
-    while (iterator.hasNext()) {
-      Map.Entry<String, TsFileSequenceReader> entry = iterator.next();
-      entry.getValue().close();
-      if (resourceLogger.isDebugEnabled()) {
-        resourceLogger.debug("{} closedTsFileReader is closed.", entry.getKey());
+  public void closeAndRemoveAllOpenedReaders() throws IOException {
+    for (String filePath : closedFileReaderMap.keySet()) {
+      closedReferenceMap.remove(filePath);
+      if (closeAndRemoveReader(closedFileReaderMap, filePath) && resourceLogger.isDebugEnabled()) {
+        resourceLogger.debug("{} closedTsFileReader is closed.", filePath);
       }
-      closedReferenceMap.remove(entry.getKey());
-      iterator.remove();
     }
-    iterator = unclosedFileReaderMap.entrySet().iterator();
-    while (iterator.hasNext()) {
-      Map.Entry<String, TsFileSequenceReader> entry = iterator.next();
-      entry.getValue().close();
-      if (resourceLogger.isDebugEnabled()) {
-        resourceLogger.debug("{} unclosedTsFileReader is closed.", entry.getKey());
+    for (String filePath : unclosedFileReaderMap.keySet()) {
+      unclosedReferenceMap.remove(filePath);
+      if (closeAndRemoveReader(unclosedFileReaderMap, filePath)
+          && resourceLogger.isDebugEnabled()) {
+        resourceLogger.debug("{} unclosedTsFileReader is closed.", filePath);
       }
-      unclosedReferenceMap.remove(entry.getKey());
-      iterator.remove();
     }
   }
 
   /** This method is only for unit tests. */
-  public synchronized boolean contains(TsFileResource tsFile, boolean isClosed) {
+  public boolean contains(TsFileResource tsFile, boolean isClosed) {
     return (isClosed && closedFileReaderMap.containsKey(tsFile.getTsFilePath()))
         || (!isClosed && unclosedFileReaderMap.containsKey(tsFile.getTsFilePath()));
   }
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.wal.buffer;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This view serializes into a heap {@link ByteBuffer} which grows on demand. It's used by writer
+ * threads to serialize their own WALEntries before handing them to the {@link WALBuffer}.
+ */
+class GrowableWALByteBufferView extends IWALByteBufferView {
+  private ByteBuffer buffer;
+
+  GrowableWALByteBufferView(int initialCapacity) {
+    buffer = ByteBuffer.allocate(Math.max(initialCapacity, Long.BYTES));
+  }
+
+  private void ensureEnoughSpace(int bytesNum) {
+    if (buffer.remaining() >= bytesNum) {
+      return;
+    }
+    int newCapacity = Math.max(buffer.capacity() * 2, buffer.position() + bytesNum);
+    ByteBuffer newBuffer = ByteBuffer.allocate(newCapacity);
+    buffer.flip();
+    newBuffer.put(buffer);
+    buffer = newBuffer;
+  }
+
+  @Override
+  public void write(int b) {
+    put((byte) b);
+  }
+
+  @Override
+  public void write(byte[] b) {
+    put(b);
+  }
+
+  @Override
+  public void put(byte b) {
+    ensureEnoughSpace(Byte.BYTES);
+    buffer.put(b);
+  }
+
+  @Override
+  public void put(byte[] src) {
+    put(src, 0, src.length);
+  }
+
+  @Override
+  public void put(byte[] src, int offset, int length) {
+    ensureEnoughSpace(length);
+    buffer.put(src, offset, length);
+  }
+
+  @Override
+  public void putChar(char value) {
+    ensureEnoughSpace(Character.BYTES);
+    buffer.putChar(value);
+  }
+
+  @Override
+  public void putShort(short value) {
+    ensureEnoughSpace(Short.BYTES);
+    buffer.putShort(value);
+  }
+
+  @Override
+  public void putInt(int value) {
+    ensureEnoughSpace(Integer.BYTES);
+    buffer.putInt(value);
+  }
+
+  @Override
+  public void putLong(long value) {
+    ensureEnoughSpace(Long.BYTES);
+    buffer.putLong(value);
+  }
+
+  @Override
+  public void putFloat(float value) {
+    ensureEnoughSpace(Float.BYTES);
+    buffer.putFloat(value);
+  }
+
+  @Override
+  public void putDouble(double value) {
+    ensureEnoughSpace(Double.BYTES);
+    buffer.putDouble(value);
+  }
+
+  @Override
+  public int position() {
+    return buffer.position();
+  }
+
+  /** The backing array, only the first {@link #position()} bytes of which are valid. */
+  byte[] array() {
+    return buffer.array();
+  }
+}
@@ -204,6 +204,21 @@ public class WALBuffer extends AbstractWALBuffer {
       walEntry.getWalFlushListener().fail(new WALNodeClosedException(identifier));
       return;
     }
+    // serialize in the writer thread, so that concurrent writers don't queue up behind the
+    // single serializeThread, which then only copies the bytes in the order of walEntries
+    if (config.isWalParallelSerializeEnabled() && !walEntry.isSignal()) {
+      long start = System.nanoTime();
+      try {
+        if (((WALInfoEntry) walEntry).serializeInAdvance()) {
+          WRITING_METRICS.recordSerializeWALEntryInWriterCost(System.nanoTime() - start);
+        }
+      } catch (Exception e) {
+        logger.error(
+            "Fail to serialize WALEntry to wal node-{}'s buffer, discard it.", identifier, e);
+        walEntry.getWalFlushListener().fail(e);
+        return;
+      }
+    }
     // just add this WALEntry to queue
     try {
       walEntries.put(walEntry);
@@ -418,10 +433,15 @@ public class WALBuffer extends AbstractWALBuffer {
 
     @Override
     public void put(byte[] src) {
-      int offset = 0;
+      put(src, 0, src.length);
+    }
+
+    @Override
+    public void put(byte[] src, int offset, int length) {
+      int end = offset + length;
       while (true) {
         int leftCapacity = workingBuffer.remaining();
-        int needCapacity = src.length - offset;
+        int needCapacity = end - offset;
         if (leftCapacity >= needCapacity) {
           workingBuffer.put(src, offset, needCapacity);
           break;
@@ -42,6 +42,8 @@ public class WALInfoEntry extends WALEntry {
 
   // extra info for InsertTablet type value
   private TabletInfo tabletInfo;
+  // bytes serialized by the writer thread in advance, null if left to the serialize thread
+  private GrowableWALByteBufferView serializedView;
 
   public WALInfoEntry(long memTableId, WALEntryValue value, boolean wait) {
     super(memTableId, value, wait);
@@ -75,8 +77,36 @@ public class WALInfoEntry extends WALEntry {
     return FIXED_SERIALIZED_SIZE + (value == null ? 0 : value.serializedSize());
   }
 
+  /**
+   * Serialize this entry in the calling writer thread, so that the serialize thread of the wal
+   * buffer only needs to copy the bytes. Memtable snapshots are left to the serialize thread
+   * because they can be too large to keep a serialized copy on the heap.
+   *
+   * @return false if this entry type cannot be serialized in advance
+   */
+  public boolean serializeInAdvance() {
+    switch (type) {
+      case INSERT_TABLET_NODE:
+      case INSERT_ROW_NODE:
+      case INSERT_ROWS_NODE:
+      case DELETE_DATA_NODE:
+      case RELATIONAL_DELETE_DATA_NODE:
+      case CONTINUOUS_SAME_SEARCH_INDEX_SEPARATOR_NODE:
+        GrowableWALByteBufferView view = new GrowableWALByteBufferView(serializedSize());
+        serialize(view);
+        serializedView = view;
+        return true;
+      default:
+        return false;
+    }
+  }
+
   @Override
   public void serialize(IWALByteBufferView buffer) {
+    if (serializedView != null) {
+      buffer.put(serializedView.array(), 0, serializedView.position());
+      return;
+    }
     buffer.put(type.getCode());
     buffer.putLong(memTableId);
     switch (type) {
@@ -151,6 +181,10 @@ public class WALInfoEntry extends WALEntry {
 
   @Override
   public long getMemorySize() {
+    return getValueMemorySize() + (serializedView == null ? 0 : serializedView.array().length);
+  }
+
+  private long getValueMemorySize() {
     switch (type) {
       case INSERT_TABLET_NODE:
         return ((InsertNode) value).getMemorySize()
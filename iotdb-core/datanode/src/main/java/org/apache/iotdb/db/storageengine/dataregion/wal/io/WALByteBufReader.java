@@ -19,6 +19,7 @@
 
 package org.apache.iotdb.db.storageengine.dataregion.wal.io;
 
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALEntry;
 
 import java.io.Closeable;
@@ -38,7 +39,9 @@ public class WALByteBufReader implements Closeable {
   private Iterator<Integer> sizeIterator;
 
   public WALByteBufReader(File logFile) throws IOException {
-    WALInputStream walInputStream = new WALInputStream(logFile);
+    WALInputStream walInputStream =
+        new WALInputStream(
+            logFile, IoTDBDescriptor.getInstance().getConfig().isWalMmapReadEnabled());
     try {
       this.logStream = new DataInputStream(walInputStream);
       this.metaData = walInputStream.getWALMetaData();
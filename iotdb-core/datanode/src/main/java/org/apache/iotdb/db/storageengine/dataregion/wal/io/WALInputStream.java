@@ -32,6 +32,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.Objects;
@@ -47,7 +48,11 @@ public class WALInputStream extends InputStream implements AutoCloseable {
 
   private final ByteBuffer compressedSizeBuffer = ByteBuffer.allocate(Integer.BYTES);
   private ByteBuffer dataBuffer = null;
+  // whether dataBuffer is a slice of mappedFile, which must not be cleaned
+  private boolean dataBufferMapped = false;
   private ByteBuffer compressedBuffer = null;
+  // the whole file mapped into memory, null if the file is read through the channel
+  private MappedByteBuffer mappedFile = null;
   private final long fileSize;
   File logFile;
   /*
@@ -61,12 +66,26 @@ public class WALInputStream extends InputStream implements AutoCloseable {
   WALFileVersion version;
 
   public WALInputStream(File logFile) throws IOException {
+    this(logFile, false);
+  }
+
+  /**
+   * @param useMmap map the file into memory, so that uncompressed segments are sliced from the
+   *     mapping instead of being copied into a separate buffer, and compressed segments are
+   *     uncompressed directly from the mapping. Files larger than 2GB are always read through the
+   *     channel.
+   */
+  public WALInputStream(File logFile, boolean useMmap) throws IOException {
     channel = FileChannel.open(logFile.toPath());
     this.logFile = logFile;
     try {
       fileSize = channel.size();
       analyzeFileVersion();
       getEndOffset();
+      if (useMmap && fileSize > 0 && fileSize <= Integer.MAX_VALUE) {
+        mappedFile = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+        mappedFile.position((int) channel.position());
+      }
     } catch (Exception e) {
       channel.close();
       throw e;
@@ -170,15 +189,24 @@ public class WALInputStream extends InputStream implements AutoCloseable {
   @Override
   public void close() throws IOException {
     channel.close();
-    MmapUtil.clean(dataBuffer);
+    cleanDataBuffer();
     MmapUtil.clean(compressedBuffer);
-    dataBuffer = null;
+    MmapUtil.clean(mappedFile);
     compressedBuffer = null;
+    mappedFile = null;
+  }
+
+  private void cleanDataBuffer() {
+    if (!dataBufferMapped) {
+      MmapUtil.clean(dataBuffer);
+    }
+    dataBuffer = null;
+    dataBufferMapped = false;
   }
 
   @Override
   public int available() throws IOException {
-    long size = (endOffset - channel.position());
+    long size = (endOffset - getFileCurrentPos());
     if (!Objects.isNull(dataBuffer)) {
       size += dataBuffer.limit() - dataBuffer.position();
     }
@@ -186,11 +214,11 @@ public class WALInputStream extends InputStream implements AutoCloseable {
   }
 
   private void loadNextSegment() throws IOException {
-    if (channel.position() >= endOffset) {
+    if (getFileCurrentPos() >= endOffset) {
       throw new EOFException("Reach the end offset of wal file");
     }
     long startTime = System.nanoTime();
-    long startPosition = channel.position();
+    long startPosition = getFileCurrentPos();
     if (version == WALFileVersion.V2) {
       loadNextSegmentV2();
     } else if (version == WALFileVersion.V1) {
@@ -199,15 +227,16 @@ public class WALInputStream extends InputStream implements AutoCloseable {
       tryLoadSegment();
     }
     WritingMetrics.getInstance()
-        .recordWALRead(channel.position() - startPosition, System.nanoTime() - startTime);
+        .recordWALRead(getFileCurrentPos() - startPosition, System.nanoTime() - startTime);
   }
 
   private void loadNextSegmentV1() throws IOException {
     // just read raw data as input
-    if (channel.position() >= fileSize) {
+    if (getFileCurrentPos() >= fileSize) {
       throw new IOException("Unexpected end of file");
     }
-    if (Objects.isNull(dataBuffer)) {
+    if (Objects.isNull(dataBuffer) || dataBufferMapped) {
+      cleanDataBuffer();
       // read 128 KB
       dataBuffer = ByteBuffer.allocate(128 * 1024);
     }
@@ -217,40 +246,56 @@ public class WALInputStream extends InputStream implements AutoCloseable {
   }
 
   private void loadNextSegmentV2() throws IOException {
-    long position = channel.position();
+    long position = getFileCurrentPos();
     SegmentInfo segmentInfo = getNextSegmentInfo();
     try {
       if (segmentInfo.compressionType != CompressionType.UNCOMPRESSED) {
         // A compressed segment
         if (Objects.isNull(dataBuffer)
+            || dataBufferMapped
             || dataBuffer.capacity() < segmentInfo.uncompressedSize
             || dataBuffer.capacity() > segmentInfo.uncompressedSize * 2) {
-          MmapUtil.clean(dataBuffer);
+          cleanDataBuffer();
           dataBuffer = ByteBuffer.allocateDirect(segmentInfo.uncompressedSize);
         }
         dataBuffer.clear();
 
-        if (Objects.isNull(compressedBuffer)
-            || compressedBuffer.capacity() < segmentInfo.dataInDiskSize
-            || compressedBuffer.capacity() > segmentInfo.dataInDiskSize * 2) {
-          MmapUtil.clean(compressedBuffer);
-          compressedBuffer = ByteBuffer.allocateDirect(segmentInfo.dataInDiskSize);
-        }
-        compressedBuffer.clear();
-        // limit the buffer to prevent it from reading too much byte than expected
-        compressedBuffer.limit(segmentInfo.dataInDiskSize);
-        if (readWALBufferFromChannel(compressedBuffer) != segmentInfo.dataInDiskSize) {
-          throw new IOException("Unexpected end of file");
+        if (mappedFile != null) {
+          // uncompress from the mapping directly, no need to copy the compressed bytes first
+          ByteBuffer compressed = sliceMappedFile(segmentInfo.dataInDiskSize);
+          IUnCompressor unCompressor = IUnCompressor.getUnCompressor(segmentInfo.compressionType);
+          uncompressWALBuffer(compressed, dataBuffer, unCompressor);
+        } else {
+          if (Objects.isNull(compressedBuffer)
+              || compressedBuffer.capacity() < segmentInfo.dataInDiskSize
+              || compressedBuffer.capacity() > segmentInfo.dataInDiskSize * 2) {
+            MmapUtil.clean(compressedBuffer);
+            compressedBuffer = ByteBuffer.allocateDirect(segmentInfo.dataInDiskSize);
+          }
+          compressedBuffer.clear();
+          // limit the buffer to prevent it from reading too much byte than expected
+          compressedBuffer.limit(segmentInfo.dataInDiskSize);
+          if (readWALBufferFromChannel(compressedBuffer) != segmentInfo.dataInDiskSize) {
+            throw new IOException("Unexpected end of file");
+          }
+          compressedBuffer.flip();
+          IUnCompressor unCompressor = IUnCompressor.getUnCompressor(segmentInfo.compressionType);
+          uncompressWALBuffer(compressedBuffer, dataBuffer, unCompressor);
         }
-        compressedBuffer.flip();
-        IUnCompressor unCompressor = IUnCompressor.getUnCompressor(segmentInfo.compressionType);
-        uncompressWALBuffer(compressedBuffer, dataBuffer, unCompressor);
+      } else if (mappedFile != null) {
+        // An uncompressed segment, read it from the mapping without copying
+        cleanDataBuffer();
+        dataBuffer = sliceMappedFile(segmentInfo.dataInDiskSize);
+        dataBufferMapped = true;
+        // the slice is ready to read, skip the flip below
+        return;
       } else {
         // An uncompressed segment
         if (Objects.isNull(dataBuffer)
+            || dataBufferMapped
             || dataBuffer.capacity() < segmentInfo.dataInDiskSize
             || dataBuffer.capacity() > segmentInfo.dataInDiskSize * 2) {
-          MmapUtil.clean(dataBuffer);
+          cleanDataBuffer();
           dataBuffer = ByteBuffer.allocateDirect(segmentInfo.dataInDiskSize);
         }
         dataBuffer.clear();
@@ -274,13 +319,13 @@ public class WALInputStream extends InputStream implements AutoCloseable {
   }
 
   private void tryLoadSegment() throws IOException {
-    long originPosition = channel.position();
+    long originPosition = getFileCurrentPos();
     try {
       loadNextSegmentV1();
       version = WALFileVersion.V1;
     } catch (Throwable e) {
       // failed to load in V2 way, try in V1 way
-      channel.position(originPosition);
+      setFileCurrentPos(originPosition);
       loadNextSegmentV2();
       version = WALFileVersion.V2;
       logger.info("Failed to load WAL segment in V1 way, try in V2 way successfully.");
@@ -296,20 +341,21 @@ public class WALInputStream extends InputStream implements AutoCloseable {
    */
   public void skipToGivenLogicalPosition(long pos) throws IOException {
     if (version == WALFileVersion.V2) {
-      channel.position(version.getVersionBytes().length);
+      setFileCurrentPos(version.getVersionBytes().length);
       long posRemain = pos;
       SegmentInfo segmentInfo;
       do {
-        long currentPos = channel.position();
+        long currentPos = getFileCurrentPos();
         segmentInfo = getNextSegmentInfo();
         if (posRemain >= segmentInfo.uncompressedSize) {
           posRemain -= segmentInfo.uncompressedSize;
-          channel.position(currentPos + segmentInfo.dataInDiskSize + segmentInfo.headerSize());
+          setFileCurrentPos(currentPos + segmentInfo.dataInDiskSize + segmentInfo.headerSize());
         } else {
           break;
         }
       } while (posRemain >= 0);
 
+      cleanDataBuffer();
       if (segmentInfo.compressionType != CompressionType.UNCOMPRESSED) {
         compressedBuffer = ByteBuffer.allocateDirect(segmentInfo.dataInDiskSize);
         readWALBufferFromChannel(compressedBuffer);
@@ -327,8 +373,8 @@ public class WALInputStream extends InputStream implements AutoCloseable {
 
       dataBuffer.position((int) posRemain);
     } else {
-      dataBuffer = null;
-      channel.position(pos);
+      cleanDataBuffer();
+      setFileCurrentPos(pos);
     }
   }
 
@@ -347,7 +393,26 @@ public class WALInputStream extends InputStream implements AutoCloseable {
   }
 
   public long getFileCurrentPos() throws IOException {
-    return channel.position();
+    return mappedFile != null ? mappedFile.position() : channel.position();
+  }
+
+  private void setFileCurrentPos(long position) throws IOException {
+    if (mappedFile != null) {
+      mappedFile.position((int) position);
+    } else {
+      channel.position(position);
+    }
+  }
+
+  /** Slice the next size bytes of mappedFile without copying and move past them. */
+  private ByteBuffer sliceMappedFile(int size) throws IOException {
+    if (mappedFile.remaining() < size) {
+      throw new IOException("Unexpected end of file");
+    }
+    ByteBuffer slice = mappedFile.slice();
+    slice.limit(size);
+    mappedFile.position(mappedFile.position() + size);
+    return slice;
   }
 
   public WALMetaData getWALMetaData() throws IOException {
@@ -360,7 +425,7 @@ public class WALInputStream extends InputStream implements AutoCloseable {
 
   private SegmentInfo getNextSegmentInfo() throws IOException {
     segmentHeaderWithoutCompressedSizeBuffer.clear();
-    channel.read(segmentHeaderWithoutCompressedSizeBuffer);
+    readFromFile(segmentHeaderWithoutCompressedSizeBuffer);
     segmentHeaderWithoutCompressedSizeBuffer.flip();
     SegmentInfo info = new SegmentInfo();
     info.compressionType =
@@ -379,11 +444,24 @@ public class WALInputStream extends InputStream implements AutoCloseable {
 
   private int readWALBufferFromChannel(ByteBuffer buffer) throws IOException {
     long startTime = System.nanoTime();
-    int size = channel.read(buffer);
+    int size = readFromFile(buffer);
     WritingMetrics.getInstance().recordWALRead(size, System.nanoTime() - startTime);
     return size;
   }
 
+  /** Like {@link FileChannel#read(ByteBuffer)}, but reads from mappedFile if it's mapped. */
+  private int readFromFile(ByteBuffer buffer) throws IOException {
+    if (mappedFile == null) {
+      return channel.read(buffer);
+    }
+    if (!mappedFile.hasRemaining()) {
+      return buffer.hasRemaining() ? -1 : 0;
+    }
+    int size = Math.min(buffer.remaining(), mappedFile.remaining());
+    buffer.put(sliceMappedFile(size));
+    return size;
+  }
+
   private void uncompressWALBuffer(
       ByteBuffer compressed, ByteBuffer uncompressed, IUnCompressor unCompressor)
       throws IOException {
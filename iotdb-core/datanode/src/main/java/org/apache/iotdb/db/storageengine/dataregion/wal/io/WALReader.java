@@ -57,7 +57,9 @@ public class WALReader implements Closeable {
   public WALReader(File logFile, boolean fileMayCorrupt) throws IOException {
     this.logFile = logFile;
     this.fileMayCorrupt = fileMayCorrupt;
-    this.walInputStream = new WALInputStream(logFile);
+    this.walInputStream =
+        new WALInputStream(
+            logFile, IoTDBDescriptor.getInstance().getConfig().isWalMmapReadEnabled());
     this.logStream = new DataInputStream(walInputStream);
   }
 
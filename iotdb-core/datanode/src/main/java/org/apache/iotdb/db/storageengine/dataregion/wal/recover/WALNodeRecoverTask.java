@@ -30,6 +30,7 @@ import org.apache.iotdb.db.storageengine.dataregion.wal.WALManager;
 import org.apache.iotdb.db.storageengine.dataregion.wal.buffer.WALEntry;
 import org.apache.iotdb.db.storageengine.dataregion.wal.checkpoint.MemTableInfo;
 import org.apache.iotdb.db.storageengine.dataregion.wal.exception.BrokenWALFileException;
+import org.apache.iotdb.db.storageengine.dataregion.wal.exception.WALRecoverException;
 import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALByteBufReader;
 import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALMetaData;
 import org.apache.iotdb.db.storageengine.dataregion.wal.io.WALReader;
@@ -38,6 +39,7 @@ import org.apache.iotdb.db.storageengine.dataregion.wal.utils.CheckpointFileUtil
 import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALFileStatus;
 import org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALFileUtils;
 
+import com.google.common.util.concurrent.Uninterruptibles;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,13 +49,22 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import static org.apache.iotdb.consensus.iot.log.ConsensusReqReader.DEFAULT_SEARCH_INDEX;
 
@@ -234,7 +245,7 @@ public class WALNodeRecoverTask implements Runnable {
     }
   }
 
-  private void recoverTsFiles() {
+  private void recoverTsFiles() throws WALRecoverException {
     if (memTableId2RecoverPerformer.isEmpty()) {
       return;
     }
@@ -258,48 +269,146 @@ public class WALNodeRecoverTask implements Runnable {
     }
     // asc sort by version id
     WALFileUtils.ascSortByVersionId(walFiles);
+    for (File walFile : walFiles) {
+      walRecoverManger.addTotalWALFilesSize(walFile.length());
+    }
     // read .wal files and redo logs
-    for (int i = 0; i < walFiles.length; ++i) {
-      File walFile = walFiles[i];
-      try (WALByteBufReader reader = new WALByteBufReader(walFile)) {
-        if (Collections.disjoint(memTableId2Info.keySet(), reader.getMetaData().getMemTablesId())) {
-          continue;
+    ExecutorService subTaskThreadPool = walRecoverManger.getRecoverSubTaskThreadPool();
+    if (subTaskThreadPool == null) {
+      for (File walFile : walFiles) {
+        readLogs(walFile, walEntry -> redoLog(walFile, walEntry));
+        walRecoverManger.addRecoveredWALFilesSize(walFile.length());
+      }
+    } else {
+      redoLogsInParallel(walFiles, subTaskThreadPool);
+    }
+    endRecovery();
+  }
+
+  /**
+   * Parse the following wal files ahead in the sub task thread pool, and redo the logs of each file
+   * with one sub task per memTable. Logs of one memTable are still redone in order because the logs
+   * of the next file are redone after all the logs of the current file. The files parsed ahead are
+   * bounded both by number and by total size, because their logs are kept in memory until redone.
+   */
+  private void redoLogsInParallel(File[] walFiles, ExecutorService subTaskThreadPool)
+      throws WALRecoverException {
+    int parseAheadNum = config.getWalRecoverThreadNum();
+    long parseAheadSizeInByte = config.getWalRecoverParseAheadSizeInByte();
+    Deque<Future<Map<Long, List<WALEntry>>>> parseFutures = new ArrayDeque<>();
+    List<Future<?>> redoFutures = new ArrayList<>();
+    AtomicBoolean aborted = new AtomicBoolean(false);
+    int nextFileToParse = 0;
+    // total size of the files parsed but not redone yet, including the file being redone
+    long parsedSize = 0;
+    try {
+      for (int i = 0; i < walFiles.length; ++i) {
+        while (nextFileToParse < walFiles.length
+            && nextFileToParse - i < parseAheadNum
+            && (nextFileToParse == i
+                || parsedSize + walFiles[nextFileToParse].length() <= parseAheadSizeInByte)) {
+          File walFile = walFiles[nextFileToParse++];
+          parsedSize += walFile.length();
+          parseFutures.add(subTaskThreadPool.submit(() -> parseLogs(walFile)));
         }
-        while (reader.hasNext()) {
-          ByteBuffer buffer = reader.next();
-          // see WALInfoEntry#serialize, entry type
-          buffer.position(Byte.BYTES);
-          long memTableId = buffer.getLong();
-          if (!memTableId2Info.containsKey(memTableId)) {
-            continue;
-          }
-          buffer.clear();
-          WALEntry walEntry =
-              WALEntry.deserialize(new DataInputStream(new ByteArrayInputStream(buffer.array())));
-          UnsealedTsFileRecoverPerformer recoverPerformer =
-              memTableId2RecoverPerformer.get(walEntry.getMemTableId());
-          if (recoverPerformer != null) {
-            recoverPerformer.redoLog(walEntry);
-          } else {
-            logger.debug(
-                "Fail to find TsFile recover performer for wal entry in TsFile {}", walFile);
-          }
+        File walFile = walFiles[i];
+        redoFutures.clear();
+        for (List<WALEntry> walEntries : parseFutures.poll().get().values()) {
+          redoFutures.add(subTaskThreadPool.submit(() -> redoLogs(walFile, walEntries, aborted)));
+        }
+        for (Future<?> redoFuture : redoFutures) {
+          redoFuture.get();
+        }
+        parsedSize -= walFile.length();
+        walRecoverManger.addRecoveredWALFilesSize(walFile.length());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new WALRecoverException("Interrupted when redoing wal logs in " + logDirectory, e);
+    } catch (ExecutionException e) {
+      throw new WALRecoverException("Fail to redo wal logs in " + logDirectory, e);
+    } finally {
+      parseFutures.forEach(future -> future.cancel(true));
+      // redo tasks write into the memTables, so stop them between logs instead of interrupting
+      // them, and wait for them to leave the memTables before the recovery is ended
+      aborted.set(true);
+      for (Future<?> redoFuture : redoFutures) {
+        try {
+          Uninterruptibles.getUninterruptibly(redoFuture);
+        } catch (ExecutionException e) {
+          logger.warn("Fail to redo wal logs in {}", logDirectory, e);
         }
-      } catch (BrokenWALFileException e) {
-        logger.warn(
-            "Fail to read memTable ids from the wal file {} of wal node: {}",
-            walFile.getAbsoluteFile(),
-            e.getMessage());
-      } catch (IOException e) {
-        logger.warn(
-            "Fail to read memTable ids from the wal file {} of wal node.",
-            walFile.getAbsoluteFile(),
-            e);
-      } catch (Exception e) {
-        logger.warn("Fail to read wal logs from {}, skip them", walFile, e);
       }
     }
-    endRecovery();
+  }
+
+  /** Group the logs of the wal file by memTable id, keeping their order within each memTable. */
+  private Map<Long, List<WALEntry>> parseLogs(File walFile) {
+    Map<Long, List<WALEntry>> memTableId2WalEntries = new LinkedHashMap<>();
+    readLogs(
+        walFile,
+        walEntry ->
+            memTableId2WalEntries
+                .computeIfAbsent(walEntry.getMemTableId(), k -> new ArrayList<>())
+                .add(walEntry));
+    return memTableId2WalEntries;
+  }
+
+  private void redoLogs(File walFile, List<WALEntry> walEntries, AtomicBoolean aborted) {
+    try {
+      for (WALEntry walEntry : walEntries) {
+        if (aborted.get()) {
+          return;
+        }
+        redoLog(walFile, walEntry);
+      }
+    } catch (Exception e) {
+      logger.warn("Fail to redo wal logs from {}, skip them", walFile, e);
+    }
+  }
+
+  private void redoLog(File walFile, WALEntry walEntry) {
+    UnsealedTsFileRecoverPerformer recoverPerformer =
+        memTableId2RecoverPerformer.get(walEntry.getMemTableId());
+    if (recoverPerformer != null) {
+      recoverPerformer.redoLog(walEntry);
+    } else {
+      logger.debug("Fail to find TsFile recover performer for wal entry in TsFile {}", walFile);
+    }
+  }
+
+  /** Read the logs of the memTables to recover from the wal file and hand them to the consumer. */
+  private void readLogs(File walFile, Consumer<WALEntry> consumer) {
+    try (WALByteBufReader reader = new WALByteBufReader(walFile)) {
+      if (Collections.disjoint(memTableId2Info.keySet(), reader.getMetaData().getMemTablesId())) {
+        return;
+      }
+      while (reader.hasNext()) {
+        ByteBuffer buffer = reader.next();
+        // see WALInfoEntry#serialize, entry type
+        buffer.position(Byte.BYTES);
+        long memTableId = buffer.getLong();
+        if (!memTableId2Info.containsKey(memTableId)) {
+          continue;
+        }
+        buffer.clear();
+        WALEntry walEntry =
+            WALEntry.deserialize(new DataInputStream(new ByteArrayInputStream(buffer.array())));
+        consumer.accept(walEntry);
+      }
+    } catch (BrokenWALFileException e) {
+      logger.warn(
+          "Fail to read memTable ids from the wal file {} of wal node: {}",
+          walFile.getAbsoluteFile(),
+          e.getMessage());
+    } catch (IOException e) {
+      logger.warn(
+          "Fail to read memTable ids from the wal file {} of wal node.",
+          walFile.getAbsoluteFile(),
+          e);
+    } catch (Exception e) {
+      logger.warn("Fail to read wal logs from {}, skip them", walFile, e);
+    }
   }
 
   private void endRecovery() {
@@ -27,6 +27,8 @@ import org.apache.iotdb.commons.conf.CommonDescriptor;
 import org.apache.iotdb.commons.exception.StartupException;
 import org.apache.iotdb.commons.file.SystemFileFactory;
 import org.apache.iotdb.commons.utils.TestOnly;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.DataRegionException;
 import org.apache.iotdb.db.exception.runtime.StorageEngineFailureException;
 import org.apache.iotdb.db.storageengine.dataregion.wal.exception.WALRecoverException;
@@ -47,6 +49,8 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALFileUtils.getTsFileRelativePath;
 
@@ -54,6 +58,7 @@ import static org.apache.iotdb.db.storageengine.dataregion.wal.utils.WALFileUtil
 public class WALRecoverManager {
   private static final Logger logger = LoggerFactory.getLogger(WALRecoverManager.class);
   private static final CommonConfig commonConfig = CommonDescriptor.getInstance().getConfig();
+  private static final IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
 
   // true when the recover procedure has started
   private volatile boolean hasStarted = false;
@@ -64,6 +69,12 @@ public class WALRecoverManager {
 
   // threads to recover wal nodes
   private ExecutorService recoverThreadPool;
+  // threads shared by all wal nodes to parse wal files and redo logs in parallel, null if each
+  // wal node reads and redoes its wal files sequentially
+  private ExecutorService recoverSubTaskThreadPool;
+  // total size of wal files to recover and size of wal files recovered, used to report progress
+  private final AtomicLong totalWALFilesSize = new AtomicLong(0);
+  private final AtomicLong recoveredWALFilesSize = new AtomicLong(0);
   // stores all UnsealedTsFileRecoverPerformer submitted by data region processors
   private final Map<String, UnsealedTsFileRecoverPerformer> absolutePath2RecoverPerformer =
       new ConcurrentHashMap<>();
@@ -105,13 +116,22 @@ public class WALRecoverManager {
       if (!walNodeDirs.isEmpty()) {
         recoverThreadPool =
             IoTDBThreadPoolFactory.newCachedThreadPool(ThreadName.WAL_RECOVER.getName());
+        if (config.getWalRecoverThreadNum() > 0) {
+          recoverSubTaskThreadPool =
+              IoTDBThreadPoolFactory.newFixedThreadPool(
+                  config.getWalRecoverThreadNum(), ThreadName.WAL_RECOVER_SUB_TASK.getName());
+        }
         CountDownLatch allNodesRecoveredLatch = new CountDownLatch(walNodeDirs.size());
+        long startTime = System.currentTimeMillis();
         for (File walNodeDir : walNodeDirs) {
           recoverThreadPool.submit(new WALNodeRecoverTask(walNodeDir, allNodesRecoveredLatch));
         }
 
         try {
-          allNodesRecoveredLatch.await();
+          while (!allNodesRecoveredLatch.await(
+              config.getRecoveryLogIntervalInMs(), TimeUnit.MILLISECONDS)) {
+            logRecoverProgress(startTime);
+          }
         } catch (InterruptedException e) {
           Thread.currentThread().interrupt();
           throw new WALRecoverException("Fail to recover wal.", e);
@@ -142,6 +162,24 @@ public class WALRecoverManager {
     logger.info("Successfully recover all wal nodes.");
   }
 
+  private void logRecoverProgress(long startTime) {
+    long total = totalWALFilesSize.get();
+    long recovered = recoveredWALFilesSize.get();
+    if (total == 0) {
+      logger.info("Wal nodes are still preparing for recovery.");
+      return;
+    }
+    long elapsedTime = System.currentTimeMillis() - startTime;
+    // estimate the remaining time by the average speed so far
+    String remainingTime =
+        recovered == 0
+            ? "unknown"
+            : (long) ((double) elapsedTime / recovered * (total - recovered) / 1000) + "s";
+    logger.info(
+        "Recovered {}/{} bytes of wal files ({}%), estimated remaining time: {}.",
+        recovered, total, String.format("%.2f", (double) recovered / total * 100), remainingTime);
+  }
+
   private void asyncRecoverLeftTsFiles() {
     if (absolutePath2RecoverPerformer.isEmpty()) {
       return;
@@ -214,6 +252,26 @@ public class WALRecoverManager {
     return null;
   }
 
+  ExecutorService getRecoverSubTaskThreadPool() {
+    return recoverSubTaskThreadPool;
+  }
+
+  void addTotalWALFilesSize(long size) {
+    totalWALFilesSize.addAndGet(size);
+  }
+
+  void addRecoveredWALFilesSize(long size) {
+    recoveredWALFilesSize.addAndGet(size);
+  }
+
+  public long getTotalWALFilesSize() {
+    return totalWALFilesSize.get();
+  }
+
+  public long getRecoveredWALFilesSize() {
+    return recoveredWALFilesSize.get();
+  }
+
   public ExceptionalCountDownLatch getAllDataRegionScannedLatch() {
     return allDataRegionScannedLatch;
   }
@@ -228,12 +286,18 @@ public class WALRecoverManager {
       recoverThreadPool.shutdown();
       recoverThreadPool = null;
     }
+    if (recoverSubTaskThreadPool != null) {
+      recoverSubTaskThreadPool.shutdown();
+      recoverSubTaskThreadPool = null;
+    }
   }
 
   @TestOnly
   public void clear() {
     stop();
     hasStarted = false;
+    totalWALFilesSize.set(0);
+    recoveredWALFilesSize.set(0);
   }
 
   public static WALRecoverManager getInstance() {
@@ -104,6 +104,18 @@ public abstract class DiskSpiller {
     }
   }
 
+  /** Spill the tsBlocks as they are, each invoking will generate a new file. */
+  public void spillTsBlocks(List<TsBlock> tsBlocks) throws IoTDBException {
+    try {
+      spill(tsBlocks);
+    } catch (IOException e) {
+      throw new IoTDBException(
+          "Create file error: " + filePrefix + (fileIndex - 1) + FILE_SUFFIX,
+          e,
+          TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+    }
+  }
+
   protected abstract TsBlock buildSortedTsBlock(TsBlockBuilder resultBuilder);
 
   private void writeData(List<TsBlock> sortedData, String fileName) throws IoTDBException {
@@ -150,7 +162,7 @@ public abstract class DiskSpiller {
     return fileIndex != 0;
   }
 
-  private List<String> getFilePaths() {
+  List<String> getFilePaths() {
     List<String> filePaths = new ArrayList<>();
     for (int i = 0; i < fileIndex; i++) {
       filePaths.add(filePrefix + String.format("%05d", i) + FILE_SUFFIX);
@@ -174,6 +186,11 @@ public abstract class DiskSpiller {
     return sortReaders;
   }
 
+  /** Get a reader which returns all the spilled tsBlocks in the order they were spilled. */
+  public SpilledTsBlockReader getTsBlockReader() {
+    return new SpilledTsBlockReader(getFilePaths(), serde);
+  }
+
   public int getFileSize() {
     return fileIndex;
   }
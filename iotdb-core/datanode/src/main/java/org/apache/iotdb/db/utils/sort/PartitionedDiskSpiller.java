@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.sort;
+
+import org.apache.iotdb.commons.exception.IoTDBException;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Spill rows of table model into several partitions, rows of each partition are buffered in a
+ * {@link TsBlockBuilder} and spilled by its own {@link TableDiskSpiller} once the builder is full.
+ * It is used by the operators which need to process their input partition by partition when the
+ * data can't be held in memory, e.g. hash join and hash aggregation.
+ */
+public class PartitionedDiskSpiller {
+
+  private final TableDiskSpiller[] spillers;
+  private final TsBlockBuilder[] builders;
+
+  public PartitionedDiskSpiller(
+      String folderPath, String filePrefix, List<TSDataType> dataTypes, int partitionCount) {
+    this.spillers = new TableDiskSpiller[partitionCount];
+    this.builders = new TsBlockBuilder[partitionCount];
+    for (int i = 0; i < partitionCount; i++) {
+      spillers[i] = new TableDiskSpiller(folderPath, filePrefix + "-p" + i, dataTypes);
+      builders[i] = new TsBlockBuilder(dataTypes);
+    }
+  }
+
+  public int getPartitionCount() {
+    return spillers.length;
+  }
+
+  /** Append the row at the position of tsBlock to the partition. */
+  public void append(int partition, TsBlock tsBlock, int position) throws IoTDBException {
+    TsBlockBuilder builder = builders[partition];
+    ColumnBuilder[] columnBuilders = builder.getValueColumnBuilders();
+    for (int i = 0; i < columnBuilders.length; i++) {
+      Column column = tsBlock.getColumn(i);
+      if (column.isNull(position)) {
+        columnBuilders[i].appendNull();
+      } else {
+        columnBuilders[i].write(column, position);
+      }
+    }
+    builder.declarePosition();
+    if (builder.isFull()) {
+      spill(partition);
+    }
+  }
+
+  /** Spill all the rows still buffered in memory, it should be invoked before reading. */
+  public void flush() throws IoTDBException {
+    for (int i = 0; i < builders.length; i++) {
+      if (!builders[i].isEmpty()) {
+        spill(i);
+      }
+    }
+  }
+
+  private void spill(int partition) throws IoTDBException {
+    TsBlockBuilder builder = builders[partition];
+    TableDiskSpiller spiller = spillers[partition];
+    spiller.spillTsBlocks(Collections.singletonList(spiller.buildSortedTsBlock(builder)));
+    builder.reset();
+  }
+
+  public boolean hasSpilledData(int partition) {
+    return spillers[partition].hasSpilledData();
+  }
+
+  public SpilledTsBlockReader getReader(int partition) {
+    return spillers[partition].getTsBlockReader();
+  }
+
+  public long getRetainedSizeInBytes() {
+    long size = 0;
+    for (TsBlockBuilder builder : builders) {
+      size += builder.getRetainedSizeInBytes();
+    }
+    return size;
+  }
+}
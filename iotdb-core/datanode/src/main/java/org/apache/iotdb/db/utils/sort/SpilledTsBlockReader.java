@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.utils.sort;
+
+import org.apache.iotdb.commons.exception.IoTDBException;
+import org.apache.iotdb.rpc.TSStatusCode;
+
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.column.TsBlockSerde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Read the tsBlocks spilled by {@link DiskSpiller#spillTsBlocks(List)} one by one, only one tsBlock
+ * is held in memory at a time.
+ */
+public class SpilledTsBlockReader implements AutoCloseable {
+
+  private final List<String> filePaths;
+  private final TsBlockSerde serde;
+
+  private int fileIndex = -1;
+  private FileChannel fileChannel;
+  private TsBlock cachedTsBlock;
+
+  SpilledTsBlockReader(List<String> filePaths, TsBlockSerde serde) {
+    this.filePaths = filePaths;
+    this.serde = serde;
+  }
+
+  public boolean hasNext() throws IoTDBException {
+    if (cachedTsBlock != null) {
+      return true;
+    }
+    while (true) {
+      if (fileChannel == null) {
+        if (fileIndex + 1 >= filePaths.size()) {
+          return false;
+        }
+        fileIndex++;
+        openFile(filePaths.get(fileIndex));
+      }
+      cachedTsBlock = read();
+      if (cachedTsBlock != null) {
+        return true;
+      }
+      closeFile();
+    }
+  }
+
+  public TsBlock next() throws IoTDBException {
+    if (!hasNext()) {
+      throw new IllegalStateException("No more spilled tsBlock");
+    }
+    TsBlock res = cachedTsBlock;
+    cachedTsBlock = null;
+    return res;
+  }
+
+  private void openFile(String fileName) throws IoTDBException {
+    try {
+      fileChannel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+    } catch (IOException e) {
+      throw new IoTDBException(
+          "Can't open spilled file, check if the file exists: " + fileName,
+          e,
+          TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+    }
+  }
+
+  private TsBlock read() throws IoTDBException {
+    try {
+      ByteBuffer bytes = ByteBuffer.allocate(4);
+      if (fileChannel.read(bytes) == -1) {
+        return null;
+      }
+      bytes.flip();
+      int capacity = bytes.getInt();
+      ByteBuffer tsBlockBytes = ByteBuffer.allocate(capacity);
+      while (tsBlockBytes.hasRemaining()) {
+        if (fileChannel.read(tsBlockBytes) == -1) {
+          break;
+        }
+      }
+      tsBlockBytes.flip();
+      return serde.deserialize(tsBlockBytes);
+    } catch (IOException e) {
+      throw new IoTDBException(
+          "Can't read a new tsBlock from spilled file: " + filePaths.get(fileIndex),
+          e,
+          TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+    }
+  }
+
+  private void closeFile() throws IoTDBException {
+    if (fileChannel == null) {
+      return;
+    }
+    try {
+      fileChannel.close();
+    } catch (IOException e) {
+      throw new IoTDBException(
+          "Can't close fileChannel of spilled file: " + filePaths.get(fileIndex),
+          e,
+          TSStatusCode.INTERNAL_SERVER_ERROR.getStatusCode());
+    } finally {
+      fileChannel = null;
+    }
+  }
+
+  @Override
+  public void close() throws IoTDBException {
+    cachedTsBlock = null;
+    closeFile();
+  }
+}
@@ -22,6 +22,7 @@ package org.apache.iotdb.db.metadata.schemaRegion;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.commons.path.PartialPath;
 import org.apache.iotdb.commons.path.PathPatternTree;
+import org.apache.iotdb.commons.schema.filter.SchemaFilterFactory;
 import org.apache.iotdb.db.schemaengine.schemaregion.ISchemaRegion;
 import org.apache.iotdb.db.schemaengine.schemaregion.read.resp.info.ITimeSeriesSchemaInfo;
 
@@ -41,6 +42,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @SuppressWarnings("java:S5783")
 public class SchemaRegionAliasAndTagTest extends AbstractSchemaRegionTest {
@@ -236,6 +238,47 @@ public class SchemaRegionAliasAndTagTest extends AbstractSchemaRegionTest {
         });
   }
 
+  @Test
+  public void testShowTimeseriesWithTagFilters() throws Exception {
+    prepareTimeseries();
+    PartialPath pattern = new PartialPath("root.sg.**");
+    List<ITimeSeriesSchemaInfo> result =
+        SchemaRegionTestUtil.showTimeseries(schemaRegion, pattern, false, "tag1", "t1");
+    Assert.assertEquals(
+        Arrays.asList("root.sg.wf01.aligned_device2.s1", "root.sg.wf01.wt01.v1.s2"),
+        result.stream().map(ITimeSeriesSchemaInfo::getFullPath).collect(Collectors.toList()));
+
+    // the posting lists of both tags are intersected
+    result =
+        SchemaRegionTestUtil.showTimeseries(
+            schemaRegion,
+            pattern,
+            Collections.emptyMap(),
+            0,
+            0,
+            false,
+            SchemaFilterFactory.and(
+                SchemaFilterFactory.createTagFilter("tag1", "t1", false),
+                SchemaFilterFactory.createTagFilter("tag2", "t", true)),
+            false);
+    Assert.assertEquals(1, result.size());
+    Assert.assertEquals("root.sg.wf01.wt01.v1.s2", result.get(0).getFullPath());
+
+    result =
+        SchemaRegionTestUtil.showTimeseries(
+            schemaRegion,
+            pattern,
+            Collections.emptyMap(),
+            0,
+            0,
+            false,
+            SchemaFilterFactory.and(
+                SchemaFilterFactory.createTagFilter("tag1", "t1", false),
+                SchemaFilterFactory.createTagFilter("tag2", "t3", false)),
+            false);
+    Assert.assertTrue(result.isEmpty());
+  }
+
   @Test
   public void testUpsertAliasAndTagsAndAttributes() {
     try {
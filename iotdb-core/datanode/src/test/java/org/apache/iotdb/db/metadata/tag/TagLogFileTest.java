@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.metadata.tag;
+
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.db.schemaengine.schemaregion.tag.TagLogFile;
+
+import org.apache.tsfile.utils.Pair;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public class TagLogFileTest {
+
+  // more than the records of one mapped segment
+  private static final int RECORD_NUM = 5000;
+
+  private File schemaDir;
+
+  @Before
+  public void setUp() throws Exception {
+    schemaDir = Files.createTempDirectory("tag-log").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    FileUtils.deleteFileOrDirectory(schemaDir);
+  }
+
+  @Test
+  public void testReadAndUpdate() throws Exception {
+    try (TagLogFile tagLogFile = new TagLogFile(schemaDir.getPath(), "tlog.txt")) {
+      long[] offsets = new long[RECORD_NUM];
+      for (int i = 0; i < RECORD_NUM; i++) {
+        offsets[i] = tagLogFile.write(tags(i), attributes(i));
+      }
+      for (int i = 0; i < RECORD_NUM; i++) {
+        assertEquals(tags(i), tagLogFile.readTag(offsets[i]));
+      }
+
+      // update a record in the mapped segment in place, and a record occupying multiple blocks
+      tagLogFile.write(tags(-1), attributes(-1), offsets[1]);
+      Map<String, String> largeAttributes = new HashMap<>();
+      largeAttributes.put("attr", String.join("", Collections.nCopies(2000, "a")));
+      tagLogFile.write(tags(2), largeAttributes, offsets[2]);
+
+      // read in the reversed order of offset
+      long[] positions = new long[RECORD_NUM];
+      for (int i = 0; i < RECORD_NUM; i++) {
+        positions[i] = offsets[RECORD_NUM - 1 - i];
+      }
+      List<Pair<Map<String, String>, Map<String, String>>> result = tagLogFile.read(positions);
+      for (int i = 0; i < RECORD_NUM; i++) {
+        int record = RECORD_NUM - 1 - i;
+        if (record == 1) {
+          assertEquals(tags(-1), result.get(i).left);
+          assertEquals(attributes(-1), result.get(i).right);
+        } else if (record == 2) {
+          assertEquals(tags(2), result.get(i).left);
+          assertEquals(largeAttributes, result.get(i).right);
+        } else {
+          assertEquals(tags(record), result.get(i).left);
+          assertEquals(attributes(record), result.get(i).right);
+        }
+      }
+    }
+  }
+
+  private static Map<String, String> tags(int i) {
+    return Collections.singletonMap("tag", "t" + i);
+  }
+
+  private static Map<String, String> attributes(int i) {
+    return Collections.singletonMap("attr", "a" + i);
+  }
+}
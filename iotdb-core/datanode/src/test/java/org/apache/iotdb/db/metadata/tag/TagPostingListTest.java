@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.metadata.tag;
+
+import org.apache.iotdb.commons.schema.node.role.IMeasurementMNode;
+import org.apache.iotdb.db.schemaengine.schemaregion.tag.TagPostingList;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TagPostingListTest {
+
+  @Test
+  public void testAddAndRemove() {
+    List<IMeasurementMNode<?>> nodes = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      nodes.add(Mockito.mock(IMeasurementMNode.class));
+    }
+    TagPostingList postingList = new TagPostingList();
+    Set<IMeasurementMNode<?>> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    Random random = new Random(0);
+    for (int i = 0; i < 20000; i++) {
+      IMeasurementMNode<?> node = nodes.get(random.nextInt(nodes.size()));
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(node), postingList.remove(node));
+      } else {
+        assertEquals(expected.add(node), postingList.add(node));
+      }
+      assertEquals(expected.size(), postingList.size());
+    }
+    for (IMeasurementMNode<?> node : nodes) {
+      assertEquals(expected.contains(node), postingList.contains(node));
+    }
+    List<IMeasurementMNode<?>> actual = postingList.toList();
+    assertEquals(expected.size(), actual.size());
+    assertTrue(expected.containsAll(actual));
+
+    for (IMeasurementMNode<?> node : nodes) {
+      postingList.remove(node);
+    }
+    assertTrue(postingList.isEmpty());
+    assertFalse(postingList.contains(nodes.get(0)));
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.protocol.mqtt;
+
+import org.apache.iotdb.db.protocol.session.MqttClientSession;
+import org.apache.iotdb.db.queryengine.plan.statement.crud.InsertTabletStatement;
+
+import io.netty.buffer.Unpooled;
+import org.awaitility.Awaitility;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class MqttMessageBatcherTest {
+
+  @Test
+  public void testFlushBySize() throws Exception {
+    List<List<Message>> flushed = Collections.synchronizedList(new ArrayList<>());
+    MqttMessageBatcher batcher =
+        new MqttMessageBatcher(2, 100, 3, 60_000, (session, messages) -> flushed.add(messages));
+    MqttClientSession session = new MqttClientSession("client");
+    try {
+      for (int i = 0; i < 6; i++) {
+        batcher.submit(session, "root.sg.d1", message(i));
+      }
+      Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> flushed.size() == 2);
+      assertEquals(Arrays.asList(0L, 1L, 2L), timestamps(flushed.get(0)));
+      assertEquals(Arrays.asList(3L, 4L, 5L), timestamps(flushed.get(1)));
+    } finally {
+      batcher.stop();
+    }
+  }
+
+  @Test
+  public void testFlushByInterval() throws Exception {
+    List<List<Message>> flushed = Collections.synchronizedList(new ArrayList<>());
+    MqttMessageBatcher batcher =
+        new MqttMessageBatcher(1, 100, 100, 50, (session, messages) -> flushed.add(messages));
+    MqttClientSession session = new MqttClientSession("client");
+    try {
+      batcher.submit(session, "root.sg.d1", message(1));
+      batcher.submit(session, "root.sg.d2", message(2));
+      batcher.submit(session, "root.sg.d1", message(3));
+      Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> flushed.size() == 2);
+      assertEquals(Arrays.asList(1L, 3L), timestamps(flushed.get(0)));
+      assertEquals(Collections.singletonList(2L), timestamps(flushed.get(1)));
+    } finally {
+      batcher.stop();
+    }
+  }
+
+  @Test
+  public void testFlushOnStop() throws Exception {
+    List<List<Message>> flushed = Collections.synchronizedList(new ArrayList<>());
+    MqttMessageBatcher batcher =
+        new MqttMessageBatcher(4, 100, 100, 60_000, (session, messages) -> flushed.add(messages));
+    MqttClientSession session1 = new MqttClientSession("client1");
+    MqttClientSession session2 = new MqttClientSession("client2");
+    batcher.submit(session1, "root.sg.d1", message(1));
+    batcher.submit(session2, "root.sg.d1", message(2));
+    batcher.submit(session1, "root.sg.d1", message(3));
+    batcher.stop();
+
+    // the batches of different sessions are never merged
+    assertEquals(2, flushed.size());
+    assertEquals(3, flushed.stream().mapToInt(List::size).sum());
+  }
+
+  @Test
+  public void testRejectWhenQueueIsFull() throws Exception {
+    CountDownLatch flushing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<List<Message>> flushed = Collections.synchronizedList(new ArrayList<>());
+    MqttMessageBatcher batcher =
+        new MqttMessageBatcher(
+            1,
+            1,
+            1,
+            60_000,
+            (session, messages) -> {
+              flushing.countDown();
+              try {
+                release.await();
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              flushed.add(messages);
+            });
+    MqttClientSession session = new MqttClientSession("client");
+    try {
+      // the worker takes the first message and blocks in flushing it
+      assertTrue(batcher.submit(session, "root.sg.d1", message(1)));
+      assertTrue(flushing.await(10, TimeUnit.SECONDS));
+      // the second one fills the queue, and the third one is rejected instead of blocking
+      assertTrue(batcher.submit(session, "root.sg.d1", message(2)));
+      assertFalse(batcher.submit(session, "root.sg.d1", message(3)));
+    } finally {
+      release.countDown();
+      batcher.stop();
+    }
+    assertEquals(2, flushed.size());
+  }
+
+  @Test
+  public void testConstructMultiRowTablet() throws Exception {
+    LinePayloadFormatter formatter = new LinePayloadFormatter();
+    List<TableMessage> messages = new ArrayList<>();
+    for (int i = 1; i <= 3; i++) {
+      String payload = "test1,tag1=t1 attr1=a1 field1=" + i + "i,field2=" + i + ".5 " + i;
+      messages.add(
+          (TableMessage)
+              formatter.format("", Unpooled.copiedBuffer(payload, StandardCharsets.UTF_8)).get(0));
+    }
+
+    InsertTabletStatement statement = MPPPublishHandler.constructInsertTabletStatement(messages);
+    assertEquals(3, statement.getRowCount());
+    assertArrayEquals(new long[] {1, 2, 3}, statement.getTimes());
+    assertArrayEquals(
+        new String[] {"field1", "field2", "tag1", "attr1"}, statement.getMeasurements());
+    assertArrayEquals(new long[] {1, 2, 3}, (long[]) statement.getColumns()[0]);
+    assertArrayEquals(new double[] {1.5, 2.5, 3.5}, (double[]) statement.getColumns()[1], 0);
+    assertEquals(3, ((Object[]) statement.getColumns()[2]).length);
+    assertEquals(3, ((Object[]) statement.getColumns()[3]).length);
+  }
+
+  private static Message message(long timestamp) {
+    TreeMessage message = new TreeMessage();
+    message.setTimestamp(timestamp);
+    return message;
+  }
+
+  private static List<Long> timestamps(List<Message> messages) {
+    List<Long> timestamps = new ArrayList<>();
+    messages.forEach(message -> timestamps.add(message.getTimestamp()));
+    return timestamps;
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.exchange;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.LongColumn;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.apache.tsfile.read.common.block.column.TsBlockSerde;
+import org.apache.tsfile.utils.Binary;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CompressedTsBlockSerdeTest {
+
+  private static final int POSITION_COUNT = 1000;
+
+  private final CompressedTsBlockSerde serde = new CompressedTsBlockSerde(CompressionType.LZ4);
+
+  @Test
+  public void testDeltaTimeColumn() throws Exception {
+    TsBlock tsBlock = buildTsBlock(1_700_000_000_000L);
+    ByteBuffer compressed = serde.serialize(tsBlock);
+    ByteBuffer plain = new TsBlockSerde().serialize(tsBlock);
+    assertTrue(compressed.remaining() < plain.remaining());
+    assertTsBlockEquals(tsBlock, serde.deserialize(compressed));
+  }
+
+  @Test
+  public void testRunLengthEncodedTimeColumn() throws Exception {
+    TsBlock tsBlock = buildTsBlock(0);
+    TsBlock rleTsBlock =
+        new TsBlock(
+            POSITION_COUNT,
+            new RunLengthEncodedColumn(
+                new LongColumn(1, Optional.empty(), new long[] {0}), POSITION_COUNT),
+            tsBlock.getValueColumns());
+    assertTsBlockEquals(rleTsBlock, serde.deserialize(serde.serialize(rleTsBlock)));
+  }
+
+  @Test
+  public void testIncompressibleTsBlock() throws Exception {
+    TsBlockBuilder builder = new TsBlockBuilder(Arrays.asList(TSDataType.INT64));
+    builder.getTimeColumnBuilder().writeLong(1);
+    builder.getColumnBuilder(0).writeLong(Long.MIN_VALUE);
+    builder.declarePosition();
+    TsBlock tsBlock = builder.build();
+
+    // sent as is, so receivers without compression enabled can also read it
+    ByteBuffer serialized = serde.serialize(tsBlock);
+    assertEquals(new TsBlockSerde().serialize(tsBlock), serialized);
+    assertTsBlockEquals(tsBlock, serde.deserialize(serialized));
+  }
+
+  @Test
+  public void testUncompressed() throws Exception {
+    TsBlock tsBlock = buildTsBlock(0);
+    CompressedTsBlockSerde uncompressedSerde =
+        new CompressedTsBlockSerde(CompressionType.UNCOMPRESSED);
+    ByteBuffer serialized = uncompressedSerde.serialize(tsBlock);
+    assertEquals(new TsBlockSerde().serialize(tsBlock), serialized);
+    // receivers can read compressed TsBlocks even if compression is disabled on them
+    assertTsBlockEquals(tsBlock, uncompressedSerde.deserialize(serde.serialize(tsBlock)));
+  }
+
+  private static TsBlock buildTsBlock(long startTime) {
+    TsBlockBuilder builder =
+        new TsBlockBuilder(Arrays.asList(TSDataType.INT32, TSDataType.DOUBLE, TSDataType.TEXT));
+    for (int i = 0; i < POSITION_COUNT; i++) {
+      builder.getTimeColumnBuilder().writeLong(startTime + i * 1000L);
+      builder.getColumnBuilder(0).writeInt(i % 10);
+      if (i % 7 == 0) {
+        builder.getColumnBuilder(1).appendNull();
+      } else {
+        builder.getColumnBuilder(1).writeDouble(i / 2.0);
+      }
+      builder
+          .getColumnBuilder(2)
+          .writeBinary(new Binary("device_" + (i % 3), StandardCharsets.UTF_8));
+      builder.declarePosition();
+    }
+    return builder.build();
+  }
+
+  private static void assertTsBlockEquals(TsBlock expected, TsBlock actual) {
+    assertEquals(expected.getPositionCount(), actual.getPositionCount());
+    assertEquals(expected.getValueColumnCount(), actual.getValueColumnCount());
+    for (int i = 0; i < expected.getPositionCount(); i++) {
+      assertEquals(expected.getTimeByIndex(i), actual.getTimeByIndex(i));
+      for (int j = 0; j < expected.getValueColumnCount(); j++) {
+        assertEquals(expected.getColumn(j).isNull(i), actual.getColumn(j).isNull(i));
+        if (!expected.getColumn(j).isNull(i)) {
+          assertEquals(expected.getColumn(j).getObject(i), actual.getColumn(j).getObject(i));
+        }
+      }
+    }
+  }
+}
@@ -20,6 +20,7 @@
 package org.apache.iotdb.db.queryengine.execution.exchange;
 
 import org.apache.iotdb.commons.memory.MemoryManager;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
 import org.apache.iotdb.db.queryengine.execution.memory.LocalMemoryManager;
 import org.apache.iotdb.db.queryengine.execution.memory.MemoryPool;
 import org.apache.iotdb.mpp.rpc.thrift.TFragmentInstanceId;
@@ -85,6 +86,62 @@ public class SharedTsBlockQueueTest {
     }
   }
 
+  @Test
+  public void batchedReservationTest() {
+    final String queryId = "q0";
+    final long mockTsBlockSize = 4 * 1024L;
+    final TFragmentInstanceId fragmentInstanceId = new TFragmentInstanceId(queryId, 0, "0");
+    final String planNodeId = "test";
+
+    LocalMemoryManager mockLocalMemoryManager = Mockito.mock(LocalMemoryManager.class);
+    MemoryManager memoryManager = Mockito.spy(new MemoryManager(10 * 1024L * 1024L));
+    MemoryPool spyMemoryPool = Mockito.spy(new MemoryPool("test", memoryManager, 1024L * 1024L));
+    Mockito.when(mockLocalMemoryManager.getQueryPool()).thenReturn(spyMemoryPool);
+    SharedTsBlockQueue queue =
+        new SharedTsBlockQueue(
+            fragmentInstanceId, planNodeId, mockLocalMemoryManager, newDirectExecutorService());
+    queue.setMaxBytesCanReserve(Long.MAX_VALUE);
+
+    // 16 TsBlocks share one reservation
+    for (int i = 0; i < 32; i++) {
+      Assert.assertTrue(queue.add(Utils.createMockTsBlock(mockTsBlockSize)).isDone());
+    }
+    Assert.assertEquals(32 * mockTsBlockSize, queue.getBufferRetainedSizeInBytes());
+    String fullFragmentInstanceId =
+        FragmentInstanceId.createFragmentInstanceIdFromTFragmentInstanceId(fragmentInstanceId);
+    Mockito.verify(spyMemoryPool, Mockito.times(2))
+        .reserve(
+            queryId,
+            fullFragmentInstanceId,
+            planNodeId,
+            SharedTsBlockQueue.RESERVATION_BATCH_IN_BYTES,
+            Long.MAX_VALUE);
+
+    while (!queue.isEmpty()) {
+      queue.remove();
+    }
+    Assert.assertEquals(0L, queue.getBufferRetainedSizeInBytes());
+    // one batch is kept for the following TsBlocks
+    Assert.assertEquals(
+        SharedTsBlockQueue.RESERVATION_BATCH_IN_BYTES,
+        spyMemoryPool.getQueryMemoryReservedBytes(queryId));
+    for (int i = 0; i < 32; i++) {
+      queue.add(Utils.createMockTsBlock(mockTsBlockSize));
+      queue.remove();
+    }
+    Mockito.verify(spyMemoryPool, Mockito.times(2))
+        .reserve(
+            Mockito.anyString(),
+            Mockito.anyString(),
+            Mockito.anyString(),
+            Mockito.anyLong(),
+            Mockito.anyLong());
+
+    // the unused reserved memory is freed when closing
+    queue.close();
+    Assert.assertEquals(0L, spyMemoryPool.getQueryMemoryReservedBytes(queryId));
+  }
+
   private static class SendTask implements Runnable {
 
     private final SharedTsBlockQueue queue;
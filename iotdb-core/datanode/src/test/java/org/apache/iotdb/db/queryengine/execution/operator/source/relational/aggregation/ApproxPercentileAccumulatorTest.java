@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation;
+
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedAccumulator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedApproxPercentileAccumulator;
+
+import org.apache.tsfile.block.column.Column;
+import org.apache.tsfile.block.column.ColumnBuilder;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.column.BinaryColumnBuilder;
+import org.apache.tsfile.read.common.block.column.DoubleColumnBuilder;
+import org.apache.tsfile.read.common.block.column.IntColumnBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ApproxPercentileAccumulatorTest {
+
+  private static final int COUNT = 10_000;
+
+  private static Column[] arguments(int from, int to, double percentage) {
+    ColumnBuilder valueBuilder = new IntColumnBuilder(null, to - from);
+    for (int i = from; i < to; i++) {
+      valueBuilder.writeInt(i);
+    }
+    ColumnBuilder percentageBuilder = new DoubleColumnBuilder(null, 1);
+    percentageBuilder.writeDouble(percentage);
+    return new Column[] {
+      valueBuilder.build(), new RunLengthEncodedColumn(percentageBuilder.build(), to - from)
+    };
+  }
+
+  @Test
+  public void testPartialAndFinal() {
+    // two partial aggregations each see half of the values
+    TableAccumulator firstPartial = new ApproxPercentileAccumulator(TSDataType.INT32);
+    TableAccumulator secondPartial = firstPartial.copy();
+    Column[] firstArguments = arguments(0, COUNT / 2, 0.9);
+    firstPartial.addInput(
+        firstArguments, AggregationMask.createSelectAll(firstArguments[0].getPositionCount()));
+    Column[] secondArguments = arguments(COUNT / 2, COUNT, 0.9);
+    secondPartial.addInput(
+        secondArguments, AggregationMask.createSelectAll(secondArguments[0].getPositionCount()));
+
+    ColumnBuilder intermediateBuilder = new BinaryColumnBuilder(null, 2);
+    firstPartial.evaluateIntermediate(intermediateBuilder);
+    secondPartial.evaluateIntermediate(intermediateBuilder);
+
+    // the final aggregation only gets the serialized intermediate results, the percentage travels
+    // with them
+    TableAccumulator finalAccumulator = new ApproxPercentileAccumulator(TSDataType.INT32);
+    finalAccumulator.addIntermediate(intermediateBuilder.build());
+    ColumnBuilder resultBuilder = new DoubleColumnBuilder(null, 1);
+    finalAccumulator.evaluateFinal(resultBuilder);
+    Column result = resultBuilder.build();
+    Assert.assertFalse(result.isNull(0));
+    Assert.assertEquals(0.9 * COUNT, result.getDouble(0), COUNT * 0.01);
+  }
+
+  @Test
+  public void testEmptyInput() {
+    TableAccumulator partial = new ApproxPercentileAccumulator(TSDataType.INT32);
+    ColumnBuilder intermediateBuilder = new BinaryColumnBuilder(null, 1);
+    partial.evaluateIntermediate(intermediateBuilder);
+
+    TableAccumulator finalAccumulator = new ApproxPercentileAccumulator(TSDataType.INT32);
+    finalAccumulator.addIntermediate(intermediateBuilder.build());
+    ColumnBuilder resultBuilder = new DoubleColumnBuilder(null, 1);
+    finalAccumulator.evaluateFinal(resultBuilder);
+    Assert.assertTrue(resultBuilder.build().isNull(0));
+  }
+
+  @Test
+  public void testGroupedPartialAndFinal() {
+    int groupCount = 3;
+    // group 0 gets [0, COUNT), group 1 gets [COUNT, 2 * COUNT), group 2 gets nothing, and the
+    // rows of both groups are interleaved and split between two partial aggregations
+    Column[] arguments = arguments(0, 2 * COUNT, 0.5);
+    int[] groupIds = new int[2 * COUNT];
+    for (int i = 0; i < 2 * COUNT; i++) {
+      groupIds[i] = i < COUNT ? 0 : 1;
+    }
+    int[] firstPositions = new int[COUNT];
+    int[] secondPositions = new int[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      firstPositions[i] = 2 * i;
+      secondPositions[i] = 2 * i + 1;
+    }
+
+    GroupedAccumulator firstPartial = new GroupedApproxPercentileAccumulator(TSDataType.INT32);
+    GroupedAccumulator secondPartial = new GroupedApproxPercentileAccumulator(TSDataType.INT32);
+    firstPartial.setGroupCount(groupCount);
+    secondPartial.setGroupCount(groupCount);
+    firstPartial.addInput(
+        groupIds,
+        arguments,
+        AggregationMask.createSelectedPositions(2 * COUNT, firstPositions, COUNT));
+    secondPartial.addInput(
+        groupIds,
+        arguments,
+        AggregationMask.createSelectedPositions(2 * COUNT, secondPositions, COUNT));
+
+    ColumnBuilder intermediateBuilder = new BinaryColumnBuilder(null, 2 * groupCount);
+    int[] intermediateGroupIds = new int[2 * groupCount];
+    for (int groupId = 0; groupId < groupCount; groupId++) {
+      firstPartial.evaluateIntermediate(groupId, intermediateBuilder);
+      intermediateGroupIds[groupId] = groupId;
+    }
+    for (int groupId = 0; groupId < groupCount; groupId++) {
+      secondPartial.evaluateIntermediate(groupId, intermediateBuilder);
+      intermediateGroupIds[groupCount + groupId] = groupId;
+    }
+
+    GroupedAccumulator finalAccumulator = new GroupedApproxPercentileAccumulator(TSDataType.INT32);
+    finalAccumulator.setGroupCount(groupCount);
+    finalAccumulator.addIntermediate(intermediateGroupIds, intermediateBuilder.build());
+    ColumnBuilder resultBuilder = new DoubleColumnBuilder(null, groupCount);
+    for (int groupId = 0; groupId < groupCount; groupId++) {
+      finalAccumulator.evaluateFinal(groupId, resultBuilder);
+    }
+    Column result = resultBuilder.build();
+    Assert.assertEquals(0.5 * COUNT, result.getDouble(0), COUNT * 0.01);
+    Assert.assertEquals(1.5 * COUNT, result.getDouble(1), COUNT * 0.01);
+    Assert.assertTrue(result.isNull(2));
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.approximate;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class TDigestTest {
+
+  private static final int COUNT = 100_000;
+
+  private static List<Double> shuffledValues() {
+    List<Double> values = new ArrayList<>(COUNT);
+    for (int i = 0; i < COUNT; i++) {
+      values.add((double) i);
+    }
+    Collections.shuffle(values, new Random(0));
+    return values;
+  }
+
+  private static void assertQuantiles(TDigest digest) {
+    Assert.assertEquals(0, digest.quantile(0), 0);
+    Assert.assertEquals(COUNT - 1, digest.quantile(1), 0);
+    // the error is relative to the rank, and is smaller near the tails
+    Assert.assertEquals(0.5 * COUNT, digest.quantile(0.5), COUNT * 0.01);
+    Assert.assertEquals(0.95 * COUNT, digest.quantile(0.95), COUNT * 0.005);
+    Assert.assertEquals(0.99 * COUNT, digest.quantile(0.99), COUNT * 0.002);
+    Assert.assertEquals(0.001 * COUNT, digest.quantile(0.001), COUNT * 0.0005);
+  }
+
+  @Test
+  public void testQuantile() {
+    TDigest digest = new TDigest();
+    Assert.assertTrue(Double.isNaN(digest.quantile(0.5)));
+    for (double value : shuffledValues()) {
+      digest.add(value);
+    }
+    Assert.assertEquals(COUNT, digest.getCount(), 0);
+    assertQuantiles(digest);
+  }
+
+  @Test
+  public void testSmallInput() {
+    TDigest digest = new TDigest();
+    for (int i = 10; i >= 1; i--) {
+      digest.add(i);
+    }
+    Assert.assertEquals(1, digest.quantile(0), 0);
+    Assert.assertEquals(10, digest.quantile(1), 0);
+    Assert.assertEquals(5.5, digest.quantile(0.5), 0.5);
+  }
+
+  @Test
+  public void testMergeAndSerialize() {
+    List<Double> values = shuffledValues();
+    TDigest[] partials = new TDigest[4];
+    for (int i = 0; i < partials.length; i++) {
+      partials[i] = new TDigest();
+    }
+    for (int i = 0; i < values.size(); i++) {
+      partials[i % partials.length].add(values.get(i));
+    }
+
+    TDigest merged = new TDigest();
+    for (TDigest partial : partials) {
+      ByteBuffer buffer = ByteBuffer.allocate(partial.getSerializedSize());
+      partial.serialize(buffer);
+      buffer.flip();
+      merged.merge(new TDigest(buffer));
+    }
+    Assert.assertEquals(COUNT, merged.getCount(), 0);
+    assertQuantiles(merged);
+
+    merged.reset();
+    Assert.assertTrue(merged.isEmpty());
+  }
+}
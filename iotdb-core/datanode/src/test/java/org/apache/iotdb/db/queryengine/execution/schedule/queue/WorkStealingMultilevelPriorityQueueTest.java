@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.execution.schedule.queue;
+
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.driver.IDriver;
+import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.DriverTaskHandle;
+import org.apache.iotdb.db.queryengine.execution.schedule.queue.multilevelqueue.WorkStealingMultilevelPriorityQueue;
+import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTask;
+import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTaskId;
+import org.apache.iotdb.db.queryengine.execution.schedule.task.DriverTaskStatus;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WorkStealingMultilevelPriorityQueueTest {
+
+  @Test
+  public void testPushAndPoll() throws InterruptedException {
+    WorkStealingMultilevelPriorityQueue queue = new WorkStealingMultilevelPriorityQueue(2, 1000, 4);
+    DriverTask e1 = mockDriverTask(queue, "inst-0", false);
+    DriverTask e2 = mockDriverTask(queue, "inst-1", false);
+    queue.push(e1);
+    queue.push(e2);
+    Assert.assertEquals(2, queue.size());
+    Assert.assertEquals(e1.getDriverTaskId(), queue.poll().getDriverTaskId());
+    Assert.assertEquals(e2.getDriverTaskId(), queue.poll().getDriverTaskId());
+    Assert.assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void testHighestPriorityFirst() throws InterruptedException {
+    WorkStealingMultilevelPriorityQueue queue = new WorkStealingMultilevelPriorityQueue(2, 1000, 4);
+    DriverTask normal = mockDriverTask(queue, "inst-0", false);
+    DriverTask highest = mockDriverTask(queue, "inst-1", true);
+    queue.push(normal);
+    queue.push(highest);
+    Assert.assertEquals(highest.getDriverTaskId(), queue.poll().getDriverTaskId());
+    Assert.assertEquals(normal.getDriverTaskId(), queue.poll().getDriverTaskId());
+  }
+
+  @Test
+  public void testPushExceedCapacity() throws InterruptedException {
+    WorkStealingMultilevelPriorityQueue queue = new WorkStealingMultilevelPriorityQueue(2, 2, 2);
+    queue.push(mockDriverTask(queue, "inst-0", false));
+    DriverTask polled = queue.poll();
+    queue.push(mockDriverTask(queue, "inst-1", false));
+    // the polled task still reserves its space
+    Assert.assertThrows(
+        IllegalStateException.class, () -> queue.push(mockDriverTask(queue, "inst-2", false)));
+    queue.repush(polled);
+    Assert.assertEquals(2, queue.size());
+    // a finished task releases its space
+    queue.poll();
+    queue.decreaseReservedSize();
+    queue.push(mockDriverTask(queue, "inst-2", false));
+    Assert.assertEquals(2, queue.size());
+  }
+
+  @Test
+  public void testRemoveAndClear() {
+    WorkStealingMultilevelPriorityQueue queue = new WorkStealingMultilevelPriorityQueue(2, 1000, 4);
+    DriverTask e1 = mockDriverTask(queue, "inst-0", false);
+    DriverTask e2 = mockDriverTask(queue, "inst-1", false);
+    DriverTask e3 = mockDriverTask(queue, "inst-2", false);
+    queue.push(e1);
+    queue.push(e2);
+    queue.push(e3);
+    Assert.assertEquals(e2, queue.remove(e2.getDriverTaskId()));
+    Assert.assertNull(queue.remove(e2.getDriverTaskId()));
+    Assert.assertEquals(2, queue.size());
+    queue.clear();
+    Assert.assertEquals(0, queue.size());
+  }
+
+  @Test
+  public void testSteal() throws Exception {
+    WorkStealingMultilevelPriorityQueue queue = new WorkStealingMultilevelPriorityQueue(2, 1000, 2);
+    DriverTask e1 = mockDriverTask(queue, "inst-0", false);
+    ExecutorService worker = Executors.newSingleThreadExecutor();
+    try {
+      // the worker thread gets the first shard, its yielded task stays in that shard
+      worker
+          .submit(
+              () -> {
+                queue.push(e1);
+                queue.repush(queue.poll());
+                return null;
+              })
+          .get();
+      Assert.assertEquals(0, queue.getStealCount());
+      // the current thread gets the second shard and has to steal it
+      Assert.assertEquals(e1.getDriverTaskId(), queue.poll().getDriverTaskId());
+      Assert.assertEquals(1, queue.getStealCount());
+    } finally {
+      worker.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testConcurrentPushAndPoll() throws Exception {
+    int workerNum = 8;
+    int taskNum = 4000;
+    WorkStealingMultilevelPriorityQueue queue =
+        new WorkStealingMultilevelPriorityQueue(2, taskNum, workerNum);
+    Set<DriverTaskId> polled = ConcurrentHashMap.newKeySet();
+    AtomicInteger pollTimes = new AtomicInteger();
+    CountDownLatch finished = new CountDownLatch(taskNum);
+    ExecutorService workers = Executors.newFixedThreadPool(workerNum);
+    try {
+      for (int i = 0; i < workerNum; i++) {
+        workers.submit(
+            () -> {
+              try {
+                while (!Thread.currentThread().isInterrupted()) {
+                  DriverTask task = queue.poll();
+                  // yield every task once before finishing it
+                  if (pollTimes.incrementAndGet() % 2 == 0 || !polled.add(task.getDriverTaskId())) {
+                    queue.decreaseReservedSize();
+                    finished.countDown();
+                  } else {
+                    queue.repush(task);
+                  }
+                }
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+      }
+      for (int i = 0; i < taskNum; i++) {
+        queue.push(mockDriverTask(queue, "inst-" + i, false));
+      }
+      Assert.assertTrue(finished.await(30, TimeUnit.SECONDS));
+      Assert.assertEquals(0, queue.size());
+    } finally {
+      workers.shutdownNow();
+    }
+  }
+
+  private DriverTask mockDriverTask(
+      WorkStealingMultilevelPriorityQueue queue, String instanceId, boolean isHighestPriority) {
+    IDriver mockDriver = Mockito.mock(IDriver.class);
+    DriverTaskId driverTaskId =
+        new DriverTaskId(
+            new FragmentInstanceId(new PlanFragmentId(new QueryId("test"), 0), instanceId), 0);
+    Mockito.when(mockDriver.getDriverTaskId()).thenReturn(driverTaskId);
+    DriverTaskHandle driverTaskHandle =
+        new DriverTaskHandle(1, queue, OptionalInt.of(Integer.MAX_VALUE));
+    return new DriverTask(
+        mockDriver, 100L, DriverTaskStatus.READY, driverTaskHandle, 0, isHighestPriority);
+  }
+}
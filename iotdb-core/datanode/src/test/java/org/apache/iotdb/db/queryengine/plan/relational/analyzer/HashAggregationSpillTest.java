@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.analyzer;
+
+import org.apache.iotdb.common.rpc.thrift.TAggregationType;
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.GroupedAggregator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.HashAggregationOperator;
+import org.apache.iotdb.db.queryengine.plan.relational.analyzer.TableOperatorTestUtils.TsBlockListOperator;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.AggregationNode;
+
+import io.airlift.units.Duration;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.type.IntType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.AccumulatorFactory.createGroupedAccumulator;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.GroupByHash.DEFAULT_GROUP_NUMBER;
+import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.TableOperatorTestUtils.buildInt32TsBlock;
+import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.TableOperatorTestUtils.mockOperatorContext;
+import static org.junit.Assert.assertEquals;
+
+public class HashAggregationSpillTest {
+
+  private static final int GROUP_COUNT = 5000;
+  private static final int BLOCK_COUNT = 10;
+  private static final int BLOCK_SIZE = 1000;
+
+  private File spillFolder;
+
+  @Before
+  public void setUp() throws Exception {
+    spillFolder = Files.createTempDirectory("hash-aggregation").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    FileUtils.deleteFileOrDirectory(spillFolder);
+  }
+
+  @Test
+  public void spillTest() throws Exception {
+    // SELECT key, count(*), sum(s1) FROM t GROUP BY key
+    Map<Integer, List<Long>> expected = execute(false, mockOperatorContext());
+    assertEquals(GROUP_COUNT, expected.size());
+    for (int key = 0; key < GROUP_COUNT; key++) {
+      // each key appears twice in 10000 rows, s1 is the row number
+      assertEquals(Arrays.asList(2L, key * 2L + GROUP_COUNT), expected.get(key));
+    }
+
+    // spill after processing every block
+    assertEquals(expected, execute(true, mockOperatorContext()));
+
+    // the time slice is used up after loading each spilled block when merging
+    OperatorContext operatorContext = mockOperatorContext();
+    Mockito.when(operatorContext.getMaxRunTime()).thenReturn(new Duration(0, TimeUnit.SECONDS));
+    assertEquals(expected, execute(true, operatorContext));
+  }
+
+  private Map<Integer, List<Long>> execute(boolean spillEnabled, OperatorContext operatorContext)
+      throws Exception {
+    List<GroupedAggregator> aggregators =
+        Arrays.asList(
+            new GroupedAggregator(
+                createGroupedAccumulator(
+                    "count",
+                    TAggregationType.COUNT,
+                    Collections.singletonList(TSDataType.INT32),
+                    Collections.emptyList(),
+                    Collections.emptyMap(),
+                    true,
+                    false),
+                AggregationNode.Step.SINGLE,
+                TSDataType.INT64,
+                TSDataType.INT64,
+                Collections.singletonList(1),
+                OptionalInt.empty()),
+            new GroupedAggregator(
+                createGroupedAccumulator(
+                    "sum",
+                    TAggregationType.SUM,
+                    Collections.singletonList(TSDataType.INT32),
+                    Collections.emptyList(),
+                    Collections.emptyMap(),
+                    true,
+                    false),
+                AggregationNode.Step.SINGLE,
+                TSDataType.DOUBLE,
+                TSDataType.DOUBLE,
+                Collections.singletonList(1),
+                OptionalInt.empty()));
+
+    Map<Integer, List<Long>> result = new HashMap<>();
+    try (HashAggregationOperator operator =
+        new HashAggregationOperator(
+            operatorContext,
+            childOperator(),
+            Collections.singletonList(IntType.getInstance()),
+            Collections.singletonList(0),
+            aggregators,
+            AggregationNode.Step.SINGLE,
+            DEFAULT_GROUP_NUMBER,
+            Long.MAX_VALUE,
+            spillEnabled,
+            1,
+            spillFolder.getPath() + File.separator)) {
+      while (!operator.isFinished()) {
+        operator.isBlocked().get();
+        TsBlock tsBlock = operator.next();
+        if (tsBlock == null) {
+          continue;
+        }
+        for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+          List<Long> previous =
+              result.put(
+                  tsBlock.getColumn(0).getInt(i),
+                  Arrays.asList(
+                      tsBlock.getColumn(1).getLong(i), (long) tsBlock.getColumn(2).getDouble(i)));
+          assertEquals("Duplicated group", null, previous);
+        }
+      }
+    }
+    return result;
+  }
+
+  // key, s1
+  // i % 5000, i
+  private static TsBlockListOperator childOperator() {
+    List<TsBlock> tsBlocks = new ArrayList<>(BLOCK_COUNT);
+    for (int index = 0; index < BLOCK_COUNT; index++) {
+      Integer[][] rows = new Integer[BLOCK_SIZE][];
+      for (int i = 0; i < BLOCK_SIZE; i++) {
+        int row = index * BLOCK_SIZE + i;
+        rows[i] = new Integer[] {row % GROUP_COUNT, row};
+      }
+      tsBlocks.add(buildInt32TsBlock(2, rows));
+    }
+    return new TsBlockListOperator(tsBlocks);
+  }
+}
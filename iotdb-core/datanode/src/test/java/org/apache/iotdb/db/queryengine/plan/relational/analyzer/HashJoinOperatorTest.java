@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.analyzer;
+
+import org.apache.iotdb.commons.utils.FileUtils;
+import org.apache.iotdb.db.queryengine.exception.MemoryNotEnoughException;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.HashInnerJoinOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.HashLeftJoinOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.HashSemiJoinOperator;
+import org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.hash.JoinHash;
+import org.apache.iotdb.db.queryengine.plan.relational.analyzer.TableOperatorTestUtils.TsBlockListOperator;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.type.IntType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.AbstractHashJoinOperator.SPILLED_PARTITION_COUNT;
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.aggregation.grouped.UpdateMemory.NOOP;
+import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.TableOperatorTestUtils.buildInt32TsBlock;
+import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.TableOperatorTestUtils.mockOperatorContext;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+public class HashJoinOperatorTest {
+
+  private static final List<TSDataType> CHILD_DATA_TYPES =
+      Arrays.asList(TSDataType.INT32, TSDataType.INT32);
+
+  private File spillFolder;
+
+  // left table
+  // key, s1
+  // 1,   10
+  // 2,   20
+  // null,30
+  // ----------- TsBlock-1
+  // 3,   40
+  // 2,   50
+  // ----------- TsBlock-2
+  private static final Integer[][][] LEFT_TABLE =
+      new Integer[][][] {
+        {{1, 10}, {2, 20}, {null, 30}},
+        {{3, 40}, {2, 50}}
+      };
+
+  // right table
+  // key, s2
+  // 2,   200
+  // null,300
+  // ----------- TsBlock-1
+  // 2,   201
+  // 4,   400
+  // 1,   100
+  // ----------- TsBlock-2
+  private static final Integer[][][] RIGHT_TABLE =
+      new Integer[][][] {
+        {{2, 200}, {null, 300}},
+        {{2, 201}, {4, 400}, {1, 100}}
+      };
+
+  @Before
+  public void setUp() throws Exception {
+    spillFolder = Files.createTempDirectory("hash-join").toFile();
+  }
+
+  @After
+  public void tearDown() {
+    FileUtils.deleteFileOrDirectory(spillFolder);
+  }
+
+  @Test
+  public void testHashInnerJoin() throws Exception {
+    for (long buildBufferSize : new long[] {Long.MAX_VALUE, spillingBufferSize(RIGHT_TABLE)}) {
+      HashInnerJoinOperator operator =
+          new HashInnerJoinOperator(
+              mockOperatorContext(),
+              childOperator(LEFT_TABLE),
+              new int[] {0},
+              new int[] {0, 1},
+              CHILD_DATA_TYPES,
+              childOperator(RIGHT_TABLE),
+              new int[] {0},
+              new int[] {1},
+              CHILD_DATA_TYPES,
+              Collections.singletonList(IntType.getInstance()),
+              Arrays.asList(TSDataType.INT32, TSDataType.INT32, TSDataType.INT32),
+              spillFolder.getPath() + File.separator,
+              buildBufferSize);
+      assertResult(
+          new String[] {"1,10,100", "2,20,200", "2,20,201", "2,50,200", "2,50,201"},
+          execute(operator),
+          buildBufferSize != Long.MAX_VALUE);
+    }
+  }
+
+  @Test
+  public void testHashLeftJoin() throws Exception {
+    for (long buildBufferSize : new long[] {Long.MAX_VALUE, spillingBufferSize(RIGHT_TABLE)}) {
+      HashLeftJoinOperator operator =
+          new HashLeftJoinOperator(
+              mockOperatorContext(),
+              childOperator(LEFT_TABLE),
+              new int[] {0},
+              new int[] {0, 1},
+              CHILD_DATA_TYPES,
+              childOperator(RIGHT_TABLE),
+              new int[] {0},
+              new int[] {1},
+              CHILD_DATA_TYPES,
+              Collections.singletonList(IntType.getInstance()),
+              Arrays.asList(TSDataType.INT32, TSDataType.INT32, TSDataType.INT32),
+              spillFolder.getPath() + File.separator,
+              buildBufferSize);
+      assertResult(
+          new String[] {
+            "1,10,100", "2,20,200", "2,20,201", "null,30,null", "3,40,null", "2,50,200", "2,50,201"
+          },
+          execute(operator),
+          buildBufferSize != Long.MAX_VALUE);
+    }
+  }
+
+  @Test
+  public void testHashSemiJoin() throws Exception {
+    for (long buildBufferSize : new long[] {Long.MAX_VALUE, spillingBufferSize(RIGHT_TABLE)}) {
+      // right table contains NULL, so the unmatched rows of left table get NULL
+      HashSemiJoinOperator operator =
+          new HashSemiJoinOperator(
+              mockOperatorContext(),
+              childOperator(LEFT_TABLE),
+              0,
+              new int[] {0, 1},
+              CHILD_DATA_TYPES,
+              childOperator(RIGHT_TABLE),
+              0,
+              CHILD_DATA_TYPES,
+              IntType.getInstance(),
+              Arrays.asList(TSDataType.INT32, TSDataType.INT32, TSDataType.BOOLEAN),
+              spillFolder.getPath() + File.separator,
+              buildBufferSize);
+      assertResult(
+          new String[] {"1,10,true", "2,20,true", "null,30,null", "3,40,null", "2,50,true"},
+          execute(operator),
+          buildBufferSize != Long.MAX_VALUE);
+    }
+
+    // right table doesn't contain NULL, so the unmatched rows of left table get false
+    HashSemiJoinOperator operator =
+        new HashSemiJoinOperator(
+            mockOperatorContext(),
+            childOperator(LEFT_TABLE),
+            0,
+            new int[] {0, 1},
+            CHILD_DATA_TYPES,
+            childOperator(new Integer[][][] {{{2, 200}, {4, 400}}}),
+            0,
+            CHILD_DATA_TYPES,
+            IntType.getInstance(),
+            Arrays.asList(TSDataType.INT32, TSDataType.INT32, TSDataType.BOOLEAN),
+            spillFolder.getPath() + File.separator,
+            Long.MAX_VALUE);
+    assertResult(
+        new String[] {"1,10,false", "2,20,true", "null,30,null", "3,40,false", "2,50,true"},
+        execute(operator),
+        false);
+  }
+
+  @Test
+  public void testRepartitionSpilledPartition() throws Exception {
+    // 8000 distinct keys, each partition of the first level still exceeds the buffer
+    Integer[][][] buildTable = new Integer[8][1000][];
+    Integer[][][] probeTable = new Integer[8][1000][];
+    List<String> expected = new ArrayList<>();
+    for (int key = 0; key < 8000; key++) {
+      buildTable[key / 1000][key % 1000] = new Integer[] {key, key * 10};
+      probeTable[key / 1000][key % 1000] = new Integer[] {key, key};
+      expected.add(key + "," + key + "," + key * 10);
+    }
+    OperatorContext operatorContext = mockOperatorContext();
+    HashInnerJoinOperator operator =
+        new HashInnerJoinOperator(
+            operatorContext,
+            childOperator(probeTable),
+            new int[] {0},
+            new int[] {0, 1},
+            CHILD_DATA_TYPES,
+            childOperator(buildTable),
+            new int[] {0},
+            new int[] {1},
+            CHILD_DATA_TYPES,
+            Collections.singletonList(IntType.getInstance()),
+            Arrays.asList(TSDataType.INT32, TSDataType.INT32, TSDataType.INT32),
+            spillFolder.getPath() + File.separator,
+            spillingBufferSize(new Integer[][][] {Arrays.copyOf(buildTable[0], 300)}));
+    assertResult(expected.toArray(new String[0]), execute(operator), true);
+    Mockito.verify(operatorContext).recordSpecifiedInfo(SPILLED_PARTITION_COUNT, "16");
+  }
+
+  @Test
+  public void testSkewedSpilledPartition() {
+    // all the rows share one join key, so partitioning again never helps
+    Integer[][][] buildTable = new Integer[2][1000][];
+    for (int i = 0; i < 2000; i++) {
+      buildTable[i / 1000][i % 1000] = new Integer[] {1, i};
+    }
+    HashInnerJoinOperator operator =
+        new HashInnerJoinOperator(
+            mockOperatorContext(),
+            childOperator(LEFT_TABLE),
+            new int[] {0},
+            new int[] {0, 1},
+            CHILD_DATA_TYPES,
+            childOperator(buildTable),
+            new int[] {0},
+            new int[] {1},
+            CHILD_DATA_TYPES,
+            Collections.singletonList(IntType.getInstance()),
+            Arrays.asList(TSDataType.INT32, TSDataType.INT32, TSDataType.INT32),
+            spillFolder.getPath() + File.separator,
+            spillingBufferSize(new Integer[][][] {Arrays.copyOf(buildTable[0], 300)}));
+    assertThrows(MemoryNotEnoughException.class, () -> execute(operator));
+  }
+
+  /** The buffer size which is just exceeded by building the whole table in memory. */
+  private static long spillingBufferSize(Integer[][][] table) {
+    JoinHash joinHash =
+        new JoinHash(Collections.singletonList(IntType.getInstance()), new int[] {0}, NOOP);
+    for (Integer[][] rows : table) {
+      joinHash.addBuildBlock(buildInt32TsBlock(CHILD_DATA_TYPES.size(), rows));
+    }
+    return joinHash.getEstimatedSize() - 1;
+  }
+
+  private static void assertResult(String[] expected, List<String> actual, boolean ignoreOrder) {
+    List<String> expectedList = new ArrayList<>(Arrays.asList(expected));
+    if (ignoreOrder) {
+      // output of spilled hash join doesn't keep the order of probe side
+      Collections.sort(expectedList);
+      Collections.sort(actual);
+    }
+    assertEquals(expectedList, actual);
+  }
+
+  private static List<String> execute(Operator operator) throws Exception {
+    List<String> result = new ArrayList<>();
+    while (!operator.isFinished()) {
+      operator.isBlocked().get();
+      if (!operator.hasNext()) {
+        break;
+      }
+      TsBlock tsBlock = operator.next();
+      if (tsBlock == null) {
+        continue;
+      }
+      for (int i = 0; i < tsBlock.getPositionCount(); i++) {
+        StringBuilder row = new StringBuilder();
+        for (int j = 0; j < tsBlock.getValueColumnCount(); j++) {
+          if (j > 0) {
+            row.append(',');
+          }
+          row.append(tsBlock.getColumn(j).isNull(i) ? "null" : tsBlock.getColumn(j).getObject(i));
+        }
+        result.add(row.toString());
+      }
+    }
+    operator.close();
+    return result;
+  }
+
+  private static TsBlockListOperator childOperator(Integer[][][] table) {
+    List<TsBlock> tsBlocks = new ArrayList<>(table.length);
+    for (Integer[][] rows : table) {
+      tsBlocks.add(buildInt32TsBlock(CHILD_DATA_TYPES.size(), rows));
+    }
+    return new TsBlockListOperator(tsBlocks);
+  }
+}
@@ -20,6 +20,8 @@
 package org.apache.iotdb.db.queryengine.plan.relational.analyzer;
 
 import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
 import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
 import org.apache.iotdb.db.queryengine.common.QueryId;
@@ -41,6 +43,7 @@ import org.apache.iotdb.db.queryengine.plan.relational.planner.SymbolAllocator;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.TableLogicalPlanner;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.assertions.PlanMatchPattern;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.distribute.TableDistributedPlanner;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.CollectNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.DeviceTableScanNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.ExchangeNode;
 import org.apache.iotdb.db.queryengine.plan.relational.planner.node.JoinNode;
@@ -296,6 +299,50 @@ public class JoinTest {
     assertTableScan(deviceTableScanNode, SHENZHEN_DEVICE_ENTRIES, Ordering.ASC, 0, 0, true, "");
   }
 
+  @Test
+  public void hashJoinTest() {
+    IoTDBConfig config = IoTDBDescriptor.getInstance().getConfig();
+    boolean enableHashJoin = config.isEnableHashJoin();
+    config.setEnableHashJoin(true);
+    try {
+      sql =
+          "SELECT t1.time, t1.tag1, t1.s1, t2.tag1, t2.s3 "
+              + "FROM table1 t1 JOIN table1 t2 ON t1.time = t2.time";
+      analysis = analyzeSQL(sql, TEST_MATADATA, QUERY_CONTEXT);
+      SymbolAllocator symbolAllocator = new SymbolAllocator();
+      logicalQueryPlan =
+          new TableLogicalPlanner(
+                  QUERY_CONTEXT, TEST_MATADATA, SESSION_INFO, symbolAllocator, DEFAULT_WARNING)
+              .plan(analysis);
+
+      // LogicalPlan: `Output-Join-(Left + Right)-TableScan`, no SortNode is needed by HashJoin
+      logicalPlanNode = logicalQueryPlan.getRootNode();
+      assertNodeMatches(logicalPlanNode, OutputNode.class, JoinNode.class);
+      joinNode = (JoinNode) getChildrenNode(logicalPlanNode, 1);
+      assertEquals(JoinNode.JoinAlgorithm.HASH, joinNode.getJoinAlgorithm());
+      assertTrue(joinNode.getLeftChild() instanceof DeviceTableScanNode);
+      assertTrue(joinNode.getRightChild() instanceof DeviceTableScanNode);
+
+      // children of HashJoin are merged by CollectNode instead of MergeSortNode
+      distributedQueryPlan =
+          new TableDistributedPlanner(
+                  analysis, symbolAllocator, logicalQueryPlan, TEST_MATADATA, null)
+              .plan();
+      identitySinkNode =
+          (IdentitySinkNode) distributedQueryPlan.getFragments().get(0).getPlanNodeTree();
+      outputNode = (OutputNode) getChildrenNode(identitySinkNode, 1);
+      joinNode = (JoinNode) getChildrenNode(outputNode, 1);
+      assertEquals(JoinNode.JoinAlgorithm.HASH, joinNode.getJoinAlgorithm());
+      assertTrue(joinNode.getLeftChild() instanceof ExchangeNode);
+      assertTrue(joinNode.getRightChild() instanceof ExchangeNode);
+      identitySinkNode =
+          (IdentitySinkNode) distributedQueryPlan.getFragments().get(1).getPlanNodeTree();
+      assertTrue(getChildrenNode(identitySinkNode, 1) instanceof CollectNode);
+    } finally {
+      config.setEnableHashJoin(enableHashJoin);
+    }
+  }
+
   // has filter which can be push down, filter can in subquery or outer query
   @Test
   public void innerJoinTest2() {
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.analyzer;
+
+import org.apache.iotdb.db.exception.sql.SemanticException;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.SymbolAllocator;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.TableLogicalPlanner;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.DeviceTableScanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.OutputNode;
+import org.apache.iotdb.db.queryengine.plan.relational.security.AccessControl;
+import org.apache.iotdb.db.queryengine.plan.relational.security.AllowAllAccessControl;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Execute;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Expression;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Prepare;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Query;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.ast.Statement;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.parser.SqlParser;
+import org.apache.iotdb.db.queryengine.plan.relational.sql.rewrite.StatementRewriteFactory;
+import org.apache.iotdb.db.schemaengine.table.DataNodeTableCache;
+
+import org.junit.Test;
+
+import java.time.ZoneId;
+
+import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.TestUtils.DEFAULT_WARNING;
+import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.TestUtils.QUERY_CONTEXT;
+import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.TestUtils.SESSION_INFO;
+import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.TestUtils.TEST_MATADATA;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PreparedStatementTest {
+
+  private final SqlParser sqlParser = new SqlParser();
+
+  @Test
+  public void prepareAndExecuteTest() {
+    Prepare prepare =
+        (Prepare) parse("PREPARE q1 FROM SELECT * FROM table1 WHERE time > ? AND s1 > ?");
+    assertEquals("q1", prepare.getName().getValue());
+    assertEquals("SELECT * FROM table1 WHERE time > ? AND s1 > ?", prepare.getSql());
+    assertTrue(prepare.getStatement() instanceof Query);
+    assertFalse(prepare.isCurrentTimeDependent());
+
+    // the parsed statement is reused by every execution
+    DeviceTableScanNode scanNode = execute(prepare, (Execute) parse("EXECUTE q1 USING 1, 10"));
+    assertEquals(
+        "(\"time\" > 1)", scanNode.getTimePredicate().map(Expression::toString).orElse(null));
+    assertEquals("(\"s1\" > 10)", String.valueOf(scanNode.getPushDownPredicate()));
+
+    scanNode = execute(prepare, (Execute) parse("EXECUTE q1 USING 2, 20"));
+    assertEquals(
+        "(\"time\" > 2)", scanNode.getTimePredicate().map(Expression::toString).orElse(null));
+    assertEquals("(\"s1\" > 20)", String.valueOf(scanNode.getPushDownPredicate()));
+  }
+
+  @Test
+  public void currentTimeDependentTest() {
+    Prepare prepare =
+        (Prepare) parse("PREPARE q1 FROM SELECT * FROM table1 WHERE time > now() - 1d");
+    assertTrue(prepare.isCurrentTimeDependent());
+  }
+
+  @Test
+  public void invalidStatementTest() {
+    try {
+      parse("PREPARE q1 FROM SHOW DATABASES");
+      fail();
+    } catch (SemanticException e) {
+      assertEquals("Only query can be prepared", e.getMessage());
+    }
+
+    Prepare prepare = (Prepare) parse("PREPARE q1 FROM SELECT * FROM table1 WHERE s1 > ?");
+    try {
+      ParameterExtractor.bindParameters(
+          prepare.getStatement(), ((Execute) parse("EXECUTE q1 USING 1, 2")).getParameters());
+      fail();
+    } catch (SemanticException e) {
+      assertEquals("Incorrect number of parameters: expected 1 but found 2", e.getMessage());
+    }
+    try {
+      ParameterExtractor.bindParameters(
+          prepare.getStatement(), ((Execute) parse("EXECUTE q1 USING s2")).getParameters());
+      fail();
+    } catch (SemanticException e) {
+      assertTrue(e.getMessage().startsWith("Parameter value must be constant"));
+    }
+  }
+
+  private Statement parse(String sql) {
+    return sqlParser.createStatement(sql, ZoneId.systemDefault(), null);
+  }
+
+  @Test
+  public void cachedAnalysisTest() {
+    Prepare prepare =
+        (Prepare) parse("PREPARE q1 FROM SELECT * FROM table1 WHERE time > ? AND s1 > ?");
+    String normalizedSql = PreparedStatementAnalysisCache.normalize(prepare);
+    assertNotNull(normalizedSql);
+    assertEquals(
+        normalizedSql,
+        PreparedStatementAnalysisCache.normalize(
+            (Prepare) parse("prepare q2 from select *   from table1 where time > ? and s1 > ?")));
+    assertNull(
+        PreparedStatementAnalysisCache.normalize(
+            (Prepare) parse("PREPARE q1 FROM SELECT * FROM table1 WHERE time > now() - 1d")));
+
+    PreparedStatementAnalysisCache cache = PreparedStatementAnalysisCache.getInstance();
+    cache.invalidateAll();
+    PreparedStatementAnalysisCache.CacheKey key = cache.createKey(normalizedSql, SESSION_INFO);
+    Execute execute = (Execute) parse("EXECUTE q1 USING 1, 10");
+    assertNull(getCachedAnalysis(key, execute));
+    Analysis analysis = analyze(prepare, execute);
+    cache.put(key, analysis, execute.getParameters());
+    String where = String.valueOf(analysis.getWhereMap().values());
+    plan(analysis);
+
+    // the cached analysis is bound with new values, and isn't affected by the former planning
+    DeviceTableScanNode scanNode = plan(getCachedAnalysis(key, parse("EXECUTE q1 USING 2, 20")));
+    assertEquals(
+        "(\"time\" > 2)", scanNode.getTimePredicate().map(Expression::toString).orElse(null));
+    assertEquals("(\"s1\" > 20)", String.valueOf(scanNode.getPushDownPredicate()));
+    scanNode = plan(getCachedAnalysis(key, parse("EXECUTE q1 USING 3, 30")));
+    assertEquals(
+        "(\"time\" > 3)", scanNode.getTimePredicate().map(Expression::toString).orElse(null));
+    assertEquals("(\"s1\" > 30)", String.valueOf(scanNode.getPushDownPredicate()));
+
+    // the planner doesn't rewrite the expressions shared by the executions in place
+    assertEquals(where, String.valueOf(analysis.getWhereMap().values()));
+
+    // values of different types need to be analyzed again
+    assertNull(getCachedAnalysis(key, parse("EXECUTE q1 USING 3, 30.5")));
+
+    // any change of table schema invalidates the cached analysis
+    DataNodeTableCache.getInstance().invalid("prepared_statement_test_db");
+    assertNull(getCachedAnalysis(cache.createKey(normalizedSql, SESSION_INFO), execute));
+  }
+
+  private Analysis getCachedAnalysis(
+      PreparedStatementAnalysisCache.CacheKey key, Statement execute) {
+    AccessControl accessControl = new AllowAllAccessControl();
+    return PreparedStatementAnalysisCache.getInstance()
+        .get(
+            key,
+            ((Execute) execute).getParameters(),
+            QUERY_CONTEXT,
+            TEST_MATADATA,
+            new StatementAnalyzerFactory(TEST_MATADATA, sqlParser, accessControl),
+            accessControl);
+  }
+
+  private DeviceTableScanNode execute(Prepare prepare, Execute execute) {
+    return plan(analyze(prepare, execute));
+  }
+
+  private Analysis analyze(Prepare prepare, Execute execute) {
+    return new Analyzer(
+            QUERY_CONTEXT,
+            SESSION_INFO,
+            new StatementAnalyzerFactory(TEST_MATADATA, sqlParser, new AllowAllAccessControl()),
+            execute.getParameters(),
+            ParameterExtractor.bindParameters(prepare.getStatement(), execute.getParameters()),
+            new StatementRewriteFactory().getStatementRewrite(),
+            DEFAULT_WARNING)
+        .analyze(prepare.getStatement());
+  }
+
+  private DeviceTableScanNode plan(Analysis analysis) {
+    OutputNode outputNode =
+        (OutputNode)
+            new TableLogicalPlanner(
+                    QUERY_CONTEXT,
+                    TEST_MATADATA,
+                    SESSION_INFO,
+                    new SymbolAllocator(),
+                    DEFAULT_WARNING)
+                .plan(analysis)
+                .getRootNode();
+    return (DeviceTableScanNode) outputNode.getChild();
+  }
+}
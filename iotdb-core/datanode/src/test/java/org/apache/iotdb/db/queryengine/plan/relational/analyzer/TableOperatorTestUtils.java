@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.analyzer;
+
+import org.apache.iotdb.db.queryengine.common.QueryId;
+import org.apache.iotdb.db.queryengine.execution.driver.DriverContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.operator.Operator;
+import org.apache.iotdb.db.queryengine.execution.operator.OperatorContext;
+import org.apache.iotdb.db.queryengine.plan.planner.memory.ThreadSafeMemoryReservationManager;
+
+import io.airlift.units.Duration;
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.apache.tsfile.read.common.block.TsBlockBuilder;
+import org.apache.tsfile.read.common.block.column.RunLengthEncodedColumn;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.iotdb.db.queryengine.execution.operator.source.relational.AbstractTableScanOperator.TIME_COLUMN_TEMPLATE;
+
+/** Fixtures for testing table model operators without a real fragment instance. */
+public class TableOperatorTestUtils {
+
+  private TableOperatorTestUtils() {
+    // util class
+  }
+
+  /** Mock an OperatorContext whose memory is reserved in a standalone reservation manager. */
+  public static OperatorContext mockOperatorContext() {
+    FragmentInstanceContext fragmentInstanceContext = Mockito.mock(FragmentInstanceContext.class);
+    Mockito.when(fragmentInstanceContext.getMemoryReservationContext())
+        .thenReturn(new ThreadSafeMemoryReservationManager(new QueryId("1"), "test"));
+    DriverContext driverContext = Mockito.mock(DriverContext.class);
+    Mockito.when(driverContext.getFragmentInstanceContext()).thenReturn(fragmentInstanceContext);
+    OperatorContext operatorContext = Mockito.mock(OperatorContext.class);
+    Mockito.when(operatorContext.getMaxRunTime()).thenReturn(new Duration(1, TimeUnit.SECONDS));
+    Mockito.when(operatorContext.getDriverContext()).thenReturn(driverContext);
+    return operatorContext;
+  }
+
+  /** Build a TsBlock of INT32 columns, null in rows means NULL value. */
+  public static TsBlock buildInt32TsBlock(int columnCount, Integer[][] rows) {
+    TsBlockBuilder builder =
+        new TsBlockBuilder(rows.length, Collections.nCopies(columnCount, TSDataType.INT32));
+    for (Integer[] row : rows) {
+      for (int i = 0; i < columnCount; i++) {
+        if (row[i] == null) {
+          builder.getColumnBuilder(i).appendNull();
+        } else {
+          builder.getColumnBuilder(i).writeInt(row[i]);
+        }
+      }
+    }
+    builder.declarePositions(rows.length);
+    return builder.build(new RunLengthEncodedColumn(TIME_COLUMN_TEMPLATE, rows.length));
+  }
+
+  /** Child operator which returns the given TsBlocks one by one. */
+  public static class TsBlockListOperator implements Operator {
+
+    private final OperatorContext operatorContext = mockOperatorContext();
+    private final List<TsBlock> tsBlocks;
+    private int index = 0;
+
+    public TsBlockListOperator(List<TsBlock> tsBlocks) {
+      this.tsBlocks = tsBlocks;
+    }
+
+    @Override
+    public OperatorContext getOperatorContext() {
+      return operatorContext;
+    }
+
+    @Override
+    public TsBlock next() {
+      return tsBlocks.get(index++);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index < tsBlocks.size();
+    }
+
+    @Override
+    public void close() {}
+
+    @Override
+    public boolean isFinished() {
+      return index >= tsBlocks.size();
+    }
+
+    @Override
+    public long calculateMaxPeekMemory() {
+      return 64 * 1024;
+    }
+
+    @Override
+    public long calculateMaxReturnSize() {
+      return 64 * 1024;
+    }
+
+    @Override
+    public long calculateRetainedSizeAfterCallingNext() {
+      return 0;
+    }
+
+    @Override
+    public long ramBytesUsed() {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache;
+
+import org.apache.iotdb.commons.schema.table.TsTable;
+import org.apache.iotdb.commons.schema.table.column.FieldColumnSchema;
+import org.apache.iotdb.commons.schema.table.column.TagColumnSchema;
+import org.apache.iotdb.commons.schema.table.column.TimeColumnSchema;
+import org.apache.iotdb.db.schemaengine.table.DataNodeTableCache;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.TsPrimitiveType;
+import org.apache.tsfile.write.schema.IMeasurementSchema;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+public class LastCacheSnapshotManagerTest {
+
+  private static final String database = "sg1";
+  private static final String table = "t1";
+  private static final String treeDatabase = "root.sg2";
+
+  private static final IDeviceID tableDevice1 =
+      IDeviceID.Factory.DEFAULT_FACTORY.create(new String[] {table, "hebei", "d_1"});
+  private static final IDeviceID tableDevice2 =
+      IDeviceID.Factory.DEFAULT_FACTORY.create(new String[] {table, "hebei", "d_2"});
+  private static final IDeviceID treeDevice =
+      IDeviceID.Factory.DEFAULT_FACTORY.create("root.sg2.d1");
+
+  private File snapshotFile;
+
+  @BeforeClass
+  public static void prepareEnvironment() {
+    final TsTable testTable = new TsTable(table);
+    testTable.addColumnSchema(new TagColumnSchema("province", TSDataType.STRING));
+    testTable.addColumnSchema(new TagColumnSchema("city", TSDataType.STRING));
+    testTable.addColumnSchema(new TimeColumnSchema("time", TSDataType.INT64));
+    testTable.addColumnSchema(
+        new FieldColumnSchema("s0", TSDataType.INT32, TSEncoding.RLE, CompressionType.GZIP));
+    testTable.addColumnSchema(
+        new FieldColumnSchema("s1", TSDataType.STRING, TSEncoding.PLAIN, CompressionType.GZIP));
+    DataNodeTableCache.getInstance().preUpdateTable(database, testTable, null);
+    DataNodeTableCache.getInstance().commitUpdateTable(database, table, null);
+  }
+
+  @AfterClass
+  public static void clearEnvironment() {
+    DataNodeTableCache.getInstance().invalid(database);
+  }
+
+  @Before
+  public void setUp() throws IOException {
+    snapshotFile =
+        new File(Files.createTempDirectory("last_cache").toFile(), "last_cache.snapshot");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    TableDeviceSchemaCache.getInstance().invalidateAll();
+    Files.deleteIfExists(snapshotFile.toPath());
+    Files.deleteIfExists(snapshotFile.getParentFile().toPath());
+  }
+
+  @Test
+  public void testSnapshotAndLoad() {
+    final TableDeviceSchemaCache cache = TableDeviceSchemaCache.getInstance();
+    final String[] measurements = new String[] {"", "s0", "s1"};
+    final TimeValuePair[] timeValuePairs =
+        new TimeValuePair[] {
+          new TimeValuePair(10L, TableDeviceLastCache.EMPTY_PRIMITIVE_TYPE),
+          new TimeValuePair(10L, new TsPrimitiveType.TsInt(1)),
+          new TimeValuePair(
+              5L, new TsPrimitiveType.TsBinary(new Binary("a", StandardCharsets.UTF_8)))
+        };
+    cache.initOrInvalidateLastCache(database, tableDevice1, measurements, false);
+    cache.updateLastCacheIfExists(database, tableDevice1, measurements, timeValuePairs);
+
+    cache.initOrInvalidateLastCache(database, tableDevice2, new String[] {"s0"}, false);
+    cache.updateLastCacheIfExists(
+        database,
+        tableDevice2,
+        new String[] {"s0"},
+        new TimeValuePair[] {TableDeviceLastCache.EMPTY_TIME_VALUE_PAIR});
+
+    final String[] treeMeasurements = new String[] {"s0", "s1"};
+    final IMeasurementSchema[] treeSchemas =
+        new IMeasurementSchema[] {
+          new MeasurementSchema("s0", TSDataType.INT64),
+          new MeasurementSchema("s1", TSDataType.DOUBLE)
+        };
+    cache.updateLastCache(
+        treeDatabase, treeDevice, treeMeasurements, null, false, treeSchemas, true);
+    cache.updateLastCache(
+        treeDatabase,
+        treeDevice,
+        treeMeasurements,
+        new TimeValuePair[] {
+          new TimeValuePair(3L, new TsPrimitiveType.TsLong(3L)),
+          new TimeValuePair(4L, new TsPrimitiveType.TsDouble(4.5))
+        },
+        false,
+        treeSchemas,
+        false);
+
+    final Map<String, LastCacheSnapshotManager.SealedFileInfo> sealedFiles =
+        Collections.singletonMap(
+            "0-0-0-0.tsfile",
+            new LastCacheSnapshotManager.SealedFileInfo(
+                100L, 0L, new HashSet<>(Arrays.asList(tableDevice1, tableDevice2, treeDevice))));
+    final LastCacheSnapshotManager manager = new LastCacheSnapshotManager(snapshotFile);
+    manager.snapshot(sealedFiles);
+    Assert.assertTrue(snapshotFile.exists());
+
+    cache.invalidateAll();
+    Assert.assertNull(cache.getLastEntry(database, tableDevice1, "s0"));
+
+    // The second table device is seen as changed after the snapshot
+    manager.load(
+        files -> {
+          Assert.assertEquals(sealedFiles, files);
+          return deviceID -> !tableDevice2.equals(deviceID);
+        });
+
+    for (int i = 0; i < measurements.length; ++i) {
+      final TimeValuePair loaded = cache.getLastEntry(database, tableDevice1, measurements[i]);
+      Assert.assertNotNull(loaded);
+      Assert.assertEquals(timeValuePairs[i].getTimestamp(), loaded.getTimestamp());
+      if (i > 0) {
+        Assert.assertEquals(timeValuePairs[i].getValue(), loaded.getValue());
+      }
+    }
+    Assert.assertNull(cache.getLastEntry(database, tableDevice2, "s0"));
+    Assert.assertEquals(
+        new TimeValuePair(3L, new TsPrimitiveType.TsLong(3L)),
+        cache.getLastEntry(null, treeDevice, "s0"));
+    Assert.assertEquals(
+        new TimeValuePair(4L, new TsPrimitiveType.TsDouble(4.5)),
+        cache.getLastEntry(null, treeDevice, "s1"));
+    Assert.assertEquals(2, manager.getLastLoadedDeviceNum());
+  }
+
+  @Test
+  public void testRestorableDeviceFilter() {
+    final IDeviceID removedOnlyDevice =
+        IDeviceID.Factory.DEFAULT_FACTORY.create(new String[] {table, "hebei", "d_3"});
+    final Map<String, LastCacheSnapshotManager.SealedFileInfo> sealedFiles = new HashMap<>();
+    sealedFiles.put(
+        "unchanged.tsfile",
+        new LastCacheSnapshotManager.SealedFileInfo(
+            100L, 0L, new HashSet<>(Arrays.asList(tableDevice1, tableDevice2))));
+    sealedFiles.put(
+        "grown.tsfile",
+        new LastCacheSnapshotManager.SealedFileInfo(100L, 0L, Collections.singleton(treeDevice)));
+    // Removed since the snapshot, e.g. by TTL or deleting the data directly
+    sealedFiles.put(
+        "removed.tsfile",
+        new LastCacheSnapshotManager.SealedFileInfo(
+            100L, 0L, new HashSet<>(Arrays.asList(tableDevice2, removedOnlyDevice))));
+
+    final Predicate<IDeviceID> filter =
+        LastCacheSnapshotManager.getRestorableDeviceFilter(
+            Arrays.asList(
+                mockTsFile("unchanged.tsfile", 100L, tableDevice1, tableDevice2, treeDevice),
+                mockTsFile("grown.tsfile", 200L, treeDevice)),
+            sealedFiles);
+
+    Assert.assertTrue(filter.test(tableDevice1));
+    // The last value may be in the removed file
+    Assert.assertFalse(filter.test(tableDevice2));
+    Assert.assertFalse(filter.test(removedOnlyDevice));
+    Assert.assertFalse(filter.test(treeDevice));
+  }
+
+  private static TsFileResource mockTsFile(
+      final String path, final long size, final IDeviceID... devices) {
+    final TsFileResource resource = Mockito.mock(TsFileResource.class);
+    Mockito.when(resource.getTsFilePath()).thenReturn(path);
+    Mockito.when(resource.getTsFile()).thenReturn(new File(path));
+    Mockito.when(resource.getTsFileSize()).thenReturn(size);
+    Mockito.when(resource.isClosed()).thenReturn(true);
+    Mockito.when(resource.getDevices()).thenReturn(new HashSet<>(Arrays.asList(devices)));
+    return resource;
+  }
+
+  @Test
+  public void testLoadWithoutSnapshot() {
+    final AtomicBoolean isFilterFetched = new AtomicBoolean(false);
+    new LastCacheSnapshotManager(snapshotFile)
+        .load(
+            files -> {
+              isFilterFetched.set(true);
+              return deviceID -> true;
+            });
+    Assert.assertFalse(isFilterFetched.get());
+  }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.metadata.fetcher.cache;
+
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.read.TimeValuePair;
+import org.apache.tsfile.utils.Binary;
+import org.apache.tsfile.utils.Pair;
+import org.apache.tsfile.utils.TsPrimitiveType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+public class TableDeviceColumnarLastCacheTest {
+
+  private static final String[] MEASUREMENTS = new String[] {"", "s0", "s1", "s2", "s3", "s4"};
+
+  @Test
+  public void testSameBehaviorAsMapLayout() {
+    final IDeviceLastCache mapCache = new TableDeviceLastCache();
+    final IDeviceLastCache columnarCache = new TableDeviceColumnarLastCache();
+    int columnarSize = columnarCache.estimateSize();
+
+    for (final IDeviceLastCache cache : Arrays.asList(mapCache, columnarCache)) {
+      final int diff = cache.initOrInvalidate("db", "table", MEASUREMENTS, false, false);
+      if (cache == columnarCache) {
+        columnarSize += diff;
+      }
+    }
+    assertSameContent(mapCache, columnarCache);
+    Assert.assertNull(columnarCache.getTimeValuePair("s0"));
+    Assert.assertFalse(columnarCache.getLastRow("", Arrays.asList("s0", "")).isPresent());
+
+    final TimeValuePair[] firstRow =
+        new TimeValuePair[] {
+          new TimeValuePair(2L, new TsPrimitiveType.TsInt(1)),
+          new TimeValuePair(2L, new TsPrimitiveType.TsDouble(1.5)),
+          new TimeValuePair(
+              1L, new TsPrimitiveType.TsBinary(new Binary("a", TSFileConfig.STRING_CHARSET))),
+          TableDeviceLastCache.EMPTY_TIME_VALUE_PAIR,
+          null
+        };
+    final String[] fields = Arrays.copyOfRange(MEASUREMENTS, 1, MEASUREMENTS.length);
+    mapCache.tryUpdate(fields, firstRow);
+    columnarSize += columnarCache.tryUpdate(fields, firstRow);
+    assertSameContent(mapCache, columnarCache);
+    Assert.assertEquals(columnarSize, columnarCache.estimateSize());
+
+    final TimeValuePair[] secondRow =
+        new TimeValuePair[] {
+          new TimeValuePair(1L, new TsPrimitiveType.TsInt(0)),
+          new TimeValuePair(3L, new TsPrimitiveType.TsDouble(2.5)),
+          new TimeValuePair(
+              3L, new TsPrimitiveType.TsBinary(new Binary("bc", TSFileConfig.STRING_CHARSET))),
+          new TimeValuePair(3L, TableDeviceLastCache.EMPTY_PRIMITIVE_TYPE),
+          new TimeValuePair(3L, new TsPrimitiveType.TsBoolean(true))
+        };
+    mapCache.tryUpdate(fields, secondRow, true);
+    columnarSize += columnarCache.tryUpdate(fields, secondRow, true);
+    assertSameContent(mapCache, columnarCache);
+    Assert.assertEquals(columnarSize, columnarCache.estimateSize());
+
+    mapCache.invalidate("s1", false);
+    columnarSize -= columnarCache.invalidate("s1", false);
+    assertSameContent(mapCache, columnarCache);
+    Assert.assertNull(columnarCache.getTimeValuePair(""));
+    Assert.assertEquals(columnarSize, columnarCache.estimateSize());
+
+    final String[] invalidated = new String[] {"s0", "s2"};
+    mapCache.initOrInvalidate("db", "table", invalidated, true, false);
+    columnarSize += columnarCache.initOrInvalidate("db", "table", invalidated, true, false);
+    assertSameContent(mapCache, columnarCache);
+    Assert.assertEquals(columnarSize, columnarCache.estimateSize());
+  }
+
+  @Test
+  public void testSmallerThanMapLayout() {
+    final IDeviceLastCache mapCache = new TableDeviceLastCache();
+    final IDeviceLastCache columnarCache = new TableDeviceColumnarLastCache();
+    final String[] measurements = new String[30];
+    final TimeValuePair[] timeValuePairs = new TimeValuePair[measurements.length];
+    for (int i = 0; i < measurements.length; ++i) {
+      measurements[i] = "s" + i;
+      timeValuePairs[i] = new TimeValuePair(i, new TsPrimitiveType.TsDouble(i));
+    }
+    for (final IDeviceLastCache cache : Arrays.asList(mapCache, columnarCache)) {
+      cache.initOrInvalidate("db", "table", measurements, false, false);
+      cache.tryUpdate(measurements, timeValuePairs);
+    }
+    Assert.assertEquals(
+        timeValuePairs[3].getValue(), columnarCache.getTimeValuePair("s3").getValue());
+    // The estimated size of the map layout does not count the map nodes and the boxed values
+    Assert.assertTrue(columnarCache.estimateSize() < mapCache.estimateSize());
+  }
+
+  private static void assertSameContent(
+      final IDeviceLastCache expected, final IDeviceLastCache actual) {
+    final List<String> targets = Arrays.asList(MEASUREMENTS);
+    for (final String measurement : MEASUREMENTS) {
+      final TimeValuePair expectedPair = expected.getTimeValuePair(measurement);
+      final TimeValuePair actualPair = actual.getTimeValuePair(measurement);
+      if (expectedPair == null || expectedPair == TableDeviceLastCache.EMPTY_TIME_VALUE_PAIR) {
+        Assert.assertSame(expectedPair, actualPair);
+      } else {
+        Assert.assertEquals(expectedPair.getTimestamp(), actualPair.getTimestamp());
+        assertSameValue(expectedPair.getValue(), actualPair.getValue());
+      }
+
+      final Optional<Pair<OptionalLong, TsPrimitiveType[]>> expectedRow =
+          expected.getLastRow(measurement, targets);
+      final Optional<Pair<OptionalLong, TsPrimitiveType[]>> actualRow =
+          actual.getLastRow(measurement, targets);
+      Assert.assertEquals(expectedRow.isPresent(), actualRow.isPresent());
+      if (expectedRow.isPresent()) {
+        Assert.assertEquals(expectedRow.get().getLeft(), actualRow.get().getLeft());
+        final TsPrimitiveType[] expectedValues = expectedRow.get().getRight();
+        final TsPrimitiveType[] actualValues = actualRow.get().getRight();
+        if (expectedValues == null) {
+          Assert.assertNull(actualValues);
+          continue;
+        }
+        Assert.assertEquals(expectedValues.length, actualValues.length);
+        for (int i = 0; i < expectedValues.length; ++i) {
+          assertSameValue(expectedValues[i], actualValues[i]);
+        }
+      }
+    }
+  }
+
+  private static void assertSameValue(
+      final TsPrimitiveType expected, final TsPrimitiveType actual) {
+    // EMPTY_PRIMITIVE_TYPE does not support equals
+    if (expected == null || expected == TableDeviceLastCache.EMPTY_PRIMITIVE_TYPE) {
+      Assert.assertSame(expected, actual);
+    } else {
+      Assert.assertEquals(expected, actual);
+    }
+  }
+}
@@ -191,12 +191,25 @@ public class PlanTester {
   }
 
   public PlanNode getFragmentPlan(int index) {
+    return getDistributedQueryPlan()
+        .getFragments()
+        .get(index)
+        .getPlanNodeTree()
+        .getChildren()
+        .get(0);
+  }
+
+  public int getFragmentNum() {
+    return getDistributedQueryPlan().getFragments().size();
+  }
+
+  private DistributedQueryPlan getDistributedQueryPlan() {
     if (distributedQueryPlan == null) {
       distributedQueryPlan =
           new TableDistributedPlanner(
                   analysis, symbolAllocator, plan, metadata, dataNodeLocationSupplier)
               .plan();
     }
-    return distributedQueryPlan.getFragments().get(index).getPlanNodeTree().getChildren().get(0);
+    return distributedQueryPlan;
   }
 }
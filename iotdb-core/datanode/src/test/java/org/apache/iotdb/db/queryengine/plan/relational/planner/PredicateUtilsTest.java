@@ -36,6 +36,7 @@ import java.time.ZoneId;
 
 import static org.apache.iotdb.db.queryengine.plan.relational.analyzer.AnalyzerTest.analyzeSQL;
 import static org.apache.iotdb.db.queryengine.plan.relational.planner.PredicateUtils.extractGlobalTimePredicate;
+import static org.apache.iotdb.db.queryengine.plan.relational.planner.ir.GlobalTimePredicateExtractVisitor.copyLogicalExpressions;
 
 public class PredicateUtilsTest {
   @Test
@@ -59,14 +60,18 @@ public class PredicateUtilsTest {
     Analysis actualAnalysis = analyzeSQL(sql, metadata, context);
     Pair<Expression, Boolean> ret =
         extractGlobalTimePredicate(
-            actualAnalysis.getWhereMap().values().iterator().next(), true, true);
+            copyLogicalExpressions(actualAnalysis.getWhereMap().values().iterator().next()),
+            true,
+            true);
     System.out.println(ret.getLeft());
 
     sql = "SELECT tag1 FROM table1 where time>1 and s1>1 or tag1='A'";
     actualAnalysis = analyzeSQL(sql, metadata, context);
     ret =
         extractGlobalTimePredicate(
-            actualAnalysis.getWhereMap().values().iterator().next(), true, true);
+            copyLogicalExpressions(actualAnalysis.getWhereMap().values().iterator().next()),
+            true,
+            true);
     System.out.println(ret.getLeft());
   }
 }
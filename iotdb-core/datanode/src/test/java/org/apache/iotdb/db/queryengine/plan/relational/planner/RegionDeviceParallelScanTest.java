@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.queryengine.plan.relational.planner;
+
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.node.PlanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.metadata.DeviceEntry;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.AggregationTableScanNode;
+import org.apache.iotdb.db.queryengine.plan.relational.planner.node.DeviceTableScanNode;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class RegionDeviceParallelScanTest {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private boolean originalEnable;
+  private int originalMinDeviceNum;
+  private int originalDegreeOfParallelism;
+
+  @Before
+  public void setUp() {
+    originalEnable = CONFIG.isEnableRegionDeviceParallelScan();
+    originalMinDeviceNum = CONFIG.getRegionScanMinDeviceNumPerSplit();
+    originalDegreeOfParallelism = CONFIG.getDegreeOfParallelism();
+    CONFIG.setEnableRegionDeviceParallelScan(true);
+    CONFIG.setRegionScanMinDeviceNumPerSplit(2);
+    // 3 DataRegions are scanned, each of which can be split into at most 2 ranges
+    CONFIG.setDegreeOfParallelism(6);
+  }
+
+  @After
+  public void tearDown() {
+    CONFIG.setEnableRegionDeviceParallelScan(originalEnable);
+    CONFIG.setRegionScanMinDeviceNumPerSplit(originalMinDeviceNum);
+    CONFIG.setDegreeOfParallelism(originalDegreeOfParallelism);
+  }
+
+  @Test
+  public void testSplitTableScan() {
+    PlanTester planTester = new PlanTester();
+    planTester.createPlan("SELECT * FROM table1");
+
+    // DataRegion 11 has 4 devices and is split into 2 ranges, the other ones have 2 devices
+    assertScanNodes(collectScanNodes(planTester), DeviceTableScanNode.class);
+  }
+
+  @Test
+  public void testSplitAggregationTableScan() {
+    PlanTester planTester = new PlanTester();
+    planTester.createPlan(
+        "SELECT tag1, tag2, tag3, count(s1) FROM table1 GROUP BY tag1, tag2, tag3");
+
+    assertScanNodes(collectScanNodes(planTester), AggregationTableScanNode.class);
+  }
+
+  @Test
+  public void testNotSplitWhenDisabled() {
+    CONFIG.setEnableRegionDeviceParallelScan(false);
+    PlanTester planTester = new PlanTester();
+    planTester.createPlan("SELECT * FROM table1");
+
+    Map<Integer, List<DeviceTableScanNode>> scanNodes = collectScanNodes(planTester);
+    Assert.assertEquals(3, scanNodes.size());
+    scanNodes.values().forEach(nodes -> Assert.assertEquals(1, nodes.size()));
+  }
+
+  private void assertScanNodes(
+      Map<Integer, List<DeviceTableScanNode>> scanNodes,
+      Class<? extends DeviceTableScanNode> scanNodeClass) {
+    Assert.assertEquals(3, scanNodes.size());
+    Assert.assertEquals(1, scanNodes.get(10).size());
+    Assert.assertEquals(2, scanNodes.get(11).size());
+    Assert.assertEquals(1, scanNodes.get(12).size());
+
+    Set<DeviceEntry> devicesOfRegion11 = new HashSet<>();
+    for (DeviceTableScanNode scanNode : scanNodes.get(11)) {
+      Assert.assertEquals(scanNodeClass, scanNode.getClass());
+      Assert.assertEquals(2, scanNode.getDeviceEntries().size());
+      devicesOfRegion11.addAll(scanNode.getDeviceEntries());
+    }
+    Assert.assertEquals(4, devicesOfRegion11.size());
+  }
+
+  private Map<Integer, List<DeviceTableScanNode>> collectScanNodes(PlanTester planTester) {
+    Map<Integer, List<DeviceTableScanNode>> scanNodes = new HashMap<>();
+    // the first fragment is the root one
+    for (int i = 1; i < planTester.getFragmentNum(); i++) {
+      PlanNode root = planTester.getFragmentPlan(i);
+      List<DeviceTableScanNode> found = new ArrayList<>();
+      collect(root, found);
+      for (DeviceTableScanNode scanNode : found) {
+        scanNodes
+            .computeIfAbsent(
+                scanNode.getRegionReplicaSet().getRegionId().getId(), k -> new ArrayList<>())
+            .add(scanNode);
+      }
+    }
+    return scanNodes;
+  }
+
+  private void collect(PlanNode node, List<DeviceTableScanNode> result) {
+    if (node instanceof DeviceTableScanNode) {
+      result.add((DeviceTableScanNode) node);
+    }
+    node.getChildren().forEach(child -> collect(child, result));
+  }
+}
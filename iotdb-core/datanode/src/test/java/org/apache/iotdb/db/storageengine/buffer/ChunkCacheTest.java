@@ -19,8 +19,15 @@
 
 package org.apache.iotdb.db.storageengine.buffer;
 
+import org.apache.iotdb.commons.concurrent.IoTDBThreadPoolFactory;
 import org.apache.iotdb.commons.exception.MetadataException;
 import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.queryengine.common.FragmentInstanceId;
+import org.apache.iotdb.db.queryengine.common.PlanFragmentId;
+import org.apache.iotdb.db.queryengine.execution.fragment.DataNodeQueryContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.FragmentInstanceStateMachine;
+import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
 import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
@@ -52,6 +59,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import static org.apache.iotdb.commons.conf.IoTDBConstant.PATH_SEPARATOR;
 
@@ -133,6 +141,102 @@ public class ChunkCacheTest {
     }
   }
 
+  @Test
+  public void testAdmissionQuota() throws IOException {
+    TsFileResource tsFileResource = seqResources.get(0);
+    long originAdmissionSize = Long.MAX_VALUE;
+    chunkCache.setAdmissionSizePerQuery(1);
+    chunkCache.removeRegionStatistics(tsFileResource.getTsFileID().regionId);
+    long originBypassCount = chunkCache.getAdmissionBypassCount();
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFileResource.getTsFilePath())) {
+      List<ChunkMetadata> chunkMetadataList =
+          reader.getChunkMetadataList(reader.getAllPaths().get(0));
+      Assert.assertTrue(chunkMetadataList.size() > 1);
+
+      QueryContext scanContext = new QueryContext(1);
+      // the first missed chunk is cached and uses up the quota
+      getChunk(tsFileResource, chunkMetadataList.get(0), scanContext);
+      Assert.assertTrue(scanContext.getChunkCacheAdmittedSize().get() > 0);
+      // the following missed chunk is read without caching
+      long admittedSize = scanContext.getChunkCacheAdmittedSize().get();
+      getChunk(tsFileResource, chunkMetadataList.get(1), scanContext);
+      Assert.assertEquals(admittedSize, scanContext.getChunkCacheAdmittedSize().get());
+      Assert.assertEquals(1, chunkCache.getAdmissionBypassCount() - originBypassCount);
+
+      // the cached chunk is still readable after the quota is used up
+      getChunk(tsFileResource, chunkMetadataList.get(0), scanContext);
+      Assert.assertEquals(1, scanContext.getQueryStatistics().getLoadChunkFromCacheCount().get());
+
+      // another query is not limited by the used up quota
+      QueryContext otherContext = new QueryContext(2);
+      getChunk(tsFileResource, chunkMetadataList.get(1), otherContext);
+      getChunk(tsFileResource, chunkMetadataList.get(1), otherContext);
+      Assert.assertEquals(1, otherContext.getQueryStatistics().getLoadChunkFromCacheCount().get());
+      Assert.assertEquals(1, chunkCache.getAdmissionBypassCount() - originBypassCount);
+
+      // 2 hits in 5 requests
+      Assert.assertEquals(
+          0.4,
+          chunkCache.getRegionHitRatios().get(tsFileResource.getTsFileID().regionId),
+          0.000001);
+    } finally {
+      chunkCache.setAdmissionSizePerQuery(originAdmissionSize);
+    }
+  }
+
+  @Test
+  public void testAdmissionQuotaSharedByFragmentInstances() throws IOException {
+    TsFileResource tsFileResource = seqResources.get(0);
+    chunkCache.setAdmissionSizePerQuery(1);
+    long originBypassCount = chunkCache.getAdmissionBypassCount();
+    ExecutorService notificationExecutor =
+        IoTDBThreadPoolFactory.newFixedThreadPool(1, "test-instance-notification");
+    try (TsFileSequenceReader reader = new TsFileSequenceReader(tsFileResource.getTsFilePath())) {
+      List<ChunkMetadata> chunkMetadataList =
+          reader.getChunkMetadataList(reader.getAllPaths().get(0));
+      Assert.assertTrue(chunkMetadataList.size() > 1);
+
+      // two fragment instances of the same query on this DataNode
+      DataNodeQueryContext dataNodeQueryContext = new DataNodeQueryContext(2);
+      PlanFragmentId planFragmentId = new PlanFragmentId("test_query", 0);
+      FragmentInstanceContext[] instanceContexts = new FragmentInstanceContext[2];
+      for (int i = 0; i < instanceContexts.length; i++) {
+        FragmentInstanceId instanceId = new FragmentInstanceId(planFragmentId, "instance-" + i);
+        instanceContexts[i] =
+            FragmentInstanceContext.createFragmentInstanceContext(
+                instanceId, new FragmentInstanceStateMachine(instanceId, notificationExecutor));
+        instanceContexts[i].setDataNodeQueryContext(dataNodeQueryContext);
+      }
+
+      // the first instance uses up the quota of the query
+      getChunk(tsFileResource, chunkMetadataList.get(0), instanceContexts[0]);
+      Assert.assertTrue(dataNodeQueryContext.getChunkCacheAdmittedSize().get() > 0);
+      // so the second instance reads its missed chunk without caching
+      getChunk(tsFileResource, chunkMetadataList.get(1), instanceContexts[1]);
+      getChunk(tsFileResource, chunkMetadataList.get(1), instanceContexts[1]);
+      Assert.assertEquals(
+          0, instanceContexts[1].getQueryStatistics().getLoadChunkFromCacheCount().get());
+      Assert.assertEquals(2, chunkCache.getAdmissionBypassCount() - originBypassCount);
+    } finally {
+      chunkCache.setAdmissionSizePerQuery(Long.MAX_VALUE);
+      notificationExecutor.shutdownNow();
+    }
+  }
+
+  private void getChunk(
+      TsFileResource tsFileResource, ChunkMetadata chunkMetadata, QueryContext context)
+      throws IOException {
+    chunkCache.get(
+        new ChunkCache.ChunkCacheKey(
+            tsFileResource.getTsFilePath(),
+            tsFileResource.getTsFileID(),
+            chunkMetadata.getOffsetOfChunkHeader(),
+            true),
+        chunkMetadata.getDeleteIntervalList(),
+        chunkMetadata.getStatistics(),
+        context);
+  }
+
   void prepareSeries() throws MetadataException {
     measurementSchemas = new MeasurementSchema[measurementNum];
     for (int i = 0; i < measurementNum; i++) {
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.buffer;
+
+import org.apache.iotdb.db.exception.StorageEngineException;
+import org.apache.iotdb.db.queryengine.execution.fragment.QueryContext;
+import org.apache.iotdb.db.queryengine.execution.fragment.QueryStatistics;
+import org.apache.iotdb.db.storageengine.dataregion.read.control.FileReaderManager;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
+import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResourceStatus;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+import org.apache.iotdb.db.utils.constant.TestConstant;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.exception.write.WriteProcessException;
+import org.apache.tsfile.file.metadata.IDeviceID;
+import org.apache.tsfile.file.metadata.TimeseriesMetadata;
+import org.apache.tsfile.file.metadata.enums.CompressionType;
+import org.apache.tsfile.file.metadata.enums.TSEncoding;
+import org.apache.tsfile.read.common.Path;
+import org.apache.tsfile.write.TsFileWriter;
+import org.apache.tsfile.write.record.TSRecord;
+import org.apache.tsfile.write.record.datapoint.DataPoint;
+import org.apache.tsfile.write.schema.MeasurementSchema;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TimeSeriesMetadataCacheTest {
+
+  private static final String DEVICE = "root.sg1.d1";
+  // more than one metadata index leaf node
+  private static final int MEASUREMENT_NUM = 600;
+
+  private final TimeSeriesMetadataCache cache = TimeSeriesMetadataCache.getInstance();
+  private TsFileResource tsFileResource;
+
+  @Before
+  public void setUp() throws IOException, WriteProcessException {
+    File file = new File(TestConstant.getTestTsFilePath("root.sg1", 0, 0, 1));
+    if (!file.getParentFile().exists()) {
+      Assert.assertTrue(file.getParentFile().mkdirs());
+    }
+    tsFileResource = new TsFileResource(file);
+    tsFileResource.setStatusForTest(TsFileResourceStatus.NORMAL);
+    try (TsFileWriter fileWriter = new TsFileWriter(file)) {
+      for (int i = 0; i < MEASUREMENT_NUM; i++) {
+        fileWriter.registerTimeseries(
+            new Path(DEVICE),
+            new MeasurementSchema(
+                "s" + i, TSDataType.INT64, TSEncoding.PLAIN, CompressionType.UNCOMPRESSED));
+      }
+      for (long time = 0; time < 10; time++) {
+        TSRecord record = new TSRecord(DEVICE, time);
+        for (int i = 0; i < MEASUREMENT_NUM; i++) {
+          record.addTuple(DataPoint.getDataPoint(TSDataType.INT64, "s" + i, String.valueOf(time)));
+        }
+        fileWriter.writeRecord(record);
+      }
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException, StorageEngineException {
+    cache.clear();
+    BloomFilterCache.getInstance().clear();
+    FileReaderManager.getInstance().closeAndRemoveAllOpenedReaders();
+    EnvironmentUtils.cleanAllDir();
+  }
+
+  @Test
+  public void testBatchGet() throws IOException {
+    IDeviceID deviceID = IDeviceID.Factory.DEFAULT_FACTORY.create(DEVICE);
+    List<String> measurements = Arrays.asList("s0", "s300", "s599", "s1000", "s300");
+    Set<String> allSensors = new HashSet<>(measurements);
+
+    QueryContext context = new QueryContext(1);
+    List<TimeseriesMetadata> result =
+        cache.get(
+            tsFileResource.getTsFilePath(),
+            tsFileResource.getTsFileID(),
+            deviceID,
+            measurements,
+            allSensors,
+            true,
+            false,
+            context);
+    Assert.assertEquals(measurements.size(), result.size());
+    for (int i = 0; i < measurements.size(); i++) {
+      if (measurements.get(i).equals("s1000")) {
+        Assert.assertNull(result.get(i));
+      } else {
+        Assert.assertEquals(measurements.get(i), result.get(i).getMeasurementId());
+        Assert.assertEquals(10, result.get(i).getStatistics().getCount());
+      }
+    }
+    // the duplicated measurement gets its own copy
+    Assert.assertNotSame(result.get(1), result.get(4));
+    QueryStatistics statistics = context.getQueryStatistics();
+    Assert.assertEquals(0, statistics.getLoadTimeSeriesMetadataFromCacheCount().get());
+    Assert.assertEquals(5, statistics.getLoadTimeSeriesMetadataFromDiskCount().get());
+
+    // all the existing measurements are cached by the batch
+    context = new QueryContext(2);
+    for (String measurement : Arrays.asList("s0", "s300", "s599")) {
+      Assert.assertNotNull(
+          cache.get(
+              tsFileResource.getTsFilePath(),
+              new TimeSeriesMetadataCache.TimeSeriesMetadataCacheKey(
+                  tsFileResource.getTsFileID(), deviceID, measurement),
+              allSensors,
+              true,
+              false,
+              context));
+    }
+    statistics = context.getQueryStatistics();
+    Assert.assertEquals(3, statistics.getLoadTimeSeriesMetadataFromCacheCount().get());
+    Assert.assertEquals(0, statistics.getLoadTimeSeriesMetadataFromDiskCount().get());
+  }
+}
@@ -30,6 +30,7 @@ import org.apache.iotdb.commons.path.IFullPath;
 import org.apache.iotdb.commons.path.MeasurementPath;
 import org.apache.iotdb.commons.path.NonAlignedFullPath;
 import org.apache.iotdb.commons.path.PartialPath;
+import org.apache.iotdb.commons.utils.TimePartitionUtils;
 import org.apache.iotdb.db.conf.IoTDBConfig;
 import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.DataRegionException;
@@ -93,6 +94,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.apache.iotdb.db.queryengine.plan.statement.StatementTestUtils.genInsertRowNode;
 import static org.apache.iotdb.db.queryengine.plan.statement.StatementTestUtils.genInsertTabletNode;
@@ -455,6 +459,71 @@ public class DataRegionTest {
     }
   }
 
+  @Test
+  public void testConcurrentTabletWriteIntoDifferentTimePartitions() throws Exception {
+    int partitionNum = 4;
+    int tabletNumPerPartition = 10;
+    int rowNum = 100;
+    long timePartitionInterval = TimePartitionUtils.getTimePartitionInterval();
+    ExecutorService executor = Executors.newFixedThreadPool(partitionNum);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int partition = 0; partition < partitionNum; partition++) {
+        long partitionStartTime = partition * timePartitionInterval;
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int tablet = 0; tablet < tabletNumPerPartition; tablet++) {
+                    long[] times = new long[rowNum];
+                    Object[] columns = new Object[] {new int[rowNum]};
+                    for (int r = 0; r < rowNum; r++) {
+                      times[r] = partitionStartTime + (long) tablet * rowNum + r;
+                      ((int[]) columns[0])[r] = r;
+                    }
+                    dataRegion.insertTablet(
+                        new InsertTabletNode(
+                            new QueryId("test_write").genPlanNodeId(),
+                            new PartialPath(deviceId),
+                            false,
+                            new String[] {measurementId},
+                            new TSDataType[] {TSDataType.INT32},
+                            new MeasurementSchema[] {
+                              new MeasurementSchema(
+                                  measurementId, TSDataType.INT32, TSEncoding.PLAIN)
+                            },
+                            times,
+                            null,
+                            columns,
+                            rowNum));
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    dataRegion.syncCloseAllWorkingTsFileProcessors();
+
+    QueryDataSource queryDataSource =
+        dataRegion.query(
+            Collections.singletonList(nonAlignedFullPath), device, context, null, null);
+    // each time partition has its own sequence file
+    Assert.assertEquals(partitionNum, queryDataSource.getSeqResources().size());
+    Assert.assertEquals(0, queryDataSource.getUnseqResources().size());
+    for (TsFileResource resource : queryDataSource.getSeqResources()) {
+      Assert.assertTrue(resource.isClosed());
+      long partitionStartTime =
+          TimePartitionUtils.getTimePartitionLowerBound(resource.getStartTime(device).get());
+      Assert.assertEquals(partitionStartTime, (long) resource.getStartTime(device).get());
+      Assert.assertEquals(
+          partitionStartTime + (long) tabletNumPerPartition * rowNum - 1,
+          (long) resource.getEndTime(device).get());
+    }
+  }
+
   @Test
   public void testIoTDBTabletWriteAndDeleteDataRegion()
       throws QueryProcessException,
@@ -20,23 +20,34 @@
 package org.apache.iotdb.db.storageengine.dataregion.memtable;
 
 import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.exception.WriteProcessException;
 import org.apache.iotdb.db.storageengine.dataregion.flush.MemTableFlushTask;
+import org.apache.iotdb.db.storageengine.dataregion.flush.pool.FlushSubTaskPoolManager;
+import org.apache.iotdb.db.storageengine.rescon.memory.SystemInfo;
 import org.apache.iotdb.db.utils.EnvironmentUtils;
 import org.apache.iotdb.db.utils.constant.TestConstant;
 
 import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.file.metadata.ChunkGroupMetadata;
 import org.apache.tsfile.file.metadata.ChunkMetadata;
+import org.apache.tsfile.file.metadata.IDeviceID;
 import org.apache.tsfile.fileSystem.FSFactoryProducer;
 import org.apache.tsfile.write.writer.RestorableTsFileIOWriter;
+import org.awaitility.Awaitility;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.spy;
 
 public class MemTableFlushTaskTest {
 
@@ -161,4 +172,133 @@ public class MemTableFlushTaskTest {
     assertEquals(TSDataType.BOOLEAN, chunkMetaData.getDataType());
     assertEquals(endTime - startTime + 1, chunkMetaData.getNumOfPoints());
   }
+
+  @Test
+  public void testParallelEncodingFlushMemTable()
+      throws ExecutionException, InterruptedException, IllegalPathException {
+    int originalParallelism =
+        IoTDBDescriptor.getInstance().getConfig().getFlushEncodingParallelism();
+    IoTDBDescriptor.getInstance().getConfig().setFlushEncodingParallelism(4);
+    try {
+      int deviceNum = 20;
+      for (int i = 0; i < deviceNum; i++) {
+        MemTableTestUtils.produceData(
+            memTable,
+            startTime,
+            endTime + i,
+            IDeviceID.Factory.DEFAULT_FACTORY.create(String.format("root.sg.d%02d", i)),
+            MemTableTestUtils.measurementId0,
+            MemTableTestUtils.dataType0);
+      }
+      new MemTableFlushTask(memTable, writer, storageGroup, dataRegionId).syncFlushMemTable();
+
+      // chunk groups are written in device order although devices are encoded concurrently
+      List<ChunkGroupMetadata> chunkGroupMetadataList = writer.getChunkGroupMetadataList();
+      assertEquals(deviceNum, chunkGroupMetadataList.size());
+      for (int i = 0; i < deviceNum; i++) {
+        ChunkGroupMetadata chunkGroupMetadata = chunkGroupMetadataList.get(i);
+        assertEquals(
+            IDeviceID.Factory.DEFAULT_FACTORY.create(String.format("root.sg.d%02d", i)),
+            chunkGroupMetadata.getDevice());
+        assertEquals(1, chunkGroupMetadata.getChunkMetadataList().size());
+        ChunkMetadata chunkMetaData = chunkGroupMetadata.getChunkMetadataList().get(0);
+        assertEquals(startTime, chunkMetaData.getStartTime());
+        assertEquals(endTime + i, chunkMetaData.getEndTime());
+        assertEquals(endTime + i - startTime + 1, chunkMetaData.getNumOfPoints());
+      }
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setFlushEncodingParallelism(originalParallelism);
+    }
+  }
+
+  @Test
+  public void testParallelEncodingWithBoundedBuffer()
+      throws ExecutionException, InterruptedException, IllegalPathException {
+    int originalParallelism =
+        IoTDBDescriptor.getInstance().getConfig().getFlushEncodingParallelism();
+    int originalQueueSize =
+        IoTDBDescriptor.getInstance().getConfig().getIoTaskQueueSizeForFlushing();
+    IoTDBDescriptor.getInstance().getConfig().setFlushEncodingParallelism(4);
+    // each device can only buffer one encoded chunk, so the devices wait to be forwarded
+    IoTDBDescriptor.getInstance().getConfig().setIoTaskQueueSizeForFlushing(1);
+    try {
+      int deviceNum = 10;
+      int seriesNum = 5;
+      for (int i = 0; i < deviceNum; i++) {
+        for (int j = 0; j < seriesNum; j++) {
+          MemTableTestUtils.produceData(
+              memTable,
+              startTime,
+              endTime,
+              IDeviceID.Factory.DEFAULT_FACTORY.create(String.format("root.sg.d%02d", i)),
+              "s" + j,
+              MemTableTestUtils.dataType0);
+        }
+      }
+      new MemTableFlushTask(memTable, writer, storageGroup, dataRegionId).syncFlushMemTable();
+
+      List<ChunkGroupMetadata> chunkGroupMetadataList = writer.getChunkGroupMetadataList();
+      assertEquals(deviceNum, chunkGroupMetadataList.size());
+      for (int i = 0; i < deviceNum; i++) {
+        ChunkGroupMetadata chunkGroupMetadata = chunkGroupMetadataList.get(i);
+        assertEquals(
+            IDeviceID.Factory.DEFAULT_FACTORY.create(String.format("root.sg.d%02d", i)),
+            chunkGroupMetadata.getDevice());
+        assertEquals(seriesNum, chunkGroupMetadata.getChunkMetadataList().size());
+        for (ChunkMetadata chunkMetaData : chunkGroupMetadata.getChunkMetadataList()) {
+          assertEquals(endTime - startTime + 1, chunkMetaData.getNumOfPoints());
+        }
+      }
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setFlushEncodingParallelism(originalParallelism);
+      IoTDBDescriptor.getInstance().getConfig().setIoTaskQueueSizeForFlushing(originalQueueSize);
+    }
+  }
+
+  @Test(timeout = 60000)
+  public void testIoTaskFailsDuringParallelEncoding() throws Exception {
+    int originalParallelism =
+        IoTDBDescriptor.getInstance().getConfig().getFlushEncodingParallelism();
+    int originalQueueSize =
+        IoTDBDescriptor.getInstance().getConfig().getIoTaskQueueSizeForFlushing();
+    boolean originalEncodingFasterThanIo = SystemInfo.getInstance().isEncodingFasterThanIo();
+    IoTDBDescriptor.getInstance().getConfig().setFlushEncodingParallelism(4);
+    // the devices block on their buffers once the io task stops consuming chunks
+    IoTDBDescriptor.getInstance().getConfig().setIoTaskQueueSizeForFlushing(1);
+    SystemInfo.getInstance().setEncodingFasterThanIo(true);
+    try {
+      int deviceNum = 20;
+      int seriesNum = 5;
+      for (int i = 0; i < deviceNum; i++) {
+        for (int j = 0; j < seriesNum; j++) {
+          MemTableTestUtils.produceData(
+              memTable,
+              startTime,
+              endTime,
+              IDeviceID.Factory.DEFAULT_FACTORY.create(String.format("root.sg.d%02d", i)),
+              "s" + j,
+              MemTableTestUtils.dataType0);
+        }
+      }
+      // the io task fails when it ends the second chunk group
+      RestorableTsFileIOWriter failingWriter = spy(writer);
+      doCallRealMethod()
+          .doThrow(new IllegalStateException("Mocked io failure"))
+          .when(failingWriter)
+          .endChunkGroup();
+
+      MemTableFlushTask memTableFlushTask =
+          new MemTableFlushTask(memTable, failingWriter, storageGroup, dataRegionId);
+      assertThrows(ExecutionException.class, memTableFlushTask::syncFlushMemTable);
+
+      // no device encoding task is left blocked on its buffer
+      Awaitility.await()
+          .atMost(10, TimeUnit.SECONDS)
+          .until(() -> FlushSubTaskPoolManager.getInstance().getWorkingTasksNumber() == 0);
+    } finally {
+      IoTDBDescriptor.getInstance().getConfig().setFlushEncodingParallelism(originalParallelism);
+      IoTDBDescriptor.getInstance().getConfig().setIoTaskQueueSizeForFlushing(originalQueueSize);
+      SystemInfo.getInstance().setEncodingFasterThanIo(originalEncodingFasterThanIo);
+    }
+  }
 }
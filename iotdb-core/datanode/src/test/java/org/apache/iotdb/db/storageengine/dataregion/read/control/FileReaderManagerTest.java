@@ -24,6 +24,8 @@ import org.apache.iotdb.db.conf.IoTDBDescriptor;
 import org.apache.iotdb.db.storageengine.dataregion.tsfile.TsFileResource;
 import org.apache.iotdb.db.utils.constant.TestConstant;
 
+import org.apache.tsfile.common.conf.TSFileConfig;
+import org.apache.tsfile.read.TsFileSequenceReader;
 import org.apache.tsfile.write.writer.TsFileIOWriter;
 import org.junit.After;
 import org.junit.Assert;
@@ -32,6 +34,12 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.Assert.fail;
 
@@ -137,4 +145,105 @@ public class FileReaderManagerTest {
       }
     }
   }
+
+  @Test
+  public void testConcurrentGetSameFile() throws Exception {
+    String filePath = TestConstant.BASE_OUTPUT_PATH.concat("concurrent.file");
+    File file = SystemFileFactory.INSTANCE.getFile(filePath);
+    TsFileIOWriter writer = new TsFileIOWriter(file);
+    writer.endFile();
+    writer.close();
+    TsFileResource tsFile = new TsFileResource(file);
+
+    FileReaderManager manager = FileReaderManager.getInstance();
+    int threadNum = 8;
+    ExecutorService pool = Executors.newFixedThreadPool(threadNum);
+    CountDownLatch startLatch = new CountDownLatch(1);
+    try {
+      List<Future<TsFileSequenceReader>> futures = new ArrayList<>();
+      for (int i = 0; i < threadNum; i++) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  startLatch.await();
+                  manager.increaseFileReaderReference(tsFile, true);
+                  return manager.get(tsFile.getTsFilePath(), true);
+                }));
+      }
+      startLatch.countDown();
+
+      // the file is opened only once even if it's requested concurrently
+      TsFileSequenceReader reader = futures.get(0).get();
+      for (Future<TsFileSequenceReader> future : futures) {
+        Assert.assertSame(reader, future.get());
+      }
+
+      for (int i = 0; i < threadNum - 1; i++) {
+        manager.decreaseFileReaderReference(tsFile, true);
+        Assert.assertTrue(manager.contains(tsFile, true));
+      }
+      // the reader is closed when the last reference is released
+      manager.decreaseFileReaderReference(tsFile, true);
+      Assert.assertFalse(manager.contains(tsFile, true));
+    } finally {
+      pool.shutdownNow();
+      manager.closeAndRemoveAllOpenedReaders();
+      if (file.exists() && !file.delete()) {
+        fail();
+      }
+    }
+  }
+
+  @Test
+  public void testConcurrentGetAndClose() throws Exception {
+    String filePath = TestConstant.BASE_OUTPUT_PATH.concat("concurrentClose.file");
+    File file = SystemFileFactory.INSTANCE.getFile(filePath);
+    TsFileIOWriter writer = new TsFileIOWriter(file);
+    writer.endFile();
+    writer.close();
+
+    FileReaderManager manager = FileReaderManager.getInstance();
+    int threadNum = 4;
+    ExecutorService pool = Executors.newFixedThreadPool(threadNum * 2);
+    CountDownLatch startLatch = new CountDownLatch(1);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threadNum; i++) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  startLatch.await();
+                  for (int j = 0; j < 200; j++) {
+                    manager.get(filePath, true);
+                  }
+                  return null;
+                }));
+        futures.add(
+            pool.submit(
+                () -> {
+                  startLatch.await();
+                  for (int j = 0; j < 200; j++) {
+                    manager.closeFileAndRemoveReader(filePath);
+                  }
+                  return null;
+                }));
+      }
+      startLatch.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+
+      // a reader left in the manager is never one that has been closed
+      TsFileSequenceReader reader = manager.getClosedFileReaderMap().get(filePath);
+      if (reader != null) {
+        Assert.assertEquals(TSFileConfig.MAGIC_STRING, reader.readTailMagic());
+      }
+    } finally {
+      pool.shutdownNow();
+      manager.closeAndRemoveAllOpenedReaders();
+      if (file.exists() && !file.delete()) {
+        fail();
+      }
+    }
+  }
 }
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.read.reader.series;
+
+import org.apache.iotdb.commons.exception.IllegalPathException;
+import org.apache.iotdb.commons.path.IFullPath;
+import org.apache.iotdb.commons.path.MeasurementPath;
+import org.apache.iotdb.db.conf.IoTDBConfig;
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+import org.apache.iotdb.db.queryengine.execution.operator.source.SeriesScanPrefetcher;
+import org.apache.iotdb.db.queryengine.execution.operator.source.SeriesScanUtil;
+import org.apache.iotdb.db.queryengine.plan.planner.plan.parameter.SeriesScanOptions;
+import org.apache.iotdb.db.queryengine.plan.statement.component.Ordering;
+import org.apache.iotdb.db.storageengine.buffer.ChunkCache;
+import org.apache.iotdb.db.storageengine.dataregion.read.QueryDataSource;
+import org.apache.iotdb.db.utils.EnvironmentUtils;
+
+import org.apache.tsfile.enums.TSDataType;
+import org.apache.tsfile.read.common.block.TsBlock;
+import org.awaitility.Awaitility;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+public class SeriesScanPrefetchTest extends AbstractSeriesScanTest {
+
+  private static final IoTDBConfig CONFIG = IoTDBDescriptor.getInstance().getConfig();
+
+  private int originalPrefetchFileNum;
+
+  @Before
+  public void setUpPrefetch() {
+    originalPrefetchFileNum = CONFIG.getSeriesScanPrefetchFileNum();
+    CONFIG.setSeriesScanPrefetchFileNum(2);
+    ChunkCache.getInstance().clear();
+  }
+
+  @After
+  public void tearDownPrefetch() {
+    CONFIG.setSeriesScanPrefetchFileNum(originalPrefetchFileNum);
+    ChunkCache.getInstance().clear();
+  }
+
+  private SeriesScanUtil getSeriesScanUtil(Ordering scanOrder) throws IllegalPathException {
+    MeasurementPath scanPath = new MeasurementPath(TEST_PATH, TSDataType.INT32);
+
+    SeriesScanOptions.Builder scanOptionsBuilder = new SeriesScanOptions.Builder();
+    scanOptionsBuilder.withAllSensors(Collections.singleton(scanPath.getMeasurement()));
+    SeriesScanUtil seriesScanUtil =
+        new SeriesScanUtil(
+            IFullPath.convertToIFullPath(scanPath),
+            scanOrder,
+            scanOptionsBuilder.build(),
+            EnvironmentUtils.TEST_QUERY_FI_CONTEXT);
+    seriesScanUtil.initQueryDataSource(new QueryDataSource(seqResources, unSeqResources));
+    return seriesScanUtil;
+  }
+
+  @Test
+  public void testPrefetchFollowingFiles() throws IllegalPathException, IOException {
+    SeriesScanPrefetcher prefetcher = SeriesScanPrefetcher.getInstance();
+    long prefetchedFileNum = prefetcher.getPrefetchedFileNum();
+    long prefetchedChunkNum = prefetcher.getPrefetchedChunkNum();
+
+    SeriesScanUtil seriesScanUtil = getSeriesScanUtil(Ordering.ASC);
+    // unpacking f1 reads ahead f2 and f3, which have 2 chunks each
+    SeriesReaderTestUtil.assertWithHasNext(seriesScanUtil::hasNextFile, true);
+    Awaitility.await()
+        .atMost(10, TimeUnit.SECONDS)
+        .until(
+            () ->
+                prefetcher.getPrefetchedFileNum() - prefetchedFileNum >= 2
+                    && prefetcher.getPrefetchedChunkNum() - prefetchedChunkNum >= 4);
+    Assert.assertFalse(ChunkCache.getInstance().isEmpty());
+
+    // the prefetching does not change the result
+    assertAllPoints(seriesScanUtil, 0, 1);
+  }
+
+  @Test
+  public void testPrefetchDesc() throws IllegalPathException, IOException {
+    SeriesScanPrefetcher prefetcher = SeriesScanPrefetcher.getInstance();
+    long prefetchedFileNum = prefetcher.getPrefetchedFileNum();
+
+    SeriesScanUtil seriesScanUtil = getSeriesScanUtil(Ordering.DESC);
+    SeriesReaderTestUtil.assertWithHasNext(seriesScanUtil::hasNextFile, true);
+    // unpacking f4 and f3 reads ahead f2 and f1
+    Awaitility.await()
+        .atMost(10, TimeUnit.SECONDS)
+        .until(() -> prefetcher.getPrefetchedFileNum() - prefetchedFileNum >= 2);
+
+    assertAllPoints(seriesScanUtil, 69, -1);
+  }
+
+  private void assertAllPoints(SeriesScanUtil seriesScanUtil, long firstTime, int step)
+      throws IOException {
+    long expectedTime = firstTime;
+    int count = 0;
+    do {
+      while (hasNext(seriesScanUtil::hasNextChunk)) {
+        while (seriesScanUtil.hasNextPage()) {
+          TsBlock tsBlock = seriesScanUtil.nextPage();
+          if (tsBlock == null) {
+            continue;
+          }
+          for (int i = 0, size = tsBlock.getPositionCount(); i < size; i++) {
+            Assert.assertEquals(expectedTime, tsBlock.getTimeByIndex(i));
+            expectedTime += step;
+            count++;
+          }
+        }
+      }
+    } while (hasNext(seriesScanUtil::hasNextFile));
+    Assert.assertEquals(70, count);
+  }
+
+  private boolean hasNext(SeriesReaderTestUtil.SeriesScanHasNextSupplier supplier)
+      throws IOException {
+    while (true) {
+      Optional<Boolean> hasNext = supplier.get();
+      if (hasNext.isPresent()) {
+        return hasNext.get();
+      }
+    }
+  }
+}
@@ -72,6 +72,8 @@ public class WALCompressionTest {
   long originalMinCompressionSize;
   CompressionType originCompressionType =
       IoTDBDescriptor.getInstance().getConfig().getWALCompressionAlgorithm();
+  boolean originWalMmapReadEnabled =
+      IoTDBDescriptor.getInstance().getConfig().isWalMmapReadEnabled();
 
   @Before
   public void setUp()
@@ -97,6 +99,7 @@ public class WALCompressionTest {
     }
     WALTestUtils.setMinCompressionSize(originalMinCompressionSize);
     IoTDBDescriptor.getInstance().getConfig().setWALCompressionAlgorithm(originCompressionType);
+    IoTDBDescriptor.getInstance().getConfig().setWalMmapReadEnabled(originWalMmapReadEnabled);
   }
 
   @Test
@@ -327,6 +330,31 @@ public class WALCompressionTest {
     testWALReader();
   }
 
+  @Test
+  public void testMmapWALReaderWithoutCompression()
+      throws QueryProcessException, IllegalPathException, IOException, InterruptedException {
+    IoTDBDescriptor.getInstance()
+        .getConfig()
+        .setWALCompressionAlgorithm(CompressionType.UNCOMPRESSED);
+    IoTDBDescriptor.getInstance().getConfig().setWalMmapReadEnabled(true);
+    testWALReader();
+  }
+
+  @Test
+  public void testMmapWALReaderWithCompression()
+      throws QueryProcessException,
+          IllegalPathException,
+          IOException,
+          InterruptedException,
+          NoSuchFieldException,
+          ClassNotFoundException,
+          IllegalAccessException {
+    IoTDBDescriptor.getInstance().getConfig().setWALCompressionAlgorithm(CompressionType.LZ4);
+    WALTestUtils.setMinCompressionSize(0);
+    IoTDBDescriptor.getInstance().getConfig().setWalMmapReadEnabled(true);
+    testWALReader();
+  }
+
   public void testWALReader()
       throws IOException, QueryProcessException, IllegalPathException, InterruptedException {
     File dir = new File(compressionDir);
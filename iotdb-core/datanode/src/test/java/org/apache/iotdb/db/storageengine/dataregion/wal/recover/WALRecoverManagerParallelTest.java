@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.iotdb.db.storageengine.dataregion.wal.recover;
+
+import org.apache.iotdb.db.conf.IoTDBDescriptor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WALRecoverManagerParallelTest extends WALRecoverManagerTest {
+  private int prevWalRecoverThreadNum;
+
+  @Before
+  @Override
+  public void setUp() throws Exception {
+    prevWalRecoverThreadNum = IoTDBDescriptor.getInstance().getConfig().getWalRecoverThreadNum();
+    IoTDBDescriptor.getInstance().getConfig().setWalRecoverThreadNum(2);
+    super.setUp();
+  }
+
+  @After
+  @Override
+  public void tearDown() throws Exception {
+    super.tearDown();
+    IoTDBDescriptor.getInstance().getConfig().setWalRecoverThreadNum(prevWalRecoverThreadNum);
+  }
+
+  @Test
+  public void testRecoverProgress() throws Exception {
+    testNormalProcedure();
+    WALRecoverManager recoverManager = WALRecoverManager.getInstance();
+    assertTrue(recoverManager.getTotalWALFilesSize() > 0);
+    assertEquals(recoverManager.getTotalWALFilesSize(), recoverManager.getRecoveredWALFilesSize());
+  }
+}
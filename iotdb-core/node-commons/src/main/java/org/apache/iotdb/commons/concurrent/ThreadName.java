@@ -35,6 +35,7 @@ public enum ThreadName {
   FRAGMENT_INSTANCE_NOTIFICATION("Fragment-Instance-Notification"),
   FRAGMENT_INSTANCE_DISPATCH("Fragment-Instance-Dispatch"),
   DRIVER_TASK_SCHEDULER_NOTIFICATION("Driver-Task-Scheduler-Notification"),
+  SERIES_SCAN_PREFETCH("Series-Scan-Prefetch"),
   // -------------------------- MPP --------------------------
   MPP_COORDINATOR_SCHEDULED_EXECUTOR("MPP-Coordinator-Scheduled-Executor"),
   MPP_DATA_EXCHANGE_TASK_EXECUTOR("MPP-Data-Exchange-Task-Executors"),
@@ -55,6 +56,7 @@ public enum ThreadName {
   WAL_SYNC("WAL-Sync"),
   WAL_DELETE("WAL-Delete"),
   WAL_RECOVER("WAL-Recover"),
+  WAL_RECOVER_SUB_TASK("WAL-Recover-SubTask"),
   TSFILE_RECOVER("TsFile-Recover"),
   // -------------------------- Flush --------------------------
   FLUSH("Flush"),
@@ -115,6 +117,9 @@ public enum ThreadName {
   IOT_CONSENSUS_RPC_PROCESSOR("IoTConsensusRPC-Processor"),
   ASYNC_DATANODE_IOT_CONSENSUS_CLIENT_POOL("AsyncDataNodeIoTConsensusServiceClientPool"),
   LOG_DISPATCHER("LogDispatcher"),
+  SHARED_LOG_DISPATCHER("SharedLogDispatcher"),
+  SYNC_LOG_MULTIPLEXER("SyncLogMultiplexer"),
+  BATCH_SYNC_LOG_RECEIVER("BatchSyncLogReceiver"),
   IOT_CONSENSUS_BACKGROUND_TASK_EXECUTOR("IoTConsensusBackgroundTaskExecutor"),
   // -------------------------- Ratis --------------------------
   // NOTICE: The thread name of ratis cannot be edited here!
@@ -197,6 +202,8 @@ public enum ThreadName {
   UPGRADE_TASK("UpgradeThread"),
   REGION_MIGRATE("Region-Migrate-Pool"),
   STORAGE_ENGINE_RECOVER_TRIGGER("StorageEngine-RecoverTrigger"),
+  LAST_CACHE_SNAPSHOT("Last-Cache-Snapshot"),
+  MQTT_INSERT_BATCH("MQTT-Insert-Batch"),
   FILE_TIME_INDEX_RECORD("FileTimeIndexRecord"),
   BINARY_ALLOCATOR_SAMPLE_EVICTOR("BinaryAllocator-SampleEvictor"),
   BINARY_ALLOCATOR_AUTO_RELEASER("BinaryAllocator-Auto-Releaser"),
@@ -214,7 +221,8 @@ public enum ThreadName {
               TIMED_QUERY_SQL_COUNT,
               FRAGMENT_INSTANCE_MANAGEMENT,
               FRAGMENT_INSTANCE_NOTIFICATION,
-              DRIVER_TASK_SCHEDULER_NOTIFICATION));
+              DRIVER_TASK_SCHEDULER_NOTIFICATION,
+              SERIES_SCAN_PREFETCH));
   private static final Set<ThreadName> mppThreadNames =
       new HashSet<>(
           Arrays.asList(
@@ -233,7 +241,13 @@ public enum ThreadName {
 
   private static final Set<ThreadName> walThreadNames =
       new HashSet<>(
-          Arrays.asList(WAL_SERIALIZE, WAL_SYNC, WAL_DELETE, WAL_RECOVER, TSFILE_RECOVER));
+          Arrays.asList(
+              WAL_SERIALIZE,
+              WAL_SYNC,
+              WAL_DELETE,
+              WAL_RECOVER,
+              WAL_RECOVER_SUB_TASK,
+              TSFILE_RECOVER));
 
   private static final Set<ThreadName> flushThreadNames =
       new HashSet<>(
@@ -265,6 +279,9 @@ public enum ThreadName {
               IOT_CONSENSUS_RPC_PROCESSOR,
               ASYNC_DATANODE_IOT_CONSENSUS_CLIENT_POOL,
               LOG_DISPATCHER,
+              SHARED_LOG_DISPATCHER,
+              SYNC_LOG_MULTIPLEXER,
+              BATCH_SYNC_LOG_RECEIVER,
               IOT_CONSENSUS_BACKGROUND_TASK_EXECUTOR));
 
   private static final Set<ThreadName> pipeConsensusThreadNames =
@@ -394,7 +411,9 @@ public enum ThreadName {
               DATANODE_SHUTDOWN_HOOK,
               UPGRADE_TASK,
               REGION_MIGRATE,
-              STORAGE_ENGINE_RECOVER_TRIGGER));
+              STORAGE_ENGINE_RECOVER_TRIGGER,
+              LAST_CACHE_SNAPSHOT,
+              MQTT_INSERT_BATCH));
 
   private static final Set<ThreadName>[] threadNameSetList =
       new Set[] {
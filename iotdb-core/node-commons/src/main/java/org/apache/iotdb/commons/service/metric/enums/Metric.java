@@ -50,6 +50,7 @@ public enum Metric {
   THRIFT_CONNECTIONS("thrift_connections"),
   THRIFT_ACTIVE_THREADS("thrift_active_threads"),
   CLIENT_MANAGER("client_manager"),
+  MQTT_UNBATCHED_MESSAGE("mqtt_unbatched_message"),
   // consensus related
   STAGE("stage"),
   IOT_CONSENSUS("iot_consensus"),
@@ -75,6 +76,7 @@ public enum Metric {
   PENDING_FLUSH_TASK("pending_flush_task"),
   WAL_COST("wal_cost"),
   WAL_QUEUE_MEM_COST("wal_queue_mem_cost"),
+  WAL_RECOVER("wal_recover"),
   FLUSH_COST("flush_cost"),
   FLUSH_SUB_TASK_COST("flush_sub_task_cost"),
   MEMTABLE_THRESHOLD("memtable_threshold"),
@@ -124,6 +126,7 @@ public enum Metric {
   DATA_EXCHANGE_COST("data_exchange_cost"),
   DATA_EXCHANGE_COUNT("data_exchange_count"),
   DATA_EXCHANGE_SIZE("data_exchange_size"),
+  DATA_EXCHANGE_BYTES("data_exchange_bytes"),
   DRIVER_SCHEDULER("driver_scheduler"),
   COORDINATOR("coordinator"),
   FRAGMENT_INSTANCE_MANAGER("fragment_instance_manager"),
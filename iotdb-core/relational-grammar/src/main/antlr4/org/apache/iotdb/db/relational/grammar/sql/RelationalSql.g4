@@ -146,6 +146,11 @@ statement
     | showCurrentDatabaseStatement
     | showCurrentTimestampStatement
 
+    // Prepared Statement
+    | prepareStatement
+    | executeStatement
+    | deallocateStatement
+
     // auth Statement
     | grantStatement
     | revokeStatement
@@ -676,6 +681,19 @@ showCurrentTimestampStatement
     : SHOW CURRENT_TIMESTAMP
     ;
 
+// ------------------------------------------- Prepared Statement ------------------------------------------------------
+prepareStatement
+    : PREPARE statementName=identifier FROM sql=statement
+    ;
+
+executeStatement
+    : EXECUTE statementName=identifier (USING expression (',' expression)*)?
+    ;
+
+deallocateStatement
+    : DEALLOCATE PREPARE statementName=identifier
+    ;
+
 
 // ------------------------------------------- Authority Statement -----------------------------------------------------
 
@@ -40,6 +40,16 @@ struct TSyncLogEntriesRes {
   1: required list<common.TSStatus> statuses
 }
 
+// Packs the TSyncLogEntriesReq of several consensus groups bound for the same DataNode into one
+// RPC. The i-th TSyncLogEntriesRes of the response is the result of the i-th TSyncLogEntriesReq.
+struct TBatchSyncLogEntriesReq {
+  1: required list<TSyncLogEntriesReq> reqs
+}
+
+struct TBatchSyncLogEntriesRes {
+  1: required list<TSyncLogEntriesRes> resList
+}
+
 struct TInactivatePeerReq {
   1: required common.TConsensusGroupId consensusGroupId
   2: optional bool forDeletionPurpose
@@ -128,6 +138,7 @@ struct TCleanupTransferredSnapshotRes {
 
 service IoTConsensusIService {
   TSyncLogEntriesRes syncLogEntries(TSyncLogEntriesReq req)
+  TBatchSyncLogEntriesRes batchSyncLogEntries(TBatchSyncLogEntriesReq req)
   TInactivatePeerRes inactivatePeer(TInactivatePeerReq req)
   TActivatePeerRes activatePeer(TActivatePeerReq req)
   TBuildSyncLogChannelRes buildSyncLogChannel(TBuildSyncLogChannelReq req)